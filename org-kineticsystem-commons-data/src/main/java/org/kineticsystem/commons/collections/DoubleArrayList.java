@@ -0,0 +1,277 @@
+/*
+ * DoubleArrayList.java
+ *
+ * Created on 18 October 2026, 12.15
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.collections;
+
+// Java classes.
+
+import java.util.Arrays;
+
+/**
+ * This is a growable list of <tt>double</tt> values backed by a primitive array.
+ * Values are stored unboxed: the methods of the <tt>List</tt> interface box
+ * and unbox them on the fly, the methods <tt>getDouble</tt>, <tt>setDouble</tt>,
+ * <tt>addDouble</tt> and <tt>addAll(double[])</tt> never allocate.
+ * The list cannot contain null elements.
+ * This implementation is not synchronized.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class DoubleArrayList extends PrimitiveArrayList<Double> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The array storing the list values. */
+    private double[] values;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /** Default constructor. */
+    public DoubleArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty list with the given initial capacity.
+     * @param capacity The initial capacity of the list.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public DoubleArrayList(int capacity) {
+        super(0);
+        if (capacity < 0) {
+            String msg = "Capacity cannot be negative!";
+            throw new IllegalArgumentException(msg);
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Create a list containing the given values.
+     * @param values The values to be placed into this list.
+     */
+    public DoubleArrayList(double[] values) {
+        super(values.length);
+        this.values = values.clone();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Primitive methods.
+     */
+
+    /**
+     * Return the value at the given position.
+     * @param index The value position.
+     * @return The value at the given position.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public double getDouble(int index) {
+        rangeCheck(index);
+        return values[index];
+    }
+
+    /**
+     * Replace the value at the given position.
+     * @param index The value position.
+     * @param value The new value.
+     * @return The previous value.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public double setDouble(int index, double value) {
+        rangeCheck(index);
+        double previousValue = values[index];
+        values[index] = value;
+        return previousValue;
+    }
+
+    /**
+     * Append the given value to the end of the list.
+     * @param value The value to be appended.
+     */
+    public void addDouble(double value) {
+        modCount++;
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    /**
+     * Insert the given value at the given position.
+     * @param index The position where the value is inserted.
+     * @param value The value to be inserted.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public void addDouble(int index, double value) {
+        openGap(index, 1);
+        values[index] = value;
+    }
+
+    /**
+     * Append all given values to the end of the list.
+     * @param values The values to be appended.
+     * @return True if the list has changed.
+     */
+    public boolean addAll(double[] values) {
+        return insert(size, values, values.length);
+    }
+
+    /**
+     * Insert all given values at the given position.
+     * @param index The position where the first value is inserted.
+     * @param values The values to be inserted.
+     * @return True if the list has changed.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public boolean addAll(int index, double[] values) {
+        return insert(index, values, values.length);
+    }
+
+    /**
+     * Remove the value at the given position.
+     * @param index The value position.
+     * @return The removed value.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public double removeDouble(int index) {
+        rangeCheck(index);
+        double previousValue = values[index];
+        closeGap(index);
+        return previousValue;
+    }
+
+    /**
+     * Return the index of the first occurrence of the given value.
+     * @param value The value to search for.
+     * @return The index of the first occurrence of the given value or -1 if
+     *     the value is not found.
+     */
+    public int indexOfDouble(double value) {
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(values[i])
+                    == Double.doubleToLongBits(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the index of the last occurrence of the given value.
+     * @param value The value to search for.
+     * @return The index of the last occurrence of the given value or -1 if the
+     *     value is not found.
+     */
+    public int lastIndexOfDouble(double value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Double.doubleToLongBits(values[i])
+                    == Double.doubleToLongBits(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return a copy of the list values.
+     * @return A copy of the list values.
+     */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+
+    /** {@inheritDoc} */
+    public Double get(int index) {
+        return Double.valueOf(getDouble(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NullPointerException If the element is null.
+     */
+    @Override
+    public Double set(int index, Double element) {
+        return Double.valueOf(setDouble(index, element.doubleValue()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NullPointerException If the element is null.
+     */
+    @Override
+    public void add(int index, Double element) {
+        addDouble(index, element.doubleValue());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Double remove(int index) {
+        return Double.valueOf(removeDouble(index));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Double) {
+            return indexOfDouble(((Double) o).doubleValue());
+        }
+        return -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o instanceof Double) {
+            return lastIndexOfDouble(((Double) o).doubleValue());
+        }
+        return -1;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object array() {
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * PrimitiveArrayList.java
+ *
+ * Created on 18 October 2026, 16.10
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.collections;
+
+// Java classes.
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Skeletal implementation of a growable list of primitive values backed by a
+ * primitive array. This class manages the list size, the array capacity and
+ * the shifting of values; subclasses own the typed array and provide the
+ * typed accessors.
+ * The list cannot contain null elements.
+ * This implementation is not synchronized.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public abstract class PrimitiveArrayList<E> extends AbstractList<E>
+        implements RandomAccess {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected constants.
+     */
+
+    /** The default initial capacity. */
+    protected static final int DEFAULT_CAPACITY = 10;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected variables.
+     */
+
+    /** The number of values contained by the list. */
+    protected int size;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Create a list containing the given number of values.
+     * @param size The number of values already stored by the array.
+     */
+    protected PrimitiveArrayList(int size) {
+        this.size = size;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+
+    /**
+     * Increase the capacity of the list, if necessary, to hold at least the
+     * given number of values.
+     * @param capacity The desired minimum capacity.
+     */
+    public void ensureCapacity(int capacity) {
+        int length = capacity();
+        if (capacity > length) {
+            resize(Math.max(capacity, length + (length >> 1) + 1));
+        }
+    }
+
+    /** Trim the capacity of the list to its current size. */
+    public void trimToSize() {
+        if (size < capacity()) {
+            resize(size);
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+
+    /** {@inheritDoc} */
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean contains(Object o) {
+        return (indexOf(o) != -1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+
+    /** {@inheritDoc} */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        System.arraycopy(array(), toIndex, array(), fromIndex,
+            size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    /**
+     * Return the primitive array storing the list values.
+     * @return The primitive array storing the list values.
+     */
+    protected abstract Object array();
+
+    /**
+     * Return the length of the primitive array storing the list values.
+     * @return The length of the primitive array.
+     */
+    protected abstract int capacity();
+
+    /**
+     * Replace the primitive array with a copy of the given length.
+     * @param capacity The length of the new array.
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Open a gap of the given length at the given position, shifting the
+     * following values to the right. The gap content is undefined until
+     * subclasses store the inserted values into the array, which can have
+     * been replaced.
+     * @param index The position of the first inserted value.
+     * @param length The number of inserted values.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    protected void openGap(int index, int length) {
+        if ((index < 0) || (index > size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+        modCount++;
+        ensureCapacity(size + length);
+        System.arraycopy(array(), index, array(), index + length,
+            size - index);
+        size += length;
+    }
+
+    /**
+     * Insert the values of the given primitive array, of the same type of the
+     * list array, at the given position.
+     * @param index The position where the first value is inserted.
+     * @param values The primitive array containing the values to be inserted.
+     * @param length The number of values to be inserted.
+     * @return True if the list has changed.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    protected boolean insert(int index, Object values, int length) {
+        openGap(index, length);
+        System.arraycopy(values, 0, array(), index, length);
+        return (length > 0);
+    }
+
+    /**
+     * Remove the value at the given position, shifting the following values
+     * to the left. The caller must have read the removed value.
+     * @param index The position of the value to be removed.
+     */
+    protected void closeGap(int index) {
+        modCount++;
+        System.arraycopy(array(), index + 1, array(), index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Check if the given index is in range.
+     * @param index The index to be checked.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    protected void rangeCheck(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * TreeList.java
+ *
+ * Created on 18 October 2026, 14.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.collections;
+
+// Java classes.
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * This is a list implemented by an AVL tree whose nodes store the size of their
+ * subtree. Elements are ordered by position, so <tt>get</tt>, <tt>set</tt>,
+ * <tt>add(int, E)</tt> and <tt>remove(int)</tt> run in O(log n) time wherever
+ * the position is: it is the right choice for lists frequently modified in the
+ * middle, i.e. sorted views, where an <tt>ArrayList</tt> would shift the whole
+ * tail on each change.
+ * <p>
+ * The list is marked as <tt>RandomAccess</tt> because positional access is
+ * much faster than a sequential scan, so algorithms like
+ * <tt>Collections.binarySearch</tt> run in O(log n * log n) time. The list can
+ * contain null elements. This implementation is not synchronized.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class TreeList<E> extends AbstractList<E> implements RandomAccess {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The tree root (null if the list is empty). */
+    private Node<E> root;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /** Default constructor. */
+    public TreeList() {
+        this.root = null;
+    }
+
+    /**
+     * Create a list containing the elements of the given collection. The tree
+     * is built in linear time.
+     * @param c The collection whose elements are to be placed into this list.
+     */
+    public TreeList(Collection<? extends E> c) {
+        Object[] elements = c.toArray();
+        this.root = build(elements, 0, elements.length);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+
+    /** {@inheritDoc} */
+    public E get(int index) {
+        rangeCheck(index);
+        return find(index).value;
+    }
+
+    /** {@inheritDoc} */
+    public int size() {
+        return size(root);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public E set(int index, E element) {
+        rangeCheck(index);
+        Node<E> node = find(index);
+        E previousElement = node.value;
+        node.value = element;
+        return previousElement;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void add(int index, E element) {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size());
+        }
+        modCount++;
+        root = insert(root, index, element);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public E remove(int index) {
+        rangeCheck(index);
+        modCount++;
+        E element = find(index).value;
+        root = delete(root, index);
+        return element;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        modCount++;
+        root = null;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Check if the given index is in range.
+     * @param index The index to be checked.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    private void rangeCheck(int index) {
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size());
+        }
+    }
+
+    /**
+     * Return the node at the given position.
+     * @param index The node position: it must be in range.
+     * @return The node at the given position.
+     */
+    private Node<E> find(int index) {
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Build a balanced tree containing the given range of elements.
+     * @param elements The elements.
+     * @param from The first element of the range (inclusive).
+     * @param to The last element of the range (exclusive).
+     * @return The tree root.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> build(Object[] elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node<E> node = new Node<E>((E) elements[middle]);
+        node.left = build(elements, from, middle);
+        node.right = build(elements, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Insert the given element in the given subtree.
+     * @param node The subtree root.
+     * @param index The element position inside the subtree.
+     * @param element The element to be inserted.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> insert(Node<E> node, int index, E element) {
+        if (node == null) {
+            return new Node<E>(element);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, element);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, element);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Delete the element at the given position of the given subtree.
+     * @param node The subtree root.
+     * @param index The element position inside the subtree.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> delete(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else if (index > leftSize) {
+            node.right = delete(node.right, index - leftSize - 1);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<E> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.value = successor.value;
+            node.right = deleteFirst(node.right);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Delete the first element of the given subtree.
+     * @param node The subtree root.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> deleteFirst(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+
+    /**
+     * Restore the AVL property of the given subtree whose children are
+     * balanced.
+     * @param node The subtree root.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> balance(Node<E> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotate the given subtree to the right.
+     * @param node The subtree root.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    /**
+     * Rotate the given subtree to the left.
+     * @param node The subtree root.
+     * @return The new subtree root.
+     */
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Update height and size of the given node from its children.
+     * @param node The node to be updated.
+     */
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /** Return the height of the given subtree (0 if empty). */
+    private static int height(Node<?> node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    /** Return the size of the given subtree (0 if empty). */
+    private static int size(Node<?> node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+
+    /** A tree node. */
+    private static class Node<E> {
+
+        /** The element stored by the node. */
+        private E value;
+
+        /** The left subtree. */
+        private Node<E> left;
+
+        /** The right subtree. */
+        private Node<E> right;
+
+        /** The subtree height. */
+        private int height;
+
+        /** The number of elements of the subtree. */
+        private int size;
+
+        /**
+         * Create a leaf.
+         * @param value The element stored by the node.
+         */
+        public Node(E value) {
+            this.value = value;
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+}
@@ -417,6 +417,53 @@ public class Navigator implements ActiveListListener {
                 }
                 break; 
             }
+            case ActiveListEvent.STRUCTURE_CHANGED: {
+                
+                /*
+                 * The whole list changed: the navigator looks for the previous
+                 * selected object, otherwise it remains as close as possible
+                 * to the previous object position.
+                 */
+                
+                int index = (object == null) ? -1 : objects.indexOf(object);
+                if (index >= 0) {
+                    objectIndex = index;
+                } else if (objects.isEmpty()) {
+                    objectIndex = NavigatorEvent.UNKNOWN_POSITION;
+                    object = null;
+                } else {
+                    objectIndex = Math.max(0,
+                        Math.min(objectIndex, objects.size() - 1));
+                    object = objects.get(objectIndex);
+                }
+                break;
+            }
+            case ActiveListEvent.INTERVAL_MOVED: {
+                
+                /*
+                 * The navigator follows the selected object if it has been
+                 * moved, otherwise it shifts with the objects between the old
+                 * and the new position of the moved ones.
+                 */
+                
+                if (objectIndex == NavigatorEvent.UNKNOWN_POSITION) {
+                    break;
+                }
+                if ((objectIndex >= event.getX())
+                        && (objectIndex <= event.getY())) {
+                    objectIndex = event.getToIndex() + objectIndex
+                        - event.getX();
+                    object = objects.get(objectIndex);
+                } else {
+                    if (objectIndex > event.getY()) {
+                        objectIndex = objectIndex - length;
+                    }
+                    if (objectIndex >= event.getToIndex()) {
+                        objectIndex = objectIndex + length;
+                    }
+                }
+                break;
+            }
         }
         
         reset();
@@ -73,4 +73,23 @@ public interface ActiveList<E> extends List<E> {
      *     inside the list.
      */
     public void fireContentsChanged(ActiveListEvent event);
+    
+    /**
+     * Start a transaction. The calling thread acquires the write lock and
+     * keeps it until the transaction is committed. All changes made inside
+     * the transaction are collected and compressed by an
+     * <tt>ActiveListEventAssembler</tt> instead of being immediately notified.
+     * Transactions can be nested: only the outermost one fires events.
+     */
+    public void beginTransaction();
+    
+    /**
+     * Commit the transaction started by the calling thread. When the outermost
+     * transaction is committed, the compressed events are fired to all
+     * registered listeners, numbered from 0 to the last sequence number, and
+     * the write lock is released.
+     * @throws IllegalStateException If the calling thread has not started a
+     *     transaction.
+     */
+    public void commitTransaction();
 }
\ No newline at end of file
@@ -51,6 +51,22 @@ public class ActiveListEvent extends EventObject implements Cloneable {
     /** Identifies the removal of one or more contiguous items from the list. */
     public static final int INTERVAL_REMOVED = 2;
     
+    /**
+     * Identifies a change of the whole list content: listeners must read the
+     * list again. The interval covers the whole list after the change, so the
+     * last index is -1 if the list is empty.
+     */
+    public static final int STRUCTURE_CHANGED = 3;
+    
+    /**
+     * Identifies the move of one or more contiguous items to another position
+     * of the list. The interval covers the moved items before the move and
+     * the destination index is the position of the first moved item after the
+     * move. Moved items can have been changed too: listeners must read them
+     * again at their new position.
+     */
+    public static final int INTERVAL_MOVED = 4;
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Properties.
      */
@@ -61,6 +77,8 @@ public class ActiveListEvent extends EventObject implements Cloneable {
      * <li>CONTENTS_CHANGED</li>
      * <li>INTERVAL_ADDED</li>
      * <li>INTERVAL_REMOVED</li>
+     * <li>STRUCTURE_CHANGED</li>
+     * <li>INTERVAL_MOVED</li>
      * </ul>
      */
     private int type;
@@ -81,6 +99,12 @@ public class ActiveListEvent extends EventObject implements Cloneable {
     
     private int y;
     
+    /**
+     * The position of the first moved item after the move (used by
+     * <tt>INTERVAL_MOVED</tt> events only).
+     */
+    private int toIndex;
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Constructors.
      */
@@ -94,6 +118,15 @@ public class ActiveListEvent extends EventObject implements Cloneable {
      * Getter and setter methods.
      */
     
+    /**
+     * Change the event source: it is used to reuse pooled events.
+     * @param source The new event source.
+     * @see ActiveListEventPool
+     */
+    void setSource(Object source) {
+        this.source = source;
+    }
+    
     public int getType() {
         return type;
     }
@@ -133,6 +166,14 @@ public class ActiveListEvent extends EventObject implements Cloneable {
     public void setY(int y) {
         this.y = y;
     }
+    
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    public void setToIndex(int toIndex) {
+        this.toIndex = toIndex;
+    }
 
     /* /////////////////////////////////////////////////////////////////////////
      * Cloneable interface implementation.
@@ -144,6 +185,7 @@ public class ActiveListEvent extends EventObject implements Cloneable {
         ActiveListEvent event = new ActiveListEvent(this.getSource());
         event.setX(this.x);
         event.setY(this.y);
+        event.setToIndex(this.toIndex);
         event.setType(this.type);
         return event;
     }
@@ -167,13 +209,23 @@ public class ActiveListEvent extends EventObject implements Cloneable {
             case INTERVAL_REMOVED:
                 typeDescription = "INTERVAL_REMOVED";
                 break;
+            case STRUCTURE_CHANGED:
+                typeDescription = "STRUCTURE_CHANGED";
+                break;
+            case INTERVAL_MOVED:
+                typeDescription = "INTERVAL_MOVED";
+                break;
         }
                 
         String out = super.toString()
             .concat("[")
             .concat("type=" + typeDescription + ",")
             .concat("x=" + x + ",")
-            .concat("y=" + y + "]");
+            .concat("y=" + y);
+        if (type == INTERVAL_MOVED) {
+            out = out.concat(",toIndex=" + toIndex);
+        }
+        out = out.concat("]");
         return out;
     }    
 }
@@ -26,6 +26,11 @@ package org.kineticsystem.commons.data.model;
 
 // Java classes.
 
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
 import javax.swing.event.EventListenerList;
 
 /**
@@ -49,6 +54,21 @@ import javax.swing.event.EventListenerList;
  * dialog components must be registered with the multiplexer and no more with
  * the list. In this way, when you dispose the dialog, you just need to
  * unregister the multiplexer.
+ * <p>
+ * By default events are forwarded to the listeners one after another by the
+ * calling thread. A multiplexer created with an <tt>Executor</tt> forwards
+ * them in parallel instead: each listener has its own queue, drained by the
+ * executor, so it receives events in the same order they were sent while
+ * different listeners run at the same time. Such listeners receive an event
+ * after the list has been released, so they must not rely on the list content
+ * matching the event (see <tt>QueuedActiveListListener</tt>).
+ * <p>
+ * With barrier semantics the thread notifying the last event of a sequence
+ * waits until all listeners have processed the whole sequence, so the
+ * sequence is committed only when all listeners are up to date. The notifying
+ * thread usually holds the list write lock while waiting: listeners must not
+ * lock the list or read it through methods acquiring its lock (i.e. the
+ * methods of a <tt>DefaultActiveList</tt>), otherwise they deadlock.
  * @author Giovanni Remigi
  * @version $Revision: 9 $
  */
@@ -61,6 +81,49 @@ public class ActiveListEventMultiplexer implements ActiveListListener {
     /** The list of all registered listener. */
     private EventListenerList listenerList;
     
+    /**
+     * The executor notifying the listeners or null to notify them from the
+     * calling thread.
+     */
+    private Executor executor;
+    
+    /** True if the last event of a sequence waits for all listeners. */
+    private boolean barrier;
+    
+    /** The event queue of each listener notified by the executor. */
+    private Map<ActiveListListener, ListenerQueue> queues;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Create a multiplexer notifying listeners from the calling thread. */
+    public ActiveListEventMultiplexer() {
+        this(null, false);
+    }
+    
+    /**
+     * Create a multiplexer notifying listeners in parallel.
+     * @param executor The executor notifying the listeners.
+     */
+    public ActiveListEventMultiplexer(Executor executor) {
+        this(executor, false);
+    }
+    
+    /**
+     * Create a multiplexer notifying listeners in parallel.
+     * @param executor The executor notifying the listeners or null to notify
+     *     them from the calling thread.
+     * @param barrier True if the thread notifying the last event of a sequence
+     *     must wait until all listeners have processed the sequence.
+     */
+    public ActiveListEventMultiplexer(Executor executor, boolean barrier) {
+        this.listenerList = new EventListenerList();
+        this.executor = executor;
+        this.barrier = barrier;
+        this.queues = new IdentityHashMap<ActiveListListener, ListenerQueue>();
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * ActiveListListener interface implementation.
      */
@@ -76,12 +139,20 @@ public class ActiveListEventMultiplexer implements ActiveListListener {
     
     /** {@inheritDoc} */
     public void addActiveListListener(ActiveListListener listener) {
-        listenerList.add(ActiveListListener.class, listener);
+        synchronized (queues) {
+            listenerList.add(ActiveListListener.class, listener);
+            if ((executor != null) && !queues.containsKey(listener)) {
+                queues.put(listener, new ListenerQueue(listener));
+            }
+        }
     }
     
     /** {@inheritDoc} */
     public void removeActiveListListener(ActiveListListener listener) {
-        listenerList.remove(ActiveListListener.class, listener);
+        synchronized (queues) {
+            listenerList.remove(ActiveListListener.class, listener);
+            queues.remove(listener);
+        }
     }
     
     /** {@inheritDoc} */
@@ -90,15 +161,181 @@ public class ActiveListEventMultiplexer implements ActiveListListener {
         // Guaranteed to return a non-null array.
 
         Object[] listeners = listenerList.getListenerList();
+        
+        if (executor == null) {
 
-        // Process the listeners last to first, notifying those that are
-        // interested in this event.
+            // Process the listeners last to first, notifying those that are
+            // interested in this event.
 
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == ActiveListListener.class) {
-                ((ActiveListListener) listeners[i+1])
-                    .contentsChanged(event);
-            }          
+            for (int i = listeners.length - 2; i >= 0; i -= 2) {
+                if (listeners[i] == ActiveListListener.class) {
+                    ((ActiveListListener) listeners[i+1])
+                        .contentsChanged(event);
+                }          
+            }
+            return;
+        }
+        
+        boolean wait = barrier
+            && (event.getSequenceNumber() == event.getLastSequenceNumber());
+        ListenerQueue[] targets = new ListenerQueue[listeners.length / 2];
+        long[] tickets = new long[targets.length];
+        int count = 0;
+        synchronized (queues) {
+            for (int i = listeners.length - 2; i >= 0; i -= 2) {
+                ListenerQueue queue = queues.get(listeners[i + 1]);
+                if ((listeners[i] == ActiveListListener.class)
+                        && (queue != null)) {
+                    targets[count++] = queue;
+                }
+            }
+        }
+        
+        // Queue a private copy of the event for each listener: listeners run
+        // in parallel and can modify the events they receive.
+        
+        for (int i = 0; i < count; i++) {
+            tickets[i] = targets[i].enqueue(copy(event));
+        }
+        
+        // Wait for all listeners.
+        
+        if (wait) {
+            for (int i = 0; i < count; i++) {
+                targets[i].await(tickets[i]);
+            }
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Return a copy of the given event.
+     * @param event The event to be copied.
+     * @return The copy of the event, sequence numbers included.
+     */
+    private static ActiveListEvent copy(ActiveListEvent event) {
+        ActiveListEvent copy = new ActiveListEvent(event.getSource());
+        copy.setType(event.getType());
+        copy.setX(event.getX());
+        copy.setY(event.getY());
+        copy.setToIndex(event.getToIndex());
+        copy.setSequenceNumber(event.getSequenceNumber());
+        copy.setLastSequenceNumber(event.getLastSequenceNumber());
+        return copy;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /**
+     * The queue of events to be sent to a listener. It is drained by the
+     * executor, one event at a time.
+     */
+    private class ListenerQueue implements Runnable {
+        
+        /** The listener to be notified. */
+        private ActiveListListener listener;
+        
+        /** The queued events. */
+        private Queue<ActiveListEvent> events;
+        
+        /** The number of events queued since the queue creation. */
+        private long queued;
+        
+        /** The number of events processed by the listener. */
+        private long processed;
+        
+        /** True if the queue has been submitted to the executor. */
+        private boolean scheduled;
+        
+        /**
+         * Constructor.
+         * @param listener The listener to be notified.
+         */
+        public ListenerQueue(ActiveListListener listener) {
+            this.listener = listener;
+            this.events = new ArrayDeque<ActiveListEvent>();
+            this.queued = 0;
+            this.processed = 0;
+            this.scheduled = false;
+        }
+        
+        /**
+         * Append an event to the queue and submit the queue to the executor
+         * if not already done.
+         * @param event The event to be queued.
+         * @return The number of events to be processed before the given one
+         *     is processed too.
+         */
+        public long enqueue(ActiveListEvent event) {
+            boolean submit;
+            long ticket;
+            synchronized (this) {
+                events.add(event);
+                ticket = ++queued;
+                submit = !scheduled;
+                scheduled = true;
+            }
+            if (submit) {
+                executor.execute(this);
+            }
+            return ticket;
+        }
+        
+        /**
+         * Wait until the listener has processed the given number of events.
+         * The wait ends if the calling thread is interrupted, keeping its
+         * interrupted status.
+         * @param ticket The number of events to be processed.
+         */
+        public synchronized void await(long ticket) {
+            while (processed < ticket) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        
+        /** Notify all queued events to the listener. */
+        public void run() {
+            while (true) {
+                ActiveListEvent event;
+                synchronized (this) {
+                    event = events.poll();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    listener.contentsChanged(event);
+                } catch (RuntimeException ex) {
+                    
+                    // Keep draining the queue in a new task.
+                    
+                    boolean submit;
+                    synchronized (this) {
+                        submit = !events.isEmpty();
+                        scheduled = submit;
+                    }
+                    if (submit) {
+                        executor.execute(this);
+                    }
+                    throw ex;
+                } finally {
+                    synchronized (this) {
+                        processed++;
+                        notifyAll();
+                    }
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
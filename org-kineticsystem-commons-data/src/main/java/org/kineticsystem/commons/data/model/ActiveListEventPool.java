@@ -0,0 +1,108 @@
+/*
+ * ActiveListEventPool.java
+ *
+ * Created on 18 October 2026, 15.20
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is a pool of <tt>ActiveListEvent</tt> events used to avoid creating a
+ * new event per change on hot paths where events are temporarely stored, i.e.
+ * inside an <tt>ActiveListEventAssembler</tt>. An event must be recycled only
+ * when nobody references it anymore.
+ * This implementation is not synchronized: the pool must be protected by the
+ * same lock protecting its owner.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListEventPool {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The available events. */
+    private ActiveListEvent[] events;
+    
+    /** The number of available events. */
+    private int size;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Create a pool keeping at most 256 events. */
+    public ActiveListEventPool() {
+        this(256);
+    }
+    
+    /**
+     * Create a pool keeping at most the given number of events: events
+     * recycled when the pool is full are left to the garbage collector.
+     * @param capacity The maximum number of pooled events.
+     */
+    public ActiveListEventPool(int capacity) {
+        this.events = new ActiveListEvent[capacity];
+        this.size = 0;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return an event initialized with the given values, reusing a recycled
+     * event if available. Sequence numbers and the destination index are set
+     * to 0.
+     * @param source The event source.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return The initialized event.
+     */
+    public ActiveListEvent obtain(Object source, int type, int x, int y) {
+        ActiveListEvent event;
+        if (size > 0) {
+            event = events[--size];
+            events[size] = null;
+            event.setSource(source);
+        } else {
+            event = new ActiveListEvent(source);
+        }
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        event.setToIndex(0);
+        event.setSequenceNumber(0);
+        event.setLastSequenceNumber(0);
+        return event;
+    }
+    
+    /**
+     * Give back an event no longer referenced.
+     * @param event The event to be reused.
+     */
+    public void recycle(ActiveListEvent event) {
+        if (size < events.length) {
+            events[size++] = event;
+        }
+    }
+}
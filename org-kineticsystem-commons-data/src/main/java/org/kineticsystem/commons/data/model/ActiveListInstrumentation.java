@@ -0,0 +1,675 @@
+/*
+ * ActiveListInstrumentation.java
+ *
+ * Created on 18 October 2026, 22.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This object records how long the listeners of a <tt>DefaultActiveList</tt>
+ * take to process each change and how long the list lock is waited for and
+ * held, to find the listener or the thread slowing down the user interface.
+ * <pre>
+ * ActiveListInstrumentation instrumentation = new ActiveListInstrumentation();
+ * list.setInstrumentation(instrumentation);
+ * instrumentation.register("contacts"); // Optional JMX registration.
+ * </pre>
+ * Measurements are collected into <tt>LatencyHistogram</tt> objects and can
+ * be read as copies or through JMX. Recording can be stopped and restarted at
+ * any time: while stopped, the list only checks a volatile flag per change
+ * and per lock operation. Lock times are recorded only for the default
+ * <tt>ReentrantReadWriteLock</tt> of the list: the list creates it already
+ * instrumented, so installing or removing an instrumentation never replaces
+ * the lock seen by other threads.
+ * <p>
+ * The statistics of a listener are kept, even after the listener has been
+ * removed from the list, until the listener is garbage collected.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see DefaultActiveList#setInstrumentation(ActiveListInstrumentation)
+ */
+public class ActiveListInstrumentation
+        implements ActiveListInstrumentationMBean {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** True if measurements are being recorded. */
+    private volatile boolean enabled;
+    
+    /** The latencies of each listener, weakly referenced by identity. */
+    private ConcurrentMap<Object, LatencyHistogram> listeners;
+    
+    /** The queue of the keys of garbage collected listeners. */
+    private ReferenceQueue<Object> collectedListeners;
+    
+    /** The time spent waiting for the read lock. */
+    private LatencyHistogram readLockWait;
+    
+    /** The time the read lock has been held. */
+    private LatencyHistogram readLockHold;
+    
+    /** The time spent waiting for the write lock. */
+    private LatencyHistogram writeLockWait;
+    
+    /** The time the write lock has been held. */
+    private LatencyHistogram writeLockHold;
+    
+    /** The JMX name or null if not registered. */
+    private ObjectName objectName;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Create an enabled instrumentation. */
+    public ActiveListInstrumentation() {
+        this.enabled = true;
+        this.listeners =
+            new ConcurrentHashMap<Object, LatencyHistogram>();
+        this.collectedListeners = new ReferenceQueue<Object>();
+        this.readLockWait = new LatencyHistogram();
+        this.readLockHold = new LatencyHistogram();
+        this.writeLockWait = new LatencyHistogram();
+        this.writeLockHold = new LatencyHistogram();
+        this.objectName = null;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return a copy of the latencies of each listener notified since the
+     * last reset.
+     * @return The latencies of each listener.
+     */
+    public Map<ActiveListListener, LatencyHistogram> getListenerHistograms() {
+        Map<ActiveListListener, LatencyHistogram> histograms =
+            new IdentityHashMap<ActiveListListener, LatencyHistogram>();
+        for (Map.Entry<Object, LatencyHistogram> entry
+                : listeners.entrySet()) {
+            Object listener = ((ListenerKey) entry.getKey()).get();
+            if (listener != null) {
+                histograms.put((ActiveListListener) listener,
+                    entry.getValue().copy());
+            }
+        }
+        return histograms;
+    }
+    
+    /**
+     * Return a copy of the time spent waiting for the read lock.
+     * @return The read lock wait time.
+     */
+    public LatencyHistogram getReadLockWaitHistogram() {
+        return readLockWait.copy();
+    }
+    
+    /**
+     * Return a copy of the time the read lock has been held.
+     * @return The read lock hold time.
+     */
+    public LatencyHistogram getReadLockHoldHistogram() {
+        return readLockHold.copy();
+    }
+    
+    /**
+     * Return a copy of the time spent waiting for the write lock.
+     * @return The write lock wait time.
+     */
+    public LatencyHistogram getWriteLockWaitHistogram() {
+        return writeLockWait.copy();
+    }
+    
+    /**
+     * Return a copy of the time the write lock has been held.
+     * @return The write lock hold time.
+     */
+    public LatencyHistogram getWriteLockHoldHistogram() {
+        return writeLockHold.copy();
+    }
+    
+    /**
+     * Register the instrumentation into the platform MBean server with the
+     * name <tt>org.kineticsystem.commons.data:type=ActiveList,name=...</tt>.
+     * @param name The list name.
+     * @throws JMException If the instrumentation cannot be registered.
+     */
+    public synchronized void register(String name) throws JMException {
+        ObjectName newName = new ObjectName(
+            "org.kineticsystem.commons.data:type=ActiveList,name="
+            + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+    }
+    
+    /**
+     * Unregister the instrumentation from the platform MBean server.
+     * @throws JMException If the instrumentation cannot be unregistered.
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                objectName);
+            objectName = null;
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListInstrumentationMBean interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /** {@inheritDoc} */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /** {@inheritDoc} */
+    public String[] getListenerLatencies() {
+        List<String> latencies = new ArrayList<String>();
+        for (Map.Entry<Object, LatencyHistogram> entry
+                : listeners.entrySet()) {
+            Object listener = ((ListenerKey) entry.getKey()).get();
+            if (listener != null) {
+                latencies.add(listener + ": " + entry.getValue());
+            }
+        }
+        return latencies.toArray(new String[latencies.size()]);
+    }
+    
+    /** {@inheritDoc} */
+    public String getReadLockWaitTime() {
+        return readLockWait.toString();
+    }
+    
+    /** {@inheritDoc} */
+    public String getReadLockHoldTime() {
+        return readLockHold.toString();
+    }
+    
+    /** {@inheritDoc} */
+    public String getWriteLockWaitTime() {
+        return writeLockWait.toString();
+    }
+    
+    /** {@inheritDoc} */
+    public String getWriteLockHoldTime() {
+        return writeLockHold.toString();
+    }
+    
+    /**
+     * Discard all measurements, including the statistics of removed
+     * listeners.
+     */
+    public void reset() {
+        listeners.clear();
+        readLockWait.reset();
+        readLockHold.reset();
+        writeLockWait.reset();
+        writeLockHold.reset();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Package methods.
+     */
+    
+    /**
+     * Record the time spent by a listener to process a change.
+     * @param listener The notified listener.
+     * @param nanos The time spent by the listener in nanoseconds.
+     */
+    void listenerNotified(Object listener, long nanos) {
+        LatencyHistogram histogram = listeners.get(new Lookup(listener));
+        if (histogram == null) {
+            expungeCollectedListeners();
+            LatencyHistogram newHistogram = new LatencyHistogram();
+            histogram = listeners.putIfAbsent(
+                new ListenerKey(listener, collectedListeners), newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        histogram.record(nanos);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /** Discard the statistics of the garbage collected listeners. */
+    private void expungeCollectedListeners() {
+        Reference<?> key;
+        while ((key = collectedListeners.poll()) != null) {
+            listeners.remove(key);
+        }
+    }
+    
+    /**
+     * Return the instrumentation if it is recording, null otherwise.
+     * @param instrumentation An instrumentation or null.
+     * @return The recording instrumentation or null.
+     */
+    private static ActiveListInstrumentation enabled(
+            ActiveListInstrumentation instrumentation) {
+        if ((instrumentation != null) && instrumentation.enabled) {
+            return instrumentation;
+        }
+        return null;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /**
+     * A weak reference to a listener used as map key, comparing listeners by
+     * identity.
+     */
+    private static class ListenerKey extends WeakReference<Object> {
+        
+        /** The listener identity hash code. */
+        private int hash;
+        
+        /**
+         * Create a key registered with the given queue.
+         * @param listener The listener.
+         * @param queue The queue notified when the listener is collected.
+         */
+        public ListenerKey(Object listener, ReferenceQueue<Object> queue) {
+            super(listener, queue);
+            this.hash = System.identityHashCode(listener);
+        }
+        
+        /** {@inheritDoc} */
+        public int hashCode() {
+            return hash;
+        }
+        
+        /** {@inheritDoc} */
+        public boolean equals(Object object) {
+            if (object == this) {
+                return true;
+            }
+            if (!(object instanceof ListenerKey)) {
+                return false;
+            }
+            Object listener = get();
+            return (listener != null)
+                && (listener == ((ListenerKey) object).get());
+        }
+    }
+    
+    /**
+     * A key looking up the statistics of a listener without creating a weak
+     * reference for each notified change.
+     */
+    private static class Lookup {
+        
+        /** The listener. */
+        private Object listener;
+        
+        /**
+         * Constructor.
+         * @param listener The listener.
+         */
+        public Lookup(Object listener) {
+            this.listener = listener;
+        }
+        
+        /** {@inheritDoc} */
+        public int hashCode() {
+            return System.identityHashCode(listener);
+        }
+        
+        /** {@inheritDoc} */
+        public boolean equals(Object object) {
+            return (object instanceof ListenerKey)
+                && (((ListenerKey) object).get() == listener);
+        }
+    }
+    
+    /**
+     * The default lock of a <tt>DefaultActiveList</tt>: a
+     * <tt>ReentrantReadWriteLock</tt> recording wait and hold times into the
+     * instrumentation currently installed, if any.
+     */
+    static class InstrumentedReadWriteLock extends ReentrantReadWriteLock {
+        
+        /** Class version number. */
+        private static final long serialVersionUID = 1L;
+        
+        /** The installed instrumentation or null. */
+        private volatile ActiveListInstrumentation instrumentation;
+        
+        /** The instrumented read lock. */
+        private InstrumentedReadLock readLock;
+        
+        /** The instrumented write lock. */
+        private InstrumentedWriteLock writeLock;
+        
+        /** Create a lock without instrumentation. */
+        public InstrumentedReadWriteLock() {
+            this.instrumentation = null;
+            this.readLock = new InstrumentedReadLock(this);
+            this.writeLock = new InstrumentedWriteLock(this);
+        }
+        
+        /**
+         * Install the given instrumentation. Threads holding the lock record
+         * its hold time into the instrumentation installed when they
+         * acquired it.
+         * @param instrumentation The instrumentation or null to remove it.
+         */
+        void setInstrumentation(ActiveListInstrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public ReentrantReadWriteLock.ReadLock readLock() {
+            return readLock;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public ReentrantReadWriteLock.WriteLock writeLock() {
+            return writeLock;
+        }
+    }
+    
+    /**
+     * The times recorded for one of the two locks of an
+     * <tt>InstrumentedReadWriteLock</tt>, from the outermost lock to the
+     * outermost unlock of each thread.
+     */
+    private static class LockProbe {
+        
+        /** The read/write lock. */
+        private InstrumentedReadWriteLock owner;
+        
+        /** True if this is the probe of the write lock. */
+        private boolean write;
+        
+        /**
+         * The instrumentation recording the hold time of each thread or null
+         * if the thread is not holding the lock or the hold time is not
+         * being recorded.
+         */
+        private ThreadLocal<ActiveListInstrumentation> holder;
+        
+        /** The time the lock has been acquired by each thread. */
+        private ThreadLocal<long[]> acquisitionTime;
+        
+        /**
+         * Constructor.
+         * @param owner The read/write lock.
+         * @param write True for the write lock, false for the read lock.
+         */
+        public LockProbe(InstrumentedReadWriteLock owner, boolean write) {
+            this.owner = owner;
+            this.write = write;
+            this.holder = new ThreadLocal<ActiveListInstrumentation>();
+            this.acquisitionTime = new ThreadLocal<long[]>() {
+                protected long[] initialValue() {
+                    return new long[1];
+                }
+            };
+        }
+        
+        /**
+         * Return the instrumentation recording the lock times or null.
+         * @return The recording instrumentation or null.
+         */
+        public ActiveListInstrumentation recording() {
+            return enabled(owner.instrumentation);
+        }
+        
+        /**
+         * Record the wait time and, if this is the outermost lock, the
+         * acquisition time.
+         * @param instrumentation The recording instrumentation.
+         * @param start The time the thread started waiting.
+         */
+        public void acquired(ActiveListInstrumentation instrumentation,
+                long start) {
+            long now = System.nanoTime();
+            if (write) {
+                instrumentation.writeLockWait.record(now - start);
+            } else {
+                instrumentation.readLockWait.record(now - start);
+            }
+            if (holdCount() == 1) {
+                holder.set(instrumentation);
+                acquisitionTime.get()[0] = now;
+            }
+        }
+        
+        /** Record the hold time if this is the outermost unlock. */
+        public void releasing() {
+            if (holdCount() == 1) {
+                ActiveListInstrumentation instrumentation = holder.get();
+                if (instrumentation != null) {
+                    long time = System.nanoTime() - acquisitionTime.get()[0];
+                    if (instrumentation.enabled) {
+                        if (write) {
+                            instrumentation.writeLockHold.record(time);
+                        } else {
+                            instrumentation.readLockHold.record(time);
+                        }
+                    }
+                    holder.remove();
+                }
+            }
+        }
+        
+        /**
+         * Return the number of holds on this lock by the current thread.
+         * @return The number of holds by the current thread.
+         */
+        private int holdCount() {
+            return write ? owner.getWriteHoldCount() : owner.getReadHoldCount();
+        }
+    }
+    
+    /** A read lock recording wait and hold times. */
+    private static class InstrumentedReadLock
+            extends ReentrantReadWriteLock.ReadLock {
+        
+        /** Class version number. */
+        private static final long serialVersionUID = 1L;
+        
+        /** The recorded times. */
+        private LockProbe probe;
+        
+        /**
+         * Constructor.
+         * @param owner The read/write lock.
+         */
+        public InstrumentedReadLock(InstrumentedReadWriteLock owner) {
+            super(owner);
+            this.probe = new LockProbe(owner, false);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void lock() {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                super.lock();
+                return;
+            }
+            long start = System.nanoTime();
+            super.lock();
+            probe.acquired(instrumentation, start);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                super.lockInterruptibly();
+                return;
+            }
+            long start = System.nanoTime();
+            super.lockInterruptibly();
+            probe.acquired(instrumentation, start);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryLock() {
+            boolean locked = super.tryLock();
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (locked && (instrumentation != null)) {
+                probe.acquired(instrumentation, System.nanoTime());
+            }
+            return locked;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryLock(long time, TimeUnit unit)
+                throws InterruptedException {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                return super.tryLock(time, unit);
+            }
+            long start = System.nanoTime();
+            boolean locked = super.tryLock(time, unit);
+            if (locked) {
+                probe.acquired(instrumentation, start);
+            }
+            return locked;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void unlock() {
+            probe.releasing();
+            super.unlock();
+        }
+    }
+    
+    /** A write lock recording wait and hold times. */
+    private static class InstrumentedWriteLock
+            extends ReentrantReadWriteLock.WriteLock {
+        
+        /** Class version number. */
+        private static final long serialVersionUID = 1L;
+        
+        /** The recorded times. */
+        private LockProbe probe;
+        
+        /**
+         * Constructor.
+         * @param owner The read/write lock.
+         */
+        public InstrumentedWriteLock(InstrumentedReadWriteLock owner) {
+            super(owner);
+            this.probe = new LockProbe(owner, true);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void lock() {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                super.lock();
+                return;
+            }
+            long start = System.nanoTime();
+            super.lock();
+            probe.acquired(instrumentation, start);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                super.lockInterruptibly();
+                return;
+            }
+            long start = System.nanoTime();
+            super.lockInterruptibly();
+            probe.acquired(instrumentation, start);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryLock() {
+            boolean locked = super.tryLock();
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (locked && (instrumentation != null)) {
+                probe.acquired(instrumentation, System.nanoTime());
+            }
+            return locked;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryLock(long time, TimeUnit unit)
+                throws InterruptedException {
+            ActiveListInstrumentation instrumentation = probe.recording();
+            if (instrumentation == null) {
+                return super.tryLock(time, unit);
+            }
+            long start = System.nanoTime();
+            boolean locked = super.tryLock(time, unit);
+            if (locked) {
+                probe.acquired(instrumentation, start);
+            }
+            return locked;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void unlock() {
+            probe.releasing();
+            super.unlock();
+        }
+    }
+}
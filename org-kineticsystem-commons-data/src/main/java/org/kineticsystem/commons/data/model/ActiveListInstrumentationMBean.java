@@ -0,0 +1,78 @@
+/*
+ * ActiveListInstrumentationMBean.java
+ *
+ * Created on 18 October 2026, 21.55
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is the JMX management interface of an
+ * <tt>ActiveListInstrumentation</tt>. Latencies are reported in nanoseconds.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public interface ActiveListInstrumentationMBean {
+    
+    /**
+     * Return true if measurements are being recorded.
+     * @return True if measurements are being recorded.
+     */
+    public boolean isEnabled();
+    
+    /**
+     * Start or stop recording measurements.
+     * @param enabled True to record measurements.
+     */
+    public void setEnabled(boolean enabled);
+    
+    /**
+     * Return a summary of call count and latency of each listener.
+     * @return A summary per listener.
+     */
+    public String[] getListenerLatencies();
+    
+    /**
+     * Return a summary of the time spent waiting for the read lock.
+     * @return A summary of the read lock wait time.
+     */
+    public String getReadLockWaitTime();
+    
+    /**
+     * Return a summary of the time the read lock has been held.
+     * @return A summary of the read lock hold time.
+     */
+    public String getReadLockHoldTime();
+    
+    /**
+     * Return a summary of the time spent waiting for the write lock.
+     * @return A summary of the write lock wait time.
+     */
+    public String getWriteLockWaitTime();
+    
+    /**
+     * Return a summary of the time the write lock has been held.
+     * @return A summary of the write lock hold time.
+     */
+    public String getWriteLockHoldTime();
+    
+    /** Discard all measurements. */
+    public void reset();
+}
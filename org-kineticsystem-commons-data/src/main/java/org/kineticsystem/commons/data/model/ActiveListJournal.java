@@ -0,0 +1,293 @@
+/*
+ * ActiveListJournal.java
+ *
+ * Created on 18 October 2026, 18.30
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is a bounded in-memory journal of the changes made to an
+ * <tt>ActiveList</tt>. The journal assigns the list a version, incremented by
+ * each change, and remembers the last changes, so a listener attached late or
+ * detached for a while (i.e. the mapping of a hidden view) can catch up with
+ * the list receiving only the changes made since the version it has seen,
+ * compressed by a <tt>DefaultAssembler</tt>, instead of rebuilding itself from
+ * the whole list content.
+ * <p>
+ * The journal is updated by the list while the write lock is held, so it is
+ * consistent with the list content while the list is locked. A listener
+ * catches up and starts receiving new changes without missing any of them
+ * this way:
+ * <pre>
+ * try {
+ *     list.getReadWriteLock().readLock().lock();
+ *     if (!journal.replay(version, listener)) {
+ *         listener.rebuild(); // The journal has been truncated.
+ *     }
+ *     list.addActiveListListener(listener);
+ * } finally {
+ *     list.getReadWriteLock().readLock().unlock();
+ * }
+ * </pre>
+ * A listener that is going to be detached saves the current version, read
+ * with <tt>getVersion</tt> while the list is locked.
+ * <p>
+ * Moves are journaled with their destination index. A
+ * <tt>STRUCTURE_CHANGED</tt> change replaces the whole list, so it cannot be
+ * replayed as a difference: it truncates the journal and listeners that have
+ * seen an older version must be rebuilt.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListJournal implements PrimitiveActiveListListener {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The journaled list. */
+    private ActiveList<?> list;
+    
+    /** The ring buffer of change types. */
+    private int[] types;
+    
+    /** The ring buffer of first indexes of changed intervals. */
+    private int[] xs;
+    
+    /** The ring buffer of last indexes of changed intervals. */
+    private int[] ys;
+    
+    /** The ring buffer of destination indexes of moves. */
+    private int[] toIndexes;
+    
+    /** The position of the oldest change. */
+    private int head;
+    
+    /** The number of changes in the journal. */
+    private int count;
+    
+    /** The current list version. */
+    private long version;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Create a journal remembering the last 4096 changes of the given list.
+     * @param list The list to be journaled.
+     */
+    public ActiveListJournal(ActiveList<?> list) {
+        this(list, 4096);
+    }
+    
+    /**
+     * Create a journal remembering the given number of changes of the given
+     * list. The journal registers itself as a list listener.
+     * @param list The list to be journaled.
+     * @param capacity The maximum number of changes in the journal.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public ActiveListJournal(ActiveList<?> list, int capacity) {
+        
+        if (capacity < 1) {
+            String msg = "Journal capacity must be at least 1!";
+            throw new IllegalArgumentException(msg);
+        }
+        
+        this.list = list;
+        this.types = new int[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.toIndexes = new int[capacity];
+        this.head = 0;
+        this.count = 0;
+        this.version = 0;
+        list.addActiveListListener(this);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return the current list version: the number of changes made to the list
+     * since the journal creation.
+     * @return The current list version.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Return the oldest version the journal can replay changes from.
+     * @return The oldest version the journal can replay changes from.
+     */
+    public synchronized long getFirstVersion() {
+        return version - count;
+    }
+    
+    /**
+     * Return the changes transforming the list at the given version into the
+     * current list, compressed by a <tt>DefaultAssembler</tt> and numbered as
+     * a single sequence like the events of a committed transaction.
+     * @param version The version of the list seen by the caller.
+     * @return The list of changes or null if the journal has been truncated and
+     *     the caller must be rebuilt from the whole list content.
+     * @throws IllegalArgumentException If the version is greater than the
+     *     current one.
+     */
+    public synchronized List<ActiveListEvent> getChangesSince(long version) {
+        
+        if (version > this.version) {
+            String msg = "Version " + version + " does not exist!";
+            throw new IllegalArgumentException(msg);
+        }
+        if (version < this.version - count) {
+            return null;
+        }
+        
+        // Compress the changes.
+        
+        ActiveListEventAssembler assembler = new DefaultAssembler();
+        for (int i = (int) (count - (this.version - version)); i < count; i++) {
+            int j = (head + i) % types.length;
+            ActiveListEvent event = new ActiveListEvent(list);
+            event.setType(types[j]);
+            event.setX(xs[j]);
+            event.setY(ys[j]);
+            event.setToIndex(toIndexes[j]);
+            assembler.push(event);
+        }
+        
+        // Number them as a single sequence.
+        
+        List<ActiveListEvent> events = new ArrayList<ActiveListEvent>();
+        while (!assembler.isEmpty()) {
+            events.add(assembler.pop());
+        }
+        int seq = 0;
+        int lastSeq = events.size() - 1;
+        for (ActiveListEvent event : events) {
+            event.setSequenceNumber(seq++);
+            event.setLastSequenceNumber(lastSeq);
+        }
+        return events;
+    }
+    
+    /**
+     * Notify the given listener with the changes made since the given version.
+     * The list must be locked by the caller.
+     * @param version The version of the list seen by the listener.
+     * @param listener The listener to be notified.
+     * @return True if the listener has been notified, false if the journal has
+     *     been truncated and the listener must be rebuilt from the whole list
+     *     content.
+     * @see #getChangesSince(long)
+     */
+    public boolean replay(long version, ActiveListListener listener) {
+        
+        List<ActiveListEvent> events = getChangesSince(version);
+        if (events == null) {
+            return false;
+        }
+        for (ActiveListEvent event : events) {
+            listener.contentsChanged(event);
+        }
+        return true;
+    }
+    
+    /** Stop journaling the list, unregistering the journal as listener. */
+    public void dispose() {
+        list.removeActiveListListener(this);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(ActiveListEvent event) {
+        record(event.getType(), event.getX(), event.getY(),
+            event.getToIndex());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        record(ActiveListEvent.INTERVAL_ADDED, x, y, x);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        record(ActiveListEvent.INTERVAL_REMOVED, x, y, x);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        record(ActiveListEvent.CONTENTS_CHANGED, x, y, x);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Append the given change to the journal, discarding the oldest change if
+     * the journal is full, and increment the version. A
+     * <tt>STRUCTURE_CHANGED</tt> change empties the journal instead.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> changes only).
+     */
+    private synchronized void record(int type, int x, int y, int toIndex) {
+        if (type == ActiveListEvent.STRUCTURE_CHANGED) {
+            head = 0;
+            count = 0;
+            version++;
+            return;
+        }
+        int tail = (head + count) % types.length;
+        types[tail] = type;
+        xs[tail] = x;
+        ys[tail] = y;
+        toIndexes[tail] = toIndex;
+        if (count == types.length) {
+            head = (head + 1) % types.length;
+        } else {
+            count++;
+        }
+        version++;
+    }
+}
@@ -27,7 +27,13 @@ package org.kineticsystem.commons.data.model;
 // Java classes.
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Set;
+import javax.swing.event.EventListenerList;
 
 /**
  * <tt>ActiveListEvent<tt> and <tt>ActiveList<tt> related utilities.
@@ -94,7 +100,8 @@ public class ActiveListUtility {
             List<ActiveListEvent> events) {
         
         for (ActiveListEvent event : events) {
-            synchronizeHelper(source, dest, event);
+            synchronizeHelper(source, dest, event.getType(), event.getX(),
+                event.getY(), event.getToIndex());
         }
     }
     
@@ -108,27 +115,266 @@ public class ActiveListUtility {
     public static <T> void synchronize(ActiveList<T> source, ActiveList<T> dest,
             ActiveListEvent event) {
         
-        synchronizeHelper(source, dest, event);
+        synchronizeHelper(source, dest, event.getType(), event.getX(),
+            event.getY(), event.getToIndex());
+    }
+    
+    /**
+     * Execute the given change on the destination list reading all necessary
+     * information from the source list. <tt>INTERVAL_MOVED</tt> changes need
+     * their destination index: see
+     * <tt>synchronize(ActiveList, ActiveList, int, int, int, int)</tt>.
+     * @param source The source list.
+     * @param dest The destination list to be modified.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    public static <T> void synchronize(ActiveList<T> source, ActiveList<T> dest,
+            int type, int x, int y) {
+        
+        synchronizeHelper(source, dest, type, x, y, x);
+    }
+    
+    /**
+     * Execute the given change on the destination list reading all necessary
+     * information from the source list. A move shifts only the items between
+     * the old and the new position of the moved ones and copies the moved
+     * items from the source list: the destination list notifies it as a
+     * single <tt>INTERVAL_MOVED</tt> event.
+     * @param source The source list.
+     * @param dest The destination list to be modified.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> changes only).
+     */
+    public static <T> void synchronize(ActiveList<T> source, ActiveList<T> dest,
+            int type, int x, int y, int toIndex) {
+        
+        synchronizeHelper(source, dest, type, x, y, toIndex);
+    }
+    
+    /**
+     * Notify the given event to all <tt>ActiveListListener</tt> listeners of
+     * the given list, last to first. A <tt>PrimitiveActiveListListener</tt>
+     * receives the event values, unless the event is a
+     * <tt>STRUCTURE_CHANGED</tt> or an <tt>INTERVAL_MOVED</tt> one.
+     * @param listenerList The list of listeners.
+     * @param event The event to be notified.
+     */
+    public static void fireEvent(EventListenerList listenerList,
+            ActiveListEvent event) {
+        fireEvent(listenerList, event, null);
+    }
+    
+    /**
+     * Notify the given event to all <tt>ActiveListListener</tt> listeners of
+     * the given list, recording the time spent by each listener.
+     * @param listenerList The list of listeners.
+     * @param event The event to be notified.
+     * @param instrumentation The instrumentation recording the listener
+     *     latencies or null.
+     * @see #fireEvent(EventListenerList, ActiveListEvent)
+     */
+    public static void fireEvent(EventListenerList listenerList,
+            ActiveListEvent event, ActiveListInstrumentation instrumentation) {
+        
+        Object[] listeners = listenerList.getListenerList();
+        for (int i = listeners.length - 2; i >= 0; i -= 2) {
+            if (listeners[i] == ActiveListListener.class) {
+                long start = (instrumentation != null) ? System.nanoTime() : 0;
+                if ((listeners[i + 1] instanceof PrimitiveActiveListListener)
+                        && isPrimitive(event.getType())) {
+                    firePrimitiveEvent(
+                        (PrimitiveActiveListListener) listeners[i + 1],
+                        event.getSource(), event.getType(), event.getX(),
+                        event.getY(), event.getSequenceNumber(),
+                        event.getLastSequenceNumber());
+                } else {
+                    ((ActiveListListener) listeners[i + 1])
+                        .contentsChanged(event);
+                }
+                if (instrumentation != null) {
+                    instrumentation.listenerNotified(listeners[i + 1],
+                        System.nanoTime() - start);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Notify the given change to all <tt>ActiveListListener</tt> listeners of
+     * the given list, last to first. A <tt>PrimitiveActiveListListener</tt>
+     * receives the change values, so no event is created when all listeners
+     * are primitive (<tt>STRUCTURE_CHANGED</tt> changes excepted); otherwise a
+     * single event is created and shared by all other listeners.
+     * <tt>INTERVAL_MOVED</tt> changes cannot be notified this way because
+     * they have a destination index: they must be notified as events.
+     * @param listenerList The list of listeners.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    public static void fireEvent(EventListenerList listenerList,
+            Object source, int type, int x, int y, int seq, int lastSeq) {
+        fireEvent(listenerList, source, type, x, y, seq, lastSeq, null);
+    }
+    
+    /**
+     * Notify the given change to all <tt>ActiveListListener</tt> listeners of
+     * the given list, recording the time spent by each listener.
+     * @param listenerList The list of listeners.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     * @param instrumentation The instrumentation recording the listener
+     *     latencies or null.
+     * @see #fireEvent(EventListenerList, Object, int, int, int, int, int)
+     */
+    public static void fireEvent(EventListenerList listenerList,
+            Object source, int type, int x, int y, int seq, int lastSeq,
+            ActiveListInstrumentation instrumentation) {
+        
+        ActiveListEvent event = null;
+        Object[] listeners = listenerList.getListenerList();
+        for (int i = listeners.length - 2; i >= 0; i -= 2) {
+            if (listeners[i] == ActiveListListener.class) {
+                long start = (instrumentation != null) ? System.nanoTime() : 0;
+                if ((listeners[i + 1] instanceof PrimitiveActiveListListener)
+                        && isPrimitive(type)) {
+                    firePrimitiveEvent(
+                        (PrimitiveActiveListListener) listeners[i + 1],
+                        source, type, x, y, seq, lastSeq);
+                } else {
+                    if (event == null) {
+                        event = new ActiveListEvent(source);
+                        event.setType(type);
+                        event.setX(x);
+                        event.setY(y);
+                        event.setSequenceNumber(seq);
+                        event.setLastSequenceNumber(lastSeq);
+                    }
+                    ((ActiveListListener) listeners[i + 1])
+                        .contentsChanged(event);
+                }
+                if (instrumentation != null) {
+                    instrumentation.listenerNotified(listeners[i + 1],
+                        System.nanoTime() - start);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remove from the given list all elements contained (or not contained) in
+     * the given collection in a single compaction pass. Membership is tested
+     * with a hash lookup, so the method runs in linear time. The result is the
+     * minimum set of contiguous <tt>INTERVAL_REMOVED</tt> events describing
+     * the removal: events are ordered by position and the coordinates of each
+     * event refer to the list obtained applying all previous events.
+     * @param list The list to be compacted.
+     * @param c The collection of elements to be removed or retained.
+     * @param retain True to retain the elements contained in the collection,
+     *     false to remove them.
+     * @param source The <tt>ActiveList</tt> we want to use as event source.
+     * @return The events describing the removed intervals (empty if the list
+     *     has not been changed).
+     */
+    public static <T> List<ActiveListEvent> batchRemove(List<T> list,
+            Collection<?> c, boolean retain, ActiveList<?> source) {
+        
+        Collection<?> lookup = (c instanceof Set) ? c : new HashSet<Object>(c);
+        List<ActiveListEvent> events = new ArrayList<ActiveListEvent>();
+        
+        /*
+         * Random access lists are compacted moving the retained elements to
+         * the head of the list and truncating the tail; sequential lists are
+         * compacted by their own iterator.
+         */
+        
+        boolean randomAccess = (list instanceof RandomAccess);
+        ListIterator<T> iter = randomAccess ? null : list.listIterator();
+        
+        int size = list.size();
+        int kept = 0;     // Number of retained elements.
+        int removed = 0;  // Number of elements removed by previous events.
+        int start = -1;   // Start of the current removed interval.
+        
+        for (int i = 0; i < size; i++) {
+            T element = randomAccess ? list.get(i) : iter.next();
+            if (lookup.contains(element) != retain) {
+                if (!randomAccess) {
+                    iter.remove();
+                }
+                if (start == -1) {
+                    start = i;
+                }
+            } else {
+                if (start != -1) {
+                    events.add(removedInterval(start - removed,
+                        i - 1 - removed, source));
+                    removed += i - start;
+                    start = -1;
+                }
+                if (randomAccess && (kept != i)) {
+                    list.set(kept, element);
+                }
+                kept++;
+            }
+        }
+        if (start != -1) {
+            events.add(removedInterval(start - removed, size - 1 - removed,
+                source));
+        }
+        if (randomAccess && (kept < size)) {
+            list.subList(kept, size).clear();
+        }
+        
+        return events;
     }
     
     /* /////////////////////////////////////////////////////////////////////////
      * Private methods.
      */
     
+    /**
+     * Create an <tt>INTERVAL_REMOVED</tt> event.
+     * @param x The first removed index.
+     * @param y The last removed index.
+     * @param source The <tt>ActiveList</tt> we want to use as event source.
+     * @return The new event.
+     */
+    private static ActiveListEvent removedInterval(int x, int y,
+            ActiveList<?> source) {
+        ActiveListEvent event = new ActiveListEvent(source);
+        event.setX(x);
+        event.setY(y);
+        event.setType(ActiveListEvent.INTERVAL_REMOVED);
+        return event;
+    }
+    
     /**
      * Execute the given event on the destination list reading all necessary
      * information from the source list. This private method is used to avoid
      * fragile classes.
      * @param source The source list.
      * @param dest The destination list to be modified.
-     * @param event The event to be executed on the destination list.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
      */
     private static <T> void synchronizeHelper(ActiveList<T> src,
-            ActiveList<T> dst, ActiveListEvent event) {
+            ActiveList<T> dst, int type, int x, int y, int toIndex) {
         
-        int type = event.getType();
-        int x = event.getX();
-        int y = event.getY();
         int size = y - x + 1;
         
         switch (type) {
@@ -150,6 +396,78 @@ public class ActiveListUtility {
                 }
                 break;
             }
+            case ActiveListEvent.STRUCTURE_CHANGED: {
+                dst.clear();
+                dst.addAll(src); // Bulk copy.
+                break;
+            }
+            case ActiveListEvent.INTERVAL_MOVED: {
+                
+                // Shift the items between the old and the new position.
+                
+                boolean activated = dst.isActive();
+                dst.setActive(false);
+                try {
+                    for (int i = x; i < toIndex; i++) {
+                        dst.set(i, dst.get(i + size));
+                    }
+                    for (int i = y; i >= toIndex + size; i--) {
+                        dst.set(i, dst.get(i - size));
+                    }
+                    for (int i = 0; i < size; i++) {
+                        dst.set(toIndex + i, src.get(toIndex + i));
+                    }
+                } finally {
+                    dst.setActive(activated);
+                }
+                if (activated) {
+                    ActiveListEvent event = new ActiveListEvent(dst);
+                    event.setType(ActiveListEvent.INTERVAL_MOVED);
+                    event.setX(x);
+                    event.setY(y);
+                    event.setToIndex(toIndex);
+                    dst.fireContentsChanged(event);
+                }
+                break;
+            }
         }   
     }
+    
+    /**
+     * Return true if the given change type has a
+     * <tt>PrimitiveActiveListListener</tt> method, false otherwise.
+     * @param type The change type.
+     * @return True if the change can be notified as primitive values.
+     */
+    private static boolean isPrimitive(int type) {
+        return (type == ActiveListEvent.CONTENTS_CHANGED)
+            || (type == ActiveListEvent.INTERVAL_ADDED)
+            || (type == ActiveListEvent.INTERVAL_REMOVED);
+    }
+    
+    /**
+     * Notify the given change to a primitive listener.
+     * @param listener The listener to be notified.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private static void firePrimitiveEvent(PrimitiveActiveListListener listener,
+            Object source, int type, int x, int y, int seq, int lastSeq) {
+        
+        switch (type) {
+            case ActiveListEvent.CONTENTS_CHANGED:
+                listener.contentsChanged(source, x, y, seq, lastSeq);
+                break;
+            case ActiveListEvent.INTERVAL_ADDED:
+                listener.intervalAdded(source, x, y, seq, lastSeq);
+                break;
+            case ActiveListEvent.INTERVAL_REMOVED:
+                listener.intervalRemoved(source, x, y, seq, lastSeq);
+                break;
+        }
+    }
 }
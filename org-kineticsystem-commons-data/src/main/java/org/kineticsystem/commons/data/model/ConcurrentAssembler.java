@@ -0,0 +1,394 @@
+/*
+ * ConcurrentAssembler.java
+ *
+ * Created on 18 October 2026, 19.20
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is an <tt>ActiveListEventAssembler</tt> receiving changes from many
+ * producer threads and merging them in a single consumer thread. Producers
+ * append changes to a lock-free multi-producer single-consumer queue and never
+ * wait; the consumer moves them into a <tt>PackedAssembler</tt> calling
+ * <tt>assemble</tt>, that merges them exactly as the
+ * <tt>DefaultAssembler</tt> does.
+ * <p>
+ * The queue is a bounded ring allocated once: changes are stored as
+ * (type, x, y, toIndex) values inside an <tt>int</tt> array and every slot has
+ * a sequence number telling whether it is free, claimed or published, so a
+ * push allocates nothing. When the ring is full <tt>offer</tt> returns false
+ * and <tt>push</tt> throws an exception: producers never wait for the
+ * consumer, that could need a lock they hold, and must handle the lost
+ * change, i.e. by reading the whole list again.
+ * <p>
+ * Changes are merged in the order they are queued, so all pushed changes must
+ * belong to the same list and be queued in the order they occurred: this is
+ * the case when they are pushed by listeners of an <tt>ActiveList</tt>, that
+ * fires its events inside its write lock. Changes of different lists must be
+ * pushed into different assemblers.
+ * <p>
+ * The <tt>push</tt> methods can be called by any thread, all other methods
+ * must be called by the consumer thread only.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see PackedAssembler
+ */
+public class ConcurrentAssembler implements ActiveListEventAssembler {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constants.
+     */
+    
+    /** The default number of changes the queue can hold. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    
+    /** The number of array cells used by a queued change. */
+    private static final int STRIDE = 4;
+    
+    /** The offset of the change type inside a queued change. */
+    private static final int TYPE = 0;
+    
+    /** The offset of the first index inside a queued change. */
+    private static final int X = 1;
+    
+    /** The offset of the last index inside a queued change. */
+    private static final int Y = 2;
+    
+    /** The offset of the destination index inside a queued change. */
+    private static final int TO_INDEX = 3;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The queued changes as (type, x, y, toIndex) values. */
+    private int[] changes;
+    
+    /** The sources of the queued changes. */
+    private Object[] sources;
+    
+    /**
+     * The sequence number of each slot: a slot whose sequence equals the
+     * queue position <tt>p</tt> mapped to it is free for the change number
+     * <tt>p</tt>, it is published when the sequence becomes <tt>p + 1</tt> and
+     * free again for the change number <tt>p + capacity</tt> when the consumer
+     * has read it.
+     */
+    private AtomicLongArray sequences;
+    
+    /** The mask mapping a queue position to its slot. */
+    private int mask;
+    
+    /** The queue position of the next change to be queued. */
+    private AtomicLong tail;
+    
+    /**
+     * The queue position of the next change to be assembled. It is read by the
+     * consumer only.
+     */
+    private long head;
+    
+    /** The assembler merging the queued changes. */
+    private PackedAssembler assembler;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Default constructor. */
+    public ConcurrentAssembler() {
+        this(null, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Create an assembler taking popped events from the given pool and giving
+     * back the pushed ones.
+     * @param pool The event pool (null if events are not pooled).
+     * @see PackedAssembler#PackedAssembler(ActiveListEventPool)
+     */
+    public ConcurrentAssembler(ActiveListEventPool pool) {
+        this(pool, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Create an assembler whose queue holds at least the given number of
+     * changes waiting to be assembled.
+     * @param pool The event pool (null if events are not pooled).
+     * @param capacity The minimum number of changes the queue can hold: it is
+     *     rounded up to a power of two.
+     * @throws IllegalArgumentException If the capacity is not positive or
+     *     too large.
+     */
+    public ConcurrentAssembler(ActiveListEventPool pool, int capacity) {
+        if ((capacity <= 0) || (capacity > (1 << 24))) {
+            String msg = "The capacity must be between 1 and 2^24!";
+            throw new IllegalArgumentException(msg);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.changes = new int[size * STRIDE];
+        this.sources = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.tail = new AtomicLong(0);
+        this.head = 0;
+        this.assembler = new PackedAssembler(pool);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListEventAssembler interface implementation.
+     */
+    
+    /**
+     * Return true if the assembler doesn't contain any event, queued changes
+     * included, false otherwise.
+     * @return True if the assembler doesn't contain any event, false
+     *     otherwise.
+     */
+    public boolean isEmpty() {
+        assemble();
+        return assembler.isEmpty();
+    }
+    
+    /**
+     * Get the first event of the list, queued changes included.
+     * @return The first event of the list (if any).
+     */
+    public ActiveListEvent pop() {
+        assemble();
+        return assembler.pop();
+    }
+    
+    /**
+     * Queue the given event. This method is thread-safe and never blocks.
+     * @param event The event to be packed inside the list.
+     * @throws IllegalArgumentException if event x coordinate is greater than
+     *     event y coordinate.
+     * @throws IllegalStateException If the queue is full.
+     * @see #push(Object, int, int, int, int)
+     */
+    public void push(ActiveListEvent event) {
+        push(event.getSource(), event.getType(), event.getX(), event.getY(),
+            event.getToIndex());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return the number of changes the queue can hold.
+     * @return The queue capacity.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+    
+    /**
+     * Queue the given change. This method is thread-safe and never blocks.
+     * Moves must be queued with their destination index: see
+     * <tt>push(Object, int, int, int, int)</tt>.
+     * @param source The list where the change occurred.
+     * @param type The change type: see <tt>ActiveListEvent</tt>.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @throws IllegalArgumentException if x is greater than y.
+     * @throws IllegalStateException If the queue is full.
+     */
+    public void push(Object source, int type, int x, int y) {
+        push(source, type, x, y, x);
+    }
+    
+    /**
+     * Queue the given change. This method is thread-safe and never blocks.
+     * @param source The list where the change occurred.
+     * @param type The change type: see <tt>ActiveListEvent</tt>.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> changes only).
+     * @throws IllegalArgumentException if x is greater than y.
+     * @throws IllegalStateException If the queue is full.
+     */
+    public void push(Object source, int type, int x, int y, int toIndex) {
+        if (!offer(source, type, x, y, toIndex)) {
+            throw new IllegalStateException("The queue is full!");
+        }
+    }
+    
+    /**
+     * Queue the given change if the queue is not full. This method is
+     * thread-safe and never blocks.
+     * @param source The list where the change occurred.
+     * @param type The change type: see <tt>ActiveListEvent</tt>.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> changes only).
+     * @return True if the change has been queued, false if the queue is full.
+     * @throws IllegalArgumentException if x is greater than y.
+     */
+    public boolean offer(Object source, int type, int x, int y, int toIndex) {
+        
+        if (x > y) {
+            throw new IllegalArgumentException("Cannot accept given event: "
+                + "x coordinate must be less than or equal to y coordinate!");
+        }
+        
+        /*
+         * Claim the slot of the tail position, then fill and publish it: the
+         * consumer stops at the first claimed slot not yet published, so it
+         * sees the changes in the order their slots have been claimed.
+         */
+        
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // The consumer has not read the slot yet.
+            } else {
+                position = tail.get(); // Claimed by another producer.
+            }
+        }
+        
+        int offset = slot * STRIDE;
+        changes[offset + TYPE] = type;
+        changes[offset + X] = x;
+        changes[offset + Y] = y;
+        changes[offset + TO_INDEX] = toIndex;
+        sources[slot] = source;
+        sequences.set(slot, position + 1);
+        return true;
+    }
+    
+    /**
+     * Move all queued changes into the packed events, merging them. Changes
+     * whose producer has not finished queuing them are left in the queue.
+     * @return The number of moved changes.
+     */
+    public int assemble() {
+        int count = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break; // Not yet published.
+            }
+            int offset = slot * STRIDE;
+            assembler.push(sources[slot], changes[offset + TYPE],
+                changes[offset + X], changes[offset + Y],
+                changes[offset + TO_INDEX]);
+            sources[slot] = null;
+            sequences.set(slot, head + sequences.length());
+            head++;
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Return the number of assembled events. Queued changes are not counted:
+     * call <tt>assemble</tt> first.
+     * @return The number of assembled events.
+     */
+    public int size() {
+        return assembler.size();
+    }
+    
+    /**
+     * Return the sum of the lengths of all assembled events.
+     * @return The sum of the lengths of all assembled events.
+     * @see PackedAssembler#getLength()
+     */
+    public int getLength() {
+        return assembler.getLength();
+    }
+    
+    /**
+     * Return the type of the assembled event at the given position.
+     * @see PackedAssembler#getType(int)
+     */
+    public int getType(int index) {
+        return assembler.getType(index);
+    }
+    
+    /**
+     * Return the first index of the assembled event at the given position.
+     * @see PackedAssembler#getX(int)
+     */
+    public int getX(int index) {
+        return assembler.getX(index);
+    }
+    
+    /**
+     * Return the last index of the assembled event at the given position.
+     * @see PackedAssembler#getY(int)
+     */
+    public int getY(int index) {
+        return assembler.getY(index);
+    }
+    
+    /**
+     * Return the destination index of the assembled move at the given
+     * position.
+     * @see PackedAssembler#getToIndex(int)
+     */
+    public int getToIndex(int index) {
+        return assembler.getToIndex(index);
+    }
+    
+    /**
+     * Remove all assembled events. Queued changes are not removed: call
+     * <tt>assemble</tt> first.
+     */
+    public void clear() {
+        assembler.clear();
+    }
+    
+    /**
+     * Assemble all queued changes, remove them and deliver them in order to
+     * the given listener as primitive values.
+     * @param listener The listener receiving the events.
+     * @see PackedAssembler#drain(PrimitiveActiveListListener)
+     */
+    public void drain(PrimitiveActiveListListener listener) {
+        assemble();
+        assembler.drain(listener);
+    }
+}
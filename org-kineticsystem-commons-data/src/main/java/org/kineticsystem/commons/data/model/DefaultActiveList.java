@@ -28,11 +28,14 @@ package org.kineticsystem.commons.data.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.swing.event.EventListenerList;
 
 /**
@@ -43,6 +46,13 @@ import javax.swing.event.EventListenerList;
  * All methods implementing the <tt>List</tt> interface are thread-safe and they
  * all guarantee safe synchronization using the read/write lock available throw
  * the method <tt>getReadWriteLock</tt>.
+ * Changes made inside a transaction (see <tt>beginTransaction</tt>) are
+ * compressed by a <tt>DefaultAssembler</tt> and fired as a single sequence of
+ * events when the transaction is committed.
+ * Iterators and spliterators read a snapshot of the list taken when they are
+ * created, so large rebuilds and parallel streams can safely scan the list
+ * while other threads modify it. List iterators work on the live list
+ * instead: lock the list to use them.
  * @author Giovanni Remigi
  * @version $Revision: 155 $
  */
@@ -55,12 +65,21 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     /** True if the list can send events, false otherwise. */
     private boolean activated;
     
-    /** Lock to allow multithreaded access to the list data. */
+    /**
+     * Lock to allow multithreaded access to the list data. The default lock
+     * is instrumented on demand and never replaced.
+     */
     private ReadWriteLock lock;
     
+    /** The instrumentation recording latencies or null. */
+    private volatile ActiveListInstrumentation instrumentation;
+    
     /** The list of all registered listener. */
     private EventListenerList listenerList;
     
+    /** The transaction collecting the events of the owner thread. */
+    private Transaction transaction;
+    
     /**
      * The internal representation of the list. By default the list is
      * implemented by an <tt>ArrayList</tt>.
@@ -78,19 +97,65 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     }
     
     /**
-     * Decorate the given list to make it firing events when modified.
+     * Decorate the given list to make it firing events when modified. Use a
+     * <tt>TreeList</tt> to get O(log n) insertions and removals in the middle
+     * of large lists.
      * @param list The list to be decorated.
+     * @see org.kineticsystem.commons.collections.TreeList
      */   
     public DefaultActiveList(List<E> list) {
         this.list = list;
         init();
     }
     
+    /**
+     * Decorate the given list protecting it with the given lock. The lock
+     * must be reentrant: list methods are called by threads already holding
+     * it.
+     * @param list The list to be decorated.
+     * @param lock The lock protecting the list.
+     */   
+    protected DefaultActiveList(List<E> list, ReadWriteLock lock) {
+        this.list = list;
+        init();
+        this.lock = lock;
+    }
+    
     /** Initialization methods containing common initialization tasks. */
     private void init() {
         activated = true;
-        lock = new ReentrantReadWriteLock();
+        lock = new ActiveListInstrumentation.InstrumentedReadWriteLock();
+        instrumentation = null;
         listenerList = new EventListenerList();
+        transaction = new Transaction(this);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Getter and setter methods.
+     */
+    
+    /**
+     * Return the instrumentation recording latencies of listeners and lock.
+     * @return The instrumentation or null if the list is not instrumented.
+     */
+    public ActiveListInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+    
+    /**
+     * Set the instrumentation recording latencies of listeners and lock.
+     * The lock returned by <tt>getReadWriteLock</tt> is not replaced: the
+     * default lock starts recording into the given instrumentation, while
+     * a lock given to the constructor is not instrumented.
+     * @param instrumentation The instrumentation or null to remove it.
+     */
+    public void setInstrumentation(ActiveListInstrumentation instrumentation) {
+        if (lock instanceof
+                ActiveListInstrumentation.InstrumentedReadWriteLock) {
+            ((ActiveListInstrumentation.InstrumentedReadWriteLock) lock)
+                .setInstrumentation(instrumentation);
+        }
+        this.instrumentation = instrumentation;
     }
     
     /* /////////////////////////////////////////////////////////////////////////
@@ -124,20 +189,18 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     
     /** {@inheritDoc} */
     public void fireContentsChanged(ActiveListEvent event) {
-        
-        // Guaranteed to return a non-null array.
-
-        Object[] listeners = listenerList.getListenerList();
-
-        // Process the listeners last to first, notifying those that are
-        // interested in this event.
-
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == ActiveListListener.class) {
-                ((ActiveListListener) listeners[i+1])
-                    .contentsChanged(event);
-            }          
-        }
+        ActiveListUtility.fireEvent(listenerList, event,
+            enabledInstrumentation());
+    }
+    
+    /** {@inheritDoc} */
+    public void beginTransaction() {
+        transaction.begin();
+    }
+    
+    /** {@inheritDoc} */
+    public void commitTransaction() {
+        transaction.commit();
     }
     
     /* /////////////////////////////////////////////////////////////////////////
@@ -156,11 +219,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
             int size = list.size();
             boolean value = list.add(element);
             if (activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.INTERVAL_ADDED);
-                event.setX(size);
-                event.setY(size);
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.INTERVAL_ADDED, size, size);
             }
             return value;
         } finally {
@@ -179,11 +238,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
             
             list.add(index, element);
             if (activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.INTERVAL_ADDED);
-                event.setX(index);
-                event.setY(index);
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.INTERVAL_ADDED, index, index);
             }
         } finally {
             lock.writeLock().unlock();
@@ -202,11 +257,8 @@ public class DefaultActiveList<E> implements ActiveList<E> {
             int index = list.size();
             boolean isChanged = list.addAll(c);
             if (isChanged && activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.INTERVAL_ADDED);
-                event.setX(index);
-                event.setY(index + c.size());
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.INTERVAL_ADDED, index,
+                    index + c.size() - 1);
             }
             return isChanged;
         } finally {
@@ -225,11 +277,8 @@ public class DefaultActiveList<E> implements ActiveList<E> {
         
             boolean isChanged = list.addAll(index, c);
             if (isChanged && activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.INTERVAL_ADDED);
-                event.setX(index);
-                event.setY(index + c.size());
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.INTERVAL_ADDED, index,
+                    index + c.size() - 1);
             }
             return isChanged;
         } finally {
@@ -250,11 +299,8 @@ public class DefaultActiveList<E> implements ActiveList<E> {
                 int size = list.size();
                 list.clear();
                 if (activated) {
-                    ActiveListEvent event = new ActiveListEvent(this);
-                    event.setType(ActiveListEvent.INTERVAL_REMOVED);
-                    event.setX(0);
-                    event.setY(size - 1);
-                    fireContentsChanged(event);
+                    dispatchEvent(ActiveListEvent.INTERVAL_REMOVED, 0,
+                        size - 1);
                 }
             }
         } finally {
@@ -368,7 +414,10 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     }
     
     /** 
-     * This method is thread-safe.
+     * This method is thread-safe. The returned iterator reads a snapshot of
+     * the list taken when the iterator is created, so it never sees changes
+     * made by other threads. Its <tt>remove</tt> method removes the current
+     * element from the list, firing an event.
      * {@inheritDoc} 
      */
     public Iterator<E> iterator() {
@@ -376,7 +425,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
         try {
             lock.readLock().lock();
 
-            return new ActiveListIterator<E>(list.iterator());
+            return new SnapshotIterator(list.toArray());
         } finally {
             lock.readLock().unlock();
         }
@@ -398,7 +447,9 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     }
     
     /** 
-     * This method is thread-safe.
+     * This method is not thread-safe: the returned iterator works on the live
+     * list, so lock the list to iterate it. Changes made through the
+     * iterator fire events.
      * {@inheritDoc} 
      */
     public ListIterator<E> listIterator() {
@@ -406,14 +457,16 @@ public class DefaultActiveList<E> implements ActiveList<E> {
         try {
             lock.readLock().lock();
 
-            return new ActiveListListIterator<E>(list.listIterator());
+            return new ActiveListListIterator(list.listIterator());
         } finally {
             lock.readLock().unlock();
         }
     }    
     
     /** 
-     * This method is thread-safe.
+     * This method is not thread-safe: the returned iterator works on the live
+     * list, so lock the list to iterate it. Changes made through the
+     * iterator fire events.
      * {@inheritDoc} 
      */
     public ListIterator<E> listIterator(int index) {
@@ -421,7 +474,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
         try {
             lock.readLock().lock();
 
-            return new ActiveListListIterator<E>(list.listIterator(index));
+            return new ActiveListListIterator(list.listIterator(index));
         } finally {
             lock.readLock().unlock();
         }
@@ -438,11 +491,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
 
             E element = list.remove(index);
             if (activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.INTERVAL_REMOVED);
-                event.setX(index);
-                event.setY(index);
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.INTERVAL_REMOVED, index, index);
             }
             return element;
         } finally {
@@ -464,11 +513,8 @@ public class DefaultActiveList<E> implements ActiveList<E> {
             if (index != -1) {
                 value = list.remove(o);
                 if (activated) {
-                    ActiveListEvent event = new ActiveListEvent(this);
-                    event.setType(ActiveListEvent.INTERVAL_REMOVED);
-                    event.setX(index);
-                    event.setY(index);
-                    fireContentsChanged(event);
+                    dispatchEvent(ActiveListEvent.INTERVAL_REMOVED, index,
+                        index);
                 }
             }
             return value;
@@ -478,7 +524,8 @@ public class DefaultActiveList<E> implements ActiveList<E> {
     }
     
     /** 
-     * This method is thread-safe.
+     * This method is thread-safe. The list is compacted in a single pass and
+     * an <tt>INTERVAL_REMOVED</tt> event is sent for each removed interval.
      * {@inheritDoc} 
      */
     public boolean removeAll(Collection<?> c) {
@@ -491,30 +538,41 @@ public class DefaultActiveList<E> implements ActiveList<E> {
                 throw new NullPointerException(msg);
             }
     
-            boolean value = false;
-            for (Object o : c) {
-                int index = list.indexOf(o);
-                if (index != -1) {
-                    value = value || list.remove(o);
-                    if (activated) {
-                        ActiveListEvent event = new ActiveListEvent(this);
-                        event.setType(ActiveListEvent.INTERVAL_REMOVED);
-                        event.setX(index);
-                        event.setY(index);
-                        fireContentsChanged(event);
-                    }
-                }
+            List<ActiveListEvent> events
+                = ActiveListUtility.batchRemove(list, c, false, this);
+            if (activated) {
+                dispatchEvents(events);
             }
-
-            return value;
+            return !events.isEmpty();
         } finally {
             lock.writeLock().unlock();
         }
     }
 
-    /** {@inheritDoc} */
+    /** 
+     * This method is thread-safe. The list is compacted in a single pass and
+     * an <tt>INTERVAL_REMOVED</tt> event is sent for each removed interval.
+     * {@inheritDoc} 
+     */
     public boolean retainAll(Collection<?> c) {
-        throw new UnsupportedOperationException("Method not implemented!");
+        
+        try {
+            lock.writeLock().lock();
+
+            if (c == null) {
+                String msg = "Collection to be retained cannot be null!";
+                throw new NullPointerException(msg);
+            }
+    
+            List<ActiveListEvent> events
+                = ActiveListUtility.batchRemove(list, c, true, this);
+            if (activated) {
+                dispatchEvents(events);
+            }
+            return !events.isEmpty();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /** 
@@ -528,11 +586,7 @@ public class DefaultActiveList<E> implements ActiveList<E> {
 
             E previousElement = list.set(index, element);
             if (activated) {
-                ActiveListEvent event = new ActiveListEvent(this);
-                event.setType(ActiveListEvent.CONTENTS_CHANGED);
-                event.setX(index);
-                event.setY(index);
-                fireContentsChanged(event);
+                dispatchEvent(ActiveListEvent.CONTENTS_CHANGED, index, index);
             }
             return previousElement;
         } finally {
@@ -599,39 +653,116 @@ public class DefaultActiveList<E> implements ActiveList<E> {
         }
     }
     
+    /**
+     * This method is thread-safe. The returned spliterator reads a snapshot of
+     * the list taken when it is created, so a parallel stream can traverse it
+     * while other threads modify the list. It is <tt>SIZED</tt> and
+     * <tt>SUBSIZED</tt> and it is split by index range.
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(toArray(),
+            Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+    
+    /**
+     * Notify a change made to the list. Inside a transaction the event is
+     * collected by the transaction assembler, otherwise it is immediately
+     * fired to all registered listeners. Subclasses adding new methods to
+     * modify the list must notify changes using this method.
+     * @param event The event describing the change.
+     */
+    protected void dispatchEvent(ActiveListEvent event) {
+        if (transaction.isStarted()) {
+            transaction.push(event);
+        } else {
+            fireContentsChanged(event);
+        }
+    }
+    
+    /**
+     * Notify a change made to the list. Outside a transaction no event is
+     * created if all registered listeners are
+     * <tt>PrimitiveActiveListListener</tt> listeners.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @see #dispatchEvent(ActiveListEvent)
+     */
+    protected void dispatchEvent(int type, int x, int y) {
+        if (transaction.isStarted()) {
+            transaction.push(type, x, y);
+        } else {
+            ActiveListUtility.fireEvent(listenerList, this, type, x, y, 0, 0,
+                enabledInstrumentation());
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Return the instrumentation if it is recording, null otherwise.
+     * @return The recording instrumentation or null.
+     */
+    private ActiveListInstrumentation enabledInstrumentation() {
+        ActiveListInstrumentation current = instrumentation;
+        if ((current != null) && current.isEnabled()) {
+            return current;
+        }
+        return null;
+    }
+    
+    /**
+     * Notify a sequence of changes made to the list by a single method call.
+     * Inside a transaction the events are collected by the transaction
+     * assembler, otherwise they are immediately fired to all registered
+     * listeners, numbered from 0 to the last sequence number.
+     * @param events The events describing the changes.
+     */
+    private void dispatchEvents(List<ActiveListEvent> events) {
+        transaction.dispatch(events);
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Embedded classes.
      */
     
     /**
-     * This is an <tt>ActiveList</tt> <tt>Iterator</tt> sending events when
-     * items are removed from or added to the embedded list being iterated.
+     * This is an <tt>Iterator</tt> reading a snapshot of the list. Removing an
+     * element removes it from the list, provided that it has not been moved
+     * by another thread in the meantime.
      */
-    @SuppressWarnings("hiding")
-    private class ActiveListIterator<E> implements Iterator<E> {
+    private class SnapshotIterator implements Iterator<E> {
 
-        /**
-         * The iterator of the list implementation wrapped by the
-         * <tt>ActiveList</tt>.
-         */
-        private Iterator<E> iterator;
+        /** The snapshot of the list elements. */
+        private Object[] elements;
+
+        /** Index of the element to be returned by the next call to next. */
+        private int cursor;
+
+        /** Index of the last returned element or -1 if there is none. */
+        private int lastReturned;
+
+        /** The number of elements removed through this iterator. */
+        private int removed;
 
-        /** Index of element to be returned by subsequent call to next. */
-        protected int index;
-        
         /**
          * Constructor.
-         * @param iterator The iterator of the list wrapped by the current
-         *     <tt>ActiveList</tt>.
+         * @param elements The snapshot of the list elements: the array must
+         *     not be modified.
          */
-        public ActiveListIterator(Iterator<E> iterator) {
-
-            if (iterator == null) {
-                String msg = "Decorated iterator cannot be null!";
-                throw new IllegalArgumentException(msg);
-            }
-            this.iterator = iterator;
-            this.index = 0;
+        public SnapshotIterator(Object[] elements) {
+            this.elements = elements;
+            this.cursor = 0;
+            this.lastReturned = -1;
+            this.removed = 0;
         }
 
         /* /////////////////////////////////////////////////////////////////////
@@ -640,42 +771,55 @@ public class DefaultActiveList<E> implements ActiveList<E> {
 
         /** {@inheritDoc} */
         public boolean hasNext() {
-            return iterator.hasNext();
+            return (cursor < elements.length);
         }
 
         /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
         public E next() {
-            E element = iterator.next();
-            index++;
-            return element;
+            if (cursor >= elements.length) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor++;
+            return (E) elements[lastReturned];
         }
 
         /**
-         * Remove the current list element and send an event to all registered
-         * listeners.
+         * Remove the current element from the list and send an event to all
+         * registered listeners.
+         * @throws ConcurrentModificationException If the element has been
+         *     moved or removed by another thread.
          */
         public void remove() {
 
-            iterator.remove();
-            
-            ActiveListEvent event = new ActiveListEvent(list);
-            event.setType(ActiveListEvent.INTERVAL_REMOVED);
-            event.setX(index);
-            event.setY(index);
-            
-            index--;
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
             
-            fireContentsChanged(event);
+            try {
+                lock.writeLock().lock();
+                
+                int index = lastReturned - removed;
+                if ((index >= list.size())
+                        || (list.get(index) != elements[lastReturned])) {
+                    String msg = "Element moved by another thread!";
+                    throw new ConcurrentModificationException(msg);
+                }
+                DefaultActiveList.this.remove(index);
+                removed++;
+                lastReturned = -1;
+            } finally {
+                lock.writeLock().unlock();
+            }
         }
     }
     
     /**
      * This is an <tt>ActiveList</tt> <tt>ListIterator</tt> sending events when
-     * items are removed from or added to the embedded list being iterated.
+     * items are added to, removed from or replaced in the embedded list being
+     * iterated.
      */
-    @SuppressWarnings("hiding")
-    private class ActiveListListIterator<E> extends ActiveListIterator<E>
-            implements ListIterator<E> {
+    private class ActiveListListIterator implements ListIterator<E> {
         
         /**
          * The iterator of the list implementation wrapped by the
@@ -683,15 +827,22 @@ public class DefaultActiveList<E> implements ActiveList<E> {
          */
         private ListIterator<E> iterator;
         
+        /** Index of the last returned element or -1 if there is none. */
+        private int lastReturned;
+        
         /**
          * Constructor.
          * @param iterator The iterator of the list wrapped by the current
          *     <tt>ActiveList</tt>.
          */
         public ActiveListListIterator(ListIterator<E> iterator) {
-            super(iterator);
+
+            if (iterator == null) {
+                String msg = "Decorated iterator cannot be null!";
+                throw new IllegalArgumentException(msg);
+            }
             this.iterator = iterator;
-            this.index = iterator.nextIndex();
+            this.lastReturned = -1;
         }
         
         /* /////////////////////////////////////////////////////////////////////
@@ -699,53 +850,96 @@ public class DefaultActiveList<E> implements ActiveList<E> {
          */
 
         /** {@inheritDoc} */
-        public void add(E element) {
-            
-            iterator.add(element);
-            
-            ActiveListEvent event = new ActiveListEvent(list);
-            event.setType(ActiveListEvent.CONTENTS_CHANGED);
-            event.setX(index);
-            event.setY(index);
-            
-            index++;
-            
-            fireContentsChanged(event);
+        public boolean hasNext() {
+            return iterator.hasNext();
         }
 
         /** {@inheritDoc} */
-        public boolean hasPrevious() {
-            return iterator.hasPrevious();
+        public E next() {
+            E element = iterator.next();
+            lastReturned = iterator.previousIndex();
+            return element;
         }
 
         /** {@inheritDoc} */
-        public int nextIndex() {
-            return iterator.nextIndex();
+        public boolean hasPrevious() {
+            return iterator.hasPrevious();
         }
 
         /** {@inheritDoc} */
         public E previous() {
             E element = iterator.previous();
-            index--;
+            lastReturned = iterator.nextIndex();
             return element;
         }
 
+        /** {@inheritDoc} */
+        public int nextIndex() {
+            return iterator.nextIndex();
+        }
+
         /** {@inheritDoc} */
         public int previousIndex() {
             return iterator.previousIndex();
         }
 
-        /** {@inheritDoc} */
-        public void set(E element) {
+        /**
+         * Remove the current list element and send an event to all registered
+         * listeners.
+         */
+        public void remove() {
             
-            iterator.set(element);
+            try {
+                lock.writeLock().lock();
+                
+                iterator.remove();
+                if (activated) {
+                    dispatchEvent(ActiveListEvent.INTERVAL_REMOVED,
+                        lastReturned, lastReturned);
+                }
+                lastReturned = -1;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Replace the current list element and send an event to all
+         * registered listeners.
+         */
+        public void set(E element) {
             
-            ActiveListEvent event = new ActiveListEvent(list);
-            event.setType(ActiveListEvent.CONTENTS_CHANGED);
-            event.setX(index);
-            event.setY(index);
+            try {
+                lock.writeLock().lock();
+                
+                iterator.set(element);
+                if (activated) {
+                    dispatchEvent(ActiveListEvent.CONTENTS_CHANGED,
+                        lastReturned, lastReturned);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Insert an element into the list and send an event to all registered
+         * listeners.
+         */
+        public void add(E element) {
             
-            fireContentsChanged(event);
+            try {
+                lock.writeLock().lock();
+                
+                int index = iterator.nextIndex();
+                iterator.add(element);
+                if (activated) {
+                    dispatchEvent(ActiveListEvent.INTERVAL_ADDED, index, index);
+                }
+                lastReturned = -1;
+            } finally {
+                lock.writeLock().unlock();
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -26,6 +26,7 @@ package org.kineticsystem.commons.data.model;
 
 // Java classes.
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -35,6 +36,12 @@ import java.util.ListIterator;
  * <tt>ActiveList</tt>, pack and merge them in the right way and synchronously
  * perform all updates in one step when requested by the Swing Event-dispatching
  * Thread. This is the core of the KineticModels framework.
+ * <p>
+ * An <tt>INTERVAL_MOVED</tt> event is stored as it is while it is the only
+ * stored event. Otherwise it is split into the removal of the moved interval
+ * followed by the addition of the same number of items at the destination,
+ * and both are merged with the other events: this is also what happens to a
+ * stored move when a new event is pushed.
  * @author Giovanni Remigi
  * @version $Revision: 36 $
  */
@@ -47,6 +54,9 @@ public class DefaultAssembler implements ActiveListEventAssembler {
     /** The list of events received from the list model. */
     private LinkedList<ActiveListEvent> events;
     
+    /** The sum of the lengths of all stored events. */
+    private int length;
+    
     /** List buffer used to store temporary events. */
     private List<ActiveListEvent> listBuffer;
     
@@ -80,14 +90,32 @@ public class DefaultAssembler implements ActiveListEventAssembler {
     /** Temporary variable representing the new inserted event. */
     private ActiveListEvent ne;
     
+    /**
+     * The pool used to create merged events and to recycle the merging ones
+     * (null if events are not pooled).
+     */
+    private ActiveListEventPool pool;
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Constructors.
      */
     
     /** Default constructor. */
     public DefaultAssembler() {
+        this(null);
+    }
+    
+    /**
+     * Create an assembler taking merged events from the given pool and giving
+     * back the merging ones. All events pushed into the assembler must be
+     * owned by the pool: they cannot be used by the caller after the push.
+     * @param pool The event pool (null if events are not pooled).
+     */
+    public DefaultAssembler(ActiveListEventPool pool) {
+        this.pool = pool;
         events = new LinkedList<ActiveListEvent>();
-        listBuffer = new LinkedList<ActiveListEvent>();
+        length = 0;
+        listBuffer = new ArrayList<ActiveListEvent>(2);
         adds = 0;
         dels = 0;
         mods = 0;
@@ -108,7 +136,26 @@ public class DefaultAssembler implements ActiveListEventAssembler {
     public boolean isEmpty() {
         return events.isEmpty();
     }
+
+    /**
+     * Return the number of events stored by the assembler.
+     * @return The number of events stored by the assembler.
+     */
+    public int size() {
+        return events.size();
+    }
     
+    /**
+     * Return the sum of the lengths of all stored events. Compared to the
+     * list size it tells which fraction of the list the stored events touch:
+     * when it is close to the list size, reading the whole list again is
+     * cheaper than applying the events one by one.
+     * @return The sum of the lengths of all stored events.
+     */
+    public int getLength() {
+        return length;
+    }
+
     /**
      * Get the first event of the list.
      * @return The first event of the list (if any).
@@ -117,6 +164,7 @@ public class DefaultAssembler implements ActiveListEventAssembler {
         ActiveListEvent event = null;
         if (!events.isEmpty()) {
             event = events.remove();
+            length -= event.getY() - event.getX() + 1;
         }
         return event;
     }
@@ -133,6 +181,22 @@ public class DefaultAssembler implements ActiveListEventAssembler {
             throw new IllegalArgumentException("Cannot accept given event: "
                 + "x coordinate must be less than or equal to y coordinate!");
         }
+        
+        // Moves are merged as a removal followed by an addition.
+        
+        if ((events.size() == 1) && (events.getFirst().getType()
+                == ActiveListEvent.INTERVAL_MOVED)) {
+            splitMove(pop());
+        }
+        if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            if (events.isEmpty()) {
+                events.add(event);
+                length += event.getY() - event.getX() + 1;
+            } else {
+                splitMove(event);
+            }
+            return;
+        }
 
         ne = event;
         iter = events.listIterator(events.size());
@@ -337,6 +401,7 @@ public class DefaultAssembler implements ActiveListEventAssembler {
 
         if (ne != null) {
             events.addFirst(ne);
+            length += ne.getY() - ne.getX() + 1;
         }
     }
     
@@ -344,10 +409,29 @@ public class DefaultAssembler implements ActiveListEventAssembler {
      * Private methods.
      */
     
+    /**
+     * Push the removal of the interval moved by the given event followed by
+     * the addition of the moved items at their destination.
+     * @param move The <tt>INTERVAL_MOVED</tt> event to be split.
+     */
+    private void splitMove(ActiveListEvent move) {
+        int x = move.getX();
+        int y = move.getY();
+        int toIndex = move.getToIndex();
+        Object source = move.getSource();
+        if (pool != null) {
+            pool.recycle(move);
+        }
+        push(createEvent(source, ActiveListEvent.INTERVAL_REMOVED, x, y));
+        push(createEvent(source, ActiveListEvent.INTERVAL_ADDED, toIndex,
+            toIndex + y - x));
+    }
+    
     /** Insert the new event into the events list. */
     private void insert() {
         iter.next();
         iter.add(ne);
+        length += ne.getY() - ne.getX() + 1;
         ne = null;
     }
     
@@ -366,26 +450,21 @@ public class DefaultAssembler implements ActiveListEventAssembler {
      */
     private void merge(int start) {
         
+        ActiveListEvent mergedOldEvent = oe;
+        ActiveListEvent mergedNewEvent = ne;
+        length -= oe.getY() - oe.getX() + 1;
+        
         if (adds > 0) {
-            ActiveListEvent e = new ActiveListEvent(ne.getSource());
-            e.setX(start);
-            e.setY(start + adds - 1);
-            e.setType(ActiveListEvent.INTERVAL_ADDED);
-            listBuffer.add(e);
+            listBuffer.add(createEvent(ActiveListEvent.INTERVAL_ADDED, start,
+                start + adds - 1));
         }
         if (dels > 0) {
-            ActiveListEvent e = new ActiveListEvent(ne.getSource());
-            e.setX(start);
-            e.setY(start + dels - 1);
-            e.setType(ActiveListEvent.INTERVAL_REMOVED);
-            listBuffer.add(e);
+            listBuffer.add(createEvent(ActiveListEvent.INTERVAL_REMOVED, start,
+                start + dels - 1));
         }
         if (mods > 0) {
-            ActiveListEvent e = new ActiveListEvent(ne.getSource());
-            e.setX(start + adds);
-            e.setY(start + adds + mods - 1);
-            e.setType(ActiveListEvent.CONTENTS_CHANGED);
-            listBuffer.add(e);
+            listBuffer.add(createEvent(ActiveListEvent.CONTENTS_CHANGED,
+                start + adds, start + adds + mods - 1));
         }
 
         if (listBuffer.isEmpty()) { // No events.
@@ -396,7 +475,47 @@ public class DefaultAssembler implements ActiveListEventAssembler {
             iter.remove();      
         } else if (listBuffer.size() == 2) { // MOD event.
             ne = listBuffer.remove(0);
-            iter.set(listBuffer.remove(0));
+            ActiveListEvent mergedEvent = listBuffer.remove(0);
+            iter.set(mergedEvent);
+            length += mergedEvent.getY() - mergedEvent.getX() + 1;
+        }
+        
+        if (pool != null) {
+            pool.recycle(mergedOldEvent);
+            pool.recycle(mergedNewEvent);
+        }
+    }
+    
+    /**
+     * Create a merged event with the source of the new event.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return The merged event.
+     */
+    private ActiveListEvent createEvent(int type, int x, int y) {
+        return createEvent(ne.getSource(), type, x, y);
+    }
+    
+    /**
+     * Create an event with the given source.
+     * @param source The event source.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return The new event.
+     */
+    private ActiveListEvent createEvent(Object source, int type, int x,
+            int y) {
+        ActiveListEvent e;
+        if (pool != null) {
+            e = pool.obtain(source, type, x, y);
+        } else {
+            e = new ActiveListEvent(source);
+            e.setX(x);
+            e.setY(y);
+            e.setType(type);
         }
+        return e;
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+/*
+ * DoubleActiveList.java
+ *
+ * Created on 18 October 2026, 12.15
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Application classes.
+
+import org.kineticsystem.commons.collections.DoubleArrayList;
+
+/**
+ * This is an <tt>ActiveList</tt> of <tt>double</tt> values backed by a growable
+ * primitive array: values are not boxed while stored in the list.
+ * It fires the same events of the <tt>DefaultActiveList</tt> so it can be used
+ * with a <tt>DataList</tt>, a <tt>TableModelAdapter</tt> or a mapping; in
+ * addition it provides unboxed accessors that never allocate any value.
+ * All unboxed accessors are thread-safe.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class DoubleActiveList
+        extends PrimitiveActiveList<Double, DoubleArrayList> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /** Default constructor. */
+    public DoubleActiveList() {
+        super(new DoubleArrayList());
+    }
+
+    /**
+     * Create a list with the given initial capacity.
+     * @param capacity The initial capacity of the list.
+     */
+    public DoubleActiveList(int capacity) {
+        super(new DoubleArrayList(capacity));
+    }
+
+    /**
+     * Create a list containing the given values.
+     * @param values The values to be placed into this list.
+     */
+    public DoubleActiveList(double[] values) {
+        super(new DoubleArrayList(values));
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Primitive methods.
+     */
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#getDouble(int)
+     */
+    public double getDouble(int index) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.getDouble(index);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#setDouble(int, double)
+     */
+    public double setDouble(int index, double value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            double previousValue = values.setDouble(index, value);
+            valueChanged(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#addDouble(double)
+     */
+    public void addDouble(double value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int size = values.size();
+            values.addDouble(value);
+            valuesAdded(size, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#addDouble(int, double)
+     */
+    public void addDouble(int index, double value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            values.addDouble(index, value);
+            valuesAdded(index, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#addAll(double[])
+     */
+    public boolean addAll(double[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            return addAll(this.values.size(), values);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#addAll(int, double[])
+     */
+    public boolean addAll(int index, double[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            boolean isChanged = this.values.addAll(index, values);
+            valuesAdded(index, values.length);
+            return isChanged;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#removeDouble(int)
+     */
+    public double removeDouble(int index) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            double previousValue = values.removeDouble(index);
+            valueRemoved(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#indexOfDouble(double)
+     */
+    public int indexOfDouble(double value) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.indexOfDouble(value);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see DoubleArrayList#toDoubleArray()
+     */
+    public double[] toDoubleArray() {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.toDoubleArray();
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+}
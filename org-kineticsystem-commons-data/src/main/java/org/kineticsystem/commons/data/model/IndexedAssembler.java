@@ -0,0 +1,640 @@
+/*
+ * IndexedAssembler.java
+ *
+ * Created on 18 October 2026, 16.30
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is an <tt>ActiveListEventAssembler</tt> producing exactly the same
+ * events of the <tt>DefaultAssembler</tt> in O(log n) time per pushed event,
+ * instead of O(n), where n is the number of stored events: use it when the
+ * assembler collects large bursts of scattered changes.
+ * <p>
+ * The <tt>DefaultAssembler</tt> propagates a new event from the last stored
+ * event backwards: stored events found at the right of the new event are
+ * translated by its length and skipped, until an event is merged with the new
+ * one or the new one is inserted after it. A stored event is at the right of
+ * the new one when its first index is greater than a threshold depending on
+ * the new event only, so the skipped events are found searching a tree of
+ * events, ordered as in the <tt>DefaultAssembler</tt> list, whose nodes store
+ * the minimum first index of their subtree; they are translated at once by a
+ * lazy offset propagated to the subtree nodes when they are visited. Merged
+ * events are removed from the tree, so the amortized cost of a push is
+ * O(log n).
+ * <p>
+ * Moves are stored and split as in the <tt>DefaultAssembler</tt>.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see DefaultAssembler
+ */
+public class IndexedAssembler implements ActiveListEventAssembler {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constants.
+     */
+    
+    /** The new event must be inserted after the stored one. */
+    private static final int INSERT = 0;
+    
+    /** The stored event is at the right of the new one. */
+    private static final int TRANSLATE = 1;
+    
+    /** The new event must be merged with the stored one. */
+    private static final int MERGE = 2;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The tree of stored events (null if empty). */
+    private Node root;
+    
+    /** The sum of the lengths of all stored events. */
+    private int length;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted adding event (equals to 0 if none).
+     */
+    private int adds;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted deleting event (equals to 0 if none).
+     */
+    private int dels;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted modifying event (equals to 0 if none).
+     */
+    private int mods;
+    
+    /** The seed used to generate node priorities. */
+    private int seed;
+    
+    /**
+     * The pool used to create merged events and to recycle the merging ones
+     * (null if events are not pooled).
+     */
+    private ActiveListEventPool pool;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Default constructor. */
+    public IndexedAssembler() {
+        this(null);
+    }
+    
+    /**
+     * Create an assembler taking merged events from the given pool and giving
+     * back the merging ones. All events pushed into the assembler must be
+     * owned by the pool: they cannot be used by the caller after the push.
+     * @param pool The event pool (null if events are not pooled).
+     */
+    public IndexedAssembler(ActiveListEventPool pool) {
+        this.pool = pool;
+        this.root = null;
+        this.length = 0;
+        this.seed = 0x2545F491;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListEventAssembler interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public boolean isEmpty() {
+        return root == null;
+    }
+    
+    /**
+     * Return the number of events stored by the assembler.
+     * @return The number of events stored by the assembler.
+     */
+    public int size() {
+        return size(root);
+    }
+    
+    /**
+     * Return the sum of the lengths of all stored events.
+     * @return The sum of the lengths of all stored events.
+     * @see DefaultAssembler#getLength()
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    /** {@inheritDoc} */
+    public ActiveListEvent pop() {
+        ActiveListEvent event = null;
+        if (root != null) {
+            Node[] parts = split(root, 1);
+            event = parts[0].event;
+            root = parts[1];
+            length -= event.getY() - event.getX() + 1;
+        }
+        return event;
+    }
+    
+    /**
+     * Add the given event to the list.
+     * @param event The event to be packed inside the list.
+     * @throws IllegalArgumentException if event x coordinate is greater than
+     *     event y coordinate.
+     */
+    public void push(ActiveListEvent event) {
+        
+        if (event.getX() > event.getY()) {
+            throw new IllegalArgumentException("Cannot accept given event: "
+                + "x coordinate must be less than or equal to y coordinate!");
+        }
+        
+        // Moves are merged as a removal followed by an addition.
+        
+        if ((size(root) == 1) && (root.event.getType()
+                == ActiveListEvent.INTERVAL_MOVED)) {
+            splitMove(pop());
+        }
+        if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            if (root == null) {
+                root = createNode(event);
+                length += event.getY() - event.getX() + 1;
+            } else {
+                splitMove(event);
+            }
+            return;
+        }
+        
+        ActiveListEvent ne = event;
+        Node left = root; // Events not yet visited.
+        Node right = null; // Events already visited.
+        
+        while ((left != null) && (ne != null)) {
+            
+            // Translate all events at the right of the new one.
+            
+            int threshold;
+            int translation;
+            int eventLength = ne.getY() - ne.getX() + 1;
+            if (ne.getType() == ActiveListEvent.INTERVAL_ADDED) {
+                threshold = ne.getX();
+                translation = eventLength;
+            } else if (ne.getType() == ActiveListEvent.INTERVAL_REMOVED) {
+                threshold = ne.getY() + 1;
+                translation = -eventLength;
+            } else {
+                threshold = ne.getY() + 1;
+                translation = 0;
+            }
+            
+            Node[] parts = split(left, lastIndexOf(left, threshold) + 1);
+            translate(parts[1], translation);
+            right = merge(parts[1], right);
+            left = parts[0];
+            if (left == null) {
+                break;
+            }
+            
+            // Compare the new event with the last event not translated.
+            
+            parts = split(left, size(left) - 1);
+            left = parts[0];
+            Node node = parts[1];
+            ActiveListEvent oe = node.event;
+            
+            int action = compare(oe, ne);
+            if (action == INSERT) {
+                left = merge(left, node);
+                break;
+            } else if (action == TRANSLATE) {
+                translate(node, translation);
+                right = merge(node, right);
+            } else {
+                
+                // Merge the new event and the old one.
+                
+                int start = Math.min(oe.getX(), ne.getX());
+                ActiveListEvent addEvent = null;
+                ActiveListEvent delEvent = null;
+                ActiveListEvent modEvent = null;
+                if (adds > 0) {
+                    addEvent = createEvent(ne, ActiveListEvent.INTERVAL_ADDED,
+                        start, start + adds - 1);
+                }
+                if (dels > 0) {
+                    delEvent = createEvent(ne,
+                        ActiveListEvent.INTERVAL_REMOVED, start,
+                        start + dels - 1);
+                }
+                if (mods > 0) {
+                    modEvent = createEvent(ne,
+                        ActiveListEvent.CONTENTS_CHANGED, start + adds,
+                        start + adds + mods - 1);
+                }
+                length -= oe.getY() - oe.getX() + 1;
+                if (pool != null) {
+                    pool.recycle(oe);
+                    pool.recycle(ne);
+                }
+                
+                // The first event goes on, the second one replaces the old.
+                
+                ne = (addEvent != null) ? addEvent : delEvent;
+                ActiveListEvent replacement = modEvent;
+                if (ne == null) {
+                    ne = modEvent;
+                    replacement = null;
+                }
+                if (replacement != null) {
+                    length += replacement.getY() - replacement.getX() + 1;
+                    node.event = replacement;
+                    node.left = null;
+                    node.right = null;
+                    update(node);
+                    right = merge(node, right);
+                }
+            }
+        }
+        
+        // Insert the new event.
+        
+        if (ne != null) {
+            left = merge(left, createNode(ne));
+            length += ne.getY() - ne.getX() + 1;
+        }
+        root = merge(left, right);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Compare a stored event and a new one as the <tt>DefaultAssembler</tt>
+     * does. If the events must be merged the lengths of the merged events are
+     * stored into <tt>adds</tt>, <tt>dels</tt> and <tt>mods</tt>.
+     * @param oe The stored event.
+     * @param ne The new event.
+     * @return The action to be executed.
+     */
+    private int compare(ActiveListEvent oe, ActiveListEvent ne) {
+        
+        int oldChangeX = oe.getX();
+        int oldChangeY = oe.getY();
+        
+        int newChangeX = ne.getX();
+        int newChangeY = ne.getY();
+        
+        int changesMinX = Math.min(oldChangeX, newChangeX);
+        int changesMaxY = Math.max(oldChangeY, newChangeY);
+        
+        int changesRShift = newChangeY - oldChangeY;
+        int changesLShift = newChangeX - oldChangeX;
+        
+        int changesRDist = newChangeX - oldChangeY - 1;
+        int changesLDist = oldChangeX - newChangeY - 1;
+        
+        int oldChangeLength = oldChangeY - oldChangeX + 1;
+        int newChangeLength = newChangeY - newChangeX + 1;
+        
+        int changesSpan = changesMaxY - changesMinX + 1;
+        int changesOverlapt = changesSpan - Math.abs(changesRShift)
+            - Math.abs(changesLShift);
+        
+        boolean overlapped = (changesLDist < 0) && (changesRDist < 0);
+        boolean adjacent = (changesLDist == 0) || (changesRDist == 0);
+        
+        int newType = ne.getType();
+        int oldType = oe.getType();
+        
+        if (newType == ActiveListEvent.INTERVAL_ADDED) {
+            
+            if (((oldType == ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesLShift > 0))
+                    || ((oldType != ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesRDist > 0))) {
+                return INSERT;
+            } else if (changesLShift < 0) {
+                return TRANSLATE;
+            } else if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                adds = oldChangeLength + newChangeLength;
+                dels = 0;
+                mods = 0;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                adds = newChangeLength;
+                dels = 0;
+                mods = oldChangeLength;
+            } else {
+                adds = Math.max(newChangeLength - oldChangeLength, 0);
+                dels = Math.max(oldChangeLength - newChangeLength, 0);
+                mods = changesOverlapt;
+            }
+            
+        } else if (newType == ActiveListEvent.CONTENTS_CHANGED) {
+            
+            if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                if (changesRDist >= 0) {
+                    return INSERT;
+                } else if (!adjacent && !overlapped) {
+                    return TRANSLATE;
+                }
+                adds = oldChangeLength;
+                dels = 0;
+                mods = newChangeLength - changesOverlapt;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                if (changesRDist > 0) {
+                    return INSERT;
+                } else if (!adjacent && !overlapped) {
+                    return TRANSLATE;
+                }
+                adds = 0;
+                dels = 0;
+                mods = changesMaxY - changesMinX + 1;
+            } else {
+                if (changesLShift >= 0) {
+                    return INSERT;
+                } else if (changesLDist > 0) {
+                    return TRANSLATE;
+                }
+                adds = 0;
+                dels = oldChangeLength;
+                mods = newChangeLength;
+            }
+            
+        } else {
+            
+            if (((oldType == ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesLShift > 0))
+                    || ((oldType != ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesRDist > 0))) {
+                return INSERT;
+            } else if (changesLDist > 0) {
+                return TRANSLATE;
+            } else if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                adds = Math.max(oldChangeLength - newChangeLength, 0);
+                dels = Math.max(newChangeLength - oldChangeLength, 0);
+                mods = oldChangeLength - adds - changesOverlapt;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                adds = 0;
+                dels = newChangeLength;
+                mods = oldChangeLength - changesOverlapt;
+            } else {
+                adds = 0;
+                dels = oldChangeLength + newChangeLength;
+                mods = 0;
+            }
+        }
+        return MERGE;
+    }
+    
+    /**
+     * Push the removal of the interval moved by the given event followed by
+     * the addition of the moved items at their destination.
+     * @param move The <tt>INTERVAL_MOVED</tt> event to be split.
+     * @see DefaultAssembler
+     */
+    private void splitMove(ActiveListEvent move) {
+        int x = move.getX();
+        int y = move.getY();
+        int toIndex = move.getToIndex();
+        ActiveListEvent removed = createEvent(move,
+            ActiveListEvent.INTERVAL_REMOVED, x, y);
+        ActiveListEvent added = createEvent(move,
+            ActiveListEvent.INTERVAL_ADDED, toIndex, toIndex + y - x);
+        if (pool != null) {
+            pool.recycle(move);
+        }
+        push(removed);
+        push(added);
+    }
+    
+    /**
+     * Create a merged event with the source of the new event.
+     * @param ne The new event.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return The merged event.
+     */
+    private ActiveListEvent createEvent(ActiveListEvent ne, int type, int x,
+            int y) {
+        ActiveListEvent e;
+        if (pool != null) {
+            e = pool.obtain(ne.getSource(), type, x, y);
+        } else {
+            e = new ActiveListEvent(ne.getSource());
+            e.setX(x);
+            e.setY(y);
+            e.setType(type);
+        }
+        return e;
+    }
+    
+    /**
+     * Create a tree node storing the given event.
+     * @param event The event.
+     * @return The tree node.
+     */
+    private Node createNode(ActiveListEvent event) {
+        
+        // Xorshift generator.
+        
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        Node node = new Node(event, seed);
+        update(node);
+        return node;
+    }
+    
+    /**
+     * Return the position of the last event of the given tree whose first
+     * index is less than or equal to the given threshold.
+     * @param node The tree root.
+     * @param threshold The threshold.
+     * @return The event position (-1 if none).
+     */
+    private static int lastIndexOf(Node node, int threshold) {
+        int offset = 0;
+        while ((node != null) && (node.minX <= threshold)) {
+            push(node);
+            if ((node.right != null) && (node.right.minX <= threshold)) {
+                offset += size(node.left) + 1;
+                node = node.right;
+            } else if (node.event.getX() <= threshold) {
+                return offset + size(node.left);
+            } else {
+                node = node.left;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Split the given tree in two trees containing respectively the first
+     * given number of events and the remaining ones.
+     * @param node The tree root.
+     * @param count The number of events of the first tree.
+     * @return The roots of the two trees.
+     */
+    private static Node[] split(Node node, int count) {
+        Node[] parts = new Node[2];
+        if (node == null) {
+            return parts;
+        }
+        push(node);
+        int leftSize = size(node.left);
+        if (count <= leftSize) {
+            Node[] leftParts = split(node.left, count);
+            node.left = leftParts[1];
+            update(node);
+            parts[0] = leftParts[0];
+            parts[1] = node;
+        } else {
+            Node[] rightParts = split(node.right, count - leftSize - 1);
+            node.right = rightParts[0];
+            update(node);
+            parts[0] = node;
+            parts[1] = rightParts[1];
+        }
+        return parts;
+    }
+    
+    /**
+     * Concatenate the given trees.
+     * @param left The root of the first tree.
+     * @param right The root of the second tree.
+     * @return The root of the resulting tree.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            push(left);
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            push(right);
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+    
+    /**
+     * Translate all events of the given tree.
+     * @param node The tree root.
+     * @param translation The translation length.
+     */
+    private static void translate(Node node, int translation) {
+        if ((node != null) && (translation != 0)) {
+            ActiveListEvent event = node.event;
+            event.setX(event.getX() + translation);
+            event.setY(event.getY() + translation);
+            node.minX += translation;
+            node.offset += translation;
+        }
+    }
+    
+    /**
+     * Propagate the pending translation of the given node to its children.
+     * @param node The tree node.
+     */
+    private static void push(Node node) {
+        if (node.offset != 0) {
+            translate(node.left, node.offset);
+            translate(node.right, node.offset);
+            node.offset = 0;
+        }
+    }
+    
+    /**
+     * Update size and minimum first index of the given node from its
+     * children, whose pending translations must have been propagated.
+     * @param node The tree node.
+     */
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        int minX = node.event.getX();
+        if (node.left != null) {
+            minX = Math.min(minX, node.left.minX);
+        }
+        if (node.right != null) {
+            minX = Math.min(minX, node.right.minX);
+        }
+        node.minX = minX;
+    }
+    
+    /** Return the size of the given tree (0 if empty). */
+    private static int size(Node node) {
+        return (node == null) ? 0 : node.size;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /** A tree node. */
+    private static class Node {
+        
+        /** The stored event. */
+        private ActiveListEvent event;
+        
+        /** The node priority: parents have greater priorities. */
+        private int priority;
+        
+        /** The left subtree. */
+        private Node left;
+        
+        /** The right subtree. */
+        private Node right;
+        
+        /** The number of events of the subtree. */
+        private int size;
+        
+        /** The minimum first index of the subtree events. */
+        private int minX;
+        
+        /** The translation still to be applied to the children. */
+        private int offset;
+        
+        /**
+         * Create a leaf.
+         * @param event The stored event.
+         * @param priority The node priority.
+         */
+        public Node(ActiveListEvent event, int priority) {
+            this.event = event;
+            this.priority = priority;
+        }
+    }
+}
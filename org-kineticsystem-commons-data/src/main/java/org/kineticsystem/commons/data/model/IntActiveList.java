@@ -0,0 +1,216 @@
+/*
+ * IntActiveList.java
+ *
+ * Created on 18 October 2026, 12.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Application classes.
+
+import org.kineticsystem.commons.collections.IntArrayList;
+
+/**
+ * This is an <tt>ActiveList</tt> of <tt>int</tt> values backed by a growable
+ * primitive array: values are not boxed while stored in the list.
+ * It fires the same events of the <tt>DefaultActiveList</tt> so it can be used
+ * with a <tt>DataList</tt>, a <tt>TableModelAdapter</tt> or a mapping; in
+ * addition it provides unboxed accessors that never allocate any value.
+ * All unboxed accessors are thread-safe.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class IntActiveList
+        extends PrimitiveActiveList<Integer, IntArrayList> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /** Default constructor. */
+    public IntActiveList() {
+        super(new IntArrayList());
+    }
+
+    /**
+     * Create a list with the given initial capacity.
+     * @param capacity The initial capacity of the list.
+     */
+    public IntActiveList(int capacity) {
+        super(new IntArrayList(capacity));
+    }
+
+    /**
+     * Create a list containing the given values.
+     * @param values The values to be placed into this list.
+     */
+    public IntActiveList(int[] values) {
+        super(new IntArrayList(values));
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Primitive methods.
+     */
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#getInt(int)
+     */
+    public int getInt(int index) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.getInt(index);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#setInt(int, int)
+     */
+    public int setInt(int index, int value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int previousValue = values.setInt(index, value);
+            valueChanged(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#addInt(int)
+     */
+    public void addInt(int value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int size = values.size();
+            values.addInt(value);
+            valuesAdded(size, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#addInt(int, int)
+     */
+    public void addInt(int index, int value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            values.addInt(index, value);
+            valuesAdded(index, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#addAll(int[])
+     */
+    public boolean addAll(int[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            return addAll(this.values.size(), values);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#addAll(int, int[])
+     */
+    public boolean addAll(int index, int[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            boolean isChanged = this.values.addAll(index, values);
+            valuesAdded(index, values.length);
+            return isChanged;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#removeInt(int)
+     */
+    public int removeInt(int index) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int previousValue = values.removeInt(index);
+            valueRemoved(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#indexOfInt(int)
+     */
+    public int indexOfInt(int value) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.indexOfInt(value);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see IntArrayList#toIntArray()
+     */
+    public int[] toIntArray() {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.toIntArray();
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+}
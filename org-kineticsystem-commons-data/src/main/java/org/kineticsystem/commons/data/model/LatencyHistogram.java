@@ -0,0 +1,184 @@
+/*
+ * LatencyHistogram.java
+ *
+ * Created on 18 October 2026, 21.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is a thread-safe histogram of latencies measured in nanoseconds. Each
+ * latency is counted in the bucket of its power of two, so recording is
+ * cheap and percentiles are approximated by excess within a factor of two.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ActiveListInstrumentation
+ */
+public class LatencyHistogram {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /**
+     * The bucket counters: bucket i counts latencies lower than 2^i ns and
+     * not lower than 2^(i-1) ns.
+     */
+    private AtomicLongArray buckets;
+    
+    /** The number of recorded latencies. */
+    private AtomicLong count;
+    
+    /** The sum of recorded latencies. */
+    private AtomicLong totalTime;
+    
+    /** The maximum recorded latency. */
+    private AtomicLong maxTime;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Create an empty histogram. */
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(64);
+        this.count = new AtomicLong();
+        this.totalTime = new AtomicLong();
+        this.maxTime = new AtomicLong();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Record the given latency.
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+        count.incrementAndGet();
+        totalTime.addAndGet(nanos);
+        long max = maxTime.get();
+        while ((nanos > max) && !maxTime.compareAndSet(max, nanos)) {
+            max = maxTime.get();
+        }
+    }
+    
+    /**
+     * Return the number of recorded latencies.
+     * @return The number of recorded latencies.
+     */
+    public long getCount() {
+        return count.get();
+    }
+    
+    /**
+     * Return the sum of recorded latencies in nanoseconds.
+     * @return The sum of recorded latencies.
+     */
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+    
+    /**
+     * Return the maximum recorded latency in nanoseconds.
+     * @return The maximum recorded latency.
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+    
+    /**
+     * Return the mean latency in nanoseconds.
+     * @return The mean latency or 0 if nothing has been recorded.
+     */
+    public long getMeanTime() {
+        long n = count.get();
+        return (n == 0) ? 0 : totalTime.get() / n;
+    }
+    
+    /**
+     * Return an upper bound of the given percentile in nanoseconds.
+     * @param percentile The percentile between 0 and 100.
+     * @return An upper bound of the given percentile, within a factor of two,
+     *     or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        
+        long total = 0;
+        for (int i = 0; i < 64; i++) {
+            total += buckets.get(i);
+        }
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long cumulated = 0;
+        for (int i = 0; i < 64; i++) {
+            cumulated += buckets.get(i);
+            if ((cumulated > 0) && (cumulated >= threshold)) {
+                return Math.min((1L << i) - 1, maxTime.get());
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Return a copy of the histogram.
+     * @return A copy of the histogram.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 64; i++) {
+            histogram.buckets.set(i, buckets.get(i));
+        }
+        histogram.count.set(count.get());
+        histogram.totalTime.set(totalTime.get());
+        histogram.maxTime.set(maxTime.get());
+        return histogram;
+    }
+    
+    /** Discard all recorded latencies. */
+    public void reset() {
+        for (int i = 0; i < 64; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalTime.set(0);
+        maxTime.set(0);
+    }
+    
+    /**
+     * Return a summary of the histogram.
+     * @return A summary of the histogram.
+     */
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + getMeanTime()
+            + "ns, p50<=" + getPercentile(50) + "ns, p99<="
+            + getPercentile(99) + "ns, max=" + getMaxTime() + "ns";
+    }
+}
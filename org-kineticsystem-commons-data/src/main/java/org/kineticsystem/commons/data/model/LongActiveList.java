@@ -0,0 +1,216 @@
+/*
+ * LongActiveList.java
+ *
+ * Created on 18 October 2026, 12.10
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Application classes.
+
+import org.kineticsystem.commons.collections.LongArrayList;
+
+/**
+ * This is an <tt>ActiveList</tt> of <tt>long</tt> values backed by a growable
+ * primitive array: values are not boxed while stored in the list.
+ * It fires the same events of the <tt>DefaultActiveList</tt> so it can be used
+ * with a <tt>DataList</tt>, a <tt>TableModelAdapter</tt> or a mapping; in
+ * addition it provides unboxed accessors that never allocate any value.
+ * All unboxed accessors are thread-safe.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class LongActiveList
+        extends PrimitiveActiveList<Long, LongArrayList> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /** Default constructor. */
+    public LongActiveList() {
+        super(new LongArrayList());
+    }
+
+    /**
+     * Create a list with the given initial capacity.
+     * @param capacity The initial capacity of the list.
+     */
+    public LongActiveList(int capacity) {
+        super(new LongArrayList(capacity));
+    }
+
+    /**
+     * Create a list containing the given values.
+     * @param values The values to be placed into this list.
+     */
+    public LongActiveList(long[] values) {
+        super(new LongArrayList(values));
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Primitive methods.
+     */
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#getLong(int)
+     */
+    public long getLong(int index) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.getLong(index);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#setLong(int, long)
+     */
+    public long setLong(int index, long value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            long previousValue = values.setLong(index, value);
+            valueChanged(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#addLong(long)
+     */
+    public void addLong(long value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int size = values.size();
+            values.addLong(value);
+            valuesAdded(size, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#addLong(int, long)
+     */
+    public void addLong(int index, long value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            values.addLong(index, value);
+            valuesAdded(index, 1);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#addAll(long[])
+     */
+    public boolean addAll(long[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            return addAll(this.values.size(), values);
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#addAll(int, long[])
+     */
+    public boolean addAll(int index, long[] values) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            boolean isChanged = this.values.addAll(index, values);
+            valuesAdded(index, values.length);
+            return isChanged;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#removeLong(int)
+     */
+    public long removeLong(int index) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            long previousValue = values.removeLong(index);
+            valueRemoved(index);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#indexOfLong(long)
+     */
+    public int indexOfLong(long value) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.indexOfLong(value);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see LongArrayList#toLongArray()
+     */
+    public long[] toLongArray() {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return values.toLongArray();
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+}
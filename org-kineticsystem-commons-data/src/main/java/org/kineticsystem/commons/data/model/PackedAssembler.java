@@ -0,0 +1,649 @@
+/*
+ * PackedAssembler.java
+ *
+ * Created on 18 October 2026, 18.10
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is an <tt>ActiveListEventAssembler</tt> producing exactly the same
+ * events of the <tt>DefaultAssembler</tt> without creating any object while
+ * events are pushed. Stored events are packed as (type, x, y) triples inside a
+ * growable <tt>int</tt> array and merged in place, so a push allocates nothing
+ * but the array growth.
+ * <p>
+ * Changes can be pushed as primitive values with
+ * <tt>push(Object, int, int, int)</tt> and read back by index or delivered to
+ * a <tt>PrimitiveActiveListListener</tt> with <tt>drain</tt>: an event object
+ * is created only when <tt>pop</tt> is called, and it is taken from the pool
+ * if any. Events given to <tt>push(ActiveListEvent)</tt> are not stored: if
+ * the assembler has a pool they are recycled at once.
+ * <p>
+ * Moves are stored and split as in the <tt>DefaultAssembler</tt>: a stored
+ * move is always the only stored event, so its destination index is kept
+ * aside and read with <tt>getToIndex</tt>.
+ * <p>
+ * All stored events share the source of the last pushed change. This
+ * implementation is not synchronized.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see DefaultAssembler
+ */
+public class PackedAssembler implements ActiveListEventAssembler {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constants.
+     */
+    
+    /** The number of array cells used by a stored event. */
+    private static final int STRIDE = 3;
+    
+    /** The offset of the event type inside a stored event. */
+    private static final int TYPE = 0;
+    
+    /** The offset of the first index inside a stored event. */
+    private static final int X = 1;
+    
+    /** The offset of the last index inside a stored event. */
+    private static final int Y = 2;
+    
+    /** The new event must be inserted after the stored one. */
+    private static final int INSERT = 0;
+    
+    /** The stored event is at the right of the new one. */
+    private static final int TRANSLATE = 1;
+    
+    /** The new event must be merged with the stored one. */
+    private static final int MERGE = 2;
+    
+    /** The default number of events the assembler can store without growing. */
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /**
+     * The stored events as (type, x, y) triples. Events between
+     * <tt>head</tt> (inclusive) and <tt>tail</tt> (exclusive) are in use.
+     */
+    private int[] events;
+    
+    /** The array position of the first stored event. */
+    private int head;
+    
+    /** The array position following the last stored event. */
+    private int tail;
+    
+    /** The sum of the lengths of all stored events. */
+    private int length;
+    
+    /** The source of the stored events. */
+    private Object source;
+    
+    /** The destination index of the stored move (if any). */
+    private int toIndex;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted adding event (equals to 0 if none).
+     */
+    private int adds;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted deleting event (equals to 0 if none).
+     */
+    private int dels;
+    
+    /**
+     * When two events are merged together, this variable is set to the length
+     * of the resulted modifying event (equals to 0 if none).
+     */
+    private int mods;
+    
+    /**
+     * The pool used to create popped events and to recycle the pushed ones
+     * (null if events are not pooled).
+     */
+    private ActiveListEventPool pool;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Default constructor. */
+    public PackedAssembler() {
+        this(null);
+    }
+    
+    /**
+     * Create an assembler taking popped events from the given pool and giving
+     * back the pushed ones. All events pushed into the assembler must be
+     * owned by the pool: they cannot be used by the caller after the push.
+     * @param pool The event pool (null if events are not pooled).
+     */
+    public PackedAssembler(ActiveListEventPool pool) {
+        this.pool = pool;
+        this.events = new int[DEFAULT_CAPACITY * STRIDE];
+        this.head = 0;
+        this.tail = 0;
+        this.length = 0;
+        this.source = null;
+        this.toIndex = 0;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListEventAssembler interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public boolean isEmpty() {
+        return head == tail;
+    }
+    
+    /**
+     * Get the first event of the list. The event is taken from the pool if
+     * any.
+     * @return The first event of the list (if any).
+     */
+    public ActiveListEvent pop() {
+        ActiveListEvent event = null;
+        if (head != tail) {
+            int p = head * STRIDE;
+            int type = events[p + TYPE];
+            int x = events[p + X];
+            int y = events[p + Y];
+            if (pool != null) {
+                event = pool.obtain(source, type, x, y);
+            } else {
+                event = new ActiveListEvent(source);
+                event.setType(type);
+                event.setX(x);
+                event.setY(y);
+            }
+            if (type == ActiveListEvent.INTERVAL_MOVED) {
+                event.setToIndex(toIndex);
+            }
+            remove(0);
+            length -= y - x + 1;
+        }
+        return event;
+    }
+    
+    /**
+     * Add the given event to the list. The event is not stored: its values
+     * are copied and, if the assembler has a pool, it is recycled.
+     * @param event The event to be packed inside the list.
+     * @throws IllegalArgumentException if event x coordinate is greater than
+     *     event y coordinate.
+     */
+    public void push(ActiveListEvent event) {
+        push(event.getSource(), event.getType(), event.getX(), event.getY(),
+            event.getToIndex());
+        if (pool != null) {
+            pool.recycle(event);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Add the given change to the list. Moves must be pushed with their
+     * destination index: see <tt>push(Object, int, int, int, int)</tt>.
+     * @param source The list where the change occurred.
+     * @param type The change type: see <tt>ActiveListEvent</tt>.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @throws IllegalArgumentException if x is greater than y.
+     */
+    public void push(Object source, int type, int x, int y) {
+        push(source, type, x, y, x);
+    }
+    
+    /**
+     * Add the given change to the list.
+     * @param source The list where the change occurred.
+     * @param type The change type: see <tt>ActiveListEvent</tt>.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> changes only).
+     * @throws IllegalArgumentException if x is greater than y.
+     */
+    public void push(Object source, int type, int x, int y, int toIndex) {
+        
+        if (x > y) {
+            throw new IllegalArgumentException("Cannot accept given event: "
+                + "x coordinate must be less than or equal to y coordinate!");
+        }
+        
+        // Moves are merged as a removal followed by an addition.
+        
+        if (isMove()) {
+            splitMove();
+        }
+        if (type == ActiveListEvent.INTERVAL_MOVED) {
+            if (head == tail) {
+                this.source = source;
+                this.toIndex = toIndex;
+                insert(0, type, x, y);
+            } else {
+                push(source, ActiveListEvent.INTERVAL_REMOVED, x, y, 0);
+                push(source, ActiveListEvent.INTERVAL_ADDED, toIndex,
+                    toIndex + y - x, 0);
+            }
+            return;
+        }
+        
+        this.source = source;
+        
+        // The new event, propagated from the last stored event backwards.
+        
+        int newType = type;
+        int newX = x;
+        int newY = y;
+        boolean pending = true;
+        
+        for (int i = tail - head - 1; (i >= 0) && pending; i--) {
+            
+            int p = (head + i) * STRIDE;
+            int oldType = events[p + TYPE];
+            int oldX = events[p + X];
+            int oldY = events[p + Y];
+            
+            int action = compare(oldType, oldX, oldY, newType, newX, newY);
+            if (action == INSERT) {
+                insert(i + 1, newType, newX, newY);
+                pending = false;
+            } else if (action == TRANSLATE) {
+                int translation = 0;
+                if (newType == ActiveListEvent.INTERVAL_ADDED) {
+                    translation = newY - newX + 1;
+                } else if (newType == ActiveListEvent.INTERVAL_REMOVED) {
+                    translation = newX - newY - 1;
+                }
+                events[p + X] = oldX + translation;
+                events[p + Y] = oldY + translation;
+            } else {
+                
+                /*
+                 * The merge produces up to two events: an adding or deleting
+                 * event that goes on propagating and a modifying event
+                 * replacing the stored one.
+                 */
+                
+                int start = Math.min(oldX, newX);
+                length -= oldY - oldX + 1;
+                
+                if (adds > 0) {
+                    newType = ActiveListEvent.INTERVAL_ADDED;
+                    newX = start;
+                    newY = start + adds - 1;
+                } else if (dels > 0) {
+                    newType = ActiveListEvent.INTERVAL_REMOVED;
+                    newX = start;
+                    newY = start + dels - 1;
+                } else if (mods > 0) {
+                    newType = ActiveListEvent.CONTENTS_CHANGED;
+                    newX = start;
+                    newY = start + mods - 1;
+                    mods = 0;
+                } else {
+                    pending = false;
+                }
+                
+                if (mods > 0) {
+                    events[p + TYPE] = ActiveListEvent.CONTENTS_CHANGED;
+                    events[p + X] = start + adds;
+                    events[p + Y] = start + adds + mods - 1;
+                    length += mods;
+                } else {
+                    remove(i);
+                }
+            }
+        }
+        
+        // Insert the new event at the beginning.
+        
+        if (pending) {
+            insert(0, newType, newX, newY);
+        }
+    }
+    
+    /**
+     * Return the number of events stored by the assembler.
+     * @return The number of events stored by the assembler.
+     */
+    public int size() {
+        return tail - head;
+    }
+    
+    /**
+     * Return the sum of the lengths of all stored events.
+     * @return The sum of the lengths of all stored events.
+     * @see DefaultAssembler#getLength()
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    /**
+     * Return the type of the stored event at the given position.
+     * @param index The event position: 0 is the first event to be popped.
+     * @return The event type: see <tt>ActiveListEvent</tt>.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public int getType(int index) {
+        return events[position(index) + TYPE];
+    }
+    
+    /**
+     * Return the first index of the stored event at the given position.
+     * @param index The event position: 0 is the first event to be popped.
+     * @return The first index of the changed interval.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public int getX(int index) {
+        return events[position(index) + X];
+    }
+    
+    /**
+     * Return the last index of the stored event at the given position.
+     * @param index The event position: 0 is the first event to be popped.
+     * @return The last index of the changed interval.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public int getY(int index) {
+        return events[position(index) + Y];
+    }
+    
+    /**
+     * Return the destination index of the stored move at the given position.
+     * @param index The event position: 0 is the first event to be popped.
+     * @return The position of the first moved item after the move, or the
+     *     first index of the changed interval if the event is not a move.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public int getToIndex(int index) {
+        int p = position(index);
+        if (events[p + TYPE] == ActiveListEvent.INTERVAL_MOVED) {
+            return toIndex;
+        }
+        return events[p + X];
+    }
+    
+    /** Remove all stored events. */
+    public void clear() {
+        head = 0;
+        tail = 0;
+        length = 0;
+    }
+    
+    /**
+     * Remove all stored events and deliver them in order to the given
+     * listener as primitive values, numbered as a single sequence. A stored
+     * move is delivered as a removal followed by an addition. The listener
+     * must not push events into this assembler.
+     * @param listener The listener receiving the events.
+     */
+    public void drain(PrimitiveActiveListListener listener) {
+        if (isMove()) {
+            splitMove();
+        }
+        int lastSequenceNumber = tail - head - 1;
+        for (int i = 0; i <= lastSequenceNumber; i++) {
+            int p = (head + i) * STRIDE;
+            int x = events[p + X];
+            int y = events[p + Y];
+            switch (events[p + TYPE]) {
+                case ActiveListEvent.INTERVAL_ADDED:
+                    listener.intervalAdded(source, x, y, i,
+                        lastSequenceNumber);
+                    break;
+                case ActiveListEvent.INTERVAL_REMOVED:
+                    listener.intervalRemoved(source, x, y, i,
+                        lastSequenceNumber);
+                    break;
+                default:
+                    listener.contentsChanged(source, x, y, i,
+                        lastSequenceNumber);
+                    break;
+            }
+        }
+        clear();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Compare a stored event and a new one as the <tt>DefaultAssembler</tt>
+     * does. If the events must be merged the lengths of the merged events are
+     * stored into <tt>adds</tt>, <tt>dels</tt> and <tt>mods</tt>.
+     * @param oldType The stored event type.
+     * @param oldChangeX The first index of the stored event.
+     * @param oldChangeY The last index of the stored event.
+     * @param newType The new event type.
+     * @param newChangeX The first index of the new event.
+     * @param newChangeY The last index of the new event.
+     * @return The action to be executed.
+     */
+    private int compare(int oldType, int oldChangeX, int oldChangeY,
+            int newType, int newChangeX, int newChangeY) {
+        
+        int changesMinX = Math.min(oldChangeX, newChangeX);
+        int changesMaxY = Math.max(oldChangeY, newChangeY);
+        
+        int changesRShift = newChangeY - oldChangeY;
+        int changesLShift = newChangeX - oldChangeX;
+        
+        int changesRDist = newChangeX - oldChangeY - 1;
+        int changesLDist = oldChangeX - newChangeY - 1;
+        
+        int oldChangeLength = oldChangeY - oldChangeX + 1;
+        int newChangeLength = newChangeY - newChangeX + 1;
+        
+        int changesSpan = changesMaxY - changesMinX + 1;
+        int changesOverlapt = changesSpan - Math.abs(changesRShift)
+            - Math.abs(changesLShift);
+        
+        boolean overlapped = (changesLDist < 0) && (changesRDist < 0);
+        boolean adjacent = (changesLDist == 0) || (changesRDist == 0);
+        
+        if (newType == ActiveListEvent.INTERVAL_ADDED) {
+            
+            if (((oldType == ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesLShift > 0))
+                    || ((oldType != ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesRDist > 0))) {
+                return INSERT;
+            } else if (changesLShift < 0) {
+                return TRANSLATE;
+            } else if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                adds = oldChangeLength + newChangeLength;
+                dels = 0;
+                mods = 0;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                adds = newChangeLength;
+                dels = 0;
+                mods = oldChangeLength;
+            } else {
+                adds = Math.max(newChangeLength - oldChangeLength, 0);
+                dels = Math.max(oldChangeLength - newChangeLength, 0);
+                mods = changesOverlapt;
+            }
+            
+        } else if (newType == ActiveListEvent.CONTENTS_CHANGED) {
+            
+            if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                if (changesRDist >= 0) {
+                    return INSERT;
+                } else if (!adjacent && !overlapped) {
+                    return TRANSLATE;
+                }
+                adds = oldChangeLength;
+                dels = 0;
+                mods = newChangeLength - changesOverlapt;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                if (changesRDist > 0) {
+                    return INSERT;
+                } else if (!adjacent && !overlapped) {
+                    return TRANSLATE;
+                }
+                adds = 0;
+                dels = 0;
+                mods = changesMaxY - changesMinX + 1;
+            } else {
+                if (changesLShift >= 0) {
+                    return INSERT;
+                } else if (changesLDist > 0) {
+                    return TRANSLATE;
+                }
+                adds = 0;
+                dels = oldChangeLength;
+                mods = newChangeLength;
+            }
+            
+        } else {
+            
+            if (((oldType == ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesLShift > 0))
+                    || ((oldType != ActiveListEvent.INTERVAL_REMOVED)
+                    && (changesRDist > 0))) {
+                return INSERT;
+            } else if (changesLDist > 0) {
+                return TRANSLATE;
+            } else if (oldType == ActiveListEvent.INTERVAL_ADDED) {
+                adds = Math.max(oldChangeLength - newChangeLength, 0);
+                dels = Math.max(newChangeLength - oldChangeLength, 0);
+                mods = oldChangeLength - adds - changesOverlapt;
+            } else if (oldType == ActiveListEvent.CONTENTS_CHANGED) {
+                adds = 0;
+                dels = newChangeLength;
+                mods = oldChangeLength - changesOverlapt;
+            } else {
+                adds = 0;
+                dels = oldChangeLength + newChangeLength;
+                mods = 0;
+            }
+        }
+        return MERGE;
+    }
+    
+    /**
+     * Return true if the only stored event is a move, false otherwise.
+     * @return True if a move is stored.
+     */
+    private boolean isMove() {
+        return (tail - head == 1) && (events[head * STRIDE + TYPE]
+            == ActiveListEvent.INTERVAL_MOVED);
+    }
+    
+    /**
+     * Replace the stored move with the removal of the moved interval followed
+     * by the addition of the moved items at their destination.
+     */
+    private void splitMove() {
+        int p = head * STRIDE;
+        int x = events[p + X];
+        int y = events[p + Y];
+        clear();
+        push(source, ActiveListEvent.INTERVAL_REMOVED, x, y, 0);
+        push(source, ActiveListEvent.INTERVAL_ADDED, toIndex, toIndex + y - x,
+            0);
+    }
+    
+    /**
+     * Insert an event at the given position, shifting the following ones.
+     * @param index The event position (0 is the first stored event).
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void insert(int index, int type, int x, int y) {
+        
+        if ((index == 0) && (head > 0)) {
+            head--; // Room available before the first event.
+        } else {
+            if (tail * STRIDE == events.length) {
+                int count = tail - head;
+                int[] target = events;
+                if (count * 2 > events.length / STRIDE) {
+                    target = new int[events.length * 2];
+                }
+                System.arraycopy(events, head * STRIDE, target, 0,
+                    count * STRIDE);
+                events = target;
+                head = 0;
+                tail = count;
+            }
+            int p = (head + index) * STRIDE;
+            System.arraycopy(events, p, events, p + STRIDE,
+                tail * STRIDE - p);
+            tail++;
+        }
+        
+        int p = (head + index) * STRIDE;
+        events[p + TYPE] = type;
+        events[p + X] = x;
+        events[p + Y] = y;
+        length += y - x + 1;
+    }
+    
+    /**
+     * Remove the event at the given position, shifting the following ones.
+     * @param index The event position (0 is the first stored event).
+     */
+    private void remove(int index) {
+        if (index == 0) {
+            head++;
+        } else {
+            int p = (head + index) * STRIDE;
+            System.arraycopy(events, p + STRIDE, events, p,
+                tail * STRIDE - p - STRIDE);
+            tail--;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+    }
+    
+    /**
+     * Return the array position of the stored event at the given position.
+     * @param index The event position (0 is the first stored event).
+     * @return The array position of the event.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    private int position(int index) {
+        if ((index < 0) || (index >= tail - head)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + (tail - head));
+        }
+        return (head + index) * STRIDE;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * PrimitiveActiveList.java
+ *
+ * Created on 18 October 2026, 16.40
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Application classes.
+
+import org.kineticsystem.commons.collections.PrimitiveArrayList;
+
+/**
+ * Skeletal implementation of an <tt>ActiveList</tt> of primitive values
+ * backed by a <tt>PrimitiveArrayList</tt>. Subclasses provide the unboxed
+ * accessors: they lock the list, call the typed method of the backing list
+ * and notify the change using the methods of this class.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public abstract class PrimitiveActiveList<E, L extends PrimitiveArrayList<E>>
+        extends DefaultActiveList<E> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected variables.
+     */
+
+    /** The primitive list storing the values. */
+    protected final L values;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Decorate the given primitive list.
+     * @param values The primitive list to be decorated.
+     */
+    protected PrimitiveActiveList(L values) {
+        super(values);
+        this.values = values;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+
+    /**
+     * Notify that the value at the given position has been replaced. The
+     * caller must own the write lock.
+     * @param index The position of the replaced value.
+     */
+    protected void valueChanged(int index) {
+        if (isActive()) {
+            dispatchEvent(ActiveListEvent.CONTENTS_CHANGED, index, index);
+        }
+    }
+
+    /**
+     * Notify that the given number of values has been inserted at the given
+     * position. The caller must own the write lock.
+     * @param index The position of the first inserted value.
+     * @param count The number of inserted values.
+     */
+    protected void valuesAdded(int index, int count) {
+        if ((count > 0) && isActive()) {
+            dispatchEvent(ActiveListEvent.INTERVAL_ADDED, index,
+                index + count - 1);
+        }
+    }
+
+    /**
+     * Notify that the value at the given position has been removed. The
+     * caller must own the write lock.
+     * @param index The position of the removed value.
+     */
+    protected void valueRemoved(int index) {
+        if (isActive()) {
+            dispatchEvent(ActiveListEvent.INTERVAL_REMOVED, index, index);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * PrimitiveActiveListListener.java
+ *
+ * Created on 18 October 2026, 15.10
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is a listener for the <tt>ActiveList</tt> object receiving changes as
+ * primitive values. Lists supporting it (i.e. <tt>DefaultActiveList</tt>) call
+ * these methods instead of creating an <tt>ActiveListEvent</tt> per change, so
+ * a list having only primitive listeners notifies changes without allocating
+ * any object. Lists not supporting it call the inherited
+ * <tt>contentsChanged(ActiveListEvent)</tt> method.
+ * <p>
+ * Sequence numbers have the same meaning of the ones stored in an
+ * <tt>ActiveListEvent</tt>: a single change has sequence and last sequence
+ * number equal to 0.
+ * <p>
+ * <tt>STRUCTURE_CHANGED</tt> and <tt>INTERVAL_MOVED</tt> changes have no
+ * primitive method: they are always notified through <tt>contentsChanged(ActiveListEvent)</tt>.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ActiveListEvent
+ */
+public interface PrimitiveActiveListListener extends ActiveListListener {
+    
+    /**
+     * Fired when one or more contiguous items have been inserted.
+     * @param source The list generating the change.
+     * @param x The index of the first inserted item.
+     * @param y The index of the last inserted item.
+     * @param sequenceNumber The change sequence number.
+     * @param lastSequenceNumber The last sequence number of the sequence of
+     *     changes being processed.
+     */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+        int lastSequenceNumber);
+    
+    /**
+     * Fired when one or more contiguous items have been removed.
+     * @param source The list generating the change.
+     * @param x The index of the first removed item.
+     * @param y The index of the last removed item.
+     * @param sequenceNumber The change sequence number.
+     * @param lastSequenceNumber The last sequence number of the sequence of
+     *     changes being processed.
+     */
+    public void intervalRemoved(Object source, int x, int y,
+        int sequenceNumber, int lastSequenceNumber);
+    
+    /**
+     * Fired when one or more contiguous items have been modified.
+     * @param source The list generating the change.
+     * @param x The index of the first modified item.
+     * @param y The index of the last modified item.
+     * @param sequenceNumber The change sequence number.
+     * @param lastSequenceNumber The last sequence number of the sequence of
+     *     changes being processed.
+     */
+    public void contentsChanged(Object source, int x, int y,
+        int sequenceNumber, int lastSequenceNumber);
+}
@@ -0,0 +1,439 @@
+/*
+ * QueuedActiveListListener.java
+ *
+ * Created on 18 October 2026, 16.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * This is an <tt>ActiveListListener</tt> decorator notifying changes to the
+ * decorated listener asynchronously. Changes received from an
+ * <tt>ActiveList</tt>, while the list is still locked by the writing thread,
+ * are only appended to a bounded queue, so the writer releases the lock
+ * immediately; the queue is then drained by the given <tt>Executor</tt> that
+ * notifies the decorated listener in the same order, outside the list lock.
+ * This way the writer throughput does not depend on the time spent by the
+ * listener.
+ * <pre>
+ * list.addActiveListListener(new QueuedActiveListListener(tracker, executor));
+ * </pre>
+ * Only changes are queued, not the changed elements: the decorated listener
+ * receives a change after the list has been modified again, so the list
+ * content does not match the change. The decorated listener must only use
+ * the change indexes (i.e. to track dirty rows or to collect statistics), or
+ * must resynchronize with the whole list content, as the <tt>EventRunner</tt>
+ * does. Listeners reading the changed elements from the list on each change,
+ * like the <tt>SortMapping</tt> and the <tt>GroupMapping</tt>, must not be
+ * decorated: they would build a corrupted target list.
+ * <p>
+ * The queue never blocks the writer. When it is full all pending changes are
+ * collapsed into the minimum set of changes transforming the list seen by the
+ * listener into the current one (at most an add or remove event and a modify
+ * event covering the whole list), as computed by
+ * <tt>ActiveListUtility.difference</tt>, or into a single
+ * <tt>STRUCTURE_CHANGED</tt> change if a collapsed change is one. The
+ * collapse is completed when the sequence of changes ends, because the list
+ * already contains the following changes of the sequence.
+ * A queue must receive changes from a single list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class QueuedActiveListListener implements PrimitiveActiveListListener,
+        Runnable {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The decorated listener. */
+    private ActiveListListener listener;
+    
+    /** The executor draining the queue. */
+    private Executor executor;
+    
+    /** The source of queued changes. */
+    private Object source;
+    
+    /** The ring buffer of change types. */
+    private int[] types;
+    
+    /** The ring buffer of first indexes of changed intervals. */
+    private int[] xs;
+    
+    /** The ring buffer of last indexes of changed intervals. */
+    private int[] ys;
+    
+    /** The ring buffer of destination indexes of moves. */
+    private int[] toIndexes;
+    
+    /** The ring buffer of change sequence numbers. */
+    private int[] seqs;
+    
+    /** The ring buffer of last sequence numbers. */
+    private int[] lastSeqs;
+    
+    /** The position of the first queued change. */
+    private int head;
+    
+    /** The number of queued changes. */
+    private int count;
+    
+    /** True if the queue has been submitted to the executor. */
+    private boolean scheduled;
+    
+    /**
+     * True if the changes of the current sequence are being collapsed because
+     * the queue was full.
+     */
+    private boolean collapsing;
+    
+    /** The list size variation produced by the collapsed changes. */
+    private int collapsedSizeChange;
+    
+    /** True if a collapsed change is a <tt>STRUCTURE_CHANGED</tt> one. */
+    private boolean collapsedStructure;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Create a decorator queuing at most 1024 changes.
+     * @param listener The listener to be asynchronously notified.
+     * @param executor The executor draining the queue.
+     */
+    public QueuedActiveListListener(ActiveListListener listener,
+            Executor executor) {
+        this(listener, executor, 1024);
+    }
+    
+    /**
+     * Create a decorator queuing at most the given number of changes.
+     * @param listener The listener to be asynchronously notified.
+     * @param executor The executor draining the queue.
+     * @param capacity The queue capacity.
+     * @throws IllegalArgumentException If the capacity is less than 2.
+     */
+    public QueuedActiveListListener(ActiveListListener listener,
+            Executor executor, int capacity) {
+        
+        if (capacity < 2) {
+            String msg = "Queue capacity must be at least 2!";
+            throw new IllegalArgumentException(msg);
+        }
+        
+        this.listener = listener;
+        this.executor = executor;
+        this.source = null;
+        this.types = new int[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.toIndexes = new int[capacity];
+        this.seqs = new int[capacity];
+        this.lastSeqs = new int[capacity];
+        this.head = 0;
+        this.count = 0;
+        this.scheduled = false;
+        this.collapsing = false;
+        this.collapsedSizeChange = 0;
+        this.collapsedStructure = false;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Getter and setter methods.
+     */
+    
+    /**
+     * Return the decorated listener.
+     * @return The decorated listener.
+     */
+    public ActiveListListener getListener() {
+        return listener;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(ActiveListEvent event) {
+        enqueue(event.getSource(), event.getType(), event.getX(), event.getY(),
+            event.getToIndex(), event.getSequenceNumber(),
+            event.getLastSequenceNumber());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        enqueue(source, ActiveListEvent.INTERVAL_ADDED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        enqueue(source, ActiveListEvent.INTERVAL_REMOVED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        enqueue(source, ActiveListEvent.CONTENTS_CHANGED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Runnable interface implementation.
+     */
+    
+    /**
+     * Notify all queued changes to the decorated listener. This method is
+     * executed by the executor.
+     */
+    public void run() {
+        
+        while (true) {
+            
+            Object changeSource;
+            int type;
+            int x;
+            int y;
+            int toIndex;
+            int seq;
+            int lastSeq;
+            
+            synchronized (this) {
+                if (count == 0) {
+                    scheduled = false;
+                    return;
+                }
+                changeSource = source;
+                type = types[head];
+                x = xs[head];
+                y = ys[head];
+                toIndex = toIndexes[head];
+                seq = seqs[head];
+                lastSeq = lastSeqs[head];
+                head = (head + 1) % types.length;
+                count--;
+            }
+            
+            notifyListener(changeSource, type, x, y, toIndex, seq, lastSeq);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Append the given change to the queue, collapsing the queue if full, and
+     * submit the queue to the executor if not already done.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void enqueue(Object source, int type, int x, int y, int toIndex,
+            int seq, int lastSeq) {
+        
+        boolean submit;
+        synchronized (this) {
+            this.source = source;
+            if (collapsing || (count == types.length)) {
+                collapse(type, x, y, seq == lastSeq);
+            } else {
+                put(type, x, y, toIndex, seq, lastSeq);
+            }
+            submit = !scheduled;
+            scheduled = true;
+        }
+        if (submit) {
+            executor.execute(this);
+        }
+    }
+    
+    /**
+     * Collapse all queued changes and the given one. At the end of the
+     * sequence they are replaced with the changes transforming the list seen
+     * by the listener into the current list: before, the list also contains
+     * the changes of the sequence not yet received.
+     * @param type The type of the change that cannot be queued.
+     * @param x The first index of the change that cannot be queued.
+     * @param y The last index of the change that cannot be queued.
+     * @param end True if the change ends its sequence.
+     */
+    private void collapse(int type, int x, int y, boolean end) {
+        
+        if (!collapsing) {
+            collapsing = true;
+            collapsedSizeChange = 0;
+            collapsedStructure = false;
+            for (int i = 0; i < count; i++) {
+                int j = (head + i) % types.length;
+                collapsedSizeChange += sizeChange(types[j], xs[j], ys[j]);
+                collapsedStructure |=
+                    (types[j] == ActiveListEvent.STRUCTURE_CHANGED);
+            }
+            head = 0;
+            count = 0;
+        }
+        collapsedSizeChange += sizeChange(type, x, y);
+        collapsedStructure |= (type == ActiveListEvent.STRUCTURE_CHANGED);
+        if (!end) {
+            return;
+        }
+        
+        // Replace the queue content.
+        
+        collapsing = false;
+        int newSize = ((List<?>) source).size();
+        if (collapsedStructure) {
+            put(ActiveListEvent.STRUCTURE_CHANGED, 0, newSize - 1, 0, 0, 0);
+        } else {
+            List<ActiveListEvent> events = ActiveListUtility.difference(
+                newSize - collapsedSizeChange, newSize,
+                (ActiveList<?>) source);
+            int seq = 0;
+            int lastSeq = events.size() - 1;
+            for (ActiveListEvent event : events) {
+                put(event.getType(), event.getX(), event.getY(),
+                    event.getX(), seq++, lastSeq);
+            }
+        }
+    }
+    
+    /**
+     * Append the given change to the queue that must not be full.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void put(int type, int x, int y, int toIndex, int seq,
+            int lastSeq) {
+        int tail = (head + count) % types.length;
+        types[tail] = type;
+        xs[tail] = x;
+        ys[tail] = y;
+        toIndexes[tail] = toIndex;
+        seqs[tail] = seq;
+        lastSeqs[tail] = lastSeq;
+        count++;
+    }
+    
+    /**
+     * Return the list size variation produced by the given change. The
+     * variation of a <tt>STRUCTURE_CHANGED</tt> change is unknown: it is
+     * considered null.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return The list size variation.
+     */
+    private static int sizeChange(int type, int x, int y) {
+        switch (type) {
+            case ActiveListEvent.INTERVAL_ADDED:
+                return y - x + 1;
+            case ActiveListEvent.INTERVAL_REMOVED:
+                return x - y - 1;
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Notify the given change to the decorated listener.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void notifyListener(Object source, int type, int x, int y,
+            int toIndex, int seq, int lastSeq) {
+        
+        if (listener instanceof PrimitiveActiveListListener) {
+            PrimitiveActiveListListener primitiveListener =
+                (PrimitiveActiveListListener) listener;
+            switch (type) {
+                case ActiveListEvent.CONTENTS_CHANGED:
+                    primitiveListener.contentsChanged(source, x, y, seq,
+                        lastSeq);
+                    break;
+                case ActiveListEvent.INTERVAL_ADDED:
+                    primitiveListener.intervalAdded(source, x, y, seq, lastSeq);
+                    break;
+                case ActiveListEvent.INTERVAL_REMOVED:
+                    primitiveListener.intervalRemoved(source, x, y, seq,
+                        lastSeq);
+                    break;
+                default:
+                    listener.contentsChanged(createEvent(source, type, x, y,
+                        toIndex, seq, lastSeq));
+                    break;
+            }
+        } else {
+            listener.contentsChanged(createEvent(source, type, x, y, toIndex,
+                seq, lastSeq));
+        }
+    }
+    
+    /**
+     * Create an event describing the given change.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     * @return The event describing the change.
+     */
+    private static ActiveListEvent createEvent(Object source, int type, int x,
+            int y, int toIndex, int seq, int lastSeq) {
+        ActiveListEvent event = new ActiveListEvent(source);
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        event.setToIndex(toIndex);
+        event.setSequenceNumber(seq);
+        event.setLastSequenceNumber(lastSeq);
+        return event;
+    }
+}
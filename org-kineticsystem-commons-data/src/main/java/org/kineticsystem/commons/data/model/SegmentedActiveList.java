@@ -0,0 +1,938 @@
+/*
+ * SegmentedActiveList.java
+ *
+ * Created on 18 October 2026, 16.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import javax.swing.event.EventListenerList;
+
+/**
+ * This is an <tt>ActiveList</tt> partitioned into segments, each one being a
+ * <tt>DefaultActiveList</tt> with its own lock, presented as a single list
+ * made by the concatenation of all segments. Threads writing into different
+ * segments do not block each other, so the writing throughput scales with the
+ * number of segments.
+ * <ul>
+ * <li><tt>add(E)</tt> appends the element to the segment assigned to the
+ * current thread, locking that segment only: elements added by different
+ * threads are not ordered by insertion time.</li>
+ * <li>Each segment, returned by <tt>getSegment</tt>, can be modified using
+ * positional methods locking that segment only. This is the way to spread many
+ * writers, i.e. one segment per writing thread.</li>
+ * <li>All other methods work with global indexes and lock all segments, as the
+ * lock returned by <tt>getReadWriteLock</tt> does: readers locking it see a
+ * consistent content.</li>
+ * </ul>
+ * Events fired by the segments are translated to global indexes and notified
+ * one at a time, in a single order consistent with the list content. Since
+ * listeners are notified while other segments can be locked by other writers,
+ * a listener must not lock the whole list in the notifying thread: listeners
+ * reading the list must be notified asynchronously, i.e. by a
+ * <tt>DataList</tt>, while listeners only using the change indexes can be
+ * decorated by a <tt>QueuedActiveListListener</tt>.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see QueuedActiveListListener
+ */
+public class SegmentedActiveList<E> implements ActiveList<E> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** True if the list can send events, false otherwise. */
+    private boolean activated;
+    
+    /** The list segments. */
+    private DefaultActiveList<E>[] segments;
+    
+    /**
+     * The size of each segment as known by the list listeners, i.e. after the
+     * last notified event. It is protected by the dispatching lock.
+     */
+    private int[] notifiedSizes;
+    
+    /** The lock serializing event notifications. */
+    private Object dispatchLock;
+    
+    /** Lock locking all segments. */
+    private ReadWriteLock lock;
+    
+    /** The list of all registered listener. */
+    private EventListenerList listenerList;
+    
+    /** The transaction collecting the events of the owner thread. */
+    private Transaction transaction;
+    
+    /** A view of all segments used to implement the <tt>List</tt> methods. */
+    private List<E> view;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Create a list with two segments per available processor. */
+    public SegmentedActiveList() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a list with the given number of segments.
+     * @param segmentCount The number of segments.
+     * @throws IllegalArgumentException If the number of segments is less than
+     *     one.
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedActiveList(int segmentCount) {
+        
+        if (segmentCount < 1) {
+            String msg = "A list must contain at least one segment!";
+            throw new IllegalArgumentException(msg);
+        }
+        
+        activated = true;
+        segments = (DefaultActiveList<E>[])
+            new DefaultActiveList<?>[segmentCount];
+        notifiedSizes = new int[segmentCount];
+        dispatchLock = new Object();
+        listenerList = new EventListenerList();
+        transaction = new Transaction(this);
+        view = new SegmentedView();
+        
+        Lock[] readLocks = new Lock[segmentCount];
+        Lock[] writeLocks = new Lock[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new DefaultActiveList<E>();
+            segments[i].addActiveListListener(new SegmentListener(i));
+            readLocks[i] = segments[i].getReadWriteLock().readLock();
+            writeLocks[i] = segments[i].getReadWriteLock().writeLock();
+        }
+        lock = new SegmentedLock(readLocks, writeLocks);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Segment methods.
+     */
+    
+    /**
+     * Return the number of segments.
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+    
+    /**
+     * Return the given segment. Its methods lock the segment only and its
+     * changes are notified by this list using global indexes.
+     * @param segment The segment index.
+     * @return The segment.
+     */
+    public ActiveList<E> getSegment(int segment) {
+        return segments[segment];
+    }
+    
+    /**
+     * Return the segment assigned to the current thread by <tt>add(E)</tt>.
+     * @return The segment assigned to the current thread.
+     */
+    public ActiveList<E> getThreadSegment() {
+        return segments[threadSegment()];
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveList interface implementation.
+     */
+    
+    /**
+     * Return the lock locking all segments in ascending order.
+     * {@inheritDoc}
+     */
+    public ReadWriteLock getReadWriteLock() {
+        return lock;
+    }
+    
+    /** {@inheritDoc} */
+    public void addActiveListListener(ActiveListListener listener) {
+        listenerList.add(ActiveListListener.class, listener);
+    }
+    
+    /** {@inheritDoc} */
+    public void removeActiveListListener(ActiveListListener listener) {
+        listenerList.remove(ActiveListListener.class, listener);
+    }
+    
+    /** {@inheritDoc} */
+    public void setActive(boolean activated) {
+        this.activated = activated;
+    }
+    
+    /** {@inheritDoc} */
+    public boolean isActive() {
+        return activated;
+    }
+    
+    /** {@inheritDoc} */
+    public void fireContentsChanged(ActiveListEvent event) {
+        ActiveListUtility.fireEvent(listenerList, event);
+    }
+    
+    /**
+     * Start a transaction locking all segments.
+     * {@inheritDoc}
+     */
+    public void beginTransaction() {
+        transaction.begin();
+    }
+    
+    /**
+     * Commit the transaction. Events of the outermost transaction are fired
+     * holding the dispatch lock, so they cannot interleave with segment
+     * events.
+     * {@inheritDoc}
+     */
+    public void commitTransaction() {
+        synchronized (dispatchLock) {
+            transaction.commit();
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+    
+    /** 
+     * Append the element to the segment assigned to the current thread,
+     * locking that segment only.
+     * {@inheritDoc} 
+     */
+    public boolean add(E element) {
+        return segments[threadSegment()].add(element);
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public void add(int index, E element) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            int segment = segmentOf(index, true);
+            segments[segment].add(index - offsetOf(segment), element);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * Append all elements to the segment assigned to the current thread,
+     * locking that segment only.
+     * {@inheritDoc} 
+     */
+    public boolean addAll(Collection<? extends E> c) {
+        return segments[threadSegment()].addAll(c);
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean addAll(int index, Collection<? extends E> c) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            int segment = segmentOf(index, true);
+            return segments[segment].addAll(index - offsetOf(segment), c);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public void clear() {
+        
+        try {
+            lock.writeLock().lock();
+            
+            for (DefaultActiveList<E> segment : segments) {
+                segment.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean contains(Object element) {
+        return (indexOf(element) != -1);
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean containsAll(Collection<?> c) {
+        
+        try {
+            lock.readLock().lock();
+            
+            return view.containsAll(c);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    @Override
+    public boolean equals(Object element) {
+        
+        try {
+            lock.readLock().lock();
+            
+            return view.equals(element);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public E get(int index) {
+        
+        try {
+            lock.readLock().lock();
+            
+            int segment = segmentOf(index, false);
+            return segments[segment].get(index - offsetOf(segment));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    @Override
+    public int hashCode() {
+        
+        try {
+            lock.readLock().lock();
+            
+            return view.hashCode();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public int indexOf(Object element) {
+        
+        try {
+            lock.readLock().lock();
+            
+            int offset = 0;
+            for (DefaultActiveList<E> segment : segments) {
+                int index = segment.indexOf(element);
+                if (index != -1) {
+                    return offset + index;
+                }
+                offset += segment.size();
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+    
+    /** 
+     * This method is thread-safe. The returned iterator is read-only and it
+     * reads a snapshot of the list taken when the iterator is created.
+     * {@inheritDoc} 
+     */
+    public Iterator<E> iterator() {
+        return snapshot().iterator();
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public int lastIndexOf(Object element) {
+        
+        try {
+            lock.readLock().lock();
+            
+            int offset = size();
+            for (int i = segments.length - 1; i >= 0; i--) {
+                offset -= segments[i].size();
+                int index = segments[i].lastIndexOf(element);
+                if (index != -1) {
+                    return offset + index;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is not thread-safe: lock the list to iterate it.
+     * {@inheritDoc} 
+     */
+    public ListIterator<E> listIterator() {
+        return view.listIterator();
+    }
+    
+    /** 
+     * This method is not thread-safe: lock the list to iterate it.
+     * {@inheritDoc} 
+     */
+    public ListIterator<E> listIterator(int index) {
+        return view.listIterator(index);
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public E remove(int index) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            int segment = segmentOf(index, false);
+            return segments[segment].remove(index - offsetOf(segment));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean remove(Object o) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            for (DefaultActiveList<E> segment : segments) {
+                if (segment.remove(o)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean removeAll(Collection<?> c) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            boolean isChanged = false;
+            for (DefaultActiveList<E> segment : segments) {
+                isChanged |= segment.removeAll(c);
+            }
+            return isChanged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public boolean retainAll(Collection<?> c) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            boolean isChanged = false;
+            for (DefaultActiveList<E> segment : segments) {
+                isChanged |= segment.retainAll(c);
+            }
+            return isChanged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public E set(int index, E element) {
+        
+        try {
+            lock.writeLock().lock();
+            
+            int segment = segmentOf(index, false);
+            return segments[segment].set(index - offsetOf(segment), element);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public int size() {
+        
+        try {
+            lock.readLock().lock();
+            
+            int size = 0;
+            for (DefaultActiveList<E> segment : segments) {
+                size += segment.size();
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is not thread-safe: lock the list to use the returned list.
+     * {@inheritDoc} 
+     */
+    public List<E> subList(int fromIndex, int toIndex) {
+        return view.subList(fromIndex, toIndex);
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public Object[] toArray() {
+        
+        try {
+            lock.readLock().lock();
+            
+            return view.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** 
+     * This method is thread-safe.
+     * {@inheritDoc} 
+     */
+    public <T> T[] toArray(T[] a) {
+        
+        try {
+            lock.readLock().lock();
+            
+            return view.toArray(a);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * This method is thread-safe. The returned spliterator reads a snapshot of
+     * the list taken when it is created. It is <tt>SIZED</tt> and
+     * <tt>SUBSIZED</tt> and it is split by index range.
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(toArray(),
+            Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Return a read-only snapshot of the list.
+     * @return A read-only snapshot of the list.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        return Collections.unmodifiableList((List<E>) Arrays.asList(toArray()));
+    }
+    
+    /**
+     * Return the segment assigned to the current thread.
+     * @return The segment index.
+     */
+    private int threadSegment() {
+        return (int) (Thread.currentThread().getId() % segments.length);
+    }
+    
+    /**
+     * Return the segment containing the given global index. The list must be
+     * locked.
+     * @param index The global index.
+     * @param insertion True if the index is an insertion point: in this case
+     *     the list size is a valid index.
+     * @return The segment index.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    private int segmentOf(int index, boolean insertion) {
+        
+        if (index >= 0) {
+            int offset = 0;
+            for (int i = 0; i < segments.length; i++) {
+                offset += segments[i].size();
+                if ((index < offset) || (insertion && (index == offset))) {
+                    return i;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+    
+    /**
+     * Return the global index of the first element of the given segment. The
+     * list must be locked.
+     * @param segment The segment index.
+     * @return The global index of the first element of the segment.
+     */
+    private int offsetOf(int segment) {
+        int offset = 0;
+        for (int i = 0; i < segment; i++) {
+            offset += segments[i].size();
+        }
+        return offset;
+    }
+    
+    /**
+     * Translate a segment change to global indexes and notify it. A
+     * <tt>STRUCTURE_CHANGED</tt> change of a segment is notified as a
+     * <tt>STRUCTURE_CHANGED</tt> change of the whole list.
+     * @param segment The segment index.
+     * @param type The change type.
+     * @param x The first index of the changed interval in the segment.
+     * @param y The last index of the changed interval in the segment.
+     * @param toIndex The position in the segment of the first moved item
+     *     after the move (<tt>INTERVAL_MOVED</tt> changes only).
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void segmentChanged(int segment, int type, int x, int y,
+            int toIndex, int seq, int lastSeq) {
+        
+        synchronized (dispatchLock) {
+            
+            int offset = 0;
+            for (int i = 0; i < segment; i++) {
+                offset += notifiedSizes[i];
+            }
+            if (type == ActiveListEvent.INTERVAL_ADDED) {
+                notifiedSizes[segment] += y - x + 1;
+            } else if (type == ActiveListEvent.INTERVAL_REMOVED) {
+                notifiedSizes[segment] -= y - x + 1;
+            } else if (type == ActiveListEvent.STRUCTURE_CHANGED) {
+                notifiedSizes[segment] = segments[segment].size();
+                int size = 0;
+                for (int i = 0; i < notifiedSizes.length; i++) {
+                    size += notifiedSizes[i];
+                }
+                x = -offset;
+                y = size - 1 - offset;
+            }
+            
+            if ((type == ActiveListEvent.INTERVAL_MOVED)
+                    || (type == ActiveListEvent.STRUCTURE_CHANGED)) {
+                ActiveListEvent event = new ActiveListEvent(this);
+                event.setType(type);
+                event.setX(offset + x);
+                event.setY(offset + y);
+                event.setToIndex(offset + toIndex);
+                event.setSequenceNumber(seq);
+                event.setLastSequenceNumber(lastSeq);
+                if (transaction.isStarted()) {
+                    transaction.push(event);
+                } else if (activated) {
+                    ActiveListUtility.fireEvent(listenerList, event);
+                }
+            } else if (transaction.isStarted()) {
+                transaction.push(type, offset + x, offset + y);
+            } else if (activated) {
+                ActiveListUtility.fireEvent(listenerList, this, type,
+                    offset + x, offset + y, seq, lastSeq);
+            }
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /** Listener translating the changes of a segment. */
+    private class SegmentListener implements PrimitiveActiveListListener {
+        
+        /** The segment index. */
+        private int segment;
+        
+        /**
+         * Constructor.
+         * @param segment The segment index.
+         */
+        public SegmentListener(int segment) {
+            this.segment = segment;
+        }
+        
+        /** {@inheritDoc} */
+        public void contentsChanged(ActiveListEvent event) {
+            segmentChanged(segment, event.getType(), event.getX(),
+                event.getY(), event.getToIndex(), event.getSequenceNumber(),
+                event.getLastSequenceNumber());
+        }
+        
+        /** {@inheritDoc} */
+        public void intervalAdded(Object source, int x, int y,
+                int sequenceNumber, int lastSequenceNumber) {
+            segmentChanged(segment, ActiveListEvent.INTERVAL_ADDED, x, y, x,
+                sequenceNumber, lastSequenceNumber);
+        }
+        
+        /** {@inheritDoc} */
+        public void intervalRemoved(Object source, int x, int y,
+                int sequenceNumber, int lastSequenceNumber) {
+            segmentChanged(segment, ActiveListEvent.INTERVAL_REMOVED, x, y, x,
+                sequenceNumber, lastSequenceNumber);
+        }
+        
+        /** {@inheritDoc} */
+        public void contentsChanged(Object source, int x, int y,
+                int sequenceNumber, int lastSequenceNumber) {
+            segmentChanged(segment, ActiveListEvent.CONTENTS_CHANGED, x, y, x,
+                sequenceNumber, lastSequenceNumber);
+        }
+    }
+    
+    /**
+     * The view of all segments used to implement <tt>List</tt> methods not
+     * depending on the list structure.
+     */
+    private class SegmentedView extends AbstractList<E> {
+        
+        /** {@inheritDoc} */
+        public E get(int index) {
+            return SegmentedActiveList.this.get(index);
+        }
+        
+        /** {@inheritDoc} */
+        public int size() {
+            return SegmentedActiveList.this.size();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public E set(int index, E element) {
+            return SegmentedActiveList.this.set(index, element);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public void add(int index, E element) {
+            SegmentedActiveList.this.add(index, element);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public E remove(int index) {
+            return SegmentedActiveList.this.remove(index);
+        }
+    }
+    
+    /** The lock locking all segments in ascending order. */
+    private static class SegmentedLock implements ReadWriteLock {
+        
+        /** The lock locking all segments for reading. */
+        private Lock readLock;
+        
+        /** The lock locking all segments for writing. */
+        private Lock writeLock;
+        
+        /**
+         * Constructor.
+         * @param readLocks The segment read locks.
+         * @param writeLocks The segment write locks.
+         */
+        public SegmentedLock(Lock[] readLocks, Lock[] writeLocks) {
+            this.readLock = new MultipleLock(readLocks);
+            this.writeLock = new MultipleLock(writeLocks);
+        }
+        
+        /** {@inheritDoc} */
+        public Lock readLock() {
+            return readLock;
+        }
+        
+        /** {@inheritDoc} */
+        public Lock writeLock() {
+            return writeLock;
+        }
+    }
+    
+    /**
+     * A lock acquiring the given locks in ascending order and releasing them
+     * in descending order.
+     */
+    private static class MultipleLock implements Lock {
+        
+        /** The locks to be acquired. */
+        private Lock[] locks;
+        
+        /**
+         * Constructor.
+         * @param locks The locks to be acquired.
+         */
+        public MultipleLock(Lock[] locks) {
+            this.locks = locks;
+        }
+        
+        /** {@inheritDoc} */
+        public void lock() {
+            for (Lock lock : locks) {
+                lock.lock();
+            }
+        }
+        
+        /** {@inheritDoc} */
+        public void lockInterruptibly() throws InterruptedException {
+            int locked = 0;
+            try {
+                for (Lock lock : locks) {
+                    lock.lockInterruptibly();
+                    locked++;
+                }
+            } finally {
+                if (locked < locks.length) {
+                    unlock(locked);
+                }
+            }
+        }
+        
+        /** {@inheritDoc} */
+        public boolean tryLock() {
+            for (int i = 0; i < locks.length; i++) {
+                if (!locks[i].tryLock()) {
+                    unlock(i);
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /** {@inheritDoc} */
+        public boolean tryLock(long time, TimeUnit unit)
+                throws InterruptedException {
+            
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            int locked = 0;
+            try {
+                for (Lock lock : locks) {
+                    long timeout = deadline - System.nanoTime();
+                    if (!lock.tryLock(timeout, TimeUnit.NANOSECONDS)) {
+                        return false;
+                    }
+                    locked++;
+                }
+                return true;
+            } finally {
+                if (locked < locks.length) {
+                    unlock(locked);
+                }
+            }
+        }
+        
+        /** {@inheritDoc} */
+        public void unlock() {
+            unlock(locks.length);
+        }
+        
+        /**
+         * This method is not supported.
+         * @throws UnsupportedOperationException Always.
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+        
+        /**
+         * Release the given number of locks in descending order.
+         * @param count The number of locks to be released.
+         */
+        private void unlock(int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,913 @@
+/*
+ * SnapshotActiveList.java
+ *
+ * Created on 18 October 2026, 10.12
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.swing.event.EventListenerList;
+
+/**
+ * This is a copy-on-write implementation of the <tt>ActiveList</tt> interface.
+ * The list content is published as an immutable and versioned array snapshot:
+ * all read methods (<tt>get</tt>, <tt>size</tt>, <tt>indexOf</tt>...) read the
+ * last published snapshot without acquiring any lock, so they never block and
+ * they are never blocked by writers.
+ * <p>
+ * Writers are still serialized by the read/write lock available throw the
+ * method <tt>getReadWriteLock</tt>. The first change made while holding the
+ * write lock copies the current snapshot into a private working buffer; all
+ * following changes are applied to the buffer and the new snapshot is
+ * published only when the outermost write lock is released. A thread can then
+ * acquire the write lock, execute a whole batch of changes and pay a single
+ * array copy: the snapshot is copied once into the buffer array, which is
+ * edited in place and published as it is. While the write lock is held, the
+ * owner thread (and the
+ * listeners it notifies) reads the working buffer, any other thread reads the
+ * previously published snapshot.
+ * <p>
+ * Events are the same sent by the <tt>DefaultActiveList</tt>, so this list can
+ * be used as source list of a <tt>DataList</tt>, a <tt>SortMapping</tt> or a
+ * <tt>GroupMapping</tt>. Iterators and sub lists are read-only views of the
+ * snapshot taken when they are created.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class SnapshotActiveList<E> implements ActiveList<E> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** True if the list can send events, false otherwise. */
+    private boolean activated;
+
+    /** Lock used to serialize writers. */
+    private ReentrantReadWriteLock lock;
+
+    /** The lock exposed to the users: it publishes changes when released. */
+    private ReadWriteLock snapshotLock;
+
+    /** The list of all registered listener. */
+    private EventListenerList listenerList;
+
+    /** The last published snapshot, safely read by any thread. */
+    private volatile Snapshot<E> snapshot;
+
+    /**
+     * The working buffer containing changes not yet published. It is only
+     * accessed by the thread owning the write lock.
+     */
+    private Buffer<E> buffer;
+
+    /** The transaction collecting the events of the owner thread. */
+    private Transaction transaction;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors and initializing methods.
+     */
+
+    /** Default constructor. */
+    public SnapshotActiveList() {
+        this.snapshot = new Snapshot<E>(new Object[0], 0, 0);
+        init();
+    }
+
+    /**
+     * Create a list containing the elements of the given collection.
+     * @param c The collection whose elements are to be placed into this list.
+     */
+    public SnapshotActiveList(Collection<? extends E> c) {
+        Object[] elements = c.toArray();
+        this.snapshot = new Snapshot<E>(elements, elements.length, 0);
+        init();
+    }
+
+    /** Initialization methods containing common initialization tasks. */
+    private void init() {
+        activated = true;
+        lock = new ReentrantReadWriteLock();
+        snapshotLock = new SnapshotLock();
+        listenerList = new EventListenerList();
+        buffer = null;
+        transaction = new Transaction(this);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+
+    /**
+     * Return the version of the last published snapshot. The version is
+     * increased by one each time a batch of changes is published.
+     * @return The version of the last published snapshot.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Return the last published snapshot: an immutable list that can be
+     * safely read by any thread.
+     * @return The last published snapshot.
+     */
+    public List<E> getSnapshot() {
+        return snapshot;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveList interface implementation.
+     */
+
+    /** {@inheritDoc} */
+    public ReadWriteLock getReadWriteLock() {
+        return snapshotLock;
+    }
+
+    /** {@inheritDoc} */
+    public void addActiveListListener(ActiveListListener listener) {
+        listenerList.add(ActiveListListener.class, listener);
+    }
+
+    /** {@inheritDoc} */
+    public void removeActiveListListener(ActiveListListener listener) {
+        listenerList.remove(ActiveListListener.class, listener);
+    }
+
+    /** {@inheritDoc} */
+    public void setActive(boolean activated) {
+        this.activated = activated;
+    }
+
+    /** {@inheritDoc} */
+    public boolean isActive() {
+        return activated;
+    }
+
+    /** {@inheritDoc} */
+    public void fireContentsChanged(ActiveListEvent event) {
+        ActiveListUtility.fireEvent(listenerList, event);
+    }
+
+    /**
+     * Start a transaction: the new snapshot is published when the outermost
+     * transaction is committed.
+     * {@inheritDoc}
+     */
+    public void beginTransaction() {
+        transaction.begin();
+    }
+
+    /** {@inheritDoc} */
+    public void commitTransaction() {
+        transaction.commit();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation: write methods.
+     */
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public boolean add(E element) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            List<E> list = edit();
+            int size = list.size();
+            boolean value = list.add(element);
+            if (activated) {
+                fireEvent(ActiveListEvent.INTERVAL_ADDED, size, size);
+            }
+            return value;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public void add(int index, E element) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            edit().add(index, element);
+            if (activated) {
+                fireEvent(ActiveListEvent.INTERVAL_ADDED, index, index);
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public boolean addAll(Collection<? extends E> c) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            List<E> list = edit();
+            int index = list.size();
+            boolean isChanged = list.addAll(c);
+            if (isChanged && activated) {
+                fireEvent(ActiveListEvent.INTERVAL_ADDED, index,
+                    index + c.size() - 1);
+            }
+            return isChanged;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public boolean addAll(int index, Collection<? extends E> c) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            boolean isChanged = edit().addAll(index, c);
+            if (isChanged && activated) {
+                fireEvent(ActiveListEvent.INTERVAL_ADDED, index,
+                    index + c.size() - 1);
+            }
+            return isChanged;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public void clear() {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            List<E> list = edit();
+            if (!list.isEmpty()) {
+                int size = list.size();
+                list.clear();
+                if (activated) {
+                    fireEvent(ActiveListEvent.INTERVAL_REMOVED, 0, size - 1);
+                }
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public E remove(int index) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            E element = edit().remove(index);
+            if (activated) {
+                fireEvent(ActiveListEvent.INTERVAL_REMOVED, index, index);
+            }
+            return element;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public boolean remove(Object o) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            boolean value = false;
+            int index = view().indexOf(o);
+            if (index != -1) {
+                edit().remove(index);
+                value = true;
+                if (activated) {
+                    fireEvent(ActiveListEvent.INTERVAL_REMOVED, index, index);
+                }
+            }
+            return value;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe. The list is compacted in a single pass and
+     * an <tt>INTERVAL_REMOVED</tt> event is sent for each removed interval.
+     * {@inheritDoc}
+     */
+    public boolean removeAll(Collection<?> c) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            if (c == null) {
+                String msg = "Collection to be removed cannot be null!";
+                throw new NullPointerException(msg);
+            }
+
+            List<ActiveListEvent> events
+                = ActiveListUtility.batchRemove(edit(), c, false, this);
+            if (activated) {
+                fireEvents(events);
+            }
+            return !events.isEmpty();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe. The list is compacted in a single pass and
+     * an <tt>INTERVAL_REMOVED</tt> event is sent for each removed interval.
+     * {@inheritDoc}
+     */
+    public boolean retainAll(Collection<?> c) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            if (c == null) {
+                String msg = "Collection to be retained cannot be null!";
+                throw new NullPointerException(msg);
+            }
+
+            List<ActiveListEvent> events
+                = ActiveListUtility.batchRemove(edit(), c, true, this);
+            if (activated) {
+                fireEvents(events);
+            }
+            return !events.isEmpty();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * {@inheritDoc}
+     */
+    public E set(int index, E element) {
+
+        try {
+            snapshotLock.writeLock().lock();
+
+            E previousElement = edit().set(index, element);
+            if (activated) {
+                fireEvent(ActiveListEvent.CONTENTS_CHANGED, index, index);
+            }
+            return previousElement;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation: read methods.
+     */
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public boolean contains(Object element) {
+        return view().contains(element);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public boolean containsAll(Collection<?> c) {
+        return view().containsAll(c);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public boolean equals(Object element) {
+        return view().equals(element);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public E get(int index) {
+        return view().get(index);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public int hashCode() {
+        return view().hashCode();
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public int indexOf(Object element) {
+        return view().indexOf(element);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return view().isEmpty();
+    }
+
+    /**
+     * This method is wait-free. The returned iterator is read-only.
+     * {@inheritDoc}
+     */
+    public Iterator<E> iterator() {
+        return readOnlyView().iterator();
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public int lastIndexOf(Object element) {
+        return view().lastIndexOf(element);
+    }
+
+    /**
+     * This method is wait-free. The returned iterator is read-only.
+     * {@inheritDoc}
+     */
+    public ListIterator<E> listIterator() {
+        return readOnlyView().listIterator();
+    }
+
+    /**
+     * This method is wait-free. The returned iterator is read-only.
+     * {@inheritDoc}
+     */
+    public ListIterator<E> listIterator(int index) {
+        return readOnlyView().listIterator(index);
+    }
+
+    /**
+     * This method is wait-free. The returned spliterator reads the current
+     * snapshot: it is <tt>SIZED</tt> and <tt>SUBSIZED</tt> and it is split by
+     * index range.
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return readOnlyView().spliterator();
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public int size() {
+        return view().size();
+    }
+
+    /**
+     * This method is wait-free. The returned list is a read-only view.
+     * {@inheritDoc}
+     */
+    public List<E> subList(int fromIndex, int toIndex) {
+        return readOnlyView().subList(fromIndex, toIndex);
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public Object[] toArray() {
+        return view().toArray();
+    }
+
+    /**
+     * This method is wait-free.
+     * {@inheritDoc}
+     */
+    public <T> T[] toArray(T[] a) {
+        return view().toArray(a);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Return the list to be read by the calling thread: the working buffer if
+     * the thread owns the write lock and has already changed the list, the
+     * last published snapshot otherwise.
+     * @return The list to be read by the calling thread.
+     */
+    private List<E> view() {
+        List<E> list = buffer;
+        if ((list != null) && lock.isWriteLockedByCurrentThread()) {
+            return list;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Return an immutable list to be iterated by the calling thread. If the
+     * calling thread is in the middle of a batch, the working buffer is copied.
+     * @return An immutable list to be iterated by the calling thread.
+     */
+    private List<E> readOnlyView() {
+        Buffer<E> list = buffer;
+        if ((list != null) && lock.isWriteLockedByCurrentThread()) {
+            return new Snapshot<E>(list.toArray(), list.size(),
+                snapshot.version);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Return the working buffer, copying the last published snapshot into it if
+     * this is the first change of the current batch. The snapshot array is
+     * copied with room for one more element, so a single addition does not
+     * grow it again. The caller must own the write lock.
+     * @return The working buffer.
+     */
+    private List<E> edit() {
+        if (buffer == null) {
+            Snapshot<E> current = snapshot;
+            buffer = new Buffer<E>(Arrays.copyOf(current.elements,
+                current.size + 1), current.size);
+        }
+        return buffer;
+    }
+
+    /**
+     * Publish the working buffer as the new snapshot. The buffer array is not
+     * copied: the buffer is discarded, so the array is never modified again.
+     * The caller must own the write lock.
+     */
+    private void publish() {
+        if (buffer != null) {
+            snapshot = new Snapshot<E>(buffer.elements, buffer.size,
+                snapshot.version + 1);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Fire a change or, inside a transaction, collect it. Outside a
+     * transaction no event is created if all registered listeners are
+     * <tt>PrimitiveActiveListListener</tt> listeners.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void fireEvent(int type, int x, int y) {
+        if (transaction.isStarted()) {
+            transaction.push(type, x, y);
+        } else {
+            ActiveListUtility.fireEvent(listenerList, this, type, x, y, 0, 0);
+        }
+    }
+
+    /**
+     * Fire a sequence of events produced by a single method call, numbered
+     * from 0 to the last sequence number or, inside a transaction, collect
+     * them.
+     * @param events The events to be fired.
+     */
+    private void fireEvents(List<ActiveListEvent> events) {
+        transaction.dispatch(events);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+
+    /**
+     * An immutable and versioned array snapshot of the list content. The
+     * array can be longer than the snapshot: trailing slots are not part of
+     * it.
+     */
+    private static final class Snapshot<E> extends AbstractList<E>
+            implements RandomAccess {
+
+        /** The snapshot elements. */
+        private final Object[] elements;
+
+        /** The number of elements in the snapshot. */
+        private final int size;
+
+        /** The snapshot version. */
+        private final long version;
+
+        /**
+         * Constructor.
+         * @param elements The snapshot elements: the array must not be
+         *     modified after the snapshot creation.
+         * @param size The number of elements in the snapshot.
+         * @param version The snapshot version.
+         */
+        public Snapshot(Object[] elements, int size, long version) {
+            this.elements = elements;
+            this.size = size;
+            this.version = version;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if ((index < 0) || (index >= size)) {
+                throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + size);
+            }
+            return (E) elements[index];
+        }
+
+        /** {@inheritDoc} */
+        public int size() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Spliterator<E> spliterator() {
+            return Spliterators.spliterator(elements, 0, size,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+    }
+
+    /**
+     * The working buffer: a growable array edited in place by the write lock
+     * owner and published without being copied.
+     */
+    private static final class Buffer<E> extends AbstractList<E>
+            implements RandomAccess {
+
+        /** The buffer elements. */
+        private Object[] elements;
+
+        /** The number of elements in the buffer. */
+        private int size;
+
+        /**
+         * Constructor.
+         * @param elements The buffer array, owned by the buffer.
+         * @param size The number of elements in the buffer.
+         */
+        public Buffer(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            rangeCheck(index);
+            return (E) elements[index];
+        }
+
+        /** {@inheritDoc} */
+        public int size() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @SuppressWarnings("unchecked")
+        public E set(int index, E element) {
+            rangeCheck(index);
+            E previous = (E) elements[index];
+            elements[index] = element;
+            return previous;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void add(int index, E element) {
+            if ((index < 0) || (index > size)) {
+                throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + size);
+            }
+            ensureCapacity(size + 1);
+            System.arraycopy(elements, index, elements, index + 1,
+                size - index);
+            elements[index] = element;
+            size++;
+            modCount++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            if ((index < 0) || (index > size)) {
+                throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + size);
+            }
+            Object[] added = c.toArray();
+            ensureCapacity(size + added.length);
+            System.arraycopy(elements, index, elements, index + added.length,
+                size - index);
+            System.arraycopy(added, 0, elements, index, added.length);
+            size += added.length;
+            modCount++;
+            return added.length > 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return addAll(size, c);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @SuppressWarnings("unchecked")
+        public E remove(int index) {
+            rangeCheck(index);
+            E previous = (E) elements[index];
+            System.arraycopy(elements, index + 1, elements, index,
+                size - index - 1);
+            elements[--size] = null;
+            modCount++;
+            return previous;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void clear() {
+            removeRange(0, size);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            System.arraycopy(elements, toIndex, elements, fromIndex,
+                size - toIndex);
+            int newSize = size - (toIndex - fromIndex);
+            Arrays.fill(elements, newSize, size, null);
+            size = newSize;
+            modCount++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+
+        /**
+         * Grow the buffer array if it cannot contain the given number of
+         * elements.
+         * @param capacity The required capacity.
+         */
+        private void ensureCapacity(int capacity) {
+            if (capacity > elements.length) {
+                int length = Math.max(capacity,
+                    elements.length + (elements.length >> 1) + 1);
+                elements = Arrays.copyOf(elements, length);
+            }
+        }
+
+        /**
+         * Check that the given index is a valid element index.
+         * @param index The index to be checked.
+         * @throws IndexOutOfBoundsException If the index is out of range.
+         */
+        private void rangeCheck(int index) {
+            if ((index < 0) || (index >= size)) {
+                throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + size);
+            }
+        }
+    }
+
+    /**
+     * This is the read/write lock returned to the users. It is a thin wrapper
+     * around the list lock publishing a new snapshot when the outermost write
+     * lock is released.
+     */
+    private class SnapshotLock implements ReadWriteLock {
+
+        /** The publishing write lock. */
+        private Lock writeLock = new PublishingLock();
+
+        /** {@inheritDoc} */
+        public Lock readLock() {
+            return lock.readLock();
+        }
+
+        /** {@inheritDoc} */
+        public Lock writeLock() {
+            return writeLock;
+        }
+    }
+
+    /**
+     * Write lock publishing the working buffer before releasing the outermost
+     * lock hold.
+     */
+    private class PublishingLock implements Lock {
+
+        /** {@inheritDoc} */
+        public void lock() {
+            lock.writeLock().lock();
+        }
+
+        /** {@inheritDoc} */
+        public void lockInterruptibly() throws InterruptedException {
+            lock.writeLock().lockInterruptibly();
+        }
+
+        /** {@inheritDoc} */
+        public boolean tryLock() {
+            return lock.writeLock().tryLock();
+        }
+
+        /** {@inheritDoc} */
+        public boolean tryLock(long time, TimeUnit unit)
+                throws InterruptedException {
+            return lock.writeLock().tryLock(time, unit);
+        }
+
+        /** {@inheritDoc} */
+        public void unlock() {
+            if (lock.getWriteHoldCount() == 1) {
+                publish();
+            }
+            lock.writeLock().unlock();
+        }
+
+        /** {@inheritDoc} */
+        public Condition newCondition() {
+            return lock.writeLock().newCondition();
+        }
+    }
+}
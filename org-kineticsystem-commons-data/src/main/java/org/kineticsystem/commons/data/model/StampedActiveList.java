@@ -0,0 +1,376 @@
+/*
+ * StampedActiveList.java
+ *
+ * Created on 18 October 2026, 17.20
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This is a <tt>DefaultActiveList</tt> protected by a <tt>StampedLock</tt>.
+ * The short read methods <tt>size</tt>, <tt>isEmpty</tt> and <tt>get</tt>
+ * first try an optimistic read, that doesn't write any shared memory, and
+ * acquire the read lock only if a writer modified the list in the meantime:
+ * polling the list, i.e. from the AWT event-dispatching thread, does not slow
+ * down writers and other readers.
+ * <p>
+ * The lock returned by <tt>getReadWriteLock</tt> is a reentrant adapter of the
+ * <tt>StampedLock</tt>, so the list can be explicitly locked as any other
+ * <tt>ActiveList</tt>. Like a <tt>ReentrantReadWriteLock</tt>, the write lock
+ * owner can acquire the read lock, and keeps it as a real read lock once the
+ * write lock is released (downgrade), but a read lock cannot be upgraded;
+ * write lock conditions are not supported.
+ * <p>
+ * Optimistic reads run while the decorated list can be modified, so the list
+ * must not fail in an unrecoverable way when read concurrently: the default
+ * <tt>ArrayList</tt> is safe.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class StampedActiveList<E> extends DefaultActiveList<E> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The lock protecting the list. */
+    private StampedLock stampedLock;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Default constructor. */
+    public StampedActiveList() {
+        this(new ArrayList<E>());
+    }
+    
+    /**
+     * Decorate the given list to make it firing events when modified.
+     * @param list The list to be decorated.
+     */
+    public StampedActiveList(List<E> list) {
+        this(list, new StampedLock());
+    }
+    
+    /**
+     * Decorate the given list protecting it with the given lock.
+     * @param list The list to be decorated.
+     * @param stampedLock The lock protecting the list.
+     */
+    private StampedActiveList(List<E> list, StampedLock stampedLock) {
+        super(list, new StampedReadWriteLock(stampedLock));
+        this.stampedLock = stampedLock;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+    
+    /** 
+     * This method is thread-safe and it doesn't lock the list unless the list
+     * is being modified.
+     * {@inheritDoc} 
+     */
+    @Override
+    public E get(int index) {
+        
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                E element = list.get(index);
+                if (stampedLock.validate(stamp)) {
+                    return element;
+                }
+            } catch (RuntimeException ex) {
+                if (stampedLock.validate(stamp)) {
+                    throw ex; // Not caused by a concurrent change.
+                }
+            }
+        }
+        return super.get(index);
+    }
+    
+    /** 
+     * This method is thread-safe and it doesn't lock the list unless the list
+     * is being modified.
+     * {@inheritDoc} 
+     */
+    @Override
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+    
+    /** 
+     * This method is thread-safe and it doesn't lock the list unless the list
+     * is being modified.
+     * {@inheritDoc} 
+     */
+    @Override
+    public int size() {
+        
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            int size = list.size();
+            if (stampedLock.validate(stamp)) {
+                return size;
+            }
+        }
+        return super.size();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /** Reentrant <tt>ReadWriteLock</tt> adapter of a <tt>StampedLock</tt>. */
+    private static class StampedReadWriteLock implements ReadWriteLock {
+        
+        /** The adapted lock. */
+        private StampedLock stampedLock;
+        
+        /** The thread holding the write lock (null if none). */
+        private volatile Thread owner;
+        
+        /** The number of write lock holds of the owner thread. */
+        private int writeHolds;
+        
+        /** The stamp of the write lock held by the owner thread. */
+        private long writeStamp;
+        
+        /**
+         * The read lock holds of each thread: the first element is the number
+         * of holds, the second one is 1 if the holds own a <tt>StampedLock</tt>
+         * read lock, 0 if they have been acquired by the write lock owner and
+         * are covered by its write lock. The last write lock release converts
+         * the write lock into a read lock owned by the remaining holds.
+         */
+        private ThreadLocal<int[]> readHolds;
+        
+        /** The read lock. */
+        private Lock readLock;
+        
+        /** The write lock. */
+        private Lock writeLock;
+        
+        /**
+         * Constructor.
+         * @param stampedLock The adapted lock.
+         */
+        public StampedReadWriteLock(StampedLock stampedLock) {
+            this.stampedLock = stampedLock;
+            this.owner = null;
+            this.writeHolds = 0;
+            this.readHolds = new ThreadLocal<int[]>() {
+                protected int[] initialValue() {
+                    return new int[2];
+                }
+            };
+            this.readLock = new ReadLock();
+            this.writeLock = new WriteLock();
+        }
+        
+        /** {@inheritDoc} */
+        public Lock readLock() {
+            return readLock;
+        }
+        
+        /** {@inheritDoc} */
+        public Lock writeLock() {
+            return writeLock;
+        }
+        
+        /** The reentrant read lock. */
+        private class ReadLock implements Lock {
+            
+            /** {@inheritDoc} */
+            public void lock() {
+                int[] holds = readHolds.get();
+                if (holds[0] == 0) {
+                    if (owner == Thread.currentThread()) {
+                        holds[1] = 0;
+                    } else {
+                        stampedLock.readLock();
+                        holds[1] = 1;
+                    }
+                }
+                holds[0]++;
+            }
+            
+            /** {@inheritDoc} */
+            public void lockInterruptibly() throws InterruptedException {
+                int[] holds = readHolds.get();
+                if (holds[0] == 0) {
+                    if (owner == Thread.currentThread()) {
+                        holds[1] = 0;
+                    } else {
+                        stampedLock.readLockInterruptibly();
+                        holds[1] = 1;
+                    }
+                }
+                holds[0]++;
+            }
+            
+            /** {@inheritDoc} */
+            public boolean tryLock() {
+                int[] holds = readHolds.get();
+                if (holds[0] == 0) {
+                    if (owner == Thread.currentThread()) {
+                        holds[1] = 0;
+                    } else if (stampedLock.tryReadLock() != 0L) {
+                        holds[1] = 1;
+                    } else {
+                        return false;
+                    }
+                }
+                holds[0]++;
+                return true;
+            }
+            
+            /** {@inheritDoc} */
+            public boolean tryLock(long time, TimeUnit unit)
+                    throws InterruptedException {
+                int[] holds = readHolds.get();
+                if (holds[0] == 0) {
+                    if (owner == Thread.currentThread()) {
+                        holds[1] = 0;
+                    } else if (stampedLock.tryReadLock(time, unit) != 0L) {
+                        holds[1] = 1;
+                    } else {
+                        return false;
+                    }
+                }
+                holds[0]++;
+                return true;
+            }
+            
+            /** {@inheritDoc} */
+            public void unlock() {
+                int[] holds = readHolds.get();
+                if (holds[0] == 0) {
+                    throw new IllegalMonitorStateException();
+                }
+                holds[0]--;
+                if ((holds[0] == 0) && (holds[1] == 1)) {
+                    stampedLock.tryUnlockRead();
+                }
+            }
+            
+            /**
+             * This method is not supported.
+             * @throws UnsupportedOperationException Always.
+             */
+            public Condition newCondition() {
+                throw new UnsupportedOperationException();
+            }
+        }
+        
+        /** The reentrant write lock. */
+        private class WriteLock implements Lock {
+            
+            /** {@inheritDoc} */
+            public void lock() {
+                if (owner != Thread.currentThread()) {
+                    writeStamp = stampedLock.writeLock();
+                    owner = Thread.currentThread();
+                }
+                writeHolds++;
+            }
+            
+            /** {@inheritDoc} */
+            public void lockInterruptibly() throws InterruptedException {
+                if (owner != Thread.currentThread()) {
+                    writeStamp = stampedLock.writeLockInterruptibly();
+                    owner = Thread.currentThread();
+                }
+                writeHolds++;
+            }
+            
+            /** {@inheritDoc} */
+            public boolean tryLock() {
+                if (owner != Thread.currentThread()) {
+                    long stamp = stampedLock.tryWriteLock();
+                    if (stamp == 0L) {
+                        return false;
+                    }
+                    writeStamp = stamp;
+                    owner = Thread.currentThread();
+                }
+                writeHolds++;
+                return true;
+            }
+            
+            /** {@inheritDoc} */
+            public boolean tryLock(long time, TimeUnit unit)
+                    throws InterruptedException {
+                if (owner != Thread.currentThread()) {
+                    long stamp = stampedLock.tryWriteLock(time, unit);
+                    if (stamp == 0L) {
+                        return false;
+                    }
+                    writeStamp = stamp;
+                    owner = Thread.currentThread();
+                }
+                writeHolds++;
+                return true;
+            }
+            
+            /** {@inheritDoc} */
+            public void unlock() {
+                if (owner != Thread.currentThread()) {
+                    throw new IllegalMonitorStateException();
+                }
+                writeHolds--;
+                if (writeHolds == 0) {
+                    owner = null;
+                    int[] holds = readHolds.get();
+                    if (holds[0] > 0) {
+                        
+                        // Downgrade: the read holds acquired under the write
+                        // lock now own a real read lock.
+                        
+                        stampedLock.tryConvertToReadLock(writeStamp);
+                        holds[1] = 1;
+                    } else {
+                        stampedLock.unlockWrite(writeStamp);
+                    }
+                }
+            }
+            
+            /**
+             * This method is not supported.
+             * @throws UnsupportedOperationException Always.
+             */
+            public Condition newCondition() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Transaction.java
+ *
+ * Created on 18 October 2026, 15.05
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * The transaction state shared by the <tt>ActiveList</tt> implementations:
+ * the owner thread, the nesting depth and the assembler collecting the
+ * events of the outermost transaction. The write lock of the list is acquired
+ * when a transaction begins and released when it is committed; when the
+ * outermost transaction is committed, the compressed events are fired to the
+ * list listeners as a single sequence.
+ * <p>
+ * Apart from <tt>isOwner</tt>, methods must be called by the thread owning
+ * the write lock of the list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+final class Transaction {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The list whose changes are collected. */
+    private final ActiveList<?> list;
+    
+    /**
+     * The assembler collecting the events of the current transaction or null
+     * if there is no transaction in progress.
+     */
+    private ActiveListEventAssembler assembler;
+    
+    /** The thread owning the current transaction. */
+    private volatile Thread owner;
+    
+    /** The number of nested transactions started by the owner thread. */
+    private int depth;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param list The list whose changes are collected: transactions lock
+     *     the write lock returned by its <tt>getReadWriteLock</tt> method and
+     *     events are fired using its <tt>fireContentsChanged</tt> method.
+     */
+    Transaction(ActiveList<?> list) {
+        this.list = list;
+        this.assembler = null;
+        this.owner = null;
+        this.depth = 0;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Package methods.
+     */
+    
+    /** Start a, possibly nested, transaction acquiring the write lock. */
+    void begin() {
+        
+        list.getReadWriteLock().writeLock().lock();
+        if (depth == 0) {
+            assembler = new DefaultAssembler();
+            owner = Thread.currentThread();
+        }
+        depth++;
+    }
+    
+    /**
+     * Commit the transaction started by the calling thread and release the
+     * write lock. When the outermost transaction is committed, the
+     * compressed events are fired as a single sequence.
+     * @throws IllegalStateException If the calling thread has not started a
+     *     transaction.
+     */
+    void commit() {
+        
+        if ((depth == 0) || (owner != Thread.currentThread())) {
+            String msg = "No transaction started by the current thread!";
+            throw new IllegalStateException(msg);
+        }
+        
+        Lock writeLock = list.getReadWriteLock().writeLock();
+        try {
+            depth--;
+            if (depth == 0) {
+                
+                ActiveListEventAssembler current = assembler;
+                assembler = null;
+                owner = null;
+                
+                // Retrieve all compressed events and fire them as a single
+                // sequence.
+                
+                List<ActiveListEvent> events = new ArrayList<ActiveListEvent>();
+                while (!current.isEmpty()) {
+                    events.add(current.pop());
+                }
+                fire(events);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Return true if a transaction is in progress: changes must be collected
+     * using the <tt>push</tt> methods instead of being fired.
+     * @return True if a transaction is in progress.
+     */
+    boolean isStarted() {
+        return assembler != null;
+    }
+    
+    /**
+     * Return true if the calling thread owns the current transaction. This
+     * method can be called by any thread.
+     * @return True if the calling thread owns the current transaction.
+     */
+    boolean isOwner() {
+        return owner == Thread.currentThread();
+    }
+    
+    /**
+     * Collect a change made inside the current transaction.
+     * @param event The event describing the change.
+     */
+    void push(ActiveListEvent event) {
+        assembler.push(event);
+    }
+    
+    /**
+     * Collect a change made inside the current transaction.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    void push(int type, int x, int y) {
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        assembler.push(event);
+    }
+    
+    /**
+     * Notify a sequence of changes made by a single method call: inside a
+     * transaction the events are collected, otherwise they are fired numbered
+     * from 0 to the last sequence number.
+     * @param events The events describing the changes.
+     */
+    void dispatch(List<ActiveListEvent> events) {
+        if (assembler != null) {
+            for (ActiveListEvent event : events) {
+                assembler.push(event);
+            }
+        } else {
+            fire(events);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Fire the given events as a single sequence numbered from 0 to the last
+     * sequence number.
+     * @param events The events to be fired.
+     */
+    private void fire(List<ActiveListEvent> events) {
+        int seq = 0;
+        int lastSeq = events.size() - 1;
+        for (ActiveListEvent event : events) {
+            event.setSequenceNumber(seq++);
+            event.setLastSequenceNumber(lastSeq);
+            list.fireContentsChanged(event);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * ViewportActiveListListener.java
+ *
+ * Created on 18 October 2026, 21.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is an <tt>ActiveListListener</tt> decorator notifying the decorated
+ * listener only of the changes made to a range of rows of interest, i.e. the
+ * rows displayed by a small view of a big list.
+ * <pre>
+ * list.addActiveListListener(new ViewportActiveListListener(view, 0, 49));
+ * </pre>
+ * The range follows its rows: it is shifted when rows are inserted or
+ * removed above it, it grows when rows are inserted inside it and shrinks
+ * when its rows are removed. Changes intersecting the range are forwarded
+ * unchanged. Insertions and removals outside the range are folded into a
+ * single <tt>viewportChanged</tt> notification per sequence of changes, sent
+ * only if the decorated listener is a <tt>ViewportListener</tt>; modifications
+ * outside the range are discarded.
+ * <p>
+ * A move is handled as the removal of the moved rows followed by their
+ * insertion at the destination. A <tt>STRUCTURE_CHANGED</tt> change replaces
+ * the forwarded changes of its sequence and is always forwarded: the range
+ * keeps its indexes, limited to the new list size, and the decorated listener
+ * must read it again.
+ * <p>
+ * Changes forwarded from a sequence are notified when the sequence ends and
+ * numbered as a new sequence. A decorator must receive changes from a single
+ * list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ViewportActiveListListener implements PrimitiveActiveListListener {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The decorated listener. */
+    private ActiveListListener listener;
+    
+    /** The index of the first row of the range. */
+    private int first;
+    
+    /** The index of the last row of the range. */
+    private int last;
+    
+    /** The changes of the current sequence forwarded to the listener. */
+    private int[] forwarded;
+    
+    /** The number of forwarded changes of the current sequence. */
+    private int count;
+    
+    /** True if a change of the current sequence has been folded. */
+    private boolean folded;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Create a decorator notifying changes made to the given range.
+     * @param listener The decorated listener.
+     * @param first The index of the first row of the range.
+     * @param last The index of the last row of the range.
+     * @throws IllegalArgumentException If the range is not valid.
+     */
+    public ViewportActiveListListener(ActiveListListener listener, int first,
+            int last) {
+        this.listener = listener;
+        this.forwarded = new int[3 * 4];
+        this.count = 0;
+        this.folded = false;
+        setRange(first, last);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Getter and setter methods.
+     */
+    
+    /**
+     * Return the decorated listener.
+     * @return The decorated listener.
+     */
+    public ActiveListListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * Return the index of the first row of the range.
+     * @return The index of the first row of the range.
+     */
+    public synchronized int getFirst() {
+        return first;
+    }
+    
+    /**
+     * Return the index of the last row of the range. It is lower than the
+     * first index if all rows of the range have been removed.
+     * @return The index of the last row of the range.
+     */
+    public synchronized int getLast() {
+        return last;
+    }
+    
+    /**
+     * Move the range, i.e. when the view is scrolled.
+     * @param first The index of the first row of the range.
+     * @param last The index of the last row of the range.
+     * @throws IllegalArgumentException If the range is not valid.
+     */
+    public synchronized void setRange(int first, int last) {
+        if ((first < 0) || (last < first - 1)) {
+            String msg = "Invalid range [" + first + ", " + last + "]!";
+            throw new IllegalArgumentException(msg);
+        }
+        this.first = first;
+        this.last = last;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(ActiveListEvent event) {
+        change(event.getSource(), event.getType(), event.getX(), event.getY(),
+            event.getToIndex(), event.getSequenceNumber(),
+            event.getLastSequenceNumber());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        change(source, ActiveListEvent.INTERVAL_ADDED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        change(source, ActiveListEvent.INTERVAL_REMOVED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        change(source, ActiveListEvent.CONTENTS_CHANGED, x, y, x,
+            sequenceNumber, lastSequenceNumber);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Update the range with the given change, forward or fold the change and,
+     * at the end of a sequence, notify the decorated listener.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void change(Object source, int type, int x, int y, int toIndex,
+            int seq, int lastSeq) {
+        
+        int[] changes;
+        int changeCount;
+        boolean moved;
+        int newFirst;
+        int newLast;
+        
+        synchronized (this) {
+            
+            if (type == ActiveListEvent.INTERVAL_MOVED) {
+                update(ActiveListEvent.INTERVAL_REMOVED, x, y);
+                update(ActiveListEvent.INTERVAL_ADDED, toIndex,
+                    toIndex + y - x);
+            } else {
+                update(type, x, y);
+            }
+            
+            if (seq != lastSeq) {
+                return;
+            }
+            
+            // End of sequence: collect the notifications.
+            
+            changes = forwarded;
+            changeCount = count;
+            moved = folded;
+            newFirst = first;
+            newLast = last;
+            if (count > 0) {
+                forwarded = new int[forwarded.length];
+            }
+            count = 0;
+            folded = false;
+        }
+        
+        if (moved && (listener instanceof ViewportListener)) {
+            ((ViewportListener) listener).viewportChanged(source, newFirst,
+                newLast);
+        }
+        for (int i = 0; i < changeCount; i++) {
+            notifyListener(source, changes[3 * i], changes[3 * i + 1],
+                changes[3 * i + 2], i, changeCount - 1);
+        }
+    }
+    
+    /**
+     * Update the range with the given change and forward or fold the change.
+     * Moves must be split into a removal and an insertion.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void update(int type, int x, int y) {
+        
+        boolean intersecting = (x <= last) && (y >= first);
+        int length = y - x + 1;
+        switch (type) {
+            case ActiveListEvent.INTERVAL_ADDED:
+                if (x <= first) {
+                    first += length;
+                    last += length;
+                    folded = true;
+                } else if (x <= last) {
+                    last += length;
+                    forward(type, x, y);
+                } else {
+                    folded = true;
+                }
+                break;
+            case ActiveListEvent.INTERVAL_REMOVED:
+                if (intersecting) {
+                    forward(type, x, y);
+                    int above = Math.max(0, first - x);
+                    int inside = Math.min(y, last) - Math.max(x, first) + 1;
+                    first -= above;
+                    last -= above + inside;
+                } else {
+                    if (y < first) {
+                        first -= length;
+                        last -= length;
+                    }
+                    folded = true;
+                }
+                break;
+            case ActiveListEvent.STRUCTURE_CHANGED: {
+                int size = y + 1;
+                if (last >= size) {
+                    first = Math.min(first, size);
+                    last = size - 1;
+                    folded = true;
+                }
+                count = 0;
+                forward(type, x, y);
+                break;
+            }
+            default:
+                if (intersecting) {
+                    forward(type, x, y);
+                }
+        }
+    }
+    
+    /**
+     * Append the given change to the forwarded changes of the sequence.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void forward(int type, int x, int y) {
+        if (3 * count == forwarded.length) {
+            int[] array = new int[2 * forwarded.length];
+            System.arraycopy(forwarded, 0, array, 0, forwarded.length);
+            forwarded = array;
+        }
+        forwarded[3 * count] = type;
+        forwarded[3 * count + 1] = x;
+        forwarded[3 * count + 2] = y;
+        count++;
+    }
+    
+    /**
+     * Notify the given change to the decorated listener.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    private void notifyListener(Object source, int type, int x, int y, int seq,
+            int lastSeq) {
+        
+        if (listener instanceof PrimitiveActiveListListener) {
+            PrimitiveActiveListListener primitiveListener =
+                (PrimitiveActiveListListener) listener;
+            switch (type) {
+                case ActiveListEvent.CONTENTS_CHANGED:
+                    primitiveListener.contentsChanged(source, x, y, seq,
+                        lastSeq);
+                    break;
+                case ActiveListEvent.INTERVAL_ADDED:
+                    primitiveListener.intervalAdded(source, x, y, seq, lastSeq);
+                    break;
+                case ActiveListEvent.INTERVAL_REMOVED:
+                    primitiveListener.intervalRemoved(source, x, y, seq,
+                        lastSeq);
+                    break;
+                default:
+                    listener.contentsChanged(createEvent(source, type, x, y,
+                        seq, lastSeq));
+                    break;
+            }
+        } else {
+            listener.contentsChanged(createEvent(source, type, x, y, seq,
+                lastSeq));
+        }
+    }
+    
+    /**
+     * Create an event describing the given change.
+     * @param source The list generating the change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     * @return The event describing the change.
+     */
+    private static ActiveListEvent createEvent(Object source, int type, int x,
+            int y, int seq, int lastSeq) {
+        ActiveListEvent event = new ActiveListEvent(source);
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        event.setSequenceNumber(seq);
+        event.setLastSequenceNumber(lastSeq);
+        return event;
+    }
+}
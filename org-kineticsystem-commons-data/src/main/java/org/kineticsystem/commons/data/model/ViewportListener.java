@@ -0,0 +1,45 @@
+/*
+ * ViewportListener.java
+ *
+ * Created on 18 October 2026, 20.55
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+/**
+ * This is a listener interested in a range of rows of an <tt>ActiveList</tt>.
+ * When registered through a <tt>ViewportActiveListListener</tt> it receives
+ * the changes affecting its rows as usual and a single notification for
+ * the changes made outside them.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ViewportActiveListListener
+ */
+public interface ViewportListener extends ActiveListListener {
+    
+    /**
+     * Fired when changes have been made outside the range of interest: the
+     * list size or the range position have changed.
+     * @param source The list generating the changes.
+     * @param first The new index of the first row of the range.
+     * @param last The new index of the last row of the range.
+     */
+    public void viewportChanged(Object source, int first, int last);
+}
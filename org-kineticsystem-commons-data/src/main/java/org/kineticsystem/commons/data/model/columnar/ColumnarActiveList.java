@@ -0,0 +1,244 @@
+/*
+ * ColumnarActiveList.java
+ *
+ * Created on 18 October 2026, 13.50
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.columnar;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+
+/**
+ * This is an <tt>ActiveList</tt> of records stored by column. It decorates a
+ * <tt>ColumnarList</tt>, firing the same events of the
+ * <tt>DefaultActiveList</tt>, and adds thread-safe methods to read and write
+ * single cells without creating any row.
+ * Use it together with a <tt>ColumnarTableStructure</tt> to display the list
+ * in a table component without Java Bean Introspection.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ColumnarList
+ */
+public class ColumnarActiveList extends DefaultActiveList<Row> {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The columnar list storing the records. */
+    private ColumnarList rows;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Create an empty list with the given columns.
+     * @param names The column names.
+     * @param types The column types.
+     * @see ColumnarList#ColumnarList(String[], Class[])
+     */
+    public ColumnarActiveList(String[] names, Class<?>[] types) {
+        this(new ColumnarList(names, types));
+    }
+
+    /**
+     * Decorate the given columnar list.
+     * @param rows The columnar list to be decorated.
+     */
+    private ColumnarActiveList(ColumnarList rows) {
+        super(rows);
+        this.rows = rows;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Column methods.
+     */
+
+    /** @see ColumnarList#getColumnCount() */
+    public int getColumnCount() {
+        return rows.getColumnCount();
+    }
+
+    /** @see ColumnarList#getColumnName(int) */
+    public String getColumnName(int column) {
+        return rows.getColumnName(column);
+    }
+
+    /** @see ColumnarList#getColumnType(int) */
+    public Class<?> getColumnType(int column) {
+        return rows.getColumnType(column);
+    }
+
+    /** @see ColumnarList#getColumnIndex(String) */
+    public int getColumnIndex(String name) {
+        return rows.getColumnIndex(name);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Cell methods.
+     */
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#getValue(int, int)
+     */
+    public Object getValue(int row, int column) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return rows.getValue(row, column);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#getInt(int, int)
+     */
+    public int getInt(int row, int column) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return rows.getInt(row, column);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#getLong(int, int)
+     */
+    public long getLong(int row, int column) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return rows.getLong(row, column);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#getDouble(int, int)
+     */
+    public double getDouble(int row, int column) {
+
+        try {
+            getReadWriteLock().readLock().lock();
+
+            return rows.getDouble(row, column);
+        } finally {
+            getReadWriteLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#setValue(int, int, Object)
+     */
+    public Object setValue(int row, int column, Object value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            Object previousValue = rows.setValue(row, column, value);
+            rowChanged(row);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#setInt(int, int, int)
+     */
+    public int setInt(int row, int column, int value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            int previousValue = rows.setInt(row, column, value);
+            rowChanged(row);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#setLong(int, int, long)
+     */
+    public long setLong(int row, int column, long value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            long previousValue = rows.setLong(row, column, value);
+            rowChanged(row);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is thread-safe.
+     * @see ColumnarList#setDouble(int, int, double)
+     */
+    public double setDouble(int row, int column, double value) {
+
+        try {
+            getReadWriteLock().writeLock().lock();
+
+            double previousValue = rows.setDouble(row, column, value);
+            rowChanged(row);
+            return previousValue;
+        } finally {
+            getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Notify a change of the given row.
+     * @param row The changed row.
+     */
+    private void rowChanged(int row) {
+        if (isActive()) {
+            dispatchEvent(ActiveListEvent.CONTENTS_CHANGED, row, row);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * ColumnarList.java
+ *
+ * Created on 18 October 2026, 13.30
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.columnar;
+
+// Java classes.
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Application classes.
+
+import org.kineticsystem.commons.collections.DoubleArrayList;
+import org.kineticsystem.commons.collections.IntArrayList;
+import org.kineticsystem.commons.collections.LongArrayList;
+
+/**
+ * This is a list of records stored by column (struct-of-arrays). Each declared
+ * column is kept in its own array: columns of type <tt>int</tt>, <tt>long</tt>
+ * and <tt>double</tt> are stored in primitive arrays, columns of any other type
+ * in an object array. No object is stored per row: rows added or set are
+ * copied into the columns and the method <tt>get</tt> returns a detached copy
+ * of the row at the given position, so a returned row never changes when the
+ * list is modified. Use the cell methods to read or write single values
+ * without creating any row.
+ * <p>
+ * Primitive columns cannot contain null values. This implementation is not
+ * synchronized.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ColumnarList extends AbstractList<Row> implements RandomAccess {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private constants.
+     */
+
+    /** Column storing objects. */
+    private static final int OBJECT_COLUMN = 0;
+
+    /** Column storing <tt>int</tt> values. */
+    private static final int INT_COLUMN = 1;
+
+    /** Column storing <tt>long</tt> values. */
+    private static final int LONG_COLUMN = 2;
+
+    /** Column storing <tt>double</tt> values. */
+    private static final int DOUBLE_COLUMN = 3;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The column names. */
+    private String[] names;
+
+    /** The column types. */
+    private Class<?>[] types;
+
+    /** The column storage kinds. */
+    private int[] kinds;
+
+    /** The column arrays. */
+    private Object[] columns;
+
+    /** The number of rows. */
+    private int size;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Create an empty list with the given columns.
+     * @param names The column names.
+     * @param types The column types: <tt>int.class</tt>, <tt>long.class</tt>
+     *     and <tt>double.class</tt> columns are stored in primitive arrays.
+     * @throws IllegalArgumentException If names and types have different
+     *     length.
+     */
+    public ColumnarList(String[] names, Class<?>[] types) {
+
+        if (names.length != types.length) {
+            String msg = "Column names and types must have the same length!";
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.names = names.clone();
+        this.types = types.clone();
+        this.kinds = new int[types.length];
+        this.columns = new Object[types.length];
+        this.size = 0;
+
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class) {
+                kinds[i] = INT_COLUMN;
+                columns[i] = new IntArrayList();
+            } else if (types[i] == long.class) {
+                kinds[i] = LONG_COLUMN;
+                columns[i] = new LongArrayList();
+            } else if (types[i] == double.class) {
+                kinds[i] = DOUBLE_COLUMN;
+                columns[i] = new DoubleArrayList();
+            } else {
+                kinds[i] = OBJECT_COLUMN;
+                columns[i] = new ArrayList<Object>();
+            }
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Column methods.
+     */
+
+    /**
+     * Return the number of columns.
+     * @return The number of columns.
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Return the name of the given column.
+     * @param column The column index.
+     * @return The column name.
+     */
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    /**
+     * Return the type of the given column.
+     * @param column The column index.
+     * @return The column type.
+     */
+    public Class<?> getColumnType(int column) {
+        return types[column];
+    }
+
+    /**
+     * Return the index of the column with the given name.
+     * @param name The column name.
+     * @return The column index or -1 if there is no such column.
+     */
+    public int getColumnIndex(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Cell methods.
+     */
+
+    /**
+     * Return the value at the given cell.
+     * @param row The row index.
+     * @param column The column index.
+     * @return The cell value.
+     */
+    public Object getValue(int row, int column) {
+        rangeCheck(row);
+        switch (kinds[column]) {
+            case INT_COLUMN:
+                return Integer.valueOf(intColumn(column).getInt(row));
+            case LONG_COLUMN:
+                return Long.valueOf(longColumn(column).getLong(row));
+            case DOUBLE_COLUMN:
+                return Double.valueOf(doubleColumn(column).getDouble(row));
+            default:
+                return objectColumn(column).get(row);
+        }
+    }
+
+    /**
+     * Return the value at the given cell of an <tt>int</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @return The cell value.
+     * @throws ClassCastException If the column is not an <tt>int</tt> column.
+     */
+    public int getInt(int row, int column) {
+        return intColumn(column).getInt(row);
+    }
+
+    /**
+     * Return the value at the given cell of a <tt>long</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @return The cell value.
+     * @throws ClassCastException If the column is not a <tt>long</tt> column.
+     */
+    public long getLong(int row, int column) {
+        return longColumn(column).getLong(row);
+    }
+
+    /**
+     * Return the value at the given cell of a <tt>double</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @return The cell value.
+     * @throws ClassCastException If the column is not a <tt>double</tt>
+     *     column.
+     */
+    public double getDouble(int row, int column) {
+        return doubleColumn(column).getDouble(row);
+    }
+
+    /**
+     * Set the value at the given cell.
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The new cell value: it must be a <tt>Number</tt> for
+     *     primitive columns.
+     * @return The previous cell value.
+     */
+    public Object setValue(int row, int column, Object value) {
+        rangeCheck(row);
+        Object previousValue = getValue(row, column);
+        switch (kinds[column]) {
+            case INT_COLUMN:
+                intColumn(column).setInt(row, ((Number) value).intValue());
+                break;
+            case LONG_COLUMN:
+                longColumn(column).setLong(row, ((Number) value).longValue());
+                break;
+            case DOUBLE_COLUMN:
+                doubleColumn(column).setDouble(row,
+                    ((Number) value).doubleValue());
+                break;
+            default:
+                objectColumn(column).set(row, value);
+                break;
+        }
+        return previousValue;
+    }
+
+    /**
+     * Set the value at the given cell of an <tt>int</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The new cell value.
+     * @return The previous cell value.
+     * @throws ClassCastException If the column is not an <tt>int</tt> column.
+     */
+    public int setInt(int row, int column, int value) {
+        return intColumn(column).setInt(row, value);
+    }
+
+    /**
+     * Set the value at the given cell of a <tt>long</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The new cell value.
+     * @return The previous cell value.
+     * @throws ClassCastException If the column is not a <tt>long</tt> column.
+     */
+    public long setLong(int row, int column, long value) {
+        return longColumn(column).setLong(row, value);
+    }
+
+    /**
+     * Set the value at the given cell of a <tt>double</tt> column.
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The new cell value.
+     * @return The previous cell value.
+     * @throws ClassCastException If the column is not a <tt>double</tt>
+     *     column.
+     */
+    public double setDouble(int row, int column, double value) {
+        return doubleColumn(column).setDouble(row, value);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+
+    /**
+     * Return a detached copy of the row at the given position.
+     * {@inheritDoc}
+     */
+    public Row get(int index) {
+        rangeCheck(index);
+        return copy(index);
+    }
+
+    /** {@inheritDoc} */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy the values of the given row into the row at the given position.
+     * @return A detached copy of the previous row.
+     * {@inheritDoc}
+     */
+    @Override
+    public Row set(int index, Row row) {
+        rangeCheck(index);
+        columnCheck(row);
+        Row previousRow = copy(index);
+        write(index, row, false);
+        return previousRow;
+    }
+
+    /**
+     * Copy the values of the given row into a new row at the given position.
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Row row) {
+        if ((index < 0) || (index > size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+        columnCheck(row);
+        modCount++;
+        write(index, row, true);
+        size++;
+    }
+
+    /**
+     * Remove the row at the given position.
+     * @return A detached copy of the removed row.
+     * {@inheritDoc}
+     */
+    @Override
+    public Row remove(int index) {
+        rangeCheck(index);
+        Row previousRow = copy(index);
+        removeRange(index, index + 1);
+        return previousRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+
+    /** {@inheritDoc} */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        for (int i = 0; i < columns.length; i++) {
+            ((List<?>) columns[i]).subList(fromIndex, toIndex).clear();
+        }
+        size -= toIndex - fromIndex;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Write the values of the given row at the given position.
+     * @param index The row position.
+     * @param row The row to be copied.
+     * @param insert True to insert a new row, false to replace the existing
+     *     one.
+     */
+    private void write(int index, Row row, boolean insert) {
+        for (int i = 0; i < columns.length; i++) {
+            switch (kinds[i]) {
+                case INT_COLUMN: {
+                    int value = row.getInt(i);
+                    if (insert) {
+                        intColumn(i).addInt(index, value);
+                    } else {
+                        intColumn(i).setInt(index, value);
+                    }
+                    break;
+                }
+                case LONG_COLUMN: {
+                    long value = row.getLong(i);
+                    if (insert) {
+                        longColumn(i).addLong(index, value);
+                    } else {
+                        longColumn(i).setLong(index, value);
+                    }
+                    break;
+                }
+                case DOUBLE_COLUMN: {
+                    double value = row.getDouble(i);
+                    if (insert) {
+                        doubleColumn(i).addDouble(index, value);
+                    } else {
+                        doubleColumn(i).setDouble(index, value);
+                    }
+                    break;
+                }
+                default: {
+                    Object value = row.getValue(i);
+                    if (insert) {
+                        objectColumn(i).add(index, value);
+                    } else {
+                        objectColumn(i).set(index, value);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Return a detached copy of the row at the given position.
+     * @param index The row position.
+     * @return A detached copy of the row.
+     */
+    private Row copy(int index) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = getValue(index, i);
+        }
+        return new DefaultRow(values);
+    }
+
+    /**
+     * Check if the given row has the right number of columns.
+     * @param row The row to be checked.
+     * @throws IllegalArgumentException If the row has a wrong number of
+     *     columns.
+     */
+    private void columnCheck(Row row) {
+        if (row.getColumnCount() != columns.length) {
+            throw new IllegalArgumentException("Row columns: "
+                + row.getColumnCount() + ", List columns: " + columns.length);
+        }
+    }
+
+    /**
+     * Check if the given index is in range.
+     * @param index The index to be checked.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    private void rangeCheck(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+    }
+
+    /** Return the given <tt>int</tt> column. */
+    private IntArrayList intColumn(int column) {
+        return (IntArrayList) columns[column];
+    }
+
+    /** Return the given <tt>long</tt> column. */
+    private LongArrayList longColumn(int column) {
+        return (LongArrayList) columns[column];
+    }
+
+    /** Return the given <tt>double</tt> column. */
+    private DoubleArrayList doubleColumn(int column) {
+        return (DoubleArrayList) columns[column];
+    }
+
+    /** Return the given object column. */
+    @SuppressWarnings("unchecked")
+    private List<Object> objectColumn(int column) {
+        return (List<Object>) columns[column];
+    }
+}
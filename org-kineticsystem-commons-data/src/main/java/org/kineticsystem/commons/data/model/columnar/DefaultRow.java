@@ -0,0 +1,73 @@
+/*
+ * DefaultRow.java
+ *
+ * Created on 18 October 2026, 13.25
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.columnar;
+
+/**
+ * This is a detached <tt>Row</tt> storing its own values. It is used to add
+ * new rows to a <tt>ColumnarList</tt> and to return rows read or removed from
+ * it.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class DefaultRow extends Row {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The row values. */
+    private Object[] values;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Constructor.
+     * @param values The row values, one per column.
+     * @throws IllegalArgumentException If values are null.
+     */
+    public DefaultRow(Object... values) {
+        if (values == null) {
+            String msg = "Row values cannot be null!";
+            throw new IllegalArgumentException(msg);
+        }
+        this.values = values.clone();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Row class implementation.
+     */
+
+    /** {@inheritDoc} */
+    public int getColumnCount() {
+        return values.length;
+    }
+
+    /** {@inheritDoc} */
+    public Object getValue(int column) {
+        return values[column];
+    }
+}
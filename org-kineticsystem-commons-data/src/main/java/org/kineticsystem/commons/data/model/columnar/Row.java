@@ -0,0 +1,141 @@
+/*
+ * Row.java
+ *
+ * Created on 18 October 2026, 13.20
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.columnar;
+
+/**
+ * This is a record of a <tt>ColumnarList</tt>: an ordered set of values, one
+ * per column. Two rows are equal when they contain equal values.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public abstract class Row {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Abstract methods.
+     */
+
+    /**
+     * Return the number of values of the row.
+     * @return The number of values of the row.
+     */
+    public abstract int getColumnCount();
+
+    /**
+     * Return the value at the given column.
+     * @param column The column index.
+     * @return The value at the given column.
+     */
+    public abstract Object getValue(int column);
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Primitive methods.
+     */
+
+    /**
+     * Return the value at the given column as an <tt>int</tt>.
+     * @param column The column index.
+     * @return The value at the given column.
+     * @throws ClassCastException If the value is not a number.
+     */
+    public int getInt(int column) {
+        return ((Number) getValue(column)).intValue();
+    }
+
+    /**
+     * Return the value at the given column as a <tt>long</tt>.
+     * @param column The column index.
+     * @return The value at the given column.
+     * @throws ClassCastException If the value is not a number.
+     */
+    public long getLong(int column) {
+        return ((Number) getValue(column)).longValue();
+    }
+
+    /**
+     * Return the value at the given column as a <tt>double</tt>.
+     * @param column The column index.
+     * @return The value at the given column.
+     * @throws ClassCastException If the value is not a number.
+     */
+    public double getDouble(int column) {
+        return ((Number) getValue(column)).doubleValue();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Object class overriding methods.
+     */
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Row)) {
+            return false;
+        }
+        Row row = (Row) o;
+        int count = getColumnCount();
+        if (row.getColumnCount() != count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            Object value1 = getValue(i);
+            Object value2 = row.getValue(i);
+            if ((value1 == null) ? (value2 != null) : !value1.equals(value2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        int count = getColumnCount();
+        for (int i = 0; i < count; i++) {
+            Object value = getValue(i);
+            hashCode = 31 * hashCode + ((value == null) ? 0 : value.hashCode());
+        }
+        return hashCode;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuffer str = new StringBuffer();
+        str.append("[");
+        int count = getColumnCount();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                str.append(",");
+            }
+            str.append(getValue(i));
+        }
+        str.append("]");
+        return str.toString();
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
 import java.util.concurrent.locks.ReadWriteLock;
 
 // Application classes.
@@ -125,6 +126,16 @@ public abstract class ActiveListDecorator<E> implements ActiveList<E> {
         list.fireContentsChanged(event);
     }
     
+    /** {@inheritDoc} */
+    public void beginTransaction() {
+        list.beginTransaction();
+    }
+    
+    /** {@inheritDoc} */
+    public void commitTransaction() {
+        list.commitTransaction();
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * List interface implementation.
      */
@@ -194,6 +205,12 @@ public abstract class ActiveListDecorator<E> implements ActiveList<E> {
         return list.iterator();
     }
     
+    /** {@inheritDoc} */
+    @Override
+    public Spliterator<E> spliterator() {
+        return list.spliterator();
+    }
+    
     /** {@inheritDoc} */
     public int lastIndexOf(Object element) {
         return list.lastIndexOf(element);
@@ -0,0 +1,150 @@
+/*
+ * ActiveListBatch.java
+ *
+ * Created on 18 October 2026, 15.40
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.flow;
+
+// Java classes.
+
+import java.util.Collections;
+import java.util.List;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+
+/**
+ * This object is a batch of compressed changes published by an
+ * <tt>ActiveListPublisher</tt>. Each change comes with the elements it added
+ * or modified, read from the list when the batch was taken, so a subscriber
+ * can keep a copy of the list without reading the list itself: applying the
+ * changes in order to the list state described by the previous batches gives
+ * the list state at the time the batch was taken.
+ * A snapshot batch contains a single add change carrying the whole list
+ * content: it replaces any previous state. A move comes with the moved
+ * elements, read at their destination.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ActiveListPublisher
+ */
+public class ActiveListBatch<E> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** True if the batch contains the whole list content. */
+    private boolean snapshot;
+    
+    /** The compressed changes. */
+    private List<ActiveListEvent> events;
+    
+    /** The elements added or modified by each change. */
+    private List<List<E>> elements;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param snapshot True if the batch contains the whole list content.
+     * @param events The compressed changes.
+     * @param elements The elements added or modified by each change (an empty
+     *     list for removals).
+     */
+    ActiveListBatch(boolean snapshot, List<ActiveListEvent> events,
+            List<List<E>> elements) {
+        this.snapshot = snapshot;
+        this.events = Collections.unmodifiableList(events);
+        this.elements = elements;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return true if the batch contains the whole list content, false if it
+     * contains changes to the previous batches.
+     * @return True if the batch is a snapshot.
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Return the compressed changes, numbered as a single sequence.
+     * @return The compressed changes.
+     */
+    public List<ActiveListEvent> getEvents() {
+        return events;
+    }
+    
+    /**
+     * Return the elements added, modified or moved by the given change.
+     * @param index The change position inside the batch.
+     * @return The elements added, modified or moved by the change (an empty
+     *     list for removals).
+     */
+    public List<E> getElements(int index) {
+        return elements.get(index);
+    }
+    
+    /**
+     * Apply the batch to the given list.
+     * @param target The list to be modified: it must contain the list state
+     *     described by the previous batches (any state if this batch is a
+     *     snapshot).
+     */
+    public void apply(List<E> target) {
+        
+        if (snapshot) {
+            target.clear();
+        }
+        for (int i = 0; i < events.size(); i++) {
+            ActiveListEvent event = events.get(i);
+            int x = event.getX();
+            int y = event.getY();
+            switch (event.getType()) {
+                case ActiveListEvent.INTERVAL_ADDED:
+                    target.addAll(x, elements.get(i));
+                    break;
+                case ActiveListEvent.INTERVAL_REMOVED:
+                    target.subList(x, y + 1).clear();
+                    break;
+                case ActiveListEvent.INTERVAL_MOVED:
+                    target.subList(x, y + 1).clear();
+                    target.addAll(event.getToIndex(), elements.get(i));
+                    break;
+                case ActiveListEvent.CONTENTS_CHANGED:
+                    List<E> values = elements.get(i);
+                    for (int j = 0; j < values.size(); j++) {
+                        target.set(x + j, values.get(j));
+                    }
+                    break;
+            }
+        }
+    }
+}
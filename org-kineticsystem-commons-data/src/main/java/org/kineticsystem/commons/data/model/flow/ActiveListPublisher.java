@@ -0,0 +1,560 @@
+/*
+ * ActiveListPublisher.java
+ *
+ * Created on 18 October 2026, 15.55
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.flow;
+
+// Java classes.
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Lock;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListUtility;
+import org.kineticsystem.commons.data.model.DefaultAssembler;
+import org.kineticsystem.commons.data.model.PrimitiveActiveListListener;
+
+/**
+ * This object publishes the changes of an <tt>ActiveList</tt> to
+ * <tt>Flow.Subscriber</tt> subscribers, i.e. to consumers living outside the
+ * AWT event-dispatching thread. Each subscriber receives
+ * <tt>ActiveListBatch</tt> batches of compressed changes on the given
+ * executor, one batch per requested item: while a subscriber has no
+ * outstanding demand its changes are compressed by a
+ * <tt>DefaultAssembler</tt>, and when they exceed a maximum number they are
+ * collapsed into the minimum set of changes transforming the list seen by the
+ * subscriber into the current one (see <tt>ActiveListUtility.difference</tt>).
+ * The first batch can be a snapshot of the whole list. A
+ * <tt>STRUCTURE_CHANGED</tt> change discards the stored changes of a
+ * subscriber: its next batch is a snapshot.
+ * <p>
+ * Writers only store their changes: subscribers are always notified by the
+ * executor, so a slow subscriber cannot slow down the threads modifying the
+ * list. Batches are taken holding the list read lock, so the list must notify
+ * its changes while holding its write lock, like <tt>DefaultActiveList</tt>
+ * does.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ActiveListBatch
+ */
+public class ActiveListPublisher<E>
+        implements Flow.Publisher<ActiveListBatch<E>> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The published list. */
+    private ActiveList<E> list;
+    
+    /** The executor notifying subscribers. */
+    private Executor executor;
+    
+    /** True if the first batch is a snapshot of the whole list. */
+    private boolean snapshot;
+    
+    /**
+     * The maximum number of compressed changes stored for a subscriber before
+     * collapsing them.
+     */
+    private int maxPending;
+    
+    /** All active subscriptions. */
+    private List<ListSubscription> subscriptions;
+    
+    /** True if the publisher has been closed. */
+    private boolean closed;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Create a publisher notifying subscribers through the common fork-join
+     * pool and sending a snapshot first.
+     * @param list The list to be published.
+     */
+    public ActiveListPublisher(ActiveList<E> list) {
+        this(list, ForkJoinPool.commonPool(), true, 1024);
+    }
+    
+    /**
+     * Create a publisher notifying subscribers through the given executor
+     * and sending a snapshot first.
+     * @param list The list to be published.
+     * @param executor The executor notifying subscribers.
+     */
+    public ActiveListPublisher(ActiveList<E> list, Executor executor) {
+        this(list, executor, true, 1024);
+    }
+    
+    /**
+     * Constructor.
+     * @param list The list to be published.
+     * @param executor The executor notifying subscribers.
+     * @param snapshot True if the first batch sent to each subscriber is a
+     *     snapshot of the whole list, false if subscribers receive the changes
+     *     made after their subscription only.
+     * @param maxPending The maximum number of compressed changes stored for a
+     *     subscriber before collapsing them.
+     * @throws IllegalArgumentException If the maximum number of changes is
+     *     not positive.
+     */
+    public ActiveListPublisher(ActiveList<E> list, Executor executor,
+            boolean snapshot, int maxPending) {
+        
+        if (maxPending <= 0) {
+            String msg = "The maximum number of changes must be positive!";
+            throw new IllegalArgumentException(msg);
+        }
+        this.list = list;
+        this.executor = executor;
+        this.snapshot = snapshot;
+        this.maxPending = maxPending;
+        this.subscriptions = new ArrayList<ListSubscription>();
+        this.closed = false;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Flow.Publisher interface implementation.
+     */
+    
+    /**
+     * Subscribe the given subscriber. Its <tt>onSubscribe</tt> method is
+     * called by the executor. If the publisher is closed the subscriber is
+     * completed immediately.
+     * @param subscriber The subscriber.
+     */
+    public void subscribe(Flow.Subscriber<? super ActiveListBatch<E>>
+            subscriber) {
+        
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+        ListSubscription subscription = new ListSubscription(subscriber);
+        Lock lock = list.getReadWriteLock().readLock();
+        lock.lock();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    subscription.closed = true;
+                } else {
+                    subscriptions.add(subscription);
+                    list.addActiveListListener(subscription);
+                }
+            }
+            synchronized (subscription) {
+                subscription.seenSize = list.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+        subscription.schedule();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Close the publisher. Each subscriber receives the changes stored so far
+     * if it has outstanding demand and then it is completed.
+     */
+    public void close() {
+        
+        List<ListSubscription> closing;
+        synchronized (this) {
+            closed = true;
+            closing = new ArrayList<ListSubscription>(subscriptions);
+        }
+        for (ListSubscription subscription : closing) {
+            list.removeActiveListListener(subscription);
+            synchronized (subscription) {
+                subscription.closed = true;
+            }
+            subscription.schedule();
+        }
+    }
+    
+    /**
+     * Return the number of active subscribers.
+     * @return The number of active subscribers.
+     */
+    public synchronized int getNumberOfSubscribers() {
+        return subscriptions.size();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Remove the given subscription.
+     * @param subscription The subscription to be removed.
+     */
+    private void remove(ListSubscription subscription) {
+        list.removeActiveListListener(subscription);
+        synchronized (this) {
+            subscriptions.remove(subscription);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /**
+     * The subscription of a subscriber. It stores the list changes notified by
+     * writers and it is executed by the executor to send them. Its state is
+     * protected by its own monitor, always acquired after the list lock.
+     */
+    private class ListSubscription implements Flow.Subscription,
+            PrimitiveActiveListListener, Runnable {
+        
+        /** The subscriber. */
+        private Flow.Subscriber<? super ActiveListBatch<E>> subscriber;
+        
+        /** The compressed changes not yet sent. */
+        private DefaultAssembler assembler;
+        
+        /** The list size seen by the subscriber. */
+        private int seenSize;
+        
+        /** The list size change due to the changes not yet sent. */
+        private int sizeChange;
+        
+        /** The number of batches requested and not yet sent. */
+        private long demand;
+        
+        /** True if the snapshot has still to be sent. */
+        private boolean snapshotDue;
+        
+        /** True if the subscriber has been notified by <tt>onSubscribe</tt>. */
+        private boolean subscribed;
+        
+        /** True if the subscription is executed or waiting to be executed. */
+        private boolean scheduled;
+        
+        /** True if the subscriber must be completed. */
+        private boolean closed;
+        
+        /** True if the subscription has been cancelled or terminated. */
+        private boolean cancelled;
+        
+        /** The error to be notified to the subscriber (null if none). */
+        private Throwable error;
+        
+        /**
+         * Constructor.
+         * @param subscriber The subscriber.
+         */
+        public ListSubscription(
+                Flow.Subscriber<? super ActiveListBatch<E>> subscriber) {
+            this.subscriber = subscriber;
+            this.assembler = new DefaultAssembler();
+            this.seenSize = 0;
+            this.sizeChange = 0;
+            this.demand = 0;
+            this.snapshotDue = snapshot;
+            this.subscribed = false;
+            this.scheduled = false;
+            this.closed = false;
+            this.cancelled = false;
+            this.error = null;
+        }
+        
+        /* /////////////////////////////////////////////////////////////////////
+         * Flow.Subscription interface implementation.
+         */
+        
+        /** {@inheritDoc} */
+        public void request(long n) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    String msg = "The number of requested items must be "
+                        + "positive!";
+                    error = new IllegalArgumentException(msg);
+                } else {
+                    demand += n;
+                    if (demand < 0) {
+                        demand = Long.MAX_VALUE;
+                    }
+                }
+            }
+            schedule();
+        }
+        
+        /** {@inheritDoc} */
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                assembler = new DefaultAssembler();
+            }
+            remove(this);
+        }
+        
+        /* /////////////////////////////////////////////////////////////////////
+         * PrimitiveActiveListListener interface implementation.
+         */
+        
+        /** {@inheritDoc} */
+        public void contentsChanged(ActiveListEvent event) {
+            store(event.getType(), event.getX(), event.getY(),
+                event.getToIndex());
+        }
+        
+        /** {@inheritDoc} */
+        public void intervalAdded(Object source, int x, int y, int seq,
+                int lastSeq) {
+            store(ActiveListEvent.INTERVAL_ADDED, x, y, x);
+        }
+        
+        /** {@inheritDoc} */
+        public void intervalRemoved(Object source, int x, int y, int seq,
+                int lastSeq) {
+            store(ActiveListEvent.INTERVAL_REMOVED, x, y, x);
+        }
+        
+        /** {@inheritDoc} */
+        public void contentsChanged(Object source, int x, int y, int seq,
+                int lastSeq) {
+            store(ActiveListEvent.CONTENTS_CHANGED, x, y, x);
+        }
+        
+        /* /////////////////////////////////////////////////////////////////////
+         * Runnable interface implementation.
+         */
+        
+        /**
+         * Notify the subscriber: this method is executed by the executor, one
+         * thread at a time.
+         */
+        public void run() {
+            
+            if (!subscribed) {
+                subscribed = true;
+                try {
+                    subscriber.onSubscribe(this);
+                } catch (RuntimeException ex) {
+                    cancel();
+                    return;
+                }
+            }
+            
+            while (true) {
+                
+                ActiveListBatch<E> batch = null;
+                Throwable failure = null;
+                boolean complete = false;
+                
+                Lock lock = list.getReadWriteLock().readLock();
+                lock.lock();
+                try {
+                    synchronized (this) {
+                        if (cancelled) {
+                            scheduled = false;
+                            return;
+                        } else if (error != null) {
+                            failure = error;
+                            cancelled = true;
+                        } else if ((demand > 0)
+                                && (snapshotDue || !assembler.isEmpty())) {
+                            batch = take();
+                            demand--;
+                        } else if (closed) {
+                            complete = true;
+                            cancelled = true;
+                        } else {
+                            scheduled = false;
+                            return;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                
+                try {
+                    if (failure != null) {
+                        remove(this);
+                        subscriber.onError(failure);
+                        return;
+                    } else if (complete) {
+                        remove(this);
+                        subscriber.onComplete();
+                        return;
+                    } else {
+                        subscriber.onNext(batch);
+                    }
+                } catch (RuntimeException ex) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+        
+        /* /////////////////////////////////////////////////////////////////////
+         * Private methods.
+         */
+        
+        /**
+         * Schedule the subscription execution if there is something to
+         * notify.
+         */
+        private void schedule() {
+            synchronized (this) {
+                boolean due = !subscribed || (error != null) || closed
+                    || ((demand > 0) && (snapshotDue || !assembler.isEmpty()));
+                if (scheduled || cancelled || !due) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.execute(this);
+        }
+        
+        /**
+         * Store the given change: this method is called by a writer holding
+         * the list write lock.
+         * @param type The change type.
+         * @param x The first index of the changed interval.
+         * @param y The last index of the changed interval.
+         * @param toIndex The position of the first moved item after the move.
+         */
+        private void store(int type, int x, int y, int toIndex) {
+            synchronized (this) {
+                if (cancelled || snapshotDue) {
+                    return; // The snapshot will contain the change.
+                }
+                if (type == ActiveListEvent.STRUCTURE_CHANGED) {
+                    
+                    // The whole list must be read again.
+                    
+                    snapshotDue = true;
+                    assembler = new DefaultAssembler();
+                    sizeChange = 0;
+                } else {
+                    ActiveListEvent event = new ActiveListEvent(list);
+                    event.setType(type);
+                    event.setX(x);
+                    event.setY(y);
+                    event.setToIndex(toIndex);
+                    assembler.push(event);
+                    if (type == ActiveListEvent.INTERVAL_ADDED) {
+                        sizeChange += y - x + 1;
+                    } else if (type == ActiveListEvent.INTERVAL_REMOVED) {
+                        sizeChange -= y - x + 1;
+                    }
+                    if (assembler.size() > maxPending) {
+                        collapse();
+                    }
+                }
+            }
+            schedule();
+        }
+        
+        /**
+         * Replace all stored changes with the changes transforming the list
+         * seen by the subscriber into the list modified by the stored changes.
+         * The list size is not read: while a sequence is being notified the
+         * list already contains the changes not yet received.
+         */
+        private void collapse() {
+            int oldSize = seenSize;
+            int newSize = seenSize + sizeChange;
+            assembler = new DefaultAssembler();
+            for (ActiveListEvent event
+                    : ActiveListUtility.difference(oldSize, newSize, list)) {
+                assembler.push(event);
+            }
+        }
+        
+        /**
+         * Take a batch containing all stored changes: this method is called
+         * holding the list read lock, so the list matches the changes.
+         * @return The batch.
+         */
+        private ActiveListBatch<E> take() {
+            
+            List<ActiveListEvent> events = new ArrayList<ActiveListEvent>();
+            List<List<E>> elements = new ArrayList<List<E>>();
+            boolean isSnapshot = snapshotDue;
+            if (snapshotDue) {
+                snapshotDue = false;
+                assembler = new DefaultAssembler();
+                if (!list.isEmpty()) {
+                    ActiveListEvent event = new ActiveListEvent(list);
+                    event.setType(ActiveListEvent.INTERVAL_ADDED);
+                    event.setX(0);
+                    event.setY(list.size() - 1);
+                    events.add(event);
+                    elements.add(new ArrayList<E>(list));
+                }
+            } else {
+                while (!assembler.isEmpty()) {
+                    ActiveListEvent event = assembler.pop();
+                    events.add(event);
+                    if (event.getType() == ActiveListEvent.INTERVAL_REMOVED) {
+                        elements.add(Collections.<E>emptyList());
+                    } else {
+                        int start = event.getX();
+                        if (event.getType()
+                                == ActiveListEvent.INTERVAL_MOVED) {
+                            start = event.getToIndex();
+                        }
+                        List<E> values = new ArrayList<E>();
+                        for (int i = start;
+                                i <= start + event.getY() - event.getX(); i++) {
+                            values.add(list.get(i));
+                        }
+                        elements.add(values);
+                    }
+                }
+            }
+            seenSize = list.size();
+            sizeChange = 0;
+            
+            int seq = 0;
+            int lastSeq = events.size() - 1;
+            for (ActiveListEvent event : events) {
+                event.setSequenceNumber(seq++);
+                event.setLastSequenceNumber(lastSeq);
+            }
+            return new ActiveListBatch<E>(isSnapshot, events, elements);
+        }
+    }
+}
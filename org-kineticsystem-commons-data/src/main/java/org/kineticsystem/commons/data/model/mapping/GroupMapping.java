@@ -26,7 +26,6 @@ package org.kineticsystem.commons.data.model.mapping;
 
 // Java classes.
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -34,6 +33,7 @@ import java.util.List;
 
 // Application classes.
 
+import org.kineticsystem.commons.collections.TreeList;
 import org.kineticsystem.commons.data.model.ActiveList;
 import org.kineticsystem.commons.data.model.ActiveListEvent;
 import org.kineticsystem.commons.data.model.ActiveListListener;
@@ -82,14 +82,28 @@ public class GroupMapping<S> implements Mapping<S,Group<S>>,
      * source list.
      * If the comparator is null the target list order will be the same of the
      * source list.
+     * @param sourceList The source list.
      */
     public GroupMapping(ActiveList<S> sourceList) {
+        this(sourceList, new DefaultActiveList<Group<S>>());
+    }
+    
+    /**
+     * Create a mapping between a source list and the given target list. Use a
+     * target list backed by a <tt>TreeList</tt> to insert items in O(log n)
+     * time when mapping large source lists, i.e.
+     * <tt>new DefaultActiveList(new TreeList())</tt>.
+     * @param sourceList The source list.
+     * @param targetList The empty list receiving the mapped items.
+     * @see org.kineticsystem.commons.collections.TreeList
+     */
+    public GroupMapping(ActiveList<S> sourceList, ActiveList<Group<S>> targetList) {
         this.itemFilter = null;
         this.itemAggregator = null;
         this.keyComparator = null;
         this.sourceList = sourceList;
-        this.targetList = new DefaultActiveList<Group<S>>();
-        this.mapping = new ArrayList<GroupMappingKey<S>>();
+        this.targetList = targetList;
+        this.mapping = new TreeList<GroupMappingKey<S>>();
         this.sourceList.addActiveListListener(this);
         this.targetList.addActiveListListener(this);
     }
@@ -101,7 +115,7 @@ public class GroupMapping<S> implements Mapping<S,Group<S>>,
         
         int targetListOldSize = targetList.size(); 
         
-        // Recreate the mapping.
+        // Recreate the mapping from a snapshot of the source list.
 
         mapping.clear();
 
@@ -270,7 +284,9 @@ public class GroupMapping<S> implements Mapping<S,Group<S>>,
             if (event.getSequenceNumber() == event.getLastSequenceNumber()) {
                 rebuild();
             }
-        } else if (event.getType() == ActiveListEvent.CONTENTS_CHANGED) {
+        } else if ((event.getType() == ActiveListEvent.CONTENTS_CHANGED)
+                || (event.getType() == ActiveListEvent.INTERVAL_MOVED)
+                || (event.getType() == ActiveListEvent.STRUCTURE_CHANGED)) {
             if (event.getSequenceNumber() == event.getLastSequenceNumber()) {
                 rebuild();
             }
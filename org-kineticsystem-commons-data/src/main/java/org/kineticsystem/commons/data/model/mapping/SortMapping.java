@@ -33,6 +33,7 @@ import java.util.List;
 
 // Application classes.
 
+import org.kineticsystem.commons.collections.TreeList;
 import org.kineticsystem.commons.data.model.ActiveList;
 import org.kineticsystem.commons.data.model.ActiveListEvent;
 import org.kineticsystem.commons.data.model.ActiveListListener;
@@ -42,6 +43,14 @@ import org.kineticsystem.commons.data.model.DefaultActiveList;
 /**
  * This is a mapping used to virtually filter and sort a source list. The result
  * is returned into a target list.
+ * <p>
+ * When a comparator is set, source changes are mapped one item at a time: a
+ * changed item is searched around the position where the comparator places
+ * it and moved to its new position, so the target list receives a single
+ * <tt>INTERVAL_MOVED</tt> event and only the items between the old and the new
+ * position are shifted. Items changed or moved inside a sequence of events,
+ * and all changes but additions when there is no comparator, rebuild the
+ * whole mapping at the end of the sequence.
  * @author Giovanni Remigi
  * @version $Revision:  $
  */
@@ -59,6 +68,15 @@ public class SortMapping<S> implements Mapping<S,S>, ActiveListListener {
      */
     private List<SortMappingKey<S>> mapping;
     
+    /** The keys of all source list items, in the source list order. */
+    private List<SortMappingKey<S>> sourceKeys;
+    
+    /**
+     * True if the mapping must be rebuilt at the end of the current sequence
+     * of source list events.
+     */
+    private boolean stale;
+    
     /** The filter used to filter out source list elements. */
     private Filter<S> itemFilter;
     
@@ -80,14 +98,40 @@ public class SortMapping<S> implements Mapping<S,S>, ActiveListListener {
      * source list.
      * If the comparator is null the target list order will be the same of the
      * source list.
+     * @param sourceList The source list.
      */
     public SortMapping(ActiveList<S> sourceList) {
+        this(sourceList, new DefaultActiveList<S>());
+    }
+    
+    /**
+     * Create a mapping between a source list and the given target list. Use a
+     * target list backed by a <tt>TreeList</tt> to insert items in O(log n)
+     * time when mapping large source lists, i.e.
+     * <tt>new DefaultActiveList(new TreeList())</tt>.
+     * @param sourceList The source list.
+     * @param targetList The empty list receiving the mapped items.
+     * @see org.kineticsystem.commons.collections.TreeList
+     */
+    public SortMapping(ActiveList<S> sourceList, ActiveList<S> targetList) {
         this.itemFilter = null;
         this.itemComparator = null;
         this.keyComparator = null;
         this.sourceList = sourceList;
-        this.targetList = new DefaultActiveList<S>();
-        this.mapping = new ArrayList<SortMappingKey<S>>();
+        this.targetList = targetList;
+        this.mapping = new TreeList<SortMappingKey<S>>();
+        this.sourceKeys = new TreeList<SortMappingKey<S>>();
+        this.stale = false;
+        
+        // Items already in the source list are mapped by the first rebuild.
+        
+        for (S sourceItem : sourceList) {
+            SortMappingKey<S> key = new SortMappingKey<S>();
+            key.setSource(sourceItem);
+            key.setTarget(sourceItem);
+            sourceKeys.add(key);
+        }
+        
         sourceList.addActiveListListener(this);
         targetList.addActiveListListener(this);
     }
@@ -99,24 +143,18 @@ public class SortMapping<S> implements Mapping<S,S>, ActiveListListener {
         
         int oldMappingSize = mapping.size(); 
         
-        // Recreate the mapping.
+        // Recreate the mapping from a snapshot of the source list.
 
         mapping.clear();
+        sourceKeys.clear();
+        stale = false;
 
-        if (itemFilter == null) { // Without filter.
-            for (S sourceItem : sourceList) {
-                SortMappingKey<S> key = new SortMappingKey<S>();
-                key.setSource(sourceItem);
+        for (S sourceItem : sourceList) {
+            SortMappingKey<S> key = createKey(sourceItem);
+            sourceKeys.add(key);
+            if (key.isMapped()) {
                 mapping.add(key);
             }
-        } else {
-            for (S sourceItem : sourceList) { // With filter.
-                if (itemFilter.evaluate(sourceItem)) {
-                    SortMappingKey<S> key = new SortMappingKey<S>();
-                    key.setSource(sourceItem);
-                    mapping.add(key);
-                }
-            }
         }
         
         // Sort the mapping.
@@ -239,43 +277,245 @@ public class SortMapping<S> implements Mapping<S,S>, ActiveListListener {
      * @param event The source list change event.
      */
     private void sourceListContentsChanged(ActiveListEvent event) {
-        if (event.getType() == ActiveListEvent.INTERVAL_REMOVED) {
-            if (event.getSequenceNumber() == event.getLastSequenceNumber()) {
-                rebuild();
+        
+        /*
+         * Source items are read when the event is received, so changed items
+         * can be mapped one at a time only if the event is not part of a
+         * sequence.
+         */
+        
+        boolean single = (event.getLastSequenceNumber() == 0);
+        boolean sorted = (keyComparator != null) && !stale;
+        
+        switch (event.getType()) {
+            case ActiveListEvent.INTERVAL_ADDED: {
+                if (stale) {
+                    break;
+                }
+                for (int index = event.getX(); index <= event.getY();
+                        index++) {
+                    insertItem(index);
+                }
+                break;
+            }
+            case ActiveListEvent.INTERVAL_REMOVED: {
+                if (sorted) {
+                    for (int index = event.getX(); index <= event.getY();
+                            index++) {
+                        removeItem(event.getX());
+                    }
+                } else {
+                    stale = true;
+                }
+                break;
             }
-        } else if (event.getType() == ActiveListEvent.CONTENTS_CHANGED) {
-            if (event.getSequenceNumber() == event.getLastSequenceNumber()) {
-                rebuild();
+            case ActiveListEvent.CONTENTS_CHANGED: {
+                if (sorted && single) {
+                    for (int index = event.getX(); index <= event.getY();
+                            index++) {
+                        updateItem(index);
+                    }
+                } else {
+                    stale = true;
+                }
+                break;
             }
-        } else if (event.getType() == ActiveListEvent.INTERVAL_ADDED) {
-            
-            for (int index = event.getX(); index <= event.getY() ; index++) {
-                S item = sourceList.get(index);
-                if ((itemFilter == null) || itemFilter.evaluate(item)) {
+            case ActiveListEvent.INTERVAL_MOVED: {
+                if (sorted && single) {
                     
-                    SortMappingKey<S> key = new SortMappingKey<S>();
-                    key.setSource(item);
-                    key.setTarget(item);
+                    // Move the keys, then map the moved items again.
                     
-                    int position = Collections.binarySearch(mapping, key,
-                        keyComparator);
-                    position = (index >= 0) ? index : ~index;
-                    mapping.add(position, key);
-                    
-                    targetList.setActive(false);
-                    targetList.add(position, item);
-                    targetList.setActive(true);
-                    
-                    ActiveListEvent targetListEvent = new ActiveListEvent(this);
-                    targetListEvent.setX(position);
-                    targetListEvent.setY(position);
-                    targetListEvent.setLastSequenceNumber(0);
-                    targetListEvent.setSequenceNumber(0);
-                    targetListEvent.setType(ActiveListEvent.INTERVAL_ADDED);
-                    targetList.fireContentsChanged(targetListEvent);
+                    int length = event.getY() - event.getX() + 1;
+                    List<SortMappingKey<S>> moved = sourceKeys.subList(
+                        event.getX(), event.getY() + 1);
+                    List<SortMappingKey<S>> keys
+                        = new ArrayList<SortMappingKey<S>>(moved);
+                    moved.clear();
+                    sourceKeys.addAll(event.getToIndex(), keys);
+                    for (int i = 0; i < length; i++) {
+                        updateItem(event.getToIndex() + i);
+                    }
+                } else {
+                    stale = true;
                 }
+                break;
+            }
+            default: {
+                stale = true;
+                break;
             }
-        } 
+        }
+        
+        if (stale
+                && (event.getSequenceNumber() == event.getLastSequenceNumber())) {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Map the source item inserted at the given index.
+     * @param index The source list index of the item.
+     */
+    private void insertItem(int index) {
+        
+        S item = sourceList.get(index);
+        SortMappingKey<S> key = createKey(item);
+        sourceKeys.add(index, key);
+        if (key.isMapped()) {
+            
+            int position = Collections.binarySearch(mapping, key,
+                keyComparator);
+            position = (position >= 0) ? position : ~position;
+            mapping.add(position, key);
+            
+            targetList.setActive(false);
+            targetList.add(position, item);
+            targetList.setActive(true);
+            
+            fireTargetEvent(ActiveListEvent.INTERVAL_ADDED, position,
+                position);
+        }
+    }
+    
+    /**
+     * Remove the source item at the given index from the mapping.
+     * @param index The source list index of the removed item.
+     */
+    private void removeItem(int index) {
+        
+        SortMappingKey<S> key = sourceKeys.remove(index);
+        if (key.isMapped()) {
+            
+            int position = indexOf(key);
+            mapping.remove(position);
+            
+            targetList.setActive(false);
+            targetList.remove(position);
+            targetList.setActive(true);
+            
+            fireTargetEvent(ActiveListEvent.INTERVAL_REMOVED, position,
+                position);
+        }
+    }
+    
+    /**
+     * Map again the changed source item at the given index, moving it to its
+     * new target position. Only the target items between the old and the new
+     * position are shifted.
+     * @param index The source list index of the changed item.
+     */
+    private void updateItem(int index) {
+        
+        S item = sourceList.get(index);
+        SortMappingKey<S> key = sourceKeys.get(index);
+        
+        // The key is searched before being changed.
+        
+        int from = -1;
+        if (key.isMapped()) {
+            from = indexOf(key);
+            mapping.remove(from);
+        }
+        
+        key.setSource(item);
+        key.setTarget(item);
+        key.setMapped((itemFilter == null) || itemFilter.evaluate(item));
+        
+        int to = -1;
+        if (key.isMapped()) {
+            to = Collections.binarySearch(mapping, key, keyComparator);
+            to = (to >= 0) ? to : ~to;
+            mapping.add(to, key);
+        }
+        
+        targetList.setActive(false);
+        if ((from >= 0) && (to >= 0)) {
+            for (int i = from; i < to; i++) {
+                targetList.set(i, targetList.get(i + 1));
+            }
+            for (int i = from; i > to; i--) {
+                targetList.set(i, targetList.get(i - 1));
+            }
+            targetList.set(to, item);
+        } else if (from >= 0) {
+            targetList.remove(from);
+        } else if (to >= 0) {
+            targetList.add(to, item);
+        }
+        targetList.setActive(true);
+        
+        if ((from >= 0) && (to >= 0)) {
+            if (from == to) {
+                fireTargetEvent(ActiveListEvent.CONTENTS_CHANGED, to, to);
+            } else {
+                ActiveListEvent targetListEvent = new ActiveListEvent(this);
+                targetListEvent.setX(from);
+                targetListEvent.setY(from);
+                targetListEvent.setToIndex(to);
+                targetListEvent.setLastSequenceNumber(0);
+                targetListEvent.setSequenceNumber(0);
+                targetListEvent.setType(ActiveListEvent.INTERVAL_MOVED);
+                targetList.fireContentsChanged(targetListEvent);
+            }
+        } else if (from >= 0) {
+            fireTargetEvent(ActiveListEvent.INTERVAL_REMOVED, from, from);
+        } else if (to >= 0) {
+            fireTargetEvent(ActiveListEvent.INTERVAL_ADDED, to, to);
+        }
+    }
+    
+    /**
+     * Return the position of the given key inside the mapping. The key is
+     * searched around the position where the comparator places it: if its
+     * item has been changed the key is out of order, but it is not farther
+     * than the distance it must be moved.
+     * @param key The mapped key.
+     * @return The key position inside the mapping (-1 if not found).
+     */
+    private int indexOf(SortMappingKey<S> key) {
+        
+        int position = Collections.binarySearch(mapping, key, keyComparator);
+        position = (position >= 0) ? position : ~position;
+        
+        int size = mapping.size();
+        for (int i = 0; (position + i < size) || (position - i > 0); i++) {
+            if ((position + i < size) && (mapping.get(position + i) == key)) {
+                return position + i;
+            }
+            if ((position - i > 0) && (mapping.get(position - i - 1) == key)) {
+                return position - i - 1;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Create the key of the given source item.
+     * @param item The source item.
+     * @return The key, mapped if the item passes the filter.
+     */
+    private SortMappingKey<S> createKey(S item) {
+        SortMappingKey<S> key = new SortMappingKey<S>();
+        key.setSource(item);
+        key.setTarget(item);
+        key.setMapped((itemFilter == null) || itemFilter.evaluate(item));
+        return key;
+    }
+    
+    /**
+     * Fire a single change of the target list.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void fireTargetEvent(int type, int x, int y) {
+        ActiveListEvent targetListEvent = new ActiveListEvent(this);
+        targetListEvent.setX(x);
+        targetListEvent.setY(y);
+        targetListEvent.setLastSequenceNumber(0);
+        targetListEvent.setSequenceNumber(0);
+        targetListEvent.setType(type);
+        targetList.fireContentsChanged(targetListEvent);
     }
     
     /**
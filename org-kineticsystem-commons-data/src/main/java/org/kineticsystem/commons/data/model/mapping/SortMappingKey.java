@@ -38,6 +38,9 @@ class SortMappingKey<S> implements MappingKey<S,S> {
     
     private S targetItem;
     
+    /** True if the item passes the filter and is part of the target list. */
+    private boolean mapped;
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Constructors.
      */
@@ -64,4 +67,12 @@ class SortMappingKey<S> implements MappingKey<S,S> {
     public void setTarget(S targetItem) {
         this.targetItem = targetItem;
     }
+    
+    public boolean isMapped() {
+        return mapped;
+    }
+    
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+/*
+ * BinarySnapshot.java
+ *
+ * Created on 18 October 2026, 20.15
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * This class writes and reads the content of a list as a compact binary
+ * snapshot. The snapshot contains a header, a fixed-width index storing the
+ * offset of each element and the encoded elements:
+ * <pre>
+ * int magic, int version, int size, long offset[size + 1], byte data[]
+ * </pre>
+ * A snapshot is read by mapping the file into memory: elements stay encoded
+ * until first accessed, so a large list is available immediately and a table
+ * displaying its first page only decodes the visible rows.
+ * <pre>
+ * BinarySnapshot.write(contacts, file, codec);
+ * ...
+ * ActiveList&lt;Contact&gt; contacts = new DefaultActiveList&lt;Contact&gt;(
+ *     BinarySnapshot.map(file, codec));
+ * </pre>
+ * A mapped snapshot cannot be larger than 2GB.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see MappedSnapshotList
+ */
+public class BinarySnapshot {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Package constants.
+     */
+    
+    /** The snapshot magic number. */
+    static final int MAGIC = 0x4B534E50;
+    
+    /** The snapshot format version. */
+    static final int VERSION = 1;
+    
+    /** The header size: magic, version and size. */
+    static final int HEADER_SIZE = 12;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /** Utility class. */
+    private BinarySnapshot() {
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Write the given elements to a snapshot file. An <tt>ActiveList</tt> is
+     * copied with <tt>toArray</tt>, so its snapshot is consistent.
+     * @param elements The elements to be written.
+     * @param file The snapshot file.
+     * @param codec The codec encoding the elements.
+     * @throws IOException If the file cannot be written.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> void write(Collection<? extends E> elements, File file,
+            ElementCodec<? super E> codec) throws IOException {
+        
+        Object[] values = elements.toArray();
+        long[] offsets = new long[values.length + 1];
+        long dataStart = HEADER_SIZE + 8L * offsets.length;
+        
+        FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            
+            // Write the elements.
+            
+            channel.position(dataStart);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            long offset = dataStart;
+            for (int i = 0; i < values.length; i++) {
+                offsets[i] = offset;
+                int start = bytes.size();
+                codec.encode((E) values[i], out);
+                out.flush();
+                offset += bytes.size() - start;
+                if (bytes.size() >= 64 * 1024) {
+                    write(channel, ByteBuffer.wrap(bytes.toByteArray()));
+                    bytes.reset();
+                }
+            }
+            offsets[values.length] = offset;
+            write(channel, ByteBuffer.wrap(bytes.toByteArray()));
+            
+            // Write header and index.
+            
+            ByteBuffer index = ByteBuffer.allocate((int) dataStart);
+            index.putInt(MAGIC);
+            index.putInt(VERSION);
+            index.putInt(values.length);
+            for (long value : offsets) {
+                index.putLong(value);
+            }
+            index.flip();
+            channel.position(0);
+            write(channel, index);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+    
+    /**
+     * Map the given snapshot file into a list decoding its elements lazily.
+     * @param file The snapshot file.
+     * @param codec The codec decoding the elements.
+     * @return The list of the snapshot elements.
+     * @throws IOException If the file cannot be mapped or it is not a valid
+     *     snapshot.
+     */
+    public static <E> MappedSnapshotList<E> map(File file,
+            ElementCodec<E> codec) throws IOException {
+        
+        FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                String msg = "Snapshot larger than 2GB!";
+                throw new IOException(msg);
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                channel.size());
+            if ((data.limit() < HEADER_SIZE) || (data.getInt(0) != MAGIC)
+                    || (data.getInt(4) != VERSION)) {
+                String msg = file + " is not a valid snapshot!";
+                throw new IOException(msg);
+            }
+            int size = data.getInt(8);
+            long end = HEADER_SIZE + 8L * size;
+            if ((size < 0) || (end + 8 > data.limit())
+                    || (data.getLong((int) end) != data.limit())) {
+                String msg = file + " is truncated!";
+                throw new IOException(msg);
+            }
+            return new MappedSnapshotList<E>(data, size, codec);
+        } finally {
+            channel.close(); // The mapping stays valid.
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Write the whole buffer to the given channel.
+     * @param channel The channel.
+     * @param buffer The buffer to be written.
+     * @throws IOException If the buffer cannot be written.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ElementCodec.java
+ *
+ * Created on 18 October 2026, 20.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This interface is used to convert list elements to and from the binary
+ * representation stored in a snapshot.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see BinarySnapshot
+ */
+public interface ElementCodec<E> {
+    
+    /**
+     * Write the binary representation of the given element.
+     * @param element The element to be encoded.
+     * @param out The output receiving the element bytes.
+     * @throws IOException If the element cannot be written.
+     */
+    public void encode(E element, DataOutput out) throws IOException;
+    
+    /**
+     * Read an element from its binary representation.
+     * @param in The buffer containing exactly the element bytes.
+     * @return The decoded element.
+     */
+    public E decode(ByteBuffer in);
+}
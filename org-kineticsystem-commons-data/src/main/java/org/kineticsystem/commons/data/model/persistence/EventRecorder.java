@@ -0,0 +1,353 @@
+/*
+ * EventRecorder.java
+ *
+ * Created on 18 October 2026, 20.30
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListListener;
+
+/**
+ * This object records the events of an <tt>ActiveList</tt> into a compact
+ * binary file, so a production workload can be replayed offline by an
+ * <tt>EventReplayer</tt> to reproduce a stall or to benchmark a fix. Each
+ * event is stored with the time it was notified and, if a codec is given,
+ * with the elements it adds or modifies:
+ * <pre>
+ * int magic, int version, boolean payloads, int size, element[size],
+ * { long time, byte type, int x, int y, int seq, int lastSeq,
+ *   int toIndex if type == INTERVAL_MOVED,
+ *   element[y - x + 1] if payloads and type != INTERVAL_REMOVED }
+ * element: int length (-1 if null), byte data[length]
+ * </pre>
+ * The recording starts with the list content, so it can be replayed from the
+ * same state. The elements of a move are the moved ones, read at their
+ * destination, and the elements of a <tt>STRUCTURE_CHANGED</tt> event are the
+ * whole list content. Without payloads only the list size is recorded and elements
+ * are replayed as null values.
+ * <pre>
+ * EventRecorder&lt;Contact&gt; recorder = EventRecorder.start(contacts, file,
+ *     new SerializableCodec&lt;Contact&gt;());
+ * ...
+ * recorder.close();
+ * </pre>
+ * The list must notify its changes while the write lock is held, as the
+ * <tt>DefaultActiveList</tt> does, because the recorder reads the changed
+ * elements from the list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see EventReplayer
+ */
+public class EventRecorder<E> implements ActiveListListener {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Package constants.
+     */
+    
+    /** The recording magic number. */
+    static final int MAGIC = 0x4B524543;
+    
+    /** The recording format version. */
+    static final int VERSION = 2;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The recorded list. */
+    private ActiveList<E> list;
+    
+    /** The codec encoding the elements (null if payloads are not recorded). */
+    private ElementCodec<E> codec;
+    
+    /** The recording file stream. */
+    private DataOutputStream out;
+    
+    /** The buffer used to measure the length of an encoded element. */
+    private ByteArrayOutputStream element;
+    
+    /** The stream writing into the element buffer. */
+    private DataOutputStream elementOut;
+    
+    /** The time in nanoseconds when the recording started. */
+    private long startTime;
+    
+    /** The number of recorded events. */
+    private long count;
+    
+    /**
+     * The events of the sequence being notified, each one stored as type,
+     * first and last index, sequence number, last sequence number and
+     * destination index.
+     */
+    private List<int[]> sequence;
+    
+    /** The notification time of each event of the sequence. */
+    private List<Long> sequenceTimes;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param list The recorded list.
+     * @param out The recording file stream.
+     * @param codec The codec encoding the elements (null if payloads are not
+     *     recorded).
+     */
+    private EventRecorder(ActiveList<E> list, DataOutputStream out,
+            ElementCodec<E> codec) {
+        this.list = list;
+        this.out = out;
+        this.codec = codec;
+        this.element = new ByteArrayOutputStream();
+        this.elementOut = new DataOutputStream(element);
+        this.startTime = 0;
+        this.count = 0;
+        this.sequence = new ArrayList<int[]>();
+        this.sequenceTimes = new ArrayList<Long>();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /**
+     * Start recording the events of the given list into the given file. The
+     * file is overwritten and starts with the current list content; the
+     * recorder is registered as list listener.
+     * @param list The list to be recorded.
+     * @param file The recording file.
+     * @param codec The codec encoding the elements (null if payloads are not
+     *     recorded).
+     * @return The started recorder.
+     * @throws IOException If the file cannot be written.
+     */
+    public static <E> EventRecorder<E> start(ActiveList<E> list, File file,
+            ElementCodec<E> codec) throws IOException {
+        
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(file), 64 * 1024));
+        EventRecorder<E> recorder = new EventRecorder<E>(list, out, codec);
+        
+        try {
+            list.getReadWriteLock().writeLock().lock();
+            
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(codec != null);
+            out.writeInt(list.size());
+            if (codec != null) {
+                for (E e : list) {
+                    recorder.writeElement(e);
+                }
+            }
+            recorder.startTime = System.nanoTime();
+            list.addActiveListListener(recorder);
+        } catch (IOException ex) {
+            out.close();
+            throw ex;
+        } finally {
+            list.getReadWriteLock().writeLock().unlock();
+        }
+        return recorder;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return the number of recorded events.
+     * @return The number of recorded events.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+    
+    /**
+     * Stop recording, unregistering the recorder as list listener, and close
+     * the file.
+     * @throws IOException If the file cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        list.removeActiveListListener(this);
+        out.close();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListListener interface implementation.
+     */
+    
+    /**
+     * Record the given event. The events of a sequence are written when the
+     * last one is received.
+     * @param event The event describing the change.
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    public synchronized void contentsChanged(ActiveListEvent event) {
+        
+        long time = System.nanoTime() - startTime;
+        try {
+            if (event.getLastSequenceNumber() == 0) {
+                writeEvent(time, event.getType(), event.getX(), event.getY(),
+                    0, 0, event.getToIndex(), 0);
+            } else {
+                sequence.add(new int[] {event.getType(), event.getX(),
+                    event.getY(), event.getSequenceNumber(),
+                    event.getLastSequenceNumber(), event.getToIndex()});
+                sequenceTimes.add(Long.valueOf(time));
+                if (event.getSequenceNumber()
+                        == event.getLastSequenceNumber()) {
+                    for (int i = 0; i < sequence.size(); i++) {
+                        int[] change = sequence.get(i);
+                        writeEvent(sequenceTimes.get(i).longValue(), change[0],
+                            change[1], change[2], change[3], change[4],
+                            change[5], i + 1);
+                    }
+                    sequence.clear();
+                    sequenceTimes.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Write the given event. The added or modified elements are read from the
+     * list: when the event belongs to a sequence they are read where the
+     * following events have moved them.
+     * @param time The notification time in nanoseconds since the recording
+     *     start.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The event sequence number.
+     * @param lastSeq The last sequence number.
+     * @param toIndex The position of the first moved item after the move
+     *     (<tt>INTERVAL_MOVED</tt> events only).
+     * @param next The position in the sequence of the following event.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeEvent(long time, int type, int x, int y, int seq,
+            int lastSeq, int toIndex, int next) throws IOException {
+        
+        out.writeLong(time);
+        out.writeByte(type);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(seq);
+        out.writeInt(lastSeq);
+        int start = x;
+        if (type == ActiveListEvent.INTERVAL_MOVED) {
+            out.writeInt(toIndex);
+            start = toIndex;
+        }
+        if ((codec != null) && (type != ActiveListEvent.INTERVAL_REMOVED)) {
+            for (int i = start; i <= start + y - x; i++) {
+                int index = finalIndex(i, next);
+                writeElement((index < 0) ? null : list.get(index));
+            }
+        }
+        count++;
+    }
+    
+    /**
+     * Return the position of the given index once the following events of the
+     * sequence have been applied. Positions replaced by a
+     * <tt>STRUCTURE_CHANGED</tt> event are lost.
+     * @param index The index.
+     * @param next The position in the sequence of the following event.
+     * @return The final position or -1 if the index has been removed.
+     */
+    private int finalIndex(int index, int next) {
+        for (int i = next; i < sequence.size(); i++) {
+            int[] change = sequence.get(i);
+            int length = change[2] - change[1] + 1;
+            if (change[0] == ActiveListEvent.INTERVAL_ADDED) {
+                if (index >= change[1]) {
+                    index += length;
+                }
+            } else if (change[0] == ActiveListEvent.INTERVAL_REMOVED) {
+                if (index > change[2]) {
+                    index -= length;
+                } else if (index >= change[1]) {
+                    return -1;
+                }
+            } else if (change[0] == ActiveListEvent.INTERVAL_MOVED) {
+                if ((index >= change[1]) && (index <= change[2])) {
+                    index = change[5] + index - change[1];
+                } else {
+                    if (index > change[2]) {
+                        index -= length;
+                    }
+                    if (index >= change[5]) {
+                        index += length;
+                    }
+                }
+            } else if (change[0] == ActiveListEvent.STRUCTURE_CHANGED) {
+                return -1;
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Write the given element preceded by its length.
+     * @param e The element to be written (it can be null).
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeElement(E e) throws IOException {
+        if (e == null) {
+            out.writeInt(-1);
+        } else {
+            element.reset();
+            codec.encode(e, elementOut);
+            elementOut.flush();
+            out.writeInt(element.size());
+            element.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * EventReplayer.java
+ *
+ * Created on 18 October 2026, 21.05
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListEventAssembler;
+import org.kineticsystem.commons.data.model.LatencyHistogram;
+
+/**
+ * This object replays a recording written by an <tt>EventRecorder</tt>. The
+ * recording is loaded into memory, so reading the file does not slow down the
+ * replay, and it can be replayed many times:
+ * <ul>
+ * <li>into an <tt>ActiveList</tt>, at the recorded speed or as fast as
+ * possible, to exercise all its listeners: mappings decorating the list and
+ * <tt>DataList</tt> objects displaying it;</li>
+ * <li>into an <tt>ActiveListEventAssembler</tt>, to benchmark the assembler
+ * alone.</li>
+ * </ul>
+ * Each replay returns a <tt>Report</tt> with the throughput and the latency
+ * histogram of the replayed changes.
+ * <pre>
+ * EventReplayer&lt;Contact&gt; replayer = EventReplayer.open(file,
+ *     new SerializableCodec&lt;Contact&gt;());
+ * ActiveList&lt;Contact&gt; contacts = new DefaultActiveList&lt;Contact&gt;();
+ * DataList&lt;Contact&gt; data = new DataList&lt;Contact&gt;(contacts);
+ * System.out.println(replayer.replay(contacts, true));
+ * </pre>
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see EventRecorder
+ */
+public class EventReplayer<E> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The list content when the recording started. */
+    private List<E> elements;
+    
+    /** The number of recorded events. */
+    private int count;
+    
+    /** The notification time of each event since the recording start. */
+    private long[] times;
+    
+    /** The type of each event. */
+    private int[] types;
+    
+    /** The first index of each event. */
+    private int[] xs;
+    
+    /** The last index of each event. */
+    private int[] ys;
+    
+    /** The destination index of each move. */
+    private int[] toIndexes;
+    
+    /** The sequence number of each event. */
+    private int[] seqs;
+    
+    /** The last sequence number of each event. */
+    private int[] lastSeqs;
+    
+    /**
+     * The elements added or modified by each event (null if not recorded).
+     */
+    private Object[][] payloads;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param elements The list content when the recording started.
+     */
+    private EventReplayer(List<E> elements) {
+        this.elements = elements;
+        this.count = 0;
+        this.times = new long[1024];
+        this.types = new int[1024];
+        this.xs = new int[1024];
+        this.ys = new int[1024];
+        this.toIndexes = new int[1024];
+        this.seqs = new int[1024];
+        this.lastSeqs = new int[1024];
+        this.payloads = new Object[1024][];
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /**
+     * Load the given recording. A recording truncated by a crash is loaded up
+     * to its last complete event.
+     * @param file The recording file.
+     * @param codec The codec decoding the elements (null to skip them: they
+     *     are replayed as null values).
+     * @return The loaded recording.
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    public static <E> EventReplayer<E> open(File file, ElementCodec<E> codec)
+            throws IOException {
+        
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new FileInputStream(file), 64 * 1024));
+        try {
+            if ((in.readInt() != EventRecorder.MAGIC)
+                    || (in.readInt() != EventRecorder.VERSION)) {
+                String msg = "Unknown recording format: " + file + "!";
+                throw new IOException(msg);
+            }
+            boolean recorded = in.readBoolean();
+            int size = in.readInt();
+            List<E> elements = new ArrayList<E>(size);
+            for (int i = 0; i < size; i++) {
+                elements.add(recorded ? readElement(in, codec) : null);
+            }
+            
+            EventReplayer<E> replayer = new EventReplayer<E>(elements);
+            try {
+                while (true) {
+                    long time = in.readLong();
+                    int type = in.readByte();
+                    int x = in.readInt();
+                    int y = in.readInt();
+                    int seq = in.readInt();
+                    int lastSeq = in.readInt();
+                    int toIndex = x;
+                    if (type == ActiveListEvent.INTERVAL_MOVED) {
+                        toIndex = in.readInt();
+                    }
+                    Object[] payload = null;
+                    if (recorded && (type != ActiveListEvent.INTERVAL_REMOVED)) {
+                        payload = new Object[y - x + 1];
+                        for (int i = 0; i < payload.length; i++) {
+                            payload[i] = readElement(in, codec);
+                        }
+                        if (codec == null) {
+                            payload = null;
+                        }
+                    }
+                    replayer.add(time, type, x, y, toIndex, seq, lastSeq,
+                        payload);
+                }
+            } catch (EOFException ex) {
+                // End of the recording.
+            }
+            return replayer;
+        } finally {
+            in.close();
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return the list content when the recording started.
+     * @return The list content when the recording started.
+     */
+    public List<E> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+    
+    /**
+     * Return the number of recorded events.
+     * @return The number of recorded events.
+     */
+    public int getEventCount() {
+        return count;
+    }
+    
+    /**
+     * Return the time between the recording start and the last event.
+     * @param unit The time unit of the returned value.
+     * @return The recording duration.
+     */
+    public long getDuration(TimeUnit unit) {
+        long duration = (count == 0) ? 0 : times[count - 1];
+        return unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Replay the recording into the given list. The list content is replaced
+     * by the recorded one, then each recorded sequence of events is applied
+     * inside a transaction: the latency of a sequence is the time taken to
+     * apply it and to notify it to the synchronous listeners of the list,
+     * including producers blocked by a <tt>DataList</tt> backpressure policy.
+     * A move is applied as the removal of the moved items followed by their
+     * insertion at the destination and a <tt>STRUCTURE_CHANGED</tt> event
+     * replaces the whole list content.
+     * @param list The list receiving the changes.
+     * @param recordedSpeed True to wait between sequences as much as recorded,
+     *     false to replay as fast as possible.
+     * @return The replay report.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @SuppressWarnings("unchecked")
+    public Report replay(ActiveList<E> list, boolean recordedSpeed)
+            throws InterruptedException {
+        
+        try {
+            list.getReadWriteLock().writeLock().lock();
+            
+            list.clear();
+            list.addAll(elements);
+        } finally {
+            list.getReadWriteLock().writeLock().unlock();
+        }
+        
+        LatencyHistogram latency = new LatencyHistogram();
+        long start = System.nanoTime();
+        int i = 0;
+        while (i < count) {
+            
+            int end = Math.min(i + lastSeqs[i] - seqs[i] + 1, count);
+            if (recordedSpeed) {
+                long delay = start + times[i] - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+            }
+            
+            long time = System.nanoTime();
+            try {
+                list.beginTransaction();
+                
+                for (int j = i; j < end; j++) {
+                    int length = ys[j] - xs[j] + 1;
+                    Object[] values = payloads[j];
+                    if (types[j] == ActiveListEvent.INTERVAL_ADDED) {
+                        if (values == null) {
+                            values = new Object[length];
+                        }
+                        list.addAll(xs[j], (List<E>) Arrays.asList(values));
+                    } else if (types[j] == ActiveListEvent.INTERVAL_REMOVED) {
+                        for (int k = 0; k < length; k++) {
+                            list.remove(xs[j]);
+                        }
+                    } else if (types[j] == ActiveListEvent.INTERVAL_MOVED) {
+                        if (values == null) {
+                            values = list.subList(xs[j], ys[j] + 1).toArray();
+                        }
+                        for (int k = 0; k < length; k++) {
+                            list.remove(xs[j]);
+                        }
+                        list.addAll(toIndexes[j],
+                            (List<E>) Arrays.asList(values));
+                    } else if (types[j]
+                            == ActiveListEvent.STRUCTURE_CHANGED) {
+                        if (values == null) {
+                            values = new Object[length];
+                        }
+                        list.clear();
+                        list.addAll((List<E>) Arrays.asList(values));
+                    } else {
+                        for (int k = 0; k < length; k++) {
+                            int index = xs[j] + k;
+                            list.set(index, (values == null) ? list.get(index)
+                                : (E) values[k]);
+                        }
+                    }
+                }
+            } finally {
+                list.commitTransaction();
+            }
+            latency.record(System.nanoTime() - time);
+            i = end;
+        }
+        return new Report(count, System.nanoTime() - start, latency);
+    }
+    
+    /**
+     * Replay the recorded events into the given assembler as fast as possible
+     * and pop the assembled events at the end. The latency of an event is the
+     * time taken to push it. A <tt>STRUCTURE_CHANGED</tt> event is not pushed:
+     * it discards the assembled events, as the <tt>EventRunner</tt> does.
+     * @param assembler The assembler receiving the events.
+     * @return The replay report.
+     */
+    public Report replay(ActiveListEventAssembler assembler) {
+        
+        LatencyHistogram latency = new LatencyHistogram();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (types[i] == ActiveListEvent.STRUCTURE_CHANGED) {
+                while (!assembler.isEmpty()) {
+                    assembler.pop();
+                }
+                continue;
+            }
+            ActiveListEvent event = new ActiveListEvent(this);
+            event.setType(types[i]);
+            event.setX(xs[i]);
+            event.setY(ys[i]);
+            event.setToIndex(toIndexes[i]);
+            long time = System.nanoTime();
+            assembler.push(event);
+            latency.record(System.nanoTime() - time);
+        }
+        while (!assembler.isEmpty()) {
+            assembler.pop();
+        }
+        return new Report(count, System.nanoTime() - start, latency);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Append the given event to the recording.
+     * @param time The notification time since the recording start.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param seq The event sequence number.
+     * @param lastSeq The last sequence number.
+     * @param payload The added or modified elements (null if not recorded).
+     */
+    private void add(long time, int type, int x, int y, int toIndex, int seq,
+            int lastSeq, Object[] payload) {
+        
+        if (count == times.length) {
+            int capacity = count * 2;
+            times = Arrays.copyOf(times, capacity);
+            types = Arrays.copyOf(types, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            toIndexes = Arrays.copyOf(toIndexes, capacity);
+            seqs = Arrays.copyOf(seqs, capacity);
+            lastSeqs = Arrays.copyOf(lastSeqs, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+        times[count] = time;
+        types[count] = type;
+        xs[count] = x;
+        ys[count] = y;
+        toIndexes[count] = toIndex;
+        seqs[count] = seq;
+        lastSeqs[count] = lastSeq;
+        payloads[count] = payload;
+        count++;
+    }
+    
+    /**
+     * Read an element preceded by its length.
+     * @param in The recording stream.
+     * @param codec The codec decoding the element (null to skip it).
+     * @return The decoded element or null if skipped.
+     * @throws IOException If the element cannot be read.
+     */
+    private static <E> E readElement(DataInputStream in, ElementCodec<E> codec)
+            throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return (codec == null) ? null : codec.decode(ByteBuffer.wrap(data));
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+    
+    /** The result of a replay. */
+    public static class Report {
+        
+        /** The number of replayed events. */
+        private int count;
+        
+        /** The replay time in nanoseconds. */
+        private long elapsedTime;
+        
+        /** The latency histogram. */
+        private LatencyHistogram latency;
+        
+        /**
+         * Constructor.
+         * @param count The number of replayed events.
+         * @param elapsedTime The replay time in nanoseconds.
+         * @param latency The latency histogram.
+         */
+        private Report(int count, long elapsedTime, LatencyHistogram latency) {
+            this.count = count;
+            this.elapsedTime = elapsedTime;
+            this.latency = latency;
+        }
+        
+        /**
+         * Return the number of replayed events.
+         * @return The number of replayed events.
+         */
+        public int getEventCount() {
+            return count;
+        }
+        
+        /**
+         * Return the replay time.
+         * @param unit The time unit of the returned value.
+         * @return The replay time.
+         */
+        public long getElapsedTime(TimeUnit unit) {
+            return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+        }
+        
+        /**
+         * Return the number of events replayed per second.
+         * @return The number of events replayed per second.
+         */
+        public double getThroughput() {
+            return (elapsedTime == 0) ? 0 : count * 1e9 / elapsedTime;
+        }
+        
+        /**
+         * Return the latency histogram.
+         * @return The latency histogram.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+        
+        /**
+         * Return a summary of the report.
+         * @return A summary of the report.
+         */
+        @Override
+        public String toString() {
+            return "events=" + count + ", time="
+                + getElapsedTime(TimeUnit.MILLISECONDS) + "ms, throughput="
+                + Math.round(getThroughput()) + "/s, latency: " + latency;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * MappedSnapshotList.java
+ *
+ * Created on 18 October 2026, 20.30
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is a list initialized with the elements of a memory-mapped
+ * <tt>BinarySnapshot</tt>. Each element is decoded when first read and then
+ * kept in memory, so the list is available as soon as the file is mapped and
+ * elements never read are never decoded. The list can be freely modified:
+ * new elements are stored in memory as in an <tt>ArrayList</tt>.
+ * <p>
+ * This implementation is not synchronized but concurrent readers are
+ * supported, as required by the <tt>DefaultActiveList</tt> read lock: elements
+ * are stored in an <tt>AtomicReferenceArray</tt> and a decoded element is
+ * published with a compare-and-set, so a reader always sees an element
+ * completely decoded. Two readers can decode the same element at the same
+ * time: only one of the decoded elements is kept and returned to both, so
+ * codecs must be free of side effects.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see BinarySnapshot#map(java.io.File, ElementCodec)
+ */
+public class MappedSnapshotList<E> extends AbstractList<E>
+        implements RandomAccess {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private constants.
+     */
+    
+    /** Marker of elements still encoded. */
+    private static final Object ENCODED = new Object();
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The mapped snapshot. */
+    private ByteBuffer data;
+    
+    /** The codec decoding the snapshot elements. */
+    private ElementCodec<E> codec;
+    
+    /** The list elements: elements still encoded are marked. */
+    private AtomicReferenceArray<Object> values;
+    
+    /** The snapshot index of each encoded element. */
+    private int[] sources;
+    
+    /** The list size. */
+    private int size;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param data The mapped snapshot.
+     * @param size The number of snapshot elements.
+     * @param codec The codec decoding the snapshot elements.
+     */
+    MappedSnapshotList(ByteBuffer data, int size, ElementCodec<E> codec) {
+        this.data = data;
+        this.codec = codec;
+        this.values = new AtomicReferenceArray<Object>(size);
+        this.sources = new int[size];
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            values.lazySet(i, ENCODED);
+            sources[i] = i;
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Return true if the element at the given position has been decoded or
+     * added to the list.
+     * @param index The element position.
+     * @return True if the element is available in memory.
+     */
+    public boolean isDecoded(int index) {
+        rangeCheck(index);
+        return (values.get(index) != ENCODED);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * List interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        rangeCheck(index);
+        Object value = values.get(index);
+        if (value == ENCODED) {
+            value = decode(index);
+        }
+        return (E) value;
+    }
+    
+    /** {@inheritDoc} */
+    public int size() {
+        return size;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public E set(int index, E element) {
+        E previousElement = get(index);
+        values.set(index, element);
+        return previousElement;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void add(int index, E element) {
+        if ((index < 0) || (index > size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+        if (size == values.length()) {
+            int capacity = Math.max(10, size + (size >> 1));
+            AtomicReferenceArray<Object> newValues =
+                new AtomicReferenceArray<Object>(capacity);
+            for (int i = 0; i < size; i++) {
+                newValues.lazySet(i, values.get(i));
+            }
+            values = newValues;
+            sources = Arrays.copyOf(sources, capacity);
+        }
+        for (int i = size; i > index; i--) {
+            values.lazySet(i, values.get(i - 1));
+        }
+        System.arraycopy(sources, index, sources, index + 1, size - index);
+        values.set(index, element);
+        size++;
+        modCount++;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public E remove(int index) {
+        E element = get(index);
+        removeRange(index, index + 1);
+        return element;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Protected methods.
+     */
+    
+    /** {@inheritDoc} */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int moved = size - toIndex;
+        for (int i = 0; i < moved; i++) {
+            values.lazySet(fromIndex + i, values.get(toIndex + i));
+        }
+        System.arraycopy(sources, toIndex, sources, fromIndex, moved);
+        for (int i = size - (toIndex - fromIndex); i < size; i++) {
+            values.set(i, null);
+        }
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Decode the element at the given position and publish it, unless
+     * another thread has published it first.
+     * @param index The element position.
+     * @return The decoded element.
+     */
+    private Object decode(int index) {
+        int source = sources[index];
+        int indexPosition = BinarySnapshot.HEADER_SIZE + 8 * source;
+        int start = (int) data.getLong(indexPosition);
+        int end = (int) data.getLong(indexPosition + 8);
+        ByteBuffer element = data.duplicate();
+        element.limit(end);
+        element.position(start);
+        Object value = codec.decode(element.slice());
+        if (!values.compareAndSet(index, ENCODED, value)) {
+            value = values.get(index);
+        }
+        return value;
+    }
+    
+    /**
+     * Check if the given index is in range.
+     * @param index The index to be checked.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    private void rangeCheck(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * SerializableCodec.java
+ *
+ * Created on 18 October 2026, 20.10
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This is an <tt>ElementCodec</tt> using the Java serialization. It works with
+ * any <tt>Serializable</tt> element but it is slow and verbose: implement a
+ * specific codec for large snapshots.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class SerializableCodec<E> implements ElementCodec<E> {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ElementCodec interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void encode(E element, DataOutput out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream objects = new ObjectOutputStream(bytes);
+        objects.writeObject(element);
+        objects.close();
+        out.write(bytes.toByteArray());
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException If the element cannot be deserialized.
+     */
+    @SuppressWarnings("unchecked")
+    public E decode(final ByteBuffer in) {
+        
+        InputStream stream = new InputStream() {
+            public int read() {
+                return in.hasRemaining() ? (in.get() & 0xFF) : -1;
+            }
+            public int read(byte[] b, int off, int len) {
+                if (!in.hasRemaining()) {
+                    return -1;
+                }
+                len = Math.min(len, in.remaining());
+                in.get(b, off, len);
+                return len;
+            }
+        };
+        
+        try {
+            return (E) new ObjectInputStream(stream).readObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (ClassNotFoundException ex) {
+            throw new UncheckedIOException(new IOException(ex));
+        }
+    }
+}
@@ -0,0 +1,696 @@
+/*
+ * WriteAheadLog.java
+ *
+ * Created on 18 October 2026, 19.10
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListListener;
+
+/**
+ * This is a write-ahead log making the content of an <tt>ActiveList</tt>
+ * survive process restarts. The log is an <tt>ActiveListListener</tt>: each
+ * change notified by the list is appended, together with the serialized
+ * elements it adds or modifies, to a memory-mapped journal segment, so the
+ * list can still be decorated by mappings and displayed by a
+ * <tt>DataList</tt> unchanged.
+ * <pre>
+ * ActiveList&lt;Contact&gt; contacts = new DefaultActiveList&lt;Contact&gt;();
+ * WriteAheadLog&lt;Contact&gt; log = WriteAheadLog.open(contacts, directory);
+ * </pre>
+ * When opened, the log rebuilds the list content from the last checkpoint
+ * and the journal written after it, then starts recording new changes.
+ * <p>
+ * A segment is rolled when full. Every few segments the whole list is written
+ * to a new checkpoint and the older segments and checkpoints are deleted, so
+ * the recovery time is bounded.
+ * Records written to a mapped segment survive a crash of the process as soon
+ * as they are written. They are forced to the storage device in groups, at
+ * the end of a sequence of changes, when at least a given number of records
+ * is pending (group commit), or when <tt>flush</tt> is called.
+ * <p>
+ * A move is logged as the removal of the moved items followed by their
+ * insertion at the destination, and a <tt>STRUCTURE_CHANGED</tt> change is
+ * logged with the whole list content, that replaces the recovered one.
+ * <p>
+ * The list elements must be <tt>Serializable</tt>. The list must notify its
+ * changes while the write lock is held, as the <tt>DefaultActiveList</tt>
+ * does, because the log reads the changed elements from the list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class WriteAheadLog<E> implements ActiveListListener {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private constants.
+     */
+    
+    /** The journal segment name prefix. */
+    private static final String SEGMENT_PREFIX = "journal-";
+    
+    /** The journal segment name suffix. */
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    /** The checkpoint name prefix. */
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    
+    /** The checkpoint name suffix. */
+    private static final String CHECKPOINT_SUFFIX = ".dat";
+    
+    /** The record header size: length, checksum, type, x and y. */
+    private static final int HEADER_SIZE = 20;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The persistent list. */
+    private ActiveList<E> list;
+    
+    /** The directory containing segments and checkpoints. */
+    private File directory;
+    
+    /** The default segment size in bytes. */
+    private int segmentSize;
+    
+    /** The number of pending records forcing a group commit. */
+    private int groupSize;
+    
+    /** The number of segments written between two checkpoints. */
+    private int checkpointSegments;
+    
+    /** The number of the current segment. */
+    private long segmentNumber;
+    
+    /** The channel of the current segment. */
+    private FileChannel channel;
+    
+    /** The mapped content of the current segment. */
+    private MappedByteBuffer buffer;
+    
+    /** The number of segments written since the last checkpoint. */
+    private int segments;
+    
+    /** The number of records not yet forced to the storage device. */
+    private int pendingRecords;
+    
+    /** True if a checkpoint must be written at the end of the sequence. */
+    private boolean checkpointDue;
+    
+    /**
+     * The changes of the sequence being notified, each one stored as type,
+     * first and last index.
+     */
+    private List<int[]> sequence;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+    
+    /**
+     * Constructor.
+     * @param list The persistent list.
+     * @param directory The directory containing segments and checkpoints.
+     * @param segmentSize The default segment size in bytes.
+     * @param groupSize The number of pending records forcing a group commit.
+     * @param checkpointSegments The number of segments written between two
+     *     checkpoints.
+     */
+    private WriteAheadLog(ActiveList<E> list, File directory, int segmentSize,
+            int groupSize, int checkpointSegments) {
+        this.list = list;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupSize = groupSize;
+        this.checkpointSegments = checkpointSegments;
+        this.segmentNumber = 0;
+        this.channel = null;
+        this.buffer = null;
+        this.segments = 0;
+        this.pendingRecords = 0;
+        this.checkpointDue = false;
+        this.sequence = new ArrayList<int[]>();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /**
+     * Open the log stored in the given directory using 64MB segments, forcing
+     * records every 64 changes and writing a checkpoint every 4 segments.
+     * @param list The list to be persisted.
+     * @param directory The directory containing the log.
+     * @return The opened log.
+     * @throws IOException If the log cannot be read or written.
+     * @see #open(ActiveList, File, int, int, int)
+     */
+    public static <E> WriteAheadLog<E> open(ActiveList<E> list, File directory)
+            throws IOException {
+        return open(list, directory, 64 * 1024 * 1024, 64, 4);
+    }
+    
+    /**
+     * Open the log stored in the given directory, creating it if necessary.
+     * The list content is replaced by the content recovered from the log and
+     * the log is registered as list listener.
+     * @param list The list to be persisted.
+     * @param directory The directory containing the log.
+     * @param segmentSize The segment size in bytes. A segment can be larger
+     *     if a single record does not fit into it.
+     * @param groupSize The number of pending records forcing a group commit.
+     * @param checkpointSegments The number of segments written between two
+     *     checkpoints.
+     * @return The opened log.
+     * @throws IOException If the log cannot be read or written.
+     * @throws IllegalArgumentException If a parameter is not positive.
+     */
+    public static <E> WriteAheadLog<E> open(ActiveList<E> list, File directory,
+            int segmentSize, int groupSize, int checkpointSegments)
+            throws IOException {
+        
+        if ((segmentSize <= HEADER_SIZE) || (groupSize <= 0)
+                || (checkpointSegments <= 0)) {
+            String msg = "Log parameters must be positive!";
+            throw new IllegalArgumentException(msg);
+        }
+        
+        WriteAheadLog<E> log = new WriteAheadLog<E>(list, directory,
+            segmentSize, groupSize, checkpointSegments);
+        log.recover();
+        return log;
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Public methods.
+     */
+    
+    /**
+     * Write the whole list content to a new checkpoint and delete the segments
+     * and the checkpoints it makes obsolete.
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        
+        try {
+            list.getReadWriteLock().readLock().lock();
+            
+            closeSegment();
+            long number = segmentNumber + 1;
+            writeCheckpoint(number, list.toArray());
+            openSegment(number, segmentSize);
+            segments = 0;
+            checkpointDue = false;
+            deleteObsolete(number);
+        } finally {
+            list.getReadWriteLock().readLock().unlock();
+        }
+    }
+    
+    /** Force all pending records to the storage device. */
+    public synchronized void flush() {
+        buffer.force();
+        pendingRecords = 0;
+    }
+    
+    /**
+     * Stop recording changes, unregistering the log as list listener, and
+     * close the current segment.
+     * @throws IOException If the segment cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        list.removeActiveListListener(this);
+        closeSegment();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * ActiveListListener interface implementation.
+     */
+    
+    /**
+     * Append the given change to the journal. The changes of a sequence are
+     * appended when the last one is received.
+     * @param event The event describing the change.
+     * @throws UncheckedIOException If the journal cannot be written.
+     */
+    public synchronized void contentsChanged(ActiveListEvent event) {
+        
+        try {
+            int type = event.getType();
+            int x = event.getX();
+            int y = event.getY();
+            if ((event.getLastSequenceNumber() == 0)
+                    && (type != ActiveListEvent.INTERVAL_MOVED)) {
+                writeChange(type, x, y, 0);
+            } else if (type == ActiveListEvent.INTERVAL_MOVED) {
+                int toIndex = event.getToIndex();
+                sequence.add(new int[] {
+                    ActiveListEvent.INTERVAL_REMOVED, x, y});
+                sequence.add(new int[] {ActiveListEvent.INTERVAL_ADDED,
+                    toIndex, toIndex + y - x});
+            } else {
+                sequence.add(new int[] {type, x, y});
+            }
+            if (!sequence.isEmpty() && (event.getSequenceNumber()
+                    == event.getLastSequenceNumber())) {
+                for (int i = 0; i < sequence.size(); i++) {
+                    int[] change = sequence.get(i);
+                    writeChange(change[0], change[1], change[2], i + 1);
+                }
+                sequence.clear();
+            }
+            
+            if (sequence.isEmpty()) {
+                if (checkpointDue) {
+                    checkpoint();
+                } else if (pendingRecords >= groupSize) {
+                    flush();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Rebuild the list from the last checkpoint and the following segments,
+     * then start recording changes into a new segment.
+     * @throws IOException If the log cannot be read or written.
+     */
+    @SuppressWarnings("unchecked")
+    private void recover() throws IOException {
+        
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            String msg = "Cannot create directory " + directory + "!";
+            throw new IOException(msg);
+        }
+        
+        // Read the last checkpoint.
+        
+        long[] checkpoints = numbers(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        long first = 0;
+        List<Object> elements = new ArrayList<Object>();
+        if (checkpoints.length > 0) {
+            first = checkpoints[checkpoints.length - 1];
+            elements.addAll(Arrays.asList(readElements(new FileInputStream(
+                file(CHECKPOINT_PREFIX, first, CHECKPOINT_SUFFIX)))));
+        }
+        
+        // Replay the following segments.
+        
+        long next = first;
+        for (long number : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (number >= first) {
+                replay(file(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), elements);
+                segments++;
+                next = number + 1;
+            }
+        }
+        deleteObsolete(first);
+        
+        // Load the list and start recording.
+        
+        try {
+            list.getReadWriteLock().writeLock().lock();
+            
+            list.clear();
+            list.addAll((List<E>) elements);
+            openSegment(next, segmentSize);
+            list.addActiveListListener(this);
+        } finally {
+            list.getReadWriteLock().writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Append the given change to the current segment. The added or modified
+     * elements are read from the list: when the change belongs to a sequence
+     * they are read where the following changes have moved them.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param next The position in the sequence of the following change.
+     * @throws IOException If the segment cannot be written.
+     */
+    private void writeChange(int type, int x, int y, int next)
+            throws IOException {
+        
+        byte[] payload = new byte[0];
+        if (type != ActiveListEvent.INTERVAL_REMOVED) {
+            Object[] values = new Object[y - x + 1];
+            for (int i = 0; i < values.length; i++) {
+                int index = finalIndex(x + i, next);
+                values[i] = (index < 0) ? null : list.get(index);
+            }
+            payload = writeElements(values);
+        }
+        
+        int length = HEADER_SIZE + payload.length;
+        if (buffer.remaining() < length) {
+            roll(length);
+        }
+        
+        CRC32 crc = new CRC32();
+        update(crc, type);
+        update(crc, x);
+        update(crc, y);
+        crc.update(payload);
+        
+        // The length is written last: a partially written record is empty.
+        
+        int position = buffer.position();
+        buffer.putInt(0);
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(type);
+        buffer.putInt(x);
+        buffer.putInt(y);
+        buffer.put(payload);
+        buffer.putInt(position, length);
+        pendingRecords++;
+    }
+    
+    /**
+     * Return the index of the given list position after applying the changes
+     * of the current sequence starting from the given one. Positions replaced
+     * by a <tt>STRUCTURE_CHANGED</tt> change are lost.
+     * @param index The list position.
+     * @param next The position in the sequence of the first change to be
+     *     applied.
+     * @return The final index or -1 if the position is removed.
+     */
+    private int finalIndex(int index, int next) {
+        for (int i = next; i < sequence.size(); i++) {
+            int[] change = sequence.get(i);
+            int length = change[2] - change[1] + 1;
+            if (change[0] == ActiveListEvent.INTERVAL_ADDED) {
+                if (index >= change[1]) {
+                    index += length;
+                }
+            } else if (change[0] == ActiveListEvent.INTERVAL_REMOVED) {
+                if (index > change[2]) {
+                    index -= length;
+                } else if (index >= change[1]) {
+                    return -1;
+                }
+            } else if (change[0] == ActiveListEvent.STRUCTURE_CHANGED) {
+                return -1;
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Replace the current segment with a new one. A checkpoint is scheduled
+     * when enough segments have been written.
+     * @param minSize The minimum size of the new segment.
+     * @throws IOException If the segments cannot be closed or created.
+     */
+    private void roll(int minSize) throws IOException {
+        closeSegment();
+        openSegment(segmentNumber + 1, Math.max(segmentSize, minSize));
+        segments++;
+        if (segments >= checkpointSegments) {
+            checkpointDue = true;
+        }
+    }
+    
+    /**
+     * Create and map a new segment.
+     * @param number The segment number.
+     * @param size The segment size in bytes.
+     * @throws IOException If the segment cannot be created.
+     */
+    private void openSegment(long number, int size) throws IOException {
+        File segment = file(SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentNumber = number;
+    }
+    
+    /**
+     * Force and close the current segment.
+     * @throws IOException If the segment cannot be closed.
+     */
+    private void closeSegment() throws IOException {
+        buffer.force();
+        channel.close();
+        pendingRecords = 0;
+    }
+    
+    /**
+     * Apply all valid records of the given segment to the given elements. The
+     * replay stops at the first empty or corrupted record.
+     * @param segment The segment to be replayed.
+     * @param elements The elements to be modified.
+     * @throws IOException If the segment cannot be read.
+     */
+    private static void replay(File segment, List<Object> elements)
+            throws IOException {
+        
+        FileChannel in = FileChannel.open(segment.toPath(),
+            StandardOpenOption.READ);
+        try {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0,
+                in.size());
+            while (data.remaining() >= HEADER_SIZE) {
+                
+                int length = data.getInt();
+                if ((length < HEADER_SIZE)
+                        || (length - 4 > data.remaining())) {
+                    break;
+                }
+                int checksum = data.getInt();
+                int type = data.getInt();
+                int x = data.getInt();
+                int y = data.getInt();
+                byte[] payload = new byte[length - HEADER_SIZE];
+                data.get(payload);
+                
+                CRC32 crc = new CRC32();
+                update(crc, type);
+                update(crc, x);
+                update(crc, y);
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                
+                switch (type) {
+                    case ActiveListEvent.INTERVAL_ADDED:
+                        elements.addAll(x, Arrays.asList(readElements(
+                            new ByteArrayInputStream(payload))));
+                        break;
+                    case ActiveListEvent.INTERVAL_REMOVED:
+                        elements.subList(x, y + 1).clear();
+                        break;
+                    case ActiveListEvent.STRUCTURE_CHANGED:
+                        elements.clear();
+                        elements.addAll(Arrays.asList(readElements(
+                            new ByteArrayInputStream(payload))));
+                        break;
+                    default:
+                        Object[] values = readElements(
+                            new ByteArrayInputStream(payload));
+                        for (int i = 0; i < values.length; i++) {
+                            elements.set(x + i, values[i]);
+                        }
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Write the given elements to a new checkpoint. The checkpoint becomes
+     * visible only when completely written.
+     * @param number The number of the first segment following the checkpoint.
+     * @param elements The list elements.
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    private void writeCheckpoint(long number, Object[] elements)
+            throws IOException {
+        
+        File checkpoint = file(CHECKPOINT_PREFIX, number, CHECKPOINT_SUFFIX);
+        File tmp = new File(directory, checkpoint.getName() + ".tmp");
+        FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(fos));
+            out.writeInt(elements.length);
+            for (Object element : elements) {
+                out.writeObject(element);
+            }
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        Files.move(tmp.toPath(), checkpoint.toPath(),
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Delete the segments and the checkpoints preceding the given checkpoint.
+     * @param number The checkpoint number.
+     */
+    private void deleteObsolete(long number) {
+        for (long segment : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment < number) {
+                file(SEGMENT_PREFIX, segment, SEGMENT_SUFFIX).delete();
+            }
+        }
+        for (long checkpoint : numbers(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) {
+            if (checkpoint < number) {
+                file(CHECKPOINT_PREFIX, checkpoint, CHECKPOINT_SUFFIX).delete();
+            }
+        }
+    }
+    
+    /**
+     * Return the file with the given prefix, number and suffix.
+     * @param prefix The file name prefix.
+     * @param number The file number.
+     * @param suffix The file name suffix.
+     * @return The file inside the log directory.
+     */
+    private File file(String prefix, long number, String suffix) {
+        return new File(directory, prefix + String.format("%020d", number)
+            + suffix);
+    }
+    
+    /**
+     * Return the sorted numbers of the files with the given prefix and suffix.
+     * @param prefix The file name prefix.
+     * @param suffix The file name suffix.
+     * @return The sorted file numbers.
+     */
+    private long[] numbers(String prefix, String suffix) {
+        
+        List<Long> numbers = new ArrayList<Long>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        numbers.add(Long.valueOf(name.substring(
+                            prefix.length(), name.length() - suffix.length())));
+                    } catch (NumberFormatException ex) {
+                        // Not a log file.
+                    }
+                }
+            }
+        }
+        long[] result = new long[numbers.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = numbers.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    /**
+     * Serialize the given elements.
+     * @param elements The elements to be serialized.
+     * @return The serialized elements.
+     * @throws IOException If an element cannot be serialized.
+     */
+    private static byte[] writeElements(Object[] elements) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeInt(elements.length);
+        for (Object element : elements) {
+            out.writeObject(element);
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Deserialize elements from the given stream, closing it.
+     * @param stream The stream containing the serialized elements.
+     * @return The deserialized elements.
+     * @throws IOException If the elements cannot be deserialized.
+     */
+    private static Object[] readElements(InputStream stream)
+            throws IOException {
+        
+        ObjectInputStream in = new ObjectInputStream(
+            new BufferedInputStream(stream));
+        try {
+            Object[] elements = new Object[in.readInt()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = in.readObject();
+            }
+            return elements;
+        } catch (ClassNotFoundException ex) {
+            throw new IOException(ex);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Update the given checksum with the bytes of the given integer.
+     * @param crc The checksum.
+     * @param value The integer value.
+     */
+    private static void update(CRC32 crc, int value) {
+        crc.update(value >>> 24);
+        crc.update(value >>> 16);
+        crc.update(value >>> 8);
+        crc.update(value);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * BackpressurePolicy.java
+ *
+ * Created on 18 October 2026, 15.10
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.swing;
+
+/**
+ * Enumeration defining how a <tt>DataList</tt> reacts when changes made to its
+ * source list outrun the AWT event-dispatching thread, i.e. when the changes
+ * waiting to be notified exceed a given number or have been waiting longer
+ * than a given time.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see DataList#setBackpressure(BackpressurePolicy, int, long,
+ *     java.util.concurrent.TimeUnit)
+ */
+public enum BackpressurePolicy {
+    
+    /**
+     * Queue all changes. When the queue of the <tt>DataList</tt> is full the
+     * queued changes are discarded and the whole list seen by the AWT
+     * event-dispatching thread is refreshed at the next notification.
+     * @see DataList#DataList(org.kineticsystem.commons.data.model.ActiveList,
+     *     org.kineticsystem.commons.data.model.ActiveList, int)
+     * @see DataList#getOverflowCount()
+     */
+    NONE,
+    
+    /**
+     * Block threads modifying the list through the <tt>DataList</tt> until
+     * the AWT event-dispatching thread catches up.
+     */
+    BLOCK,
+    
+    /**
+     * Discard all queued changes and refresh the whole list seen by the AWT
+     * event-dispatching thread at the next notification.
+     */
+    COALESCE,
+    
+    /**
+     * Stop queuing modify changes and notify a single modify change covering
+     * all of them at the next notification. Add and remove changes are still
+     * queued.
+     */
+    DROP_CONTENTS_CHANGED;
+}
@@ -30,6 +30,7 @@ import java.awt.EventQueue;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import javax.swing.event.EventListenerList;
 
@@ -38,6 +39,8 @@ import javax.swing.event.EventListenerList;
 import org.kineticsystem.commons.data.model.ActiveList;
 import org.kineticsystem.commons.data.model.ActiveListEvent;
 import org.kineticsystem.commons.data.model.ActiveListListener;
+import org.kineticsystem.commons.data.model.ActiveListUtility;
+import org.kineticsystem.commons.data.model.ConcurrentAssembler;
 import org.kineticsystem.commons.data.model.DefaultActiveList;
 
 /**
@@ -46,6 +49,19 @@ import org.kineticsystem.commons.data.model.DefaultActiveList;
  * standard and custom components. It contains two list: one read and written
  * by many threads at the same time and the second one synchronized with the
  * first one when required by the AWT event-dispatching thread.
+ * <p>
+ * Changes waiting to be synchronized are compressed, but when threads modify
+ * the source list faster than the AWT event-dispatching thread can process
+ * the changes they can still pile up. Use <tt>setBackpressure</tt> to limit
+ * the number of waiting changes or their age, choosing whether to block
+ * writers, to coalesce all waiting changes into a refresh of the whole list or
+ * to drop intermediate modify changes. Writers are blocked only when they
+ * modify the list through this object.
+ * <p>
+ * Waiting changes are held by a queue of fixed capacity: when it is full the
+ * waiting changes are discarded and the whole list is refreshed, whatever
+ * the policy. The capacity can be chosen when the list is created and
+ * <tt>getOverflowCount</tt> tells how many times the queue has been full.
  * @author Giovanni Remigi
  * @version $Revision: 43 $
  */
@@ -64,6 +80,13 @@ public class DataList<E> implements ActiveList<E> {
     /** Used to send events inside the AWT event-dispatching thread. */
     private EventRunner<E> eventRunner;
     
+    /**
+     * The number of nested transactions started through this list by each
+     * thread: a thread inside a transaction holds the source list lock and
+     * must never wait for the AWT event-dispatching thread.
+     */
+    private ThreadLocal<int[]> transactionDepth;
+    
     /** The source list concurrently modifiable by any number of threads. */
     private ActiveList<E> sourceList;
     
@@ -86,12 +109,7 @@ public class DataList<E> implements ActiveList<E> {
      * the AWT event-dispatching queue.
      */
     public DataList() {
-        listenerList = new EventListenerList();
-        activated = true;
-        sourceList = new DefaultActiveList<E>();
-        swingList = new DefaultActiveList<E>();
-        eventRunner = new EventRunner<E>(this, sourceList, swingList);
-        sourceList.addActiveListListener(eventRunner);
+        this(new DefaultActiveList<E>());
     }
     
     /**
@@ -102,11 +120,48 @@ public class DataList<E> implements ActiveList<E> {
      * the AWT event-dispatching queue.
      */
     public DataList(ActiveList<E> list) {
+        this(list, new DefaultActiveList<E>());
+    }
+    
+    /**
+     * Constructor. This object wraps the two given lists: the first one is
+     * modifiable by one or more threads, the second one is the list
+     * synchronized with the first one and read by the AWT event-dispatching
+     * thread. This is useful to choose the implementation of both lists, i.e.
+     * to store primitive values in an <tt>IntActiveList</tt>.
+     * @param list The source list concurrently modifiable by any number of
+     *     threads.
+     * @param swingList The empty list read by the AWT event-dispatching thread.
+     */
+    public DataList(ActiveList<E> list, ActiveList<E> swingList) {
+        this(list, swingList, ConcurrentAssembler.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructor. This object wraps the two given lists and holds at least
+     * the given number of changes waiting to be synchronized: when more
+     * changes are waiting the whole list is refreshed.
+     * @param list The source list concurrently modifiable by any number of
+     *     threads.
+     * @param swingList The empty list read by the AWT event-dispatching thread.
+     * @param capacity The minimum number of changes waiting to be
+     *     synchronized: it is rounded up to a power of two.
+     * @throws IllegalArgumentException If the capacity is not positive or
+     *     larger than 2^24.
+     */
+    public DataList(ActiveList<E> list, ActiveList<E> swingList,
+            int capacity) {
         listenerList = new EventListenerList();
         activated = true;
         sourceList = list;
-        swingList = new DefaultActiveList<E>();
-        eventRunner = new EventRunner<E>(this, sourceList, swingList);
+        this.swingList = swingList;
+        eventRunner = new EventRunner<E>(this, sourceList, swingList,
+            capacity);
+        transactionDepth = new ThreadLocal<int[]>() {
+            protected int[] initialValue() {
+                return new int[1];
+            }
+        };
         sourceList.addActiveListListener(eventRunner);
     }
     
@@ -141,19 +196,31 @@ public class DataList<E> implements ActiveList<E> {
     
     /** {@inheritDoc} */
     public void fireContentsChanged(ActiveListEvent event) {
-        
-        // Guaranteed to return a non-null array.
-
-        Object[] listeners = listenerList.getListenerList();
-
-        // Process the listeners last to first, notifying those that are
-        // interested in this event.
-
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == ActiveListListener.class) {
-                ((ActiveListListener) listeners[i+1])
-                    .contentsChanged(event);
-            }          
+        ActiveListUtility.fireEvent(listenerList, event);
+    }
+    
+    /**
+     * Start a transaction on the source list.
+     * {@inheritDoc}
+     */
+    public void beginTransaction() {
+        awaitCapacity();
+        sourceList.beginTransaction();
+        transactionDepth.get()[0]++;
+    }
+    
+    /**
+     * Commit the transaction started on the source list.
+     * {@inheritDoc}
+     */
+    public void commitTransaction() {
+        int[] depth = transactionDepth.get();
+        try {
+            sourceList.commitTransaction();
+        } finally {
+            if (depth[0] > 0) {
+                depth[0]--;
+            }
         }
     }
     
@@ -163,26 +230,31 @@ public class DataList<E> implements ActiveList<E> {
     
     /** {@inheritDoc} */
     public boolean add(E element) {
+        awaitCapacity();
         return sourceList.add(element);
     }
     
     /** {@inheritDoc} */
     public void add(int index, E element) {
+        awaitCapacity();
         sourceList.add(index, element);
     }
     
     /** {@inheritDoc} */
     public boolean addAll(Collection<? extends E> c) {
+        awaitCapacity();
         return sourceList.addAll(c);
     }
 
     /** {@inheritDoc} */
     public boolean addAll(int index, Collection<? extends E> c) {
+        awaitCapacity();
         return sourceList.addAll(index, c);
     }
     
     /** {@inheritDoc} */
     public void clear() {
+        awaitCapacity();
         sourceList.clear();
     }
 
@@ -243,26 +315,31 @@ public class DataList<E> implements ActiveList<E> {
     
     /** {@inheritDoc} */
     public E remove(int index) {
+        awaitCapacity();
         return sourceList.remove(index);
     }
 
     /** {@inheritDoc} */
     public boolean remove(Object o) {
+        awaitCapacity();
         return sourceList.remove(o);
     }
     
     /** {@inheritDoc} */
     public boolean removeAll(Collection<?> c) {
+        awaitCapacity();
         return sourceList.removeAll(c);
     }
 
     /** {@inheritDoc} */
     public boolean retainAll(Collection<?> c) {
+        awaitCapacity();
         return sourceList.retainAll(c);
     }
 
     /** {@inheritDoc} */
     public E set(int index, E element) {
+        awaitCapacity();
         return sourceList.set(index, element);
     }
     
@@ -290,6 +367,149 @@ public class DataList<E> implements ActiveList<E> {
      * New methods.
      */
     
+    /**
+     * Set the policy applied when the AWT event-dispatching thread cannot
+     * keep up with the changes of the source list. The policy kicks in when
+     * the number of changes queued and not yet synchronized reaches the
+     * given depth or when the oldest waiting change has been waiting longer
+     * than the given lag.
+     * <p>
+     * With the <tt>BLOCK</tt> policy the methods of this list modifying the
+     * source list wait before modifying it. Threads inside a transaction
+     * started through this list or holding the source list lock are never
+     * blocked, because the AWT event-dispatching thread needs the lock to
+     * catch up. The lock ownership of other threads can only be checked if
+     * the source list lock is a <tt>ReentrantReadWriteLock</tt>: with other
+     * locks writers are never blocked unless they are inside a transaction
+     * started through this list.
+     * @param policy The backpressure policy.
+     * @param maxDepth The maximum number of waiting changes.
+     * @param maxLag The maximum time a change can wait to be synchronized (0
+     *     if there is no limit).
+     * @param unit The time unit of the lag.
+     */
+    public void setBackpressure(BackpressurePolicy policy, int maxDepth,
+            long maxLag, TimeUnit unit) {
+        
+        if ((maxDepth <= 0) || (maxLag < 0)) {
+            String msg = "Depth must be positive and lag not negative!";
+            throw new IllegalArgumentException(msg);
+        }
+        eventRunner.setBackpressure(policy, maxDepth, unit.toNanos(maxLag));
+    }
+    
+    /**
+     * Return the policy applied when the AWT event-dispatching thread cannot
+     * keep up with the changes of the source list.
+     * @return The backpressure policy.
+     */
+    public BackpressurePolicy getBackpressurePolicy() {
+        return eventRunner.getBackpressurePolicy();
+    }
+    
+    /**
+     * Set the fraction of the list that the changes waiting to be synchronized
+     * must touch, summing their lengths, to be replaced by a single
+     * <tt>STRUCTURE_CHANGED</tt> event: the list read by the AWT
+     * event-dispatching thread is then copied at once and listeners read it
+     * again, instead of applying many small changes. The collapse is disabled
+     * by default: enable it only if all listeners understand
+     * <tt>STRUCTURE_CHANGED</tt> events, like the Swing adapters do.
+     * @param threshold The fraction of the list, i.e. 0.5 to collapse the
+     *     changes touching half of the list (0 to disable).
+     * @throws IllegalArgumentException If the threshold is negative.
+     */
+    public void setRefreshThreshold(double threshold) {
+        if (threshold < 0) {
+            String msg = "The threshold cannot be negative!";
+            throw new IllegalArgumentException(msg);
+        }
+        eventRunner.setRefreshThreshold(threshold);
+    }
+    
+    /**
+     * Return the fraction of the list that the changes waiting to be
+     * synchronized must touch to be replaced by a single
+     * <tt>STRUCTURE_CHANGED</tt> event.
+     * @return The fraction of the list (0 if disabled).
+     */
+    public double getRefreshThreshold() {
+        return eventRunner.getRefreshThreshold();
+    }
+    
+    /**
+     * Return the number of changes queued and not yet synchronized. Changes
+     * are compressed when synchronized, so it counts them before compression.
+     * @return The number of changes waiting to be synchronized.
+     */
+    public int getPendingChanges() {
+        return eventRunner.getDepth();
+    }
+    
+    /**
+     * Return the time the oldest change has been waiting to be synchronized.
+     * @param unit The time unit of the returned value.
+     * @return The time the oldest change has been waiting (0 if none).
+     */
+    public long getLag(TimeUnit unit) {
+        return eventRunner.getLag(unit);
+    }
+    
+    /**
+     * Return the number of times a writer has been blocked by the
+     * <tt>BLOCK</tt> policy.
+     * @return The number of times a writer has been blocked.
+     */
+    public long getBlockCount() {
+        return eventRunner.getBlockCount();
+    }
+    
+    /**
+     * Return the total time writers have been blocked by the <tt>BLOCK</tt>
+     * policy.
+     * @param unit The time unit of the returned value.
+     * @return The total time writers have been blocked.
+     */
+    public long getBlockTime(TimeUnit unit) {
+        return eventRunner.getBlockTime(unit);
+    }
+    
+    /**
+     * Return the number of times the <tt>COALESCE</tt> policy discarded all
+     * waiting changes to refresh the whole list.
+     * @return The number of times waiting changes have been coalesced.
+     */
+    public long getCoalesceCount() {
+        return eventRunner.getCoalesceCount();
+    }
+    
+    /**
+     * Return the number of modify changes dropped by the
+     * <tt>DROP_CONTENTS_CHANGED</tt> policy.
+     * @return The number of dropped modify changes.
+     */
+    public long getDropCount() {
+        return eventRunner.getDropCount();
+    }
+    
+    /**
+     * Return the number of times the queue of the changes waiting to be
+     * synchronized has been full and the whole list has been refreshed.
+     * @return The number of queue overflows.
+     */
+    public long getOverflowCount() {
+        return eventRunner.getOverflowCount();
+    }
+    
+    /**
+     * Return the number of changes waiting to be synchronized the list can
+     * hold before refreshing the whole list.
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return eventRunner.getCapacity();
+    }
+    
     /**
      * Return the source list concurrently modified by any number of threads.
      * @return The source list concurrently modified by any number of threads.
@@ -307,6 +527,21 @@ public class DataList<E> implements ActiveList<E> {
         return swingList;
     }
     
+    /**
+     * Notify the given change to all registered listeners without creating
+     * any event if all listeners are <tt>PrimitiveActiveListListener</tt>
+     * listeners.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param seq The change sequence number.
+     * @param lastSeq The last sequence number.
+     */
+    void fireContentsChanged(int type, int x, int y, int seq, int lastSeq) {
+        ActiveListUtility.fireEvent(listenerList, this, type, x, y, seq,
+            lastSeq);
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Private methods.
      */
@@ -329,4 +564,14 @@ public class DataList<E> implements ActiveList<E> {
             return sourceList;
         }
     }
+    
+    /**
+     * Wait while the AWT event-dispatching thread is late, unless the calling
+     * thread is inside a transaction started through this list.
+     */
+    private void awaitCapacity() {
+        if (transactionDepth.get()[0] == 0) {
+            eventRunner.awaitCapacity();
+        }
+    }
 }
@@ -27,26 +27,48 @@ package org.kineticsystem.commons.data.model.swing;
 // Java classes.
 
 import java.awt.EventQueue;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.swing.event.EventListenerList;
 
 // Application classes.
 
 import org.kineticsystem.commons.data.model.ActiveList;
 import org.kineticsystem.commons.data.model.ActiveListEvent;
-import org.kineticsystem.commons.data.model.ActiveListEventAssembler;
 import org.kineticsystem.commons.data.model.ActiveListListener;
 import org.kineticsystem.commons.data.model.ActiveListUtility;
-import org.kineticsystem.commons.data.model.DefaultAssembler;
+import org.kineticsystem.commons.data.model.ConcurrentAssembler;
+import org.kineticsystem.commons.data.model.PrimitiveActiveListListener;
 
 /**
  * This object is used to schedule the execution of a set of <tt>ActiveList</tt>
- * events by the AWT event-dispatching thread.
+ * events by the AWT event-dispatching thread. Changes are received as
+ * primitive values and queued inside a <tt>ConcurrentAssembler</tt>: many
+ * threads can queue changes without locking the runner, and the
+ * event-dispatching thread merges them when notified. An atomic flag posts
+ * exactly one execution to the AWT event queue per notification cycle. If the
+ * assembler queue is full the waiting changes are discarded and the whole
+ * list is refreshed, as with the <tt>COALESCE</tt> policy, and the overflow
+ * is counted.
+ * <p>
+ * When changes outrun the AWT event-dispatching thread the runner applies a
+ * <tt>BackpressurePolicy</tt>: the policy kicks in when the events waiting
+ * inside the assembler exceed a maximum depth or when the oldest waiting
+ * change exceeds a maximum lag, and counters record how many times it did.
+ * <p>
+ * When the waiting events touch a large fraction of the list (see
+ * <tt>setRefreshThreshold</tt>) they are replaced by a single
+ * <tt>STRUCTURE_CHANGED</tt> event: the list is copied at once instead of
+ * being edited event by event.
  * @author Giovanni Remigi
  * @version $Revision: 43 $
  */
-class EventRunner<E> implements Runnable, ActiveListListener {
+class EventRunner<E> implements Runnable, PrimitiveActiveListListener {
     
     /* /////////////////////////////////////////////////////////////////////////
      * Private variables.
@@ -54,10 +76,10 @@ class EventRunner<E> implements Runnable, ActiveListListener {
     
     /**
      * True if the object has been scheduled for execution inside the AWT
-     * event-dispatching thread queue, false otherwise. It is not volatile
-     * because it is protected by the <tt>ActiveList</tt> lock.
+     * event-dispatching thread queue, false otherwise. The producer setting it
+     * posts the execution, that resets it before merging the queued changes.
      */
-    private boolean scheduled;
+    private AtomicBoolean scheduled;
     
     /** The list of all registered listener. */
     private EventListenerList listenerList;
@@ -79,11 +101,75 @@ class EventRunner<E> implements Runnable, ActiveListListener {
      * to compact and send them asynchronously to the AWT event-dispatching
      * thread.
      */
-    private ActiveListEventAssembler assembler;
+    private ConcurrentAssembler assembler;
     
-    /** Service variable used to temporarely store working events. */
+    /** Service variable used to temporarely store refreshing events. */
     private java.util.List<ActiveListEvent> events;
     
+    /** The policy applied when the AWT event-dispatching thread is late. */
+    private volatile BackpressurePolicy policy;
+    
+    /** The maximum number of events waiting inside the assembler. */
+    private volatile int maxDepth;
+    
+    /**
+     * The maximum time in nanoseconds a change can wait to be notified (0 if
+     * there is no limit).
+     */
+    private volatile long maxLag;
+    
+    /** The number of changes queued inside the assembler. */
+    private AtomicInteger depth;
+    
+    /**
+     * The time in nanoseconds when the oldest waiting change was received (0
+     * if no change is waiting).
+     */
+    private volatile long pendingSince;
+    
+    /**
+     * True if all waiting changes have been discarded and the whole list must
+     * be refreshed.
+     */
+    private volatile boolean refresh;
+    
+    /**
+     * The first index of the interval covering all dropped modify changes (-1
+     * if none). It is protected by the runner monitor and read without it to
+     * check if there are dropped changes.
+     */
+    private volatile int dirtyX;
+    
+    /**
+     * The last index of the interval covering all dropped modify changes (-1
+     * if none). It is protected by the runner monitor.
+     */
+    private int dirtyY;
+    
+    /**
+     * The fraction of the list the waiting events must touch to be replaced
+     * by a single <tt>STRUCTURE_CHANGED</tt> event (0 if disabled).
+     */
+    private volatile double refreshThreshold;
+    
+    /** The number of times a producer has been blocked. */
+    private AtomicLong blockCount;
+    
+    /** The total time in nanoseconds producers have been blocked. */
+    private AtomicLong blockTime;
+    
+    /** The number of times waiting changes have been coalesced. */
+    private AtomicLong coalesceCount;
+    
+    /** The number of modify changes dropped. */
+    private AtomicLong dropCount;
+    
+    /**
+     * The number of times the assembler queue has been full and the whole list
+     * has been refreshed.
+     */
+    private AtomicLong overflowCount;
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Constructors and initializing methods.
      */
@@ -97,17 +183,32 @@ class EventRunner<E> implements Runnable, ActiveListListener {
      *     thread.
      * @param dstList The embedded list that is seen by the Swing componens
      *     throw the virtual list.
+     * @param capacity The number of changes the assembler queue can hold.
      */
     public EventRunner(DataList<E> list, ActiveList<E> srcList,
-            ActiveList<E> dtsList) {
+            ActiveList<E> dtsList, int capacity) {
         
         this.list = list;
         this.srcList = srcList;
         this.dstList = dtsList;
         listenerList = new EventListenerList();
-        assembler = new DefaultAssembler();
-        scheduled = false;
-        events = new LinkedList<ActiveListEvent>();
+        assembler = new ConcurrentAssembler(null, capacity);
+        scheduled = new AtomicBoolean(false);
+        events = new ArrayList<ActiveListEvent>();
+        policy = BackpressurePolicy.NONE;
+        maxDepth = Integer.MAX_VALUE;
+        maxLag = 0;
+        depth = new AtomicInteger();
+        pendingSince = 0;
+        refresh = false;
+        dirtyX = -1;
+        dirtyY = -1;
+        refreshThreshold = 0;
+        blockCount = new AtomicLong();
+        blockTime = new AtomicLong();
+        coalesceCount = new AtomicLong();
+        dropCount = new AtomicLong();
+        overflowCount = new AtomicLong();
     }
     
     /* /////////////////////////////////////////////////////////////////////////
@@ -122,6 +223,161 @@ class EventRunner<E> implements Runnable, ActiveListListener {
         listenerList.remove(ActiveListListener.class, listener);
     }
     
+    /* /////////////////////////////////////////////////////////////////////////
+     * Backpressure methods.
+     */
+    
+    /**
+     * Set the policy applied when the AWT event-dispatching thread is late.
+     * @param policy The backpressure policy.
+     * @param maxDepth The maximum number of events waiting to be notified.
+     * @param maxLag The maximum time in nanoseconds a change can wait to be
+     *     notified (0 if there is no limit).
+     */
+    public void setBackpressure(BackpressurePolicy policy, int maxDepth,
+            long maxLag) {
+        this.maxDepth = maxDepth;
+        this.maxLag = maxLag;
+        this.policy = policy;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+    
+    /**
+     * Return the policy applied when the AWT event-dispatching thread is late.
+     * @return The backpressure policy.
+     */
+    public BackpressurePolicy getBackpressurePolicy() {
+        return policy;
+    }
+    
+    /**
+     * Set the fraction of the list the waiting events must touch, summing
+     * their lengths, to be replaced by a single <tt>STRUCTURE_CHANGED</tt>
+     * event.
+     * @param refreshThreshold The fraction of the list (0 to disable).
+     */
+    public void setRefreshThreshold(double refreshThreshold) {
+        this.refreshThreshold = refreshThreshold;
+    }
+    
+    /**
+     * Return the fraction of the list the waiting events must touch to be
+     * replaced by a single <tt>STRUCTURE_CHANGED</tt> event.
+     * @return The fraction of the list (0 if disabled).
+     */
+    public double getRefreshThreshold() {
+        return refreshThreshold;
+    }
+    
+    /**
+     * Return the number of changes queued and not yet notified.
+     * @return The number of changes queued and not yet notified.
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+    
+    /**
+     * Return the time the oldest waiting change has been waiting to be
+     * notified.
+     * @param unit The time unit of the returned value.
+     * @return The time the oldest waiting change has been waiting.
+     */
+    public long getLag(TimeUnit unit) {
+        long since = pendingSince;
+        if (since == 0) {
+            return 0;
+        }
+        return unit.convert(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Return the number of times a producer has been blocked.
+     * @return The number of times a producer has been blocked.
+     */
+    public long getBlockCount() {
+        return blockCount.get();
+    }
+    
+    /**
+     * Return the total time producers have been blocked.
+     * @param unit The time unit of the returned value.
+     * @return The total time producers have been blocked.
+     */
+    public long getBlockTime(TimeUnit unit) {
+        return unit.convert(blockTime.get(), TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Return the number of times waiting changes have been coalesced into a
+     * refresh of the whole list.
+     * @return The number of times waiting changes have been coalesced.
+     */
+    public long getCoalesceCount() {
+        return coalesceCount.get();
+    }
+    
+    /**
+     * Return the number of dropped modify changes.
+     * @return The number of dropped modify changes.
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+    
+    /**
+     * Return the number of times the assembler queue has been full and the
+     * whole list has been refreshed.
+     * @return The number of queue overflows.
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+    
+    /**
+     * Return the number of changes the assembler queue can hold.
+     * @return The queue capacity.
+     */
+    public int getCapacity() {
+        return assembler.getCapacity();
+    }
+    
+    /**
+     * Block the calling thread while the AWT event-dispatching thread is late
+     * and the policy is <tt>BLOCK</tt>. The method returns immediately when
+     * called by the AWT event-dispatching thread or by a thread that holds,
+     * or may hold, the source list lock, because waiting would deadlock: only
+     * the ownership of a <tt>ReentrantReadWriteLock</tt> can be checked, so
+     * with other locks the calling thread is never blocked.
+     */
+    public void awaitCapacity() {
+        
+        if ((policy != BackpressurePolicy.BLOCK) || !isOverloaded()
+                || EventQueue.isDispatchThread() || mayHoldLock()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean blocked = false;
+        synchronized (this) {
+            while ((policy == BackpressurePolicy.BLOCK) && isOverloaded()) {
+                blocked = true;
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (blocked) {
+            blockCount.incrementAndGet();
+            blockTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Runnable interface implementation.
      */
@@ -136,11 +392,38 @@ class EventRunner<E> implements Runnable, ActiveListListener {
         srcList.getReadWriteLock().readLock().lock();
         
         try {
+            
+            // Changes queued from now on post a new execution.
+            
+            scheduled.set(false);
 
             // Retrieve all events.
             
-            while (!assembler.isEmpty()) {
-                events.add(assembler.pop());
+            int count;
+            int modX;
+            int modY;
+            synchronized (this) {
+                count = assembler.assemble();
+                modX = dirtyX;
+                modY = dirtyY;
+                dirtyX = -1;
+                dirtyY = -1;
+            }
+            
+            if (refresh || isRefreshDue(modX, modY)) {
+                refresh = false;
+                assembler.clear();
+                modX = -1;
+                if (refreshThreshold > 0) {
+                    ActiveListEvent event = new ActiveListEvent(srcList);
+                    event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+                    event.setX(0);
+                    event.setY(srcList.size() - 1);
+                    events.add(event);
+                } else {
+                    events.addAll(ActiveListUtility.difference(
+                        dstList.size(), srcList.size(), srcList));
+                }
             }
             
             // Synchronize the swing list with the source multithreated list.
@@ -158,30 +441,40 @@ class EventRunner<E> implements Runnable, ActiveListListener {
             // Fire events inside the AWT event-dispatching thread.
             
             int seq = 0;
-            int lastSeq = events.size() - 1;
+            int lastSeq = events.size() + assembler.size() - 1;
+            if (modX >= 0) {
+                lastSeq++;
+            }
             
-            Iterator<ActiveListEvent> iter = events.iterator();
-            while (iter.hasNext()) {
-                
-                ActiveListEvent event = iter.next();
-                iter.remove();
-    
-                ActiveListUtility.synchronize(srcList, dstList, event);
-                
-                // Change event source list and fire the new event.
-    
-                ActiveListEvent bridgeEvent = new ActiveListEvent(list);
-                bridgeEvent.setType(event.getType());
-                bridgeEvent.setX(event.getX());
-                bridgeEvent.setY(event.getY());
-                bridgeEvent.setSequenceNumber(seq++);
-                bridgeEvent.setLastSequenceNumber(lastSeq);
-                list.fireContentsChanged(bridgeEvent);
+            for (ActiveListEvent event : events) {
+                fireChange(event.getType(), event.getX(), event.getY(),
+                    event.getToIndex(), seq++, lastSeq);
+            }
+            events.clear();
+            
+            for (int i = 0; i < assembler.size(); i++) {
+                fireChange(assembler.getType(i), assembler.getX(i),
+                    assembler.getY(i), assembler.getToIndex(i), seq++,
+                    lastSeq);
+            }
+            assembler.clear();
+            
+            // Modify changes dropped after the other ones.
+            
+            if (modX >= 0) {
+                fireChange(ActiveListEvent.CONTENTS_CHANGED, modX, modY, modX,
+                    seq++, lastSeq);
             }
         
             list.setActive(activated);
             
-            scheduled = false;
+            // Wake up blocked producers.
+            
+            synchronized (this) {
+                depth.addAndGet(-count);
+                pendingSince = 0;
+                notifyAll();
+            }
             
         } finally {
             srcList.getReadWriteLock().readLock().unlock();
@@ -200,11 +493,241 @@ class EventRunner<E> implements Runnable, ActiveListListener {
      * @param event The collected event.
      */
     public void contentsChanged(ActiveListEvent event) {
+        schedule(event.getType(), event.getX(), event.getY(),
+            event.getToIndex());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        schedule(ActiveListEvent.INTERVAL_ADDED, x, y, x);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        schedule(ActiveListEvent.INTERVAL_REMOVED, x, y, x);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        schedule(ActiveListEvent.CONTENTS_CHANGED, x, y, x);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Queue the given change into the assembler and schedule its execution by
+     * the AWT event-dispatching thread. When the AWT event-dispatching thread
+     * is late the backpressure policy is applied. This method can be called by
+     * many threads at once: it locks the runner monitor only to drop modify
+     * changes.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     */
+    private void schedule(int type, int x, int y, int toIndex) {
+        
+        if (!scheduled.get()) {
+            pendingSince = System.nanoTime();
+        }
         
-        assembler.push(event);
-        if (!scheduled) {
-            scheduled = true;
+        if (!refresh) {
+            BackpressurePolicy currentPolicy = policy;
+            if ((currentPolicy == BackpressurePolicy.COALESCE)
+                    && isOverloaded()) {
+                
+                // Discard all waiting changes: the list will be refreshed.
+                
+                refresh = true;
+                coalesceCount.incrementAndGet();
+                
+            } else if ((currentPolicy
+                    == BackpressurePolicy.DROP_CONTENTS_CHANGED)
+                    || (dirtyX >= 0)) {
+                
+                synchronized (this) {
+                    if ((currentPolicy
+                            == BackpressurePolicy.DROP_CONTENTS_CHANGED)
+                            && (type == ActiveListEvent.CONTENTS_CHANGED)
+                            && isOverloaded()) {
+                        
+                        // Extend the interval covering all dropped changes.
+                        
+                        if (dirtyX < 0) {
+                            dirtyX = x;
+                            dirtyY = y;
+                        } else {
+                            dirtyX = Math.min(dirtyX, x);
+                            dirtyY = Math.max(dirtyY, y);
+                        }
+                        dropCount.incrementAndGet();
+                        
+                    } else {
+                        if ((dirtyX >= 0)
+                                && (type != ActiveListEvent.CONTENTS_CHANGED)) {
+                            moveDirtyInterval(type, x, y, toIndex);
+                        }
+                        enqueue(type, x, y, toIndex);
+                    }
+                }
+                
+            } else {
+                enqueue(type, x, y, toIndex);
+            }
+        }
+        
+        if (scheduled.compareAndSet(false, true)) {
             EventQueue.invokeLater(this);
         }
     }
+    
+    /**
+     * Queue the given change into the assembler. If the assembler queue is
+     * full the list will be refreshed.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     */
+    private void enqueue(int type, int x, int y, int toIndex) {
+        if (assembler.offer(srcList, type, x, y, toIndex)) {
+            depth.incrementAndGet();
+        } else {
+            refresh = true;
+            overflowCount.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Synchronize the cached list with the given change and fire it.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @param sequenceNumber The change position inside the sequence.
+     * @param lastSequenceNumber The last position inside the sequence.
+     */
+    private void fireChange(int type, int x, int y, int toIndex,
+            int sequenceNumber, int lastSequenceNumber) {
+        
+        ActiveListUtility.synchronize(srcList, dstList, type, x, y, toIndex);
+        
+        // Change event source list and fire the change.
+        
+        if (type == ActiveListEvent.INTERVAL_MOVED) {
+            ActiveListEvent event = new ActiveListEvent(list);
+            event.setType(type);
+            event.setX(x);
+            event.setY(y);
+            event.setToIndex(toIndex);
+            event.setSequenceNumber(sequenceNumber);
+            event.setLastSequenceNumber(lastSequenceNumber);
+            list.fireContentsChanged(event);
+        } else {
+            list.fireContentsChanged(type, x, y, sequenceNumber,
+                lastSequenceNumber);
+        }
+    }
+    
+    /**
+     * Move the interval covering all dropped modify changes according to the
+     * given add, remove or move change.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     */
+    private void moveDirtyInterval(int type, int x, int y, int toIndex) {
+        if (type == ActiveListEvent.INTERVAL_MOVED) {
+            moveDirtyInterval(ActiveListEvent.INTERVAL_REMOVED, x, y, x);
+            if (dirtyX >= 0) {
+                moveDirtyInterval(ActiveListEvent.INTERVAL_ADDED, toIndex,
+                    toIndex + y - x, toIndex);
+            }
+            return;
+        }
+        int length = y - x + 1;
+        if (type == ActiveListEvent.INTERVAL_ADDED) {
+            if (x <= dirtyX) {
+                dirtyX += length;
+                dirtyY += length;
+            } else if (x <= dirtyY) {
+                dirtyY += length;
+            }
+        } else if (y < dirtyX) {
+            dirtyX -= length;
+            dirtyY -= length;
+        } else if (x <= dirtyY) {
+            dirtyY -= Math.min(y, dirtyY) - x + 1;
+            dirtyX = Math.min(dirtyX, x);
+            if (dirtyY < dirtyX) {
+                dirtyX = -1;
+                dirtyY = -1;
+            }
+        }
+    }
+    
+    /**
+     * Return true if the waiting events touch enough of the list to be
+     * replaced by a single <tt>STRUCTURE_CHANGED</tt> event.
+     * @param modX The first index of the interval covering all dropped modify
+     *     changes (-1 if none).
+     * @param modY The last index of the interval covering all dropped modify
+     *     changes (-1 if none).
+     * @return True if the whole list must be copied.
+     */
+    private boolean isRefreshDue(int modX, int modY) {
+        
+        double threshold = refreshThreshold;
+        if (threshold <= 0) {
+            return false;
+        }
+        int count = assembler.size();
+        int length = assembler.getLength();
+        if (modX >= 0) {
+            count++;
+            length += modY - modX + 1;
+        }
+        int size = Math.max(dstList.size(), srcList.size());
+        return (count > 1) && (length >= threshold * size);
+    }
+    
+    /**
+     * Return true if the AWT event-dispatching thread is late, false
+     * otherwise.
+     * @return True if too many events or too old changes are waiting to be
+     *     notified.
+     */
+    private boolean isOverloaded() {
+        if (depth.get() >= maxDepth) {
+            return true;
+        }
+        long lag = maxLag;
+        long since = pendingSince;
+        return (lag > 0) && (since != 0) && (System.nanoTime() - since > lag);
+    }
+    
+    /**
+     * Return true if the calling thread holds the source list lock or if it
+     * cannot be known, false if it surely doesn't.
+     * @return True if the calling thread may hold the source list lock.
+     */
+    private boolean mayHoldLock() {
+        ReadWriteLock lock = srcList.getReadWriteLock();
+        if (lock instanceof ReentrantReadWriteLock) {
+            ReentrantReadWriteLock rwl = (ReentrantReadWriteLock) lock;
+            return rwl.isWriteLockedByCurrentThread()
+                || (rwl.getReadHoldCount() > 0);
+        }
+        return true;
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * ColumnarTableStructure.java
+ *
+ * Created on 18 October 2026, 14.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.swing.adapters;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.columnar.ColumnarActiveList;
+import org.kineticsystem.commons.data.model.columnar.DefaultRow;
+import org.kineticsystem.commons.data.model.columnar.Row;
+
+/**
+ * This object is used to extract values from the rows of a
+ * <tt>ColumnarActiveList</tt> to display them in a table component. Each table
+ * column is mapped to a list column, so a cell is read by a direct access to
+ * the column array without Java Bean Introspection.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ * @see ColumnarActiveList
+ */
+public class ColumnarTableStructure implements TableStructure {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /**
+     * The list column displayed at each table column. A negative index
+     * displays the row itself.
+     */
+    private int[] columns;
+
+    /** The names of the columns to be displayed by a table component. */
+    private String[] columnLabels;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructors.
+     */
+
+    /**
+     * Create a formatter retrieving values from the given list columns.
+     * @param columns The list column index displayed at each table column. A
+     *     negative index displays the row itself.
+     * @param columnLabels The names of the columns to be displayed by a table
+     *     component.
+     */
+    public ColumnarTableStructure(int[] columns, String[] columnLabels) {
+        this.columns = columns;
+        this.columnLabels = columnLabels;
+    }
+
+    /**
+     * Create a formatter retrieving values from the list columns with the
+     * given names.
+     * @param list The list to be displayed.
+     * @param columnNames The name of the list column displayed at each table
+     *     column. A null name displays the row itself.
+     * @param columnLabels The names of the columns to be displayed by a table
+     *     component.
+     * @throws IllegalArgumentException If a column name does not exist.
+     */
+    public ColumnarTableStructure(ColumnarActiveList list,
+            String[] columnNames, String[] columnLabels) {
+
+        this.columns = new int[columnNames.length];
+        this.columnLabels = columnLabels;
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i] == null) {
+                columns[i] = -1;
+            } else {
+                columns[i] = list.getColumnIndex(columnNames[i]);
+                if (columns[i] == -1) {
+                    throw new IllegalArgumentException("Unknown column: "
+                        + columnNames[i]);
+                }
+            }
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * TableStructure interface implementation.
+     */
+
+    /** {@inheritDoc} */
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    /** {@inheritDoc} */
+    public String getColumnLabel(int column) {
+        return columnLabels[column];
+    }
+
+    /** {@inheritDoc} */
+    public Object getColumnValue(Object obj, int column) {
+        if (columns[column] < 0) {
+            return obj; // Return the row itself.
+        } else {
+            return ((Row) obj).getValue(columns[column]);
+        }
+    }
+
+    /**
+     * Return a detached copy of the given row containing the new value. The
+     * copy must be set into the list to apply the change.
+     * {@inheritDoc}
+     */
+    public Object setColumnValue(Object modifiedObject, Object modifiedValue,
+            int column) {
+
+        if (columns[column] < 0) {
+            return modifiedValue;
+        }
+
+        Row row = (Row) modifiedObject;
+        Object[] values = new Object[row.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        values[columns[column]] = modifiedValue;
+        return new DefaultRow(values);
+    }
+}
@@ -32,7 +32,7 @@ import javax.swing.event.ListDataListener;
 // Application classes.
 
 import org.kineticsystem.commons.data.model.ActiveListEvent;
-import org.kineticsystem.commons.data.model.ActiveListListener;
+import org.kineticsystem.commons.data.model.PrimitiveActiveListListener;
 
 /**
  * This component is used to transform <tt>ActiveListEvent</tt> events to
@@ -43,7 +43,7 @@ import org.kineticsystem.commons.data.model.ActiveListListener;
  * @author Giovanni Remigi
  * @version $Revision: 44 $
  */
-class ListDataListenerDispatcher implements ActiveListListener {
+class ListDataListenerDispatcher implements PrimitiveActiveListListener {
     
     /* /////////////////////////////////////////////////////////////////////////
      * Private variables.
@@ -77,33 +77,44 @@ class ListDataListenerDispatcher implements ActiveListListener {
      */
     
     public void contentsChanged(ActiveListEvent event) {
-        switch (event.getType()) {
-            case ActiveListEvent.CONTENTS_CHANGED: {
-                
-                ListDataEvent e = new ListDataEvent(source,
-                    ListDataEvent.CONTENTS_CHANGED,
-                    event.getX(), event.getY());
-                fireContentsChanged(e);
-                break;
-            }
-            case ActiveListEvent.INTERVAL_ADDED: {
-                
-                ListDataEvent e = new ListDataEvent(source,
-                    ListDataEvent.INTERVAL_ADDED,
-                    event.getX(), event.getY());
-                fireIntervalAdded(e);
-                break;
-            }
-            case ActiveListEvent.INTERVAL_REMOVED: {
-                
-                ListDataEvent e = new ListDataEvent(source,
-                    ListDataEvent.INTERVAL_REMOVED,
-                    event.getX(), event.getY());
-                fireIntervalRemoved(e);
-                break;
-            }
+        if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            
+            /*
+             * Only the rows between the old and the new position of the moved
+             * items change: the band is updated instead of removing and
+             * inserting the moved rows.
+             */
+            
+            int toIndex = event.getToIndex();
+            dispatch(ActiveListEvent.CONTENTS_CHANGED,
+                Math.min(event.getX(), toIndex),
+                Math.max(event.getY(), toIndex + event.getY() - event.getX()));
+        } else {
+            dispatch(event.getType(), event.getX(), event.getY());
         }
-    }   
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        dispatch(ActiveListEvent.INTERVAL_ADDED, x, y);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        dispatch(ActiveListEvent.INTERVAL_REMOVED, x, y);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        dispatch(ActiveListEvent.CONTENTS_CHANGED, x, y);
+    }
     
     /* /////////////////////////////////////////////////////////////////////////
      * Private methods.
@@ -138,4 +149,46 @@ class ListDataListenerDispatcher implements ActiveListListener {
             }          
         }
     }
+    
+    /**
+     * Translate the given change into a <tt>ListDataEvent</tt> event and fire
+     * it.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void dispatch(int type, int x, int y) {
+        switch (type) {
+            case ActiveListEvent.CONTENTS_CHANGED: {
+                
+                ListDataEvent e = new ListDataEvent(source,
+                    ListDataEvent.CONTENTS_CHANGED, x, y);
+                fireContentsChanged(e);
+                break;
+            }
+            case ActiveListEvent.INTERVAL_ADDED: {
+                
+                ListDataEvent e = new ListDataEvent(source,
+                    ListDataEvent.INTERVAL_ADDED, x, y);
+                fireIntervalAdded(e);
+                break;
+            }
+            case ActiveListEvent.INTERVAL_REMOVED: {
+                
+                ListDataEvent e = new ListDataEvent(source,
+                    ListDataEvent.INTERVAL_REMOVED, x, y);
+                fireIntervalRemoved(e);
+                break;
+            }
+            case ActiveListEvent.STRUCTURE_CHANGED: {
+                
+                // The whole list changed: the interval is unknown.
+                
+                ListDataEvent e = new ListDataEvent(source,
+                    ListDataEvent.CONTENTS_CHANGED, -1, -1);
+                fireContentsChanged(e);
+                break;
+            }
+        }
+    }
 }
@@ -33,7 +33,7 @@ import javax.swing.table.TableModel;
 // Application classes.
 
 import org.kineticsystem.commons.data.model.ActiveListEvent;
-import org.kineticsystem.commons.data.model.ActiveListListener;
+import org.kineticsystem.commons.data.model.PrimitiveActiveListListener;
 
 /**
  * This component is used to transform <tt>ActiveListEvent</tt> events to
@@ -44,7 +44,7 @@ import org.kineticsystem.commons.data.model.ActiveListListener;
  * @author Giovanni Remigi
  * @version $Revision: 170 $
  */
-class TableModelListenerDispatcher implements ActiveListListener {
+class TableModelListenerDispatcher implements PrimitiveActiveListListener {
     
     /* /////////////////////////////////////////////////////////////////////////
      * Private variables.
@@ -78,45 +78,104 @@ class TableModelListenerDispatcher implements ActiveListListener {
      */
     
     public void contentsChanged(ActiveListEvent event) {
-        switch (event.getType()) {
+        if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            
+            /*
+             * Only the rows between the old and the new position of the moved
+             * items change: the band is updated instead of removing and
+             * inserting the moved rows.
+             */
+            
+            int toIndex = event.getToIndex();
+            dispatch(ActiveListEvent.CONTENTS_CHANGED,
+                Math.min(event.getX(), toIndex),
+                Math.max(event.getY(), toIndex + event.getY() - event.getX()));
+        } else {
+            dispatch(event.getType(), event.getX(), event.getY());
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * PrimitiveActiveListListener interface implementation.
+     */
+    
+    /** {@inheritDoc} */
+    public void intervalAdded(Object source, int x, int y, int sequenceNumber,
+            int lastSequenceNumber) {
+        dispatch(ActiveListEvent.INTERVAL_ADDED, x, y);
+    }
+    
+    /** {@inheritDoc} */
+    public void intervalRemoved(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        dispatch(ActiveListEvent.INTERVAL_REMOVED, x, y);
+    }
+    
+    /** {@inheritDoc} */
+    public void contentsChanged(Object source, int x, int y,
+            int sequenceNumber, int lastSequenceNumber) {
+        dispatch(ActiveListEvent.CONTENTS_CHANGED, x, y);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Package scope methods.
+     */
+    
+    void fireTableChanged(TableModelEvent e) {
+
+        Object[] listeners = listenerList.getListenerList();
+        for (int i = listeners.length - 2; i >= 0; i -= 2) {
+            if (listeners[i] == TableModelListener.class) {
+                ((TableModelListener) listeners[i+1]).tableChanged(e);
+            }          
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Translate the given change into a <tt>TableModelEvent</tt> event and
+     * fire it.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     */
+    private void dispatch(int type, int x, int y) {
+        switch (type) {
             case ActiveListEvent.CONTENTS_CHANGED: {
 
-                TableModelEvent e = new TableModelEvent(source, event.getX(),
-                    event.getY(), TableModelEvent.ALL_COLUMNS, 
+                TableModelEvent e = new TableModelEvent(source, x, y,
+                    TableModelEvent.ALL_COLUMNS, 
                     TableModelEvent.UPDATE);
                 fireTableChanged(e);
                 break;
             }
             case ActiveListEvent.INTERVAL_ADDED: {
                 
-                TableModelEvent e = new TableModelEvent(source, event.getX(),
-                    event.getY(), TableModelEvent.ALL_COLUMNS,
+                TableModelEvent e = new TableModelEvent(source, x, y,
+                    TableModelEvent.ALL_COLUMNS,
                     TableModelEvent.INSERT);
                 fireTableChanged(e);
                 break;
             }
             case ActiveListEvent.INTERVAL_REMOVED: {
                 
-                TableModelEvent e = new TableModelEvent(source, event.getX(),
-                    event.getY(), TableModelEvent.ALL_COLUMNS, 
+                TableModelEvent e = new TableModelEvent(source, x, y,
+                    TableModelEvent.ALL_COLUMNS, 
                     TableModelEvent.DELETE);
                 fireTableChanged(e);
                 break;
             }
+            case ActiveListEvent.STRUCTURE_CHANGED: {
+                
+                // All rows changed: the table reads the whole model again.
+                
+                TableModelEvent e = new TableModelEvent(source);
+                fireTableChanged(e);
+                break;
+            }
         }
     }
-    
-    /* /////////////////////////////////////////////////////////////////////////
-     * Package scope methods.
-     */
-    
-    void fireTableChanged(TableModelEvent e) {
-
-        Object[] listeners = listenerList.getListenerList();
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == TableModelListener.class) {
-                ((TableModelListener) listeners[i+1]).tableChanged(e);
-            }          
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,232 @@
+/*
+ * TreeListTest.java
+ *
+ * Created on 18 October 2026, 17.50
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.collections;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>TreeList</tt> class: the list must behave exactly like an
+ * <tt>ArrayList</tt> whatever the sequence of changes.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class TreeListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public TreeListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(TreeListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(TreeListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test the positional methods on a small list. */
+    public void testPositionalAccess() {
+
+        List<String> list = new TreeList<String>();
+        assertTrue(list.isEmpty());
+
+        list.add("b");
+        list.add(0, "a");
+        list.add("d");
+        list.add(2, "c");
+        assertEquals(Arrays.asList("a", "b", "c", "d"), list);
+
+        assertEquals("c", list.set(2, "C"));
+        assertEquals("b", list.remove(1));
+        assertEquals(Arrays.asList("a", "C", "d"), list);
+        assertEquals(2, list.indexOf("d"));
+
+        list.add(1, null);
+        assertEquals(1, list.indexOf(null));
+        assertNull(list.get(1));
+
+        list.clear();
+        assertEquals(0, list.size());
+    }
+
+    /** Test that indexes out of range are rejected. */
+    public void testRangeCheck() {
+
+        List<Integer> list = new TreeList<Integer>(Arrays.asList(1, 2, 3));
+        int[] invalid = {-1, 3};
+        for (int index : invalid) {
+            try {
+                list.get(index);
+                fail("Index out of range: " + index);
+            } catch (IndexOutOfBoundsException ex) {
+                // Expected.
+            }
+            try {
+                list.remove(index);
+                fail("Index out of range: " + index);
+            } catch (IndexOutOfBoundsException ex) {
+                // Expected.
+            }
+        }
+        try {
+            list.add(4, 4);
+            fail("Index out of range: 4");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+        list.add(3, 4);
+        assertEquals(Arrays.asList(1, 2, 3, 4), list);
+    }
+
+    /** Test the linear time constructor with lists of several sizes. */
+    public void testBuild() {
+
+        for (int size = 0; size < 70; size++) {
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < size; i++) {
+                expected.add(i);
+            }
+            TreeList<Integer> list = new TreeList<Integer>(expected);
+            assertEquals(expected, list);
+
+            // The built tree must stay consistent when modified.
+
+            list.add(size / 2, -1);
+            expected.add(size / 2, -1);
+            assertEquals(expected, list);
+        }
+    }
+
+    /** Test that iterators detect concurrent modifications. */
+    public void testFailFastIterator() {
+
+        List<Integer> list = new TreeList<Integer>(Arrays.asList(1, 2, 3));
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+        list.add(4);
+        try {
+            iterator.next();
+            fail("Concurrent modification not detected!");
+        } catch (ConcurrentModificationException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test, with long random sequences of changes mostly made in the middle
+     * of the list, that the list always equals an <tt>ArrayList</tt> changed
+     * the same way.
+     */
+    public void testRandomChanges() {
+
+        Random random = new Random(5);
+        List<Integer> expected = new ArrayList<Integer>();
+        List<Integer> list = new TreeList<Integer>();
+
+        for (int i = 0; i < 20000; i++) {
+            int size = expected.size();
+            int index = random.nextInt(size + 1);
+            int value = random.nextInt();
+            switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                expected.add(index, value);
+                list.add(index, value);
+                break;
+            case 2:
+                if (size > 0) {
+                    index = random.nextInt(size);
+                    assertEquals(expected.remove(index), list.remove(index));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    index = random.nextInt(size);
+                    assertEquals(expected.set(index, value),
+                        list.set(index, value));
+                }
+                break;
+            default:
+                int to = Math.min(size, index + random.nextInt(4));
+                expected.subList(index, to).clear();
+                list.subList(index, to).clear();
+                break;
+            }
+            assertEquals(expected.size(), list.size());
+            if (i % 100 == 0) {
+                assertEquals(expected, list);
+            }
+        }
+        assertEquals(expected, list);
+    }
+
+    /** Test ascending and descending insertions, worst cases for balance. */
+    public void testSequentialInsertions() {
+
+        List<Integer> list = new TreeList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+            list.add(0, -i - 1);
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(Integer.valueOf(i - 1000), list.get(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            list.remove(0);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+    }
+}
@@ -31,7 +31,13 @@ import junit.framework.*;
 
 // Java classes.
 
+import org.kineticsystem.commons.collections.*;
+import org.kineticsystem.commons.data.controller.*;
 import org.kineticsystem.commons.data.model.*;
+import org.kineticsystem.commons.data.model.columnar.*;
+import org.kineticsystem.commons.data.model.flow.*;
+import org.kineticsystem.commons.data.model.persistence.*;
+import org.kineticsystem.commons.data.model.swing.*;
 
 /**
  * Test case.
@@ -61,6 +67,28 @@ public class AllTests extends TestCase {
         TestSuite ts = new TestSuite(AllTests.class);
         ts.addTest(new TestSuite(DefaultAssemblerTest.class));
         ts.addTest(new TestSuite(DefaultAssemblerRandomTest.class));
+        ts.addTest(new TestSuite(IndexedAssemblerTest.class));
+        ts.addTest(new TestSuite(PackedAssemblerTest.class));
+        ts.addTest(new TestSuite(ConcurrentAssemblerTest.class));
+        ts.addTest(new TestSuite(DefaultActiveListTest.class));
+        ts.addTest(new TestSuite(SnapshotActiveListTest.class));
+        ts.addTest(new TestSuite(TransactionTest.class));
+        ts.addTest(new TestSuite(SegmentedActiveListTest.class));
+        ts.addTest(new TestSuite(StampedActiveListTest.class));
+        ts.addTest(new TestSuite(PrimitiveActiveListTest.class));
+        ts.addTest(new TestSuite(QueuedActiveListListenerTest.class));
+        ts.addTest(new TestSuite(ViewportActiveListListenerTest.class));
+        ts.addTest(new TestSuite(ActiveListInstrumentationTest.class));
+        ts.addTest(new TestSuite(ActiveListEventMultiplexerTest.class));
+        ts.addTest(new TestSuite(DataListTest.class));
+        ts.addTest(new TestSuite(ActiveListPublisherTest.class));
+        ts.addTest(new TestSuite(ActiveListJournalTest.class));
+        ts.addTest(new TestSuite(WriteAheadLogTest.class));
+        ts.addTest(new TestSuite(EventRecorderTest.class));
+        ts.addTest(new TestSuite(MappedSnapshotListTest.class));
+        ts.addTest(new TestSuite(ColumnarListTest.class));
+        ts.addTest(new TestSuite(TreeListTest.class));
+        ts.addTest(new TestSuite(NavigatorTest.class));
         return ts;
     }
 
@@ -0,0 +1,173 @@
+/*
+ * NavigatorTest.java
+ *
+ * Created on 18 October 2026, 23.20
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.controller;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>Navigator</tt> class: the navigator must follow the
+ * selected object when the objects of a sorted list are moved.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class NavigatorTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The source list. */
+    private DefaultActiveList<Integer> source;
+
+    /** The sorted list navigated by the navigator. */
+    private ActiveList<Integer> sorted;
+
+    /** The navigator to be tested. */
+    private Navigator navigator;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public NavigatorTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(NavigatorTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(NavigatorTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        source = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i * 10);
+        }
+        SortMapping<Integer> mapping = new SortMapping<Integer>(source);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i1.compareTo(i2);
+            }
+        });
+        mapping.rebuild();
+        sorted = (ActiveList<Integer>) mapping.getTarget();
+        navigator = new Navigator();
+        navigator.setModel(sorted);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test how the navigator follows moves. */
+    public void testMove() {
+
+        navigator.moveTo(50);
+        Object selected = navigator.getSelectedObject();
+
+        // Objects moved across the selected one.
+
+        source.set(10, 995);
+        assertEquals(49, navigator.getPosition());
+        assertSame(selected, navigator.getSelectedObject());
+        source.set(80, -5);
+        assertEquals(50, navigator.getPosition());
+        assertSame(selected, navigator.getSelectedObject());
+
+        // Objects moved on the same side of the selected one.
+
+        source.set(20, 15);
+        source.set(90, 935);
+        assertEquals(50, navigator.getPosition());
+        assertSame(selected, navigator.getSelectedObject());
+
+        // The selected object moved.
+
+        source.set(50, 725);
+        assertEquals(72, navigator.getPosition());
+        assertEquals(Integer.valueOf(725), navigator.getSelectedObject());
+        assertTrue(navigator.isMoveBackEnabled());
+        assertTrue(navigator.isMoveForwardEnabled());
+    }
+
+    /**
+     * Test, with random moves, that the navigator always selects the object
+     * at its position and keeps it while other objects are moved.
+     */
+    public void testRandomMoves() {
+
+        Random random = new Random(4);
+        navigator.moveTo(random.nextInt(sorted.size()));
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(source.size());
+            Integer value = Integer.valueOf(
+                random.nextInt(1000) * 10000 + 1000 + i);
+            Object selected = navigator.getSelectedObject();
+            boolean moved = (source.get(index) == selected);
+            source.set(index, value);
+            if (moved) {
+                assertSame(value, navigator.getSelectedObject());
+            } else {
+                assertSame(selected, navigator.getSelectedObject());
+            }
+            assertSame(sorted.get(navigator.getPosition()),
+                navigator.getSelectedObject());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * ActiveListBenchmark.java
+ *
+ * Created on 18 October 2026, 17.45
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark comparing the throughput of <tt>DefaultActiveList</tt> and
+ * <tt>StampedActiveList</tt> with 1, 4 and 16 threads. Each thread reads the
+ * list size and a random element and, once every ten operations, replaces a
+ * random element, as a list polled by many readers while being modified.
+ * Launch it as a command line application.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListBenchmark {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private constants.
+     */
+    
+    /** The list size. */
+    private static final int LIST_SIZE = 10000;
+    
+    /** The time spent by each run in milliseconds. */
+    private static final long RUN_TIME = 2000;
+    
+    /** The number of threads of each run. */
+    private static final int[] THREADS = {1, 4, 16};
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Main method.
+     */
+    
+    /**
+     * Launch the benchmark printing the throughput in operations per second.
+     * @param args Command line arguments.
+     * @throws InterruptedException If the benchmark is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        
+        System.out.println("threads\tDefaultActiveList\tStampedActiveList");
+        for (int threads : THREADS) {
+            
+            // Warm up.
+            
+            run(new DefaultActiveList<Integer>(), threads);
+            run(new StampedActiveList<Integer>(), threads);
+            
+            long defaultOps = run(new DefaultActiveList<Integer>(), threads);
+            long stampedOps = run(new StampedActiveList<Integer>(), threads);
+            System.out.println(threads + "\t" + defaultOps + "\t\t\t"
+                + stampedOps);
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Run the given number of threads on the given list.
+     * @param list The list to be tested.
+     * @param threads The number of threads.
+     * @return The number of operations per second.
+     * @throws InterruptedException If the benchmark is interrupted.
+     */
+    private static long run(final ActiveList<Integer> list, int threads)
+            throws InterruptedException {
+        
+        for (int i = 0; i < LIST_SIZE; i++) {
+            list.add(new Integer(i));
+        }
+        
+        final AtomicLong operations = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        final long[] end = new long[1];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final Random random = new Random(i);
+            workers[i] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    long count = 0;
+                    while (System.currentTimeMillis() < end[0]) {
+                        int index = random.nextInt(LIST_SIZE);
+                        if (count % 10 == 9) {
+                            list.set(index, new Integer(index));
+                        } else if (list.size() > index) {
+                            list.get(index);
+                        }
+                        count++;
+                    }
+                    operations.addAndGet(count);
+                }
+            };
+            workers[i].start();
+        }
+        
+        end[0] = System.currentTimeMillis() + RUN_TIME;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.get() * 1000 / RUN_TIME;
+    }
+}
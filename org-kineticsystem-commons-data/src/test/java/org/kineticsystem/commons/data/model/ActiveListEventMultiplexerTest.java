@@ -0,0 +1,156 @@
+/*
+ * ActiveListEventMultiplexerTest.java
+ *
+ * Created on 18 October 2026, 23.00
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>ActiveListEventMultiplexer</tt> class notifying
+ * listeners in parallel.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListEventMultiplexerTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The executor notifying the listeners. */
+    private ExecutorService executor;
+
+    /** The multiplexer to be tested. */
+    private ActiveListEventMultiplexer multiplexer;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ActiveListEventMultiplexerTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ActiveListEventMultiplexerTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ActiveListEventMultiplexerTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        multiplexer = new ActiveListEventMultiplexer(executor, true);
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that each listener receives its own copy of each event, in the
+     * order the events were sent, even if other listeners modify theirs.
+     */
+    public void testPrivateCopies() {
+
+        final List<ActiveListEvent> received =
+            Collections.synchronizedList(new ArrayList<ActiveListEvent>());
+        final List<String> errors =
+            Collections.synchronizedList(new ArrayList<String>());
+        for (int l = 0; l < 4; l++) {
+            multiplexer.addActiveListListener(new ActiveListListener() {
+                private int expected = 0;
+                public void contentsChanged(ActiveListEvent event) {
+                    if ((event.getX() != expected)
+                            || (event.getY() != expected + 1)
+                            || (event.getToIndex() != expected + 2)) {
+                        errors.add("Unexpected event " + event.getX()
+                            + " instead of " + expected);
+                    }
+                    received.add(event);
+                    expected++;
+
+                    // Modify the received event.
+
+                    event.setX(-1);
+                    event.setY(-1);
+                    event.setToIndex(-1);
+                }
+            });
+        }
+
+        for (int i = 0; i < 500; i++) {
+            ActiveListEvent event = new ActiveListEvent(this);
+            event.setType(ActiveListEvent.INTERVAL_MOVED);
+            event.setX(i);
+            event.setY(i + 1);
+            event.setToIndex(i + 2);
+            event.setSequenceNumber(i % 10);
+            event.setLastSequenceNumber(9);
+            multiplexer.fireContentsChanged(event);
+            assertEquals(i, event.getX());
+        }
+
+        // The barrier waits for all listeners at the end of each sequence.
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(4 * 500, received.size());
+        Set<ActiveListEvent> copies = Collections.newSetFromMap(
+            new IdentityHashMap<ActiveListEvent, Boolean>());
+        copies.addAll(received);
+        assertEquals(received.size(), copies.size());
+    }
+}
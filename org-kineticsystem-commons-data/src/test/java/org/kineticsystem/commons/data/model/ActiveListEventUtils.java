@@ -39,8 +39,15 @@ public class ActiveListEventUtils {
             out = "DEL";
         } else if (event.getType() == ActiveListEvent.CONTENTS_CHANGED) {
             out = "MOD";
+        } else if (event.getType() == ActiveListEvent.STRUCTURE_CHANGED) {
+            out = "REF";
+        } else if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            out = "MOV";
         }
         out += "(" + event.getX() + ", " + event.getY() + ")";
+        if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+            out += "->" + event.getToIndex();
+        }
         return out;
     }
 }
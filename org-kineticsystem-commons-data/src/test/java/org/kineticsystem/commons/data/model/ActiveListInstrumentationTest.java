@@ -0,0 +1,242 @@
+/*
+ * ActiveListInstrumentationTest.java
+ *
+ * Created on 18 October 2026, 22.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>ActiveListInstrumentation</tt> class.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListInstrumentationTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The instrumented list. */
+    private DefaultActiveList<Integer> list;
+
+    /** The instrumentation to be tested. */
+    private ActiveListInstrumentation instrumentation;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ActiveListInstrumentationTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ActiveListInstrumentationTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ActiveListInstrumentationTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new DefaultActiveList<Integer>();
+        instrumentation = new ActiveListInstrumentation();
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that installing an instrumentation does not replace the list lock
+     * and that lock times are recorded only while enabled.
+     */
+    public void testLockTimes() {
+
+        ReadWriteLock lock = list.getReadWriteLock();
+        assertTrue(lock instanceof ReentrantReadWriteLock);
+        list.setInstrumentation(instrumentation);
+        assertSame(lock, list.getReadWriteLock());
+
+        list.add(1);
+        list.get(0);
+        assertEquals(1, instrumentation.getWriteLockWaitHistogram().getCount());
+        assertEquals(1, instrumentation.getWriteLockHoldHistogram().getCount());
+        assertEquals(1, instrumentation.getReadLockHoldHistogram().getCount());
+
+        // Nested locks are recorded once.
+
+        lock.writeLock().lock();
+        try {
+            list.add(2);
+            assertTrue(((ReentrantReadWriteLock) lock)
+                .isWriteLockedByCurrentThread());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        assertEquals(2, instrumentation.getWriteLockHoldHistogram().getCount());
+
+        instrumentation.setEnabled(false);
+        list.add(3);
+        instrumentation.setEnabled(true);
+        list.setInstrumentation(null);
+        list.add(4);
+        assertSame(lock, list.getReadWriteLock());
+        assertEquals(2, instrumentation.getWriteLockHoldHistogram().getCount());
+        assertEquals(Arrays.asList(1, 2, 3, 4), list);
+    }
+
+    /**
+     * Test that a lock held while the instrumentation is replaced records
+     * its hold time into the instrumentation installed when it was acquired.
+     */
+    public void testReplacedWhileHeld() {
+
+        ActiveListInstrumentation other = new ActiveListInstrumentation();
+        ReadWriteLock lock = list.getReadWriteLock();
+
+        lock.writeLock().lock();
+        list.setInstrumentation(instrumentation);
+        lock.writeLock().unlock();
+        assertEquals(0, instrumentation.getWriteLockHoldHistogram().getCount());
+
+        lock.writeLock().lock();
+        list.setInstrumentation(other);
+        lock.writeLock().unlock();
+        assertEquals(1, instrumentation.getWriteLockHoldHistogram().getCount());
+        assertEquals(0, other.getWriteLockHoldHistogram().getCount());
+    }
+
+    /**
+     * Test that many threads locking the list while the instrumentation is
+     * installed and removed always release the lock they acquired.
+     */
+    public void testConcurrentReplacement() throws Exception {
+
+        final int writers = 4;
+        final int changes = 5000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int w = 0; w < writers; w++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    start.await();
+                    for (int i = 0; i < changes; i++) {
+                        list.add(i);
+                        list.get(i % list.size());
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                list.setInstrumentation(((i % 2) == 0) ? instrumentation
+                    : null);
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ReentrantReadWriteLock lock =
+            (ReentrantReadWriteLock) list.getReadWriteLock();
+        assertEquals(writers * changes, list.size());
+        assertFalse(lock.isWriteLocked());
+        assertEquals(0, lock.getReadLockCount());
+    }
+
+    /**
+     * Test that listener latencies are recorded and that the statistics of
+     * a removed listener do not keep it from being garbage collected.
+     */
+    public void testListenerLatencies() throws Exception {
+
+        list.setInstrumentation(instrumentation);
+        ActiveListListener listener = new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+            }
+        };
+        list.addActiveListListener(listener);
+        list.add(1);
+        list.add(2);
+        Map<ActiveListListener, LatencyHistogram> histograms =
+            instrumentation.getListenerHistograms();
+        assertEquals(1, histograms.size());
+        assertEquals(2, histograms.get(listener).getCount());
+        assertEquals(1, instrumentation.getListenerLatencies().length);
+
+        list.removeActiveListListener(listener);
+        WeakReference<ActiveListListener> reference =
+            new WeakReference<ActiveListListener>(listener);
+        listener = null;
+        histograms = null;
+        for (int i = 0; (i < 50) && (reference.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertTrue(instrumentation.getListenerHistograms().isEmpty());
+
+        instrumentation.reset();
+        assertEquals(0, instrumentation.getWriteLockHoldHistogram().getCount());
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * ActiveListJournalTest.java
+ *
+ * Created on 18 October 2026, 21.10
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>ActiveListJournal</tt> class: a copy of the list taken at
+ * a given version and caught up with the journaled changes must equal the
+ * list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListJournalTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The journaled list. */
+    private DefaultActiveList<Integer> list;
+
+    /** The journal to be tested. */
+    private ActiveListJournal journal;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ActiveListJournalTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ActiveListJournalTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ActiveListJournalTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new DefaultActiveList<Integer>();
+        journal = new ActiveListJournal(list, 64);
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        journal.dispose();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test that an invalid capacity is rejected. */
+    public void testCapacity() {
+        try {
+            new ActiveListJournal(list, 0);
+            fail("A journal must contain at least one change!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+
+    /** Test that the version counts the changes. */
+    public void testVersion() {
+        assertEquals(0, journal.getVersion());
+        list.add(1);
+        list.add(2);
+        list.set(0, 3);
+        list.remove(1);
+        assertEquals(4, journal.getVersion());
+        assertEquals(0, journal.getFirstVersion());
+        try {
+            journal.getChangesSince(5);
+            fail("Version 5 does not exist!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        assertTrue(journal.getChangesSince(4).isEmpty());
+    }
+
+    /**
+     * Test that the journal discards the oldest changes when full and asks
+     * for a rebuild when they are needed.
+     */
+    public void testTruncation() {
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        assertEquals(100, journal.getVersion());
+        assertEquals(36, journal.getFirstVersion());
+        assertNull(journal.getChangesSince(35));
+        assertNotNull(journal.getChangesSince(36));
+        assertFalse(journal.replay(0, new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                fail("A truncated journal cannot be replayed!");
+            }
+        }));
+    }
+
+    /**
+     * Test that a <tt>STRUCTURE_CHANGED</tt> change truncates the journal.
+     */
+    public void testStructureChanged() {
+        list.add(1);
+        list.add(2);
+        list.setActive(false);
+        list.clear();
+        list.add(3);
+        list.setActive(true);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        event.setX(0);
+        event.setY(0);
+        list.fireContentsChanged(event);
+
+        assertEquals(3, journal.getVersion());
+        assertEquals(3, journal.getFirstVersion());
+        assertNull(journal.getChangesSince(2));
+        assertTrue(journal.getChangesSince(3).isEmpty());
+        list.add(4);
+        assertEquals(1, journal.getChangesSince(3).size());
+    }
+
+    /**
+     * Test, with random changes, that copies of the list taken at random
+     * versions and caught up with the journal always equal the list.
+     */
+    public void testRandomCatchUp() {
+
+        Random random = new Random(12);
+        List<DefaultActiveList<Integer>> copies =
+            new ArrayList<DefaultActiveList<Integer>>();
+        List<Long> versions = new ArrayList<Long>();
+
+        for (int i = 0; i < 2000; i++) {
+            int size = list.size();
+            switch (random.nextInt(6)) {
+            case 0:
+            case 1:
+                list.add(random.nextInt(size + 1), random.nextInt(100));
+                break;
+            case 2:
+                if (size > 0) {
+                    list.remove(random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    list.set(random.nextInt(size), random.nextInt(100));
+                }
+                break;
+            case 4:
+                list.addAll(random.nextInt(size + 1),
+                    Arrays.asList(random.nextInt(100), random.nextInt(100)));
+                break;
+            default:
+                list.removeAll(Arrays.asList(random.nextInt(100)));
+                break;
+            }
+
+            catchUp(random, list, journal, copies, versions);
+        }
+    }
+
+    /**
+     * Test, with random changes of a sorted list, that copies of the list
+     * caught up with the journal equal the list: moves must be replayed to
+     * their destination.
+     */
+    public void testRandomMoves() {
+
+        Random random = new Random(5);
+        DefaultActiveList<Integer> source = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 50; i++) {
+            source.add(random.nextInt(1000) * 1000 + i);
+        }
+        SortMapping<Integer> mapping = new SortMapping<Integer>(source);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i1.compareTo(i2);
+            }
+        });
+        mapping.rebuild();
+        ActiveList<Integer> sorted = (ActiveList<Integer>) mapping.getTarget();
+        ActiveListJournal sortedJournal = new ActiveListJournal(sorted);
+        final int[] moves = new int[1];
+        sorted.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                if (event.getType() == ActiveListEvent.INTERVAL_MOVED) {
+                    moves[0]++;
+                }
+            }
+        });
+
+        List<DefaultActiveList<Integer>> copies =
+            new ArrayList<DefaultActiveList<Integer>>();
+        List<Long> versions = new ArrayList<Long>();
+        for (int i = 0; i < 2000; i++) {
+            int size = source.size();
+            int value = random.nextInt(1000) * 1000 + 50 + i;
+            switch (random.nextInt(4)) {
+            case 0:
+                source.add(random.nextInt(size + 1), value);
+                break;
+            case 1:
+                if (size > 0) {
+                    source.remove(random.nextInt(size));
+                }
+                break;
+            default:
+                if (size > 0) {
+                    source.set(random.nextInt(size), value);
+                }
+                break;
+            }
+            catchUp(random, sorted, sortedJournal, copies, versions);
+        }
+        sortedJournal.dispose();
+        assertTrue(moves[0] > 0);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Randomly take a copy of the given list at the current version, and
+     * catch up a copy taken before with the list.
+     * @param random The random generator.
+     * @param list The journaled list.
+     * @param journal The journal.
+     * @param copies The copies taken before.
+     * @param versions The version of each copy.
+     */
+    private void catchUp(Random random, final ActiveList<Integer> list,
+            ActiveListJournal journal, List<DefaultActiveList<Integer>> copies,
+            List<Long> versions) {
+
+        // Take a copy of the list at the current version.
+
+        if (random.nextInt(10) == 0) {
+            DefaultActiveList<Integer> copy =
+                new DefaultActiveList<Integer>();
+            copy.addAll(list);
+            copies.add(copy);
+            versions.add(journal.getVersion());
+        }
+
+        // Catch up a copy with the list.
+
+        if (!copies.isEmpty() && (random.nextInt(5) == 0)) {
+            int j = random.nextInt(copies.size());
+            final DefaultActiveList<Integer> copy = copies.remove(j);
+            long version = versions.remove(j);
+            boolean replayed = journal.replay(version,
+                    new ActiveListListener() {
+                public void contentsChanged(ActiveListEvent event) {
+                    ActiveListUtility.synchronize(list, copy, event);
+                }
+            });
+            assertEquals(version >= journal.getFirstVersion(), replayed);
+            if (replayed) {
+                assertEquals(list, copy);
+            }
+        }
+    }
+}
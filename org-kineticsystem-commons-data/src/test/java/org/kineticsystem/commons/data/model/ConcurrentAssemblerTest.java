@@ -0,0 +1,207 @@
+/*
+ * ConcurrentAssemblerTest.java
+ *
+ * Created on 18 October 2026, 19.55
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>ConcurrentAssembler</tt> class. It runs the
+ * <tt>DefaultAssembler</tt> cases and checks that changes queued by many
+ * threads are all assembled.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ConcurrentAssemblerTest extends DefaultAssemblerTest {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+    
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ConcurrentAssemblerTest(String name) {
+        super(name);
+    }
+    
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ConcurrentAssemblerTest.class);
+        return ts;
+    }
+    
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ConcurrentAssemblerTest.class);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /** {@inheritDoc} */
+    protected ActiveListEventAssembler createAssembler() {
+        return new ConcurrentAssembler();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+    
+    /**
+     * Test that changes pushed by many threads at once are all assembled
+     * while the consumer assembles them.
+     */
+    public void testConcurrentProducers() throws Exception {
+        
+        final int producers = 4;
+        final int changes = 20000;
+        final ConcurrentAssembler assembler = new ConcurrentAssembler();
+        final CountDownLatch start = new CountDownLatch(1);
+        
+        // Each producer modifies distinct rows never merged together.
+        
+        Thread[] threads = new Thread[producers];
+        for (int t = 0; t < producers; t++) {
+            final int offset = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    for (int i = 0; i < changes; i++) {
+                        int x = 2 * (i * producers + offset);
+                        while (!assembler.offer(this,
+                                ActiveListEvent.CONTENTS_CHANGED, x, x, x)) {
+                            Thread.yield(); // Wait for the consumer.
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        
+        start.countDown();
+        int assembled = 0;
+        boolean alive = true;
+        while (alive) {
+            alive = false;
+            for (Thread thread : threads) {
+                alive |= thread.isAlive();
+            }
+            assembled += assembler.assemble();
+        }
+        assembled += assembler.assemble();
+        
+        assertEquals(producers * changes, assembled);
+        assertEquals(producers * changes, assembler.size());
+        Set<Integer> rows = new HashSet<Integer>();
+        while (!assembler.isEmpty()) {
+            ActiveListEvent event = assembler.pop();
+            assertEquals(event.getX(), event.getY());
+            rows.add(new Integer(event.getX()));
+        }
+        assertEquals(producers * changes, rows.size());
+    }
+    
+    /**
+     * Test that queued events are merged when assembled.
+     */
+    public void testAssemble() {
+        
+        ConcurrentAssembler assembler = new ConcurrentAssembler();
+        assembler.push(this, ActiveListEvent.INTERVAL_ADDED, 0, 1);
+        assembler.push(this, ActiveListEvent.INTERVAL_ADDED, 2, 3);
+        assembler.push(this, ActiveListEvent.CONTENTS_CHANGED, 1, 2);
+        assertEquals(0, assembler.size());
+        
+        assertEquals(3, assembler.assemble());
+        assertEquals(1, assembler.size());
+        assertEquals(ActiveListEvent.INTERVAL_ADDED, assembler.getType(0));
+        assertEquals(0, assembler.getX(0));
+        assertEquals(3, assembler.getY(0));
+        assertEquals(0, assembler.assemble());
+        
+        assembler.clear();
+        assertTrue(assembler.isEmpty());
+    }
+    
+    /**
+     * Test that a full queue refuses changes until the consumer assembles
+     * them and that its slots are reused.
+     */
+    public void testFullQueue() {
+        
+        ConcurrentAssembler assembler = new ConcurrentAssembler(null, 3);
+        assertEquals(4, assembler.getCapacity());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                int x = 2 * i;
+                assertTrue(assembler.offer(this,
+                    ActiveListEvent.CONTENTS_CHANGED, x, x, x));
+            }
+            assertFalse(assembler.offer(this,
+                ActiveListEvent.CONTENTS_CHANGED, 8, 8, 8));
+            try {
+                assembler.push(this, ActiveListEvent.CONTENTS_CHANGED, 8, 8);
+                fail("Expected IllegalStateException!");
+            } catch (IllegalStateException ex) {
+                // Expected.
+            }
+            
+            assertEquals(4, assembler.assemble());
+            assertEquals(4, assembler.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(2 * i, assembler.getX(i));
+            }
+            assembler.clear();
+        }
+        
+        try {
+            new ConcurrentAssembler(null, 0);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+}
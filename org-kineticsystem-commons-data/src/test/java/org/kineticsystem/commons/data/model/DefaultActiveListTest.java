@@ -0,0 +1,295 @@
+/*
+ * DefaultActiveListTest.java
+ *
+ * Created on 18 October 2026, 11.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>DefaultActiveList</tt> class.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class DefaultActiveListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The list to be tested. */
+    private ActiveList<Integer> list;
+
+    /** All events fired by the list. */
+    private List<ActiveListEvent> events;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public DefaultActiveListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(DefaultActiveListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(DefaultActiveListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            list.add(new Integer(i));
+        }
+        events = new ArrayList<ActiveListEvent>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                events.add(event);
+            }
+        });
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that <tt>removeAll</tt> removes all occurrences and sends one event
+     * per removed interval.
+     */
+    public void testRemoveAll() {
+
+        list.add(new Integer(2));
+        events.clear();
+
+        assertTrue(list.removeAll(Arrays.asList(1, 2, 3, 6, 9, 42)));
+        assertEquals(Arrays.asList(0, 4, 5, 7, 8), new ArrayList<Integer>(list));
+        assertEquals("DEL(1, 3)DEL(3, 3)DEL(5, 6)", toString(events));
+
+        // Events are framed as a single sequence.
+
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).getSequenceNumber());
+            assertEquals(events.size() - 1,
+                events.get(i).getLastSequenceNumber());
+        }
+
+        events.clear();
+        assertFalse(list.removeAll(Arrays.asList(42)));
+        assertTrue(events.isEmpty());
+    }
+
+    /**
+     * Test that <tt>retainAll</tt> removes all elements not contained in the
+     * given collection and sends one event per removed interval.
+     */
+    public void testRetainAll() {
+
+        assertTrue(list.retainAll(new HashSet<Integer>(Arrays.asList(2, 3, 7))));
+        assertEquals(Arrays.asList(2, 3, 7), new ArrayList<Integer>(list));
+        assertEquals("DEL(0, 1)DEL(2, 4)DEL(3, 4)", toString(events));
+
+        events.clear();
+        assertFalse(list.retainAll(Arrays.asList(2, 3, 7)));
+        assertTrue(events.isEmpty());
+    }
+
+    /**
+     * Test that <tt>removeAll</tt> works on sequential lists.
+     */
+    public void testRemoveAllSequential() {
+
+        list = new DefaultActiveList<Integer>(new LinkedList<Integer>(
+            Arrays.asList(0, 1, 2, 3, 4)));
+        assertTrue(list.removeAll(Arrays.asList(0, 3, 4)));
+        assertEquals(Arrays.asList(1, 2), new ArrayList<Integer>(list));
+    }
+
+    /**
+     * Test that a <tt>PrimitiveActiveListListener</tt> receives changes as
+     * primitive values while other listeners still receive events.
+     */
+    public void testPrimitiveListener() {
+
+        final StringBuilder changes = new StringBuilder();
+        list.addActiveListListener(new PrimitiveActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                fail("Primitive listener notified with an event!");
+            }
+            public void intervalAdded(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("ADD(" + x + ", " + y + ")");
+            }
+            public void intervalRemoved(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("DEL(" + x + ", " + y + ")");
+            }
+            public void contentsChanged(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("MOD(" + x + ", " + y + ")");
+            }
+        });
+
+        list.add(2, new Integer(42));
+        list.set(0, new Integer(42));
+        list.remove(3);
+        list.removeAll(Arrays.asList(42));
+
+        assertEquals("ADD(2, 2)MOD(0, 0)DEL(3, 3)DEL(0, 0)DEL(1, 1)",
+            changes.toString());
+        assertEquals(changes.toString(), toString(events));
+    }
+
+    /**
+     * Test that iterators read a snapshot of the list and remove elements from
+     * the live list.
+     */
+    public void testSnapshotIterator() {
+
+        Iterator<Integer> iter = list.iterator();
+        list.add(new Integer(10));
+        events.clear();
+
+        int count = 0;
+        while (iter.hasNext()) {
+            Integer element = iter.next();
+            assertEquals(count++, element.intValue());
+            if (element.intValue() % 2 == 1) {
+                iter.remove();
+            }
+        }
+        assertEquals(10, count);
+        assertEquals(Arrays.asList(0, 2, 4, 6, 8, 10),
+            new ArrayList<Integer>(list));
+        assertEquals("DEL(1, 1)DEL(2, 2)DEL(3, 3)DEL(4, 4)DEL(5, 5)",
+            toString(events));
+        
+        // The first element has been removed by someone else.
+        
+        iter = list.iterator();
+        iter.next();
+        list.remove(0);
+        try {
+            iter.remove();
+            fail("Removed an element moved by another thread!");
+        } catch (ConcurrentModificationException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that list iterators send the right events from the list.
+     */
+    public void testListIterator() {
+
+        ListIterator<Integer> iter = list.listIterator(2);
+        iter.next();
+        iter.remove();
+        iter.add(new Integer(42));
+        iter.next();
+        iter.set(new Integer(43));
+        iter.previous();
+        iter.remove();
+
+        assertEquals(Arrays.asList(0, 1, 42, 4, 5, 6, 7, 8, 9),
+            new ArrayList<Integer>(list));
+        assertEquals("DEL(2, 2)ADD(2, 2)MOD(3, 3)DEL(3, 3)", toString(events));
+        for (ActiveListEvent event : events) {
+            assertSame(list, event.getSource());
+        }
+    }
+
+    /**
+     * Test that parallel streams traverse a snapshot of the list.
+     */
+    public void testSpliterator() {
+
+        for (int i = 10; i < 10000; i++) {
+            list.add(new Integer(i));
+        }
+        
+        Spliterator<Integer> spliterator = list.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertEquals(5000, prefix.estimateSize());
+        assertEquals(5000, spliterator.estimateSize());
+        
+        List<Integer> expected = new ArrayList<Integer>(list);
+        Stream<Integer> stream = list.stream().parallel();
+        list.clear();
+        assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Return a string representation of the given events.
+     * @param events The events to be converted.
+     * @return A string representation of the given events.
+     */
+    private String toString(List<ActiveListEvent> events) {
+        String out = "";
+        for (ActiveListEvent event : events) {
+            out += ActiveListEventUtils.toString(event);
+        }
+        return out;
+    }
+}
@@ -110,6 +110,18 @@ public class DefaultAssemblerTest extends TestCase {
         
     }
     
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /**
+     * Create the assembler to be tested.
+     * @return The assembler to be tested.
+     */
+    protected ActiveListEventAssembler createAssembler() {
+        return new DefaultAssembler();
+    }
+    
     /* /////////////////////////////////////////////////////////////////////////
      * Test methods.
      */
@@ -156,7 +168,7 @@ public class DefaultAssemblerTest extends TestCase {
             
             // Instantiante the assembler to be tested.
 
-            ActiveListEventAssembler assembler = new DefaultAssembler();
+            ActiveListEventAssembler assembler = createAssembler();
 
             for (Conversion conv : document.getConversions()) {
 
@@ -197,4 +209,71 @@ public class DefaultAssemblerTest extends TestCase {
             }
         }
     }
+    
+    /**
+     * Test that a move is stored as it is while it is the only stored event
+     * and that it is split into a removal and an addition otherwise.
+     */
+    public void testMove() {
+        
+        ActiveListEventAssembler assembler = createAssembler();
+        
+        // A single move.
+        
+        assembler.push(createEvent(ActiveListEvent.INTERVAL_MOVED, 2, 3, 5));
+        assertEquals("MOV(2, 3)->5", popAll(assembler));
+        
+        // A move followed by a modify event.
+        
+        assembler.push(createEvent(ActiveListEvent.INTERVAL_MOVED, 2, 2, 5));
+        assembler.push(createEvent(ActiveListEvent.CONTENTS_CHANGED, 5, 5, 0));
+        assertEquals("DEL(2, 2)ADD(5, 5)", popAll(assembler));
+        
+        // A modify event followed by a move.
+        
+        assembler.push(createEvent(ActiveListEvent.CONTENTS_CHANGED, 1, 1, 0));
+        assembler.push(createEvent(ActiveListEvent.INTERVAL_MOVED, 6, 6, 2));
+        assertEquals("ADD(1, 1)MOD(2, 2)DEL(7, 7)", popAll(assembler));
+        
+        // A move undone by the following one.
+        
+        assembler.push(createEvent(ActiveListEvent.INTERVAL_MOVED, 6, 7, 1));
+        assembler.push(createEvent(ActiveListEvent.INTERVAL_MOVED, 1, 2, 6));
+        assertEquals("MOD(6, 7)", popAll(assembler));
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Create an event.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     * @return The new event.
+     */
+    private ActiveListEvent createEvent(int type, int x, int y, int toIndex) {
+        ActiveListEvent event = new ActiveListEvent(this);
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        event.setToIndex(toIndex);
+        return event;
+    }
+    
+    /**
+     * Pop all events of the given assembler and return their string
+     * representation.
+     * @param assembler The assembler.
+     * @return A string representation of the assembler events.
+     */
+    private String popAll(ActiveListEventAssembler assembler) {
+        String out = "";
+        while (!assembler.isEmpty()) {
+            out += ActiveListEventUtils.toString(assembler.pop());
+        }
+        return out;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+/*
+ * PackedAssemblerTest.java
+ *
+ * Created on 18 October 2026, 18.40
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>PackedAssembler</tt> class. It runs the
+ * <tt>DefaultAssembler</tt> cases and checks that random sequences of events
+ * are assembled exactly as the <tt>DefaultAssembler</tt> does, including when
+ * they are read as primitive values.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class PackedAssemblerTest extends DefaultAssemblerTest {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+    
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public PackedAssemblerTest(String name) {
+        super(name);
+    }
+    
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(PackedAssemblerTest.class);
+        return ts;
+    }
+    
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(PackedAssemblerTest.class);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Factory methods.
+     */
+    
+    /** {@inheritDoc} */
+    protected ActiveListEventAssembler createAssembler() {
+        return new PackedAssembler();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+    
+    /**
+     * Test that random sequences of events, partially popped while pushed, are
+     * assembled exactly as the <tt>DefaultAssembler</tt> does.
+     */
+    public void testDefaultAssemblerEquivalence() {
+        
+        Random random = new Random(7);
+        for (int test = 0; test < 10000; test++) {
+            
+            DefaultAssembler expected = new DefaultAssembler();
+            PackedAssembler assembler = new PackedAssembler();
+            
+            int size = random.nextInt(40);
+            int maxLength = random.nextInt(6) + 1;
+            int eventsNumber = random.nextInt(60) + 1;
+            for (int i = 0; i < eventsNumber; i++) {
+                
+                // Calculate a random event (delete, add, modify).
+                
+                ActiveListEvent event = new ActiveListEvent(this);
+                int operationType = random.nextInt(3);
+                if ((operationType == 0) && (size > 0)) {
+                    int x = random.nextInt(size);
+                    int y = x + random.nextInt(Math.min(maxLength, size - x));
+                    event.setType(ActiveListEvent.INTERVAL_REMOVED);
+                    event.setX(x);
+                    event.setY(y);
+                    size -= y - x + 1;
+                } else if ((operationType == 1) || (size == 0)) {
+                    int x = random.nextInt(size + 1);
+                    int length = random.nextInt(maxLength) + 1;
+                    event.setType(ActiveListEvent.INTERVAL_ADDED);
+                    event.setX(x);
+                    event.setY(x + length - 1);
+                    size += length;
+                } else {
+                    int x = random.nextInt(size);
+                    int y = x + random.nextInt(Math.min(maxLength, size - x));
+                    event.setType(ActiveListEvent.CONTENTS_CHANGED);
+                    event.setX(x);
+                    event.setY(y);
+                }
+                
+                expected.push((ActiveListEvent) event.clone());
+                assembler.push(event);
+                assertEquals(expected.size(), assembler.size());
+                assertEquals(expected.getLength(), assembler.getLength());
+                
+                if (random.nextInt(20) == 0) {
+                    assertEquals(toString(expected), toString(assembler));
+                }
+            }
+            assertEquals(toString(expected), toString(assembler));
+        }
+    }
+    
+    /**
+     * Test that drained events are numbered as a single sequence and that
+     * pushed events are recycled into the pool.
+     */
+    public void testDrain() {
+        
+        ActiveListEventPool pool = new ActiveListEventPool();
+        PackedAssembler assembler = new PackedAssembler(pool);
+        
+        assembler.push(pool.obtain(this, ActiveListEvent.INTERVAL_ADDED, 0, 1));
+        assembler.push(pool.obtain(this, ActiveListEvent.CONTENTS_CHANGED, 5,
+            6));
+        assembler.push(pool.obtain(this, ActiveListEvent.INTERVAL_REMOVED, 3,
+            3));
+        assertEquals(3, assembler.size());
+        assertEquals(5, assembler.getLength());
+        assertEquals(ActiveListEvent.CONTENTS_CHANGED, assembler.getType(2));
+        assertEquals(4, assembler.getX(2));
+        assertEquals(5, assembler.getY(2));
+        
+        final StringBuilder changes = new StringBuilder();
+        assembler.drain(new PrimitiveActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                fail("Assembler drained an event!");
+            }
+            public void intervalAdded(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("ADD(" + x + ", " + y + ")" + seq + lastSeq);
+            }
+            public void intervalRemoved(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("DEL(" + x + ", " + y + ")" + seq + lastSeq);
+            }
+            public void contentsChanged(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                changes.append("MOD(" + x + ", " + y + ")" + seq + lastSeq);
+            }
+        });
+        assertEquals("ADD(0, 1)02DEL(3, 3)12MOD(4, 5)22", changes.toString());
+        assertTrue(assembler.isEmpty());
+        assertEquals(0, assembler.getLength());
+        
+        // Pushed events are back into the pool.
+        
+        ActiveListEvent event = pool.obtain(this,
+            ActiveListEvent.INTERVAL_ADDED, 0, 0);
+        assembler.push(event);
+        assertSame(event, assembler.pop());
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Pop all events of the given assembler and return their string
+     * representation.
+     * @param assembler The assembler.
+     * @return A string representation of the assembler events.
+     */
+    private String toString(ActiveListEventAssembler assembler) {
+        String out = "";
+        while (!assembler.isEmpty()) {
+            out += ActiveListEventUtils.toString(assembler.pop());
+        }
+        return out;
+    }
+}
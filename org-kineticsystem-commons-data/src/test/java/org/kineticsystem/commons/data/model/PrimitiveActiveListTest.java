@@ -0,0 +1,323 @@
+/*
+ * PrimitiveActiveListTest.java
+ *
+ * Created on 18 October 2026, 17.00
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>IntActiveList</tt>, <tt>LongActiveList</tt> and
+ * <tt>DoubleActiveList</tt> classes: unboxed accessors, fired events and
+ * consistency with the boxed <tt>List</tt> methods.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class PrimitiveActiveListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** All events fired by the tested list. */
+    private List<ActiveListEvent> events;
+
+    /** The listener recording all fired events. */
+    private ActiveListListener recorder;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public PrimitiveActiveListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(PrimitiveActiveListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(PrimitiveActiveListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        events = new ArrayList<ActiveListEvent>();
+        recorder = new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                events.add((ActiveListEvent) event.clone());
+            }
+        };
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test the unboxed accessors of the <tt>IntActiveList</tt>. */
+    public void testIntAccessors() {
+
+        IntActiveList list = new IntActiveList(new int[] {1, 2, 3});
+        list.addActiveListListener(recorder);
+
+        list.addInt(4);
+        list.addInt(0, 0);
+        assertEquals(3, list.setInt(3, 30));
+        assertEquals(2, list.removeInt(2));
+
+        assertTrue(Arrays.equals(new int[] {0, 1, 30, 4}, list.toIntArray()));
+        assertEquals(30, list.getInt(2));
+        assertEquals(2, list.indexOfInt(30));
+        assertEquals(-1, list.indexOfInt(2));
+        assertEquals(Arrays.asList(0, 1, 30, 4), list);
+        assertEquals(Arrays.asList(
+            event(ActiveListEvent.INTERVAL_ADDED, 3, 3),
+            event(ActiveListEvent.INTERVAL_ADDED, 0, 0),
+            event(ActiveListEvent.CONTENTS_CHANGED, 3, 3),
+            event(ActiveListEvent.INTERVAL_REMOVED, 2, 2)), toStrings());
+
+        try {
+            list.getInt(4);
+            fail("Index out of range!");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+    }
+
+    /** Test the unboxed accessors of the <tt>LongActiveList</tt>. */
+    public void testLongAccessors() {
+
+        LongActiveList list = new LongActiveList(1);
+        list.addActiveListListener(recorder);
+
+        for (long i = 0; i < 100; i++) {
+            list.addLong(i << 32);
+        }
+        assertEquals(100, list.size());
+        assertEquals(99L << 32, list.getLong(99));
+        assertEquals(50, list.indexOfLong(50L << 32));
+        assertEquals(50L << 32, list.removeLong(50));
+        assertEquals(Long.valueOf(51L << 32), list.get(50));
+        assertEquals(101, events.size());
+
+        list.add(0, Long.valueOf(-1));
+        assertEquals(-1L, list.getLong(0));
+        assertTrue(list.contains(Long.valueOf(-1)));
+        assertFalse(list.contains(Integer.valueOf(-1)));
+    }
+
+    /**
+     * Test that the bulk <tt>addAll(double[])</tt> methods fire a single
+     * event for the whole inserted interval and nothing for empty arrays.
+     */
+    public void testBulkAddEvents() {
+
+        DoubleActiveList list = new DoubleActiveList();
+        list.addActiveListListener(recorder);
+
+        assertTrue(list.addAll(new double[] {1.0, 2.0, 3.0}));
+        assertTrue(list.addAll(1, new double[] {1.5, 1.75}));
+        assertFalse(list.addAll(new double[0]));
+        assertFalse(list.addAll(0, new double[0]));
+
+        assertTrue(Arrays.equals(new double[] {1.0, 1.5, 1.75, 2.0, 3.0},
+            list.toDoubleArray()));
+        assertEquals(Arrays.asList(
+            event(ActiveListEvent.INTERVAL_ADDED, 0, 2),
+            event(ActiveListEvent.INTERVAL_ADDED, 1, 2)), toStrings());
+
+        try {
+            list.addAll(6, new double[] {4.0});
+            fail("Index out of range!");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+        assertEquals(5, list.size());
+        assertEquals(2, events.size());
+    }
+
+    /**
+     * Test that the bulk <tt>addAll(double[])</tt> methods are merged with
+     * the other changes of a transaction.
+     */
+    public void testBulkAddInTransaction() {
+
+        DoubleActiveList list = new DoubleActiveList(new double[] {0.0});
+        list.addActiveListListener(recorder);
+
+        List<Double> mirror = new ArrayList<Double>(list);
+        list.beginTransaction();
+        list.addAll(new double[] {1.0, 2.0});
+        list.addAll(new double[] {3.0, 4.0});
+        list.setDouble(0, -1.0);
+        list.commitTransaction();
+
+        // One added interval and one changed value.
+
+        assertEquals(2, events.size());
+        for (ActiveListEvent event : events) {
+            for (int i = event.getX(); i <= event.getY(); i++) {
+                if (event.getType() == ActiveListEvent.INTERVAL_ADDED) {
+                    mirror.add(i, list.get(i));
+                } else {
+                    mirror.set(i, list.get(i));
+                }
+            }
+        }
+        assertEquals(list, mirror);
+    }
+
+    /**
+     * Test that double values are compared as
+     * <tt>Double.equals</tt> does: NaN is found and 0.0 differs from -0.0.
+     */
+    public void testDoubleIndexOf() {
+
+        DoubleActiveList list = new DoubleActiveList(
+            new double[] {0.0, Double.NaN, -0.0});
+        assertEquals(1, list.indexOfDouble(Double.NaN));
+        assertEquals(2, list.indexOfDouble(-0.0));
+        assertEquals(0, list.indexOfDouble(0.0));
+        assertEquals(1, list.indexOf(Double.valueOf(Double.NaN)));
+        assertEquals(2, list.lastIndexOf(Double.valueOf(-0.0)));
+    }
+
+    /**
+     * Test, with random changes made through both boxed and unboxed methods,
+     * that a list mirrored using the fired events equals the tested list.
+     */
+    public void testRandomMirror() {
+
+        final IntActiveList list = new IntActiveList();
+        final List<Integer> mirror = new ArrayList<Integer>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                for (int i = event.getX(); i <= event.getY(); i++) {
+                    switch (event.getType()) {
+                    case ActiveListEvent.INTERVAL_ADDED:
+                        mirror.add(i, list.get(i));
+                        break;
+                    case ActiveListEvent.INTERVAL_REMOVED:
+                        mirror.remove(event.getX());
+                        break;
+                    default:
+                        mirror.set(i, list.get(i));
+                        break;
+                    }
+                }
+            }
+        });
+
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            int size = list.size();
+            switch (random.nextInt(7)) {
+            case 0:
+                list.addInt(random.nextInt(100));
+                break;
+            case 1:
+                list.addInt(random.nextInt(size + 1), random.nextInt(100));
+                break;
+            case 2:
+                list.addAll(random.nextInt(size + 1),
+                    new int[] {random.nextInt(100), random.nextInt(100)});
+                break;
+            case 3:
+                if (size > 0) {
+                    list.removeInt(random.nextInt(size));
+                }
+                break;
+            case 4:
+                if (size > 0) {
+                    list.setInt(random.nextInt(size), random.nextInt(100));
+                }
+                break;
+            case 5:
+                list.add(random.nextInt(size + 1), random.nextInt(100));
+                break;
+            default:
+                list.removeAll(Arrays.asList(random.nextInt(100)));
+                break;
+            }
+            assertEquals(list, mirror);
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Return a string describing the given change.
+     * @param type The event type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @return A string describing the given change.
+     */
+    private String event(int type, int x, int y) {
+        return type + "(" + x + ", " + y + ")";
+    }
+
+    /**
+     * Return the strings describing all recorded events.
+     * @return The strings describing all recorded events.
+     */
+    private List<String> toStrings() {
+        List<String> strings = new ArrayList<String>();
+        for (ActiveListEvent event : events) {
+            strings.add(event(event.getType(), event.getX(), event.getY()));
+        }
+        return strings;
+    }
+}
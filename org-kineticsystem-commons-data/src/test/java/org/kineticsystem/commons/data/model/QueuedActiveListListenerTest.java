@@ -0,0 +1,402 @@
+/*
+ * QueuedActiveListListenerTest.java
+ *
+ * Created on 18 October 2026, 18.20
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>QueuedActiveListListener</tt> class: queued changes are
+ * notified in order, collapsed when the queue is full and forwarded whatever
+ * their type.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class QueuedActiveListListenerTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The list to be tested. */
+    private ActiveList<Integer> list;
+
+    /** The executor holding the queue until it is explicitly drained. */
+    private ManualExecutor executor;
+
+    /** All changes notified to the decorated listener. */
+    private List<String> changes;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public QueuedActiveListListenerTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(QueuedActiveListListenerTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(QueuedActiveListListenerTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new DefaultActiveList<Integer>();
+        executor = new ManualExecutor();
+        changes = new ArrayList<String>();
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that changes are notified after the writer has returned, in the
+     * same order and with the same indexes.
+     */
+    public void testOrder() {
+
+        list.addActiveListListener(new QueuedActiveListListener(
+            new Recorder(), executor));
+
+        list.add(1);
+        list.add(0, 0);
+        list.set(1, 10);
+        list.remove(0);
+        assertTrue(changes.isEmpty());
+        assertEquals(1, executor.size());
+
+        executor.drain();
+        assertEquals(Arrays.asList("ADD(0, 0)", "ADD(0, 0)", "MOD(1, 1)",
+            "DEL(0, 0)"), changes);
+    }
+
+    /**
+     * Test that a primitive listener receives the changes through its
+     * primitive methods.
+     */
+    public void testPrimitiveListener() {
+
+        list.addActiveListListener(new QueuedActiveListListener(
+            new PrimitiveRecorder(), executor));
+
+        list.addAll(Arrays.asList(1, 2, 3));
+        list.set(2, 30);
+        list.remove(0);
+        executor.drain();
+        assertEquals(Arrays.asList("add(0, 2)", "mod(2, 2)", "del(0, 0)"),
+            changes);
+    }
+
+    /**
+     * Test that a primitive listener receives, as events, the changes that
+     * have no primitive method.
+     */
+    public void testPrimitiveListenerOtherTypes() {
+
+        list.addActiveListListener(new QueuedActiveListListener(
+            new PrimitiveRecorder(), executor));
+
+        list.add(1);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        list.fireContentsChanged(event);
+        list.add(2);
+        executor.drain();
+        assertEquals(Arrays.asList("add(0, 0)", "event"
+            + ActiveListEvent.STRUCTURE_CHANGED, "add(1, 1)"), changes);
+    }
+
+    /**
+     * Test that, when the queue is full, the listener receives the changes
+     * transforming the list it has seen into the current one: a listener
+     * resynchronizing with the whole list content ends up equal to the list.
+     */
+    public void testCollapse() {
+
+        final List<Integer> mirror = new ArrayList<Integer>();
+        list.addAll(Arrays.asList(1, 2, 3));
+        mirror.addAll(list);
+        list.addActiveListListener(new QueuedActiveListListener(
+            new ActiveListListener() {
+                public void contentsChanged(ActiveListEvent event) {
+                    changes.add(ActiveListEventUtils.toString(event));
+                    for (int i = event.getX(); i <= event.getY(); i++) {
+                        switch (event.getType()) {
+                        case ActiveListEvent.INTERVAL_ADDED:
+                            mirror.add(i, list.get(i));
+                            break;
+                        case ActiveListEvent.INTERVAL_REMOVED:
+                            mirror.remove(event.getX());
+                            break;
+                        default:
+                            mirror.set(i, list.get(i));
+                            break;
+                        }
+                    }
+                }
+            }, executor, 4));
+
+        for (int i = 0; i < 10; i++) {
+            list.add(0, 100 + i);
+            list.remove(list.size() - 1);
+            list.set(1, i);
+        }
+        list.add(7);
+        executor.drain();
+
+        assertTrue(changes.toString(), changes.size() <= 4);
+        assertEquals(list, mirror);
+    }
+
+    /**
+     * Test that moves are forwarded with their destination index.
+     */
+    public void testMove() {
+
+        list.addAll(Arrays.asList(1, 2, 3, 4, 5));
+        list.addActiveListListener(new QueuedActiveListListener(
+            new Recorder(), executor));
+
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.INTERVAL_MOVED);
+        event.setX(1);
+        event.setY(2);
+        event.setToIndex(3);
+        list.fireContentsChanged(event);
+        executor.drain();
+        assertEquals(Arrays.asList("MOV(1, 2)->3"), changes);
+    }
+
+    /**
+     * Test that collapsed changes including a <tt>STRUCTURE_CHANGED</tt> one
+     * become a single <tt>STRUCTURE_CHANGED</tt> change.
+     */
+    public void testCollapseStructureChanged() {
+
+        list.addAll(Arrays.asList(1, 2, 3));
+        list.addActiveListListener(new QueuedActiveListListener(
+            new Recorder(), executor, 2));
+
+        list.add(4);
+        list.setActive(false);
+        list.clear();
+        list.addAll(Arrays.asList(7, 8));
+        list.setActive(true);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        event.setX(0);
+        event.setY(1);
+        list.fireContentsChanged(event);
+        list.add(9);
+        executor.drain();
+        assertEquals(Arrays.asList("REF(0, 2)"), changes);
+    }
+
+    /**
+     * Test that a queue filled in the middle of a sequence of changes is
+     * collapsed against the list seen at the end of the sequence: a listener
+     * tracking the list size never receives an invalid index.
+     */
+    public void testCollapseInsideSequence() {
+
+        Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        SizeTracker tracker = new SizeTracker(list.size());
+        list.addActiveListListener(new QueuedActiveListListener(tracker,
+            executor, 2));
+
+        for (int test = 0; test < 200; test++) {
+            try {
+                list.beginTransaction();
+                for (int i = 0; i < 6; i++) {
+                    switch (random.nextInt(3)) {
+                    case 0:
+                        list.add(random.nextInt(list.size() + 1), i);
+                        break;
+                    case 1:
+                        if (list.size() > 1) {
+                            list.remove(random.nextInt(list.size()));
+                        }
+                        break;
+                    default:
+                        list.set(random.nextInt(list.size()), -i);
+                        break;
+                    }
+                }
+            } finally {
+                list.commitTransaction();
+            }
+            if (random.nextBoolean()) {
+                executor.drain();
+                assertEquals(list.size(), tracker.size);
+            }
+        }
+        executor.drain();
+        assertEquals(list.size(), tracker.size);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+
+    /** Executor running the submitted tasks only when drained. */
+    private static class ManualExecutor implements Executor {
+
+        /** The submitted tasks. */
+        private List<Runnable> tasks = new ArrayList<Runnable>();
+
+        /** {@inheritDoc} */
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        /**
+         * Return the number of submitted tasks.
+         * @return The number of submitted tasks.
+         */
+        public int size() {
+            return tasks.size();
+        }
+
+        /** Run all submitted tasks. */
+        public void drain() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    /**
+     * Listener tracking the list size from the received changes only, as an
+     * index-only listener does, and checking their indexes.
+     */
+    private static class SizeTracker implements ActiveListListener {
+
+        /** The list size seen by the listener. */
+        private int size;
+
+        /**
+         * Constructor.
+         * @param size The initial list size.
+         */
+        public SizeTracker(int size) {
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        public void contentsChanged(ActiveListEvent event) {
+            int x = event.getX();
+            int y = event.getY();
+            switch (event.getType()) {
+            case ActiveListEvent.INTERVAL_ADDED:
+                assertTrue(event.toString(), (x >= 0) && (x <= size));
+                size += y - x + 1;
+                break;
+            case ActiveListEvent.STRUCTURE_CHANGED:
+                size = y + 1;
+                break;
+            default:
+                assertTrue(event.toString(), (x >= 0) && (y < size));
+                if (event.getType() == ActiveListEvent.INTERVAL_REMOVED) {
+                    size -= y - x + 1;
+                }
+                break;
+            }
+        }
+    }
+
+    /** Listener recording the received events. */
+    private class Recorder implements ActiveListListener {
+
+        /** {@inheritDoc} */
+        public void contentsChanged(ActiveListEvent event) {
+            changes.add(ActiveListEventUtils.toString(event));
+        }
+    }
+
+    /** Primitive listener recording the received changes. */
+    private class PrimitiveRecorder implements PrimitiveActiveListListener {
+
+        /** {@inheritDoc} */
+        public void contentsChanged(ActiveListEvent event) {
+            changes.add("event" + event.getType());
+        }
+
+        /** {@inheritDoc} */
+        public void intervalAdded(Object source, int x, int y, int seq,
+                int lastSeq) {
+            changes.add("add(" + x + ", " + y + ")");
+        }
+
+        /** {@inheritDoc} */
+        public void intervalRemoved(Object source, int x, int y, int seq,
+                int lastSeq) {
+            changes.add("del(" + x + ", " + y + ")");
+        }
+
+        /** {@inheritDoc} */
+        public void contentsChanged(Object source, int x, int y, int seq,
+                int lastSeq) {
+            changes.add("mod(" + x + ", " + y + ")");
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * SegmentedActiveListTest.java
+ *
+ * Created on 18 October 2026, 18.45
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>SegmentedActiveList</tt> class: the events translated to
+ * global indexes must describe the list content, with one or many writers.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class SegmentedActiveListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The list to be tested. */
+    private SegmentedActiveList<Integer> list;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public SegmentedActiveListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(SegmentedActiveListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(SegmentedActiveListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new SegmentedActiveList<Integer>(4);
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test that an invalid number of segments is rejected. */
+    public void testSegmentCount() {
+        assertEquals(4, list.getSegmentCount());
+        try {
+            new SegmentedActiveList<Integer>(0);
+            fail("A list must contain at least one segment!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test, with random changes made through the global methods and directly
+     * on the segments, that a list mirrored using the fired events always
+     * equals the tested list.
+     */
+    public void testRandomMirror() {
+
+        final DefaultActiveList<Integer> mirror =
+            new DefaultActiveList<Integer>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                ActiveListUtility.synchronize(list, mirror, event);
+            }
+        });
+
+        Random random = new Random(9);
+        for (int i = 0; i < 3000; i++) {
+            int size = list.size();
+            ActiveList<Integer> segment =
+                list.getSegment(random.nextInt(list.getSegmentCount()));
+            switch (random.nextInt(7)) {
+            case 0:
+                list.add(random.nextInt(100));
+                break;
+            case 1:
+                list.add(random.nextInt(size + 1), random.nextInt(100));
+                break;
+            case 2:
+                if (size > 0) {
+                    list.remove(random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    list.set(random.nextInt(size), random.nextInt(100));
+                }
+                break;
+            case 4:
+                segment.add(random.nextInt(segment.size() + 1),
+                    random.nextInt(100));
+                break;
+            case 5:
+                if (segment.size() > 0) {
+                    segment.remove(random.nextInt(segment.size()));
+                }
+                break;
+            default:
+                list.removeAll(Arrays.asList(random.nextInt(100)));
+                break;
+            }
+            assertEquals(list, mirror);
+        }
+    }
+
+    /**
+     * Test, with random changes, moves and full refreshes made on the
+     * segments, that a list mirrored using the fired events always equals the
+     * tested list: moves must be translated with their destination and a
+     * refreshed segment must keep the following segments in place.
+     */
+    public void testSegmentMovesAndRefreshes() {
+
+        final DefaultActiveList<Integer> mirror =
+            new DefaultActiveList<Integer>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                ActiveListUtility.synchronize(list, mirror, event);
+            }
+        });
+
+        Random random = new Random(10);
+        for (int i = 0; i < 3000; i++) {
+            ActiveList<Integer> segment =
+                list.getSegment(random.nextInt(list.getSegmentCount()));
+            int size = segment.size();
+            switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                segment.add(random.nextInt(size + 1), i);
+                break;
+            case 2:
+                if (size > 0) {
+                    segment.remove(random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 1) {
+                    int x = random.nextInt(size);
+                    int y = x + random.nextInt(size - x);
+                    int toIndex = random.nextInt(size - (y - x));
+                    segment.setActive(false);
+                    List<Integer> moved =
+                        new ArrayList<Integer>(segment.subList(x, y + 1));
+                    segment.subList(x, y + 1).clear();
+                    segment.addAll(toIndex, moved);
+                    segment.setActive(true);
+                    fire(segment, ActiveListEvent.INTERVAL_MOVED, x, y,
+                        toIndex);
+                }
+                break;
+            default:
+                if (random.nextInt(10) == 0) {
+                    segment.setActive(false);
+                    segment.clear();
+                    for (int j = random.nextInt(20); j >= 0; j--) {
+                        segment.add(-i);
+                    }
+                    segment.setActive(true);
+                    fire(segment, ActiveListEvent.STRUCTURE_CHANGED, 0,
+                        segment.size() - 1, 0);
+                }
+                break;
+            }
+            assertEquals(list, mirror);
+        }
+    }
+
+    /**
+     * Test that, with many threads writing their own segments, the fired
+     * events are notified one at a time and their indexes always match the
+     * list size seen by the listener.
+     */
+    public void testConcurrentWriters() throws Exception {
+
+        final int[] size = new int[1];
+        final List<String> errors =
+            Collections.synchronizedList(new ArrayList<String>());
+        list.addActiveListListener(new PrimitiveActiveListListener() {
+            private volatile boolean running;
+            public void contentsChanged(ActiveListEvent event) {
+                errors.add("Unexpected event: " + event);
+            }
+            public void intervalAdded(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                enter();
+                if ((x < 0) || (x > size[0]) || (y < x)) {
+                    errors.add("ADD(" + x + ", " + y + ") size " + size[0]);
+                }
+                size[0] += y - x + 1;
+                running = false;
+            }
+            public void intervalRemoved(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                enter();
+                if ((x < 0) || (y >= size[0]) || (y < x)) {
+                    errors.add("DEL(" + x + ", " + y + ") size " + size[0]);
+                }
+                size[0] -= y - x + 1;
+                running = false;
+            }
+            public void contentsChanged(Object source, int x, int y, int seq,
+                    int lastSeq) {
+                enter();
+                if ((x < 0) || (y >= size[0]) || (y < x)) {
+                    errors.add("MOD(" + x + ", " + y + ") size " + size[0]);
+                }
+                running = false;
+            }
+            private void enter() {
+                if (running) {
+                    errors.add("Overlapping notifications!");
+                }
+                running = true;
+            }
+        });
+
+        final int writers = 4;
+        final int changes = 2000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int w = 0; w < writers; w++) {
+            final int seed = w;
+            futures.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    start.await();
+                    Random random = new Random(seed);
+                    ActiveList<Integer> segment = list.getThreadSegment();
+                    for (int i = 0; i < changes; i++) {
+                        if ((random.nextInt(4) == 0) && !segment.isEmpty()) {
+                            segment.remove(0);
+                        } else if (random.nextInt(8) == 0
+                                && !segment.isEmpty()) {
+                            segment.set(0, i);
+                        } else {
+                            list.add(i);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(list.size(), size[0]);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Notify the given change to the listeners of the given segment.
+     * @param segment The changed segment.
+     * @param type The change type.
+     * @param x The first index of the changed interval.
+     * @param y The last index of the changed interval.
+     * @param toIndex The position of the first moved item after the move.
+     */
+    private void fire(ActiveList<Integer> segment, int type, int x, int y,
+            int toIndex) {
+        ActiveListEvent event = new ActiveListEvent(segment);
+        event.setType(type);
+        event.setX(x);
+        event.setY(y);
+        event.setToIndex(toIndex);
+        segment.fireContentsChanged(event);
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * SnapshotActiveListTest.java
+ *
+ * Created on 18 October 2026, 14.20
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>SnapshotActiveList</tt> class: snapshot isolation, publish
+ * on the outermost unlock and consistency of the fired events.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class SnapshotActiveListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The list to be tested. */
+    private SnapshotActiveList<Integer> list;
+
+    /** All events fired by the list. */
+    private List<ActiveListEvent> events;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public SnapshotActiveListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(SnapshotActiveListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(SnapshotActiveListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            items.add(i);
+        }
+        list = new SnapshotActiveList<Integer>(items);
+        events = new ArrayList<ActiveListEvent>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                events.add((ActiveListEvent) event.clone());
+            }
+        });
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that a published snapshot never changes, whatever is done to the
+     * list afterwards.
+     */
+    public void testSnapshotIsImmutable() {
+
+        List<Integer> before = list.getSnapshot();
+        List<Integer> copy = new ArrayList<Integer>(before);
+
+        list.add(10);
+        list.add(0, -1);
+        list.remove(5);
+        list.set(3, 42);
+        list.removeAll(Arrays.asList(1, 2));
+        list.clear();
+
+        assertEquals(copy, before);
+        assertEquals(10, before.size());
+        assertEquals(0, list.size());
+        try {
+            before.set(0, 1);
+            fail("A snapshot must be read only!");
+        } catch (UnsupportedOperationException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that snapshot sizes and bounds ignore the spare slots of the
+     * published array.
+     */
+    public void testSnapshotBounds() {
+
+        list.add(10);
+        List<Integer> snapshot = list.getSnapshot();
+        assertEquals(11, snapshot.size());
+        assertEquals(11, snapshot.toArray().length);
+        assertEquals(11, snapshot.stream().count());
+        try {
+            snapshot.get(11);
+            fail("Index out of range!");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+
+        list.remove(0);
+        snapshot = list.getSnapshot();
+        assertEquals(10, snapshot.size());
+        assertEquals(Integer.valueOf(10), snapshot.get(9));
+        try {
+            snapshot.get(10);
+            fail("Index out of range!");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that each single change publishes a new version and a batch of
+     * changes publishes exactly one version.
+     */
+    public void testVersion() {
+
+        long version = list.getVersion();
+        list.add(10);
+        assertEquals(version + 1, list.getVersion());
+        list.set(0, 42);
+        assertEquals(version + 2, list.getVersion());
+
+        list.getReadWriteLock().writeLock().lock();
+        try {
+            list.add(11);
+            list.remove(0);
+            list.getReadWriteLock().writeLock().lock();
+            try {
+                list.add(12);
+            } finally {
+                list.getReadWriteLock().writeLock().unlock();
+            }
+            assertEquals(version + 2, list.getVersion());
+        } finally {
+            list.getReadWriteLock().writeLock().unlock();
+        }
+        assertEquals(version + 3, list.getVersion());
+
+        // An empty batch publishes nothing.
+
+        list.getReadWriteLock().writeLock().lock();
+        list.getReadWriteLock().writeLock().unlock();
+        assertEquals(version + 3, list.getVersion());
+    }
+
+    /**
+     * Test that the write lock owner reads its own changes while other
+     * threads keep reading the last published snapshot, without blocking,
+     * until the outermost unlock.
+     */
+    public void testReadersSeePublishedSnapshot() throws Exception {
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Callable<List<Integer>> read = new Callable<List<Integer>>() {
+            public List<Integer> call() {
+                return new ArrayList<Integer>(list);
+            }
+        };
+
+        try {
+            List<Integer> published = new ArrayList<Integer>(list);
+
+            list.getReadWriteLock().writeLock().lock();
+            try {
+                list.add(10);
+                list.remove(0);
+                list.add(0, 42);
+
+                assertEquals(11, list.size());
+                assertEquals(Integer.valueOf(42), list.get(0));
+                assertEquals(Integer.valueOf(10), list.get(10));
+
+                List<Integer> seen = reader.submit(read).get(5,
+                    TimeUnit.SECONDS);
+                assertEquals(published, seen);
+            } finally {
+                list.getReadWriteLock().writeLock().unlock();
+            }
+
+            List<Integer> seen = reader.submit(read).get(5, TimeUnit.SECONDS);
+            assertEquals(11, seen.size());
+            assertEquals(Integer.valueOf(42), seen.get(0));
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that iterators opened by the write lock owner in the middle of a
+     * batch are not affected by the following changes of the batch.
+     */
+    public void testIteratorInBatch() {
+
+        list.getReadWriteLock().writeLock().lock();
+        try {
+            list.add(10);
+            Iterator<Integer> iterator = list.iterator();
+            list.clear();
+            int count = 0;
+            while (iterator.hasNext()) {
+                assertEquals(Integer.valueOf(count), iterator.next());
+                count++;
+            }
+            assertEquals(11, count);
+        } finally {
+            list.getReadWriteLock().writeLock().unlock();
+        }
+        assertTrue(list.isEmpty());
+    }
+
+    /**
+     * Test, with random changes and batches, that a list mirrored using the
+     * fired events always equals the tested list and that concurrent readers
+     * only see complete published snapshots.
+     */
+    public void testRandomMirror() throws Exception {
+
+        final DefaultActiveList<Integer> mirror =
+            new DefaultActiveList<Integer>();
+        mirror.addAll(list);
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                ActiveListUtility.synchronize(list, mirror, event);
+            }
+        });
+
+        // Every published snapshot holds ascending items: a reader seeing a
+        // partial batch would catch an unsorted list.
+
+        final List<Throwable> errors =
+            Collections.synchronizedList(new ArrayList<Throwable>());
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread reader = new Thread() {
+            public void run() {
+                while (done.getCount() > 0) {
+                    List<Integer> snapshot = list.getSnapshot();
+                    for (int i = 1; i < snapshot.size(); i++) {
+                        if (snapshot.get(i - 1) > snapshot.get(i)) {
+                            errors.add(new IllegalStateException(
+                                "Unsorted snapshot: " + snapshot));
+                            return;
+                        }
+                    }
+                }
+            }
+        };
+        reader.start();
+
+        Random random = new Random(17);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                list.getReadWriteLock().writeLock().lock();
+                try {
+                    int changes = 1 + random.nextInt(4);
+                    for (int j = 0; j < changes; j++) {
+                        change(random);
+                    }
+                    sort();
+                } finally {
+                    list.getReadWriteLock().writeLock().unlock();
+                }
+                assertEquals(list, mirror);
+            }
+        } finally {
+            done.countDown();
+            reader.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Apply a random change to the tested list.
+     * @param random The random generator.
+     */
+    private void change(Random random) {
+
+        int size = list.size();
+        switch (random.nextInt(6)) {
+        case 0:
+            list.add(random.nextInt(100));
+            break;
+        case 1:
+            list.add(random.nextInt(size + 1), random.nextInt(100));
+            break;
+        case 2:
+            list.addAll(random.nextInt(size + 1),
+                Arrays.asList(random.nextInt(100), random.nextInt(100)));
+            break;
+        case 3:
+            if (size > 0) {
+                list.remove(random.nextInt(size));
+            }
+            break;
+        case 4:
+            if (size > 0) {
+                list.set(random.nextInt(size), random.nextInt(100));
+            }
+            break;
+        default:
+            list.removeAll(Arrays.asList(random.nextInt(100)));
+            break;
+        }
+    }
+
+    /** Sort the tested list in place, firing one change per moved item. */
+    private void sort() {
+
+        List<Integer> sorted = new ArrayList<Integer>(list);
+        Collections.sort(sorted);
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).equals(list.get(i))) {
+                list.set(i, sorted.get(i));
+            }
+        }
+    }
+}
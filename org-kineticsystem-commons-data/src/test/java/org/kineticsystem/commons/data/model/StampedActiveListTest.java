@@ -0,0 +1,239 @@
+/*
+ * StampedActiveListTest.java
+ *
+ * Created on 18 October 2026, 19.10
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>StampedActiveList</tt> class: reentrancy and downgrade of
+ * the lock adapter, consistency of optimistic reads.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class StampedActiveListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The list to be tested. */
+    private StampedActiveList<Integer> list;
+
+    /** The lock of the tested list. */
+    private ReadWriteLock lock;
+
+    /** The thread used to test the lock from outside. */
+    private ExecutorService other;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public StampedActiveListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(StampedActiveListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(StampedActiveListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new StampedActiveList<Integer>();
+        lock = list.getReadWriteLock();
+        other = Executors.newSingleThreadExecutor();
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        other.shutdownNow();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test that both locks are reentrant. */
+    public void testReentrancy() throws Exception {
+
+        lock.writeLock().lock();
+        lock.writeLock().lock();
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        lock.writeLock().unlock();
+        assertFalse(canRead());
+        lock.writeLock().unlock();
+        assertTrue(canWrite());
+
+        lock.readLock().lock();
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        assertFalse(canWrite());
+        assertTrue(canRead());
+        lock.readLock().unlock();
+        assertTrue(canWrite());
+    }
+
+    /**
+     * Test that a read lock acquired by the write lock owner becomes a real
+     * read lock when the write lock is released: other readers are admitted,
+     * writers are not until the read lock is released.
+     */
+    public void testDowngrade() throws Exception {
+
+        lock.writeLock().lock();
+        list.add(1);
+        lock.readLock().lock();
+        lock.writeLock().unlock();
+
+        assertTrue(canRead());
+        assertFalse(canWrite());
+        assertEquals(1, list.size());
+        assertEquals(Integer.valueOf(1), list.get(0));
+
+        lock.readLock().unlock();
+        assertTrue(canWrite());
+    }
+
+    /** Test that locks not held cannot be released. */
+    public void testUnlockWithoutHolds() {
+
+        try {
+            lock.readLock().unlock();
+            fail("Read lock not held!");
+        } catch (IllegalMonitorStateException ex) {
+            // Expected.
+        }
+        try {
+            lock.writeLock().unlock();
+            fail("Write lock not held!");
+        } catch (IllegalMonitorStateException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that optimistic reads never return a value the list did not
+     * contain while a writer is changing it: each element equals its index.
+     */
+    public void testOptimisticReads() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+
+        Future<?> writer = other.submit(new Callable<Void>() {
+            public Void call() {
+                for (int i = 0; i < 20000; i++) {
+                    lock.writeLock().lock();
+                    try {
+                        list.remove(list.size() - 1);
+                        list.add(list.size());
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                return null;
+            }
+        });
+
+        while (!writer.isDone()) {
+            int size = list.size();
+            assertTrue(String.valueOf(size), (size == 99) || (size == 100));
+            for (int i = 0; i < 99; i++) {
+                assertEquals(Integer.valueOf(i), list.get(i));
+            }
+        }
+        writer.get();
+        assertEquals(100, list.size());
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Return true if another thread can acquire the read lock.
+     * @return True if another thread can acquire the read lock.
+     */
+    private boolean canRead() throws Exception {
+        return other.submit(new Callable<Boolean>() {
+            public Boolean call() {
+                if (lock.readLock().tryLock()) {
+                    lock.readLock().unlock();
+                    return Boolean.TRUE;
+                }
+                return Boolean.FALSE;
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Return true if another thread can acquire the write lock.
+     * @return True if another thread can acquire the write lock.
+     */
+    private boolean canWrite() throws Exception {
+        return other.submit(new Callable<Boolean>() {
+            public Boolean call() {
+                if (lock.writeLock().tryLock()) {
+                    lock.writeLock().unlock();
+                    return Boolean.TRUE;
+                }
+                return Boolean.FALSE;
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * TransactionTest.java
+ *
+ * Created on 18 October 2026, 15.40
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>Transaction</tt> class: transaction nesting, owner checks
+ * and sequence numbering, for each list implementation sharing it.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class TransactionTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The lists to be tested. */
+    private List<ActiveList<Integer>> lists;
+
+    /** All events fired by the list currently tested. */
+    private List<ActiveListEvent> events;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public TransactionTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(TransactionTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(TransactionTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        lists = new ArrayList<ActiveList<Integer>>();
+        lists.add(new DefaultActiveList<Integer>());
+        lists.add(new SnapshotActiveList<Integer>());
+        lists.add(new SegmentedActiveList<Integer>(1));
+        events = new ArrayList<ActiveListEvent>();
+        for (ActiveList<Integer> list : lists) {
+            list.addActiveListListener(new ActiveListListener() {
+                public void contentsChanged(ActiveListEvent event) {
+                    ActiveListEvent copy = (ActiveListEvent) event.clone();
+                    copy.setSequenceNumber(event.getSequenceNumber());
+                    copy.setLastSequenceNumber(
+                        event.getLastSequenceNumber());
+                    events.add(copy);
+                }
+            });
+        }
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that nested transactions fire nothing and that the outermost one
+     * fires the compressed events as a single numbered sequence.
+     */
+    public void testNesting() {
+
+        for (ActiveList<Integer> list : lists) {
+
+            events.clear();
+            list.beginTransaction();
+            list.add(1);
+            list.add(2);
+            list.beginTransaction();
+            list.add(0, 0);
+            list.set(2, 42);
+            list.commitTransaction();
+            assertTrue(name(list), events.isEmpty());
+            list.remove(1);
+            list.commitTransaction();
+
+            assertEquals(name(list), Arrays.asList(0, 42), list);
+            assertFalse(name(list), events.isEmpty());
+            assertSequence(list);
+
+            // The mirror built with the fired events equals the list.
+
+            List<Integer> mirror = new ArrayList<Integer>();
+            for (ActiveListEvent event : events) {
+                for (int i = event.getX(); i <= event.getY(); i++) {
+                    switch (event.getType()) {
+                    case ActiveListEvent.INTERVAL_ADDED:
+                        mirror.add(i, list.get(i));
+                        break;
+                    case ActiveListEvent.INTERVAL_REMOVED:
+                        mirror.remove(event.getX());
+                        break;
+                    default:
+                        mirror.set(i, list.get(i));
+                        break;
+                    }
+                }
+            }
+            assertEquals(name(list), list, mirror);
+        }
+    }
+
+    /**
+     * Test that the write lock is held for the whole transaction and
+     * released by the outermost commit.
+     */
+    public void testLock() throws Exception {
+
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            for (final ActiveList<Integer> list : lists) {
+
+                Callable<Boolean> tryLock = new Callable<Boolean>() {
+                    public Boolean call() {
+                        if (list.getReadWriteLock().writeLock().tryLock()) {
+                            list.getReadWriteLock().writeLock().unlock();
+                            return Boolean.TRUE;
+                        }
+                        return Boolean.FALSE;
+                    }
+                };
+
+                list.beginTransaction();
+                list.beginTransaction();
+                assertFalse(name(list), other.submit(tryLock).get());
+                list.commitTransaction();
+                assertFalse(name(list), other.submit(tryLock).get());
+                list.commitTransaction();
+                assertTrue(name(list), other.submit(tryLock).get());
+            }
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that a commit without a transaction, or from a thread not owning
+     * the transaction, is rejected and leaves the transaction untouched.
+     */
+    public void testOwner() throws Exception {
+
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            for (final ActiveList<Integer> list : lists) {
+
+                try {
+                    list.commitTransaction();
+                    fail(name(list) + ": no transaction started!");
+                } catch (IllegalStateException ex) {
+                    // Expected.
+                }
+
+                Callable<Boolean> commit = new Callable<Boolean>() {
+                    public Boolean call() {
+                        try {
+                            list.commitTransaction();
+                            return Boolean.TRUE;
+                        } catch (IllegalStateException ex) {
+                            return Boolean.FALSE;
+                        }
+                    }
+                };
+
+                events.clear();
+                list.beginTransaction();
+                list.add(7);
+                assertFalse(name(list), other.submit(commit).get(5,
+                    TimeUnit.SECONDS));
+                assertTrue(name(list), events.isEmpty());
+                list.commitTransaction();
+                assertEquals(name(list), 1, events.size());
+                assertSequence(list);
+            }
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that changes made by a single method call outside a transaction
+     * are numbered as a single sequence, while inside a transaction they are
+     * merged with the other changes.
+     */
+    public void testBulkSequence() {
+
+        for (ActiveList<Integer> list : lists) {
+
+            list.addAll(Arrays.asList(1, 2, 3, 4, 5, 6));
+
+            events.clear();
+            list.removeAll(Arrays.asList(2, 4, 6));
+            assertEquals(name(list), Arrays.asList(1, 3, 5), list);
+            assertEquals(name(list), 3, events.size());
+            assertSequence(list);
+
+            events.clear();
+            list.beginTransaction();
+            list.removeAll(Arrays.asList(1, 5));
+            list.add(0, 9);
+            list.commitTransaction();
+            assertEquals(name(list), Arrays.asList(9, 3), list);
+            assertSequence(list);
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Check that the recorded events are numbered from 0 to the last sequence
+     * number.
+     * @param list The tested list.
+     */
+    private void assertSequence(ActiveList<Integer> list) {
+        for (int i = 0; i < events.size(); i++) {
+            ActiveListEvent event = events.get(i);
+            assertEquals(name(list), i, event.getSequenceNumber());
+            assertEquals(name(list), events.size() - 1,
+                event.getLastSequenceNumber());
+        }
+    }
+
+    /**
+     * Return the name of the tested list used in failure messages.
+     * @param list The tested list.
+     * @return The name of the tested list.
+     */
+    private String name(ActiveList<Integer> list) {
+        return list.getClass().getSimpleName();
+    }
+}
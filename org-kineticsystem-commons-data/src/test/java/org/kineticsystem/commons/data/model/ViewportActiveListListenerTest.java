@@ -0,0 +1,351 @@
+/*
+ * ViewportActiveListListenerTest.java
+ *
+ * Created on 18 October 2026, 22.05
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>ViewportActiveListListener</tt> class: the rows of the
+ * range mirrored using the notified changes must equal the list rows inside
+ * the range.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ViewportActiveListListenerTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The observed list. */
+    private ActiveList<Integer> list;
+
+    /** The decorator to be tested. */
+    private ViewportActiveListListener viewport;
+
+    /** The mirrored rows of the range. */
+    private List<Integer> rows;
+
+    /** The index of the first mirrored row. */
+    private int first;
+
+    /** The number of viewport notifications. */
+    private int viewportChanges;
+
+    /** True if the range has been moved by the current sequence. */
+    private boolean moved;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ViewportActiveListListenerTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ViewportActiveListListenerTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ViewportActiveListListenerTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        DefaultActiveList<Integer> source = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i);
+        }
+        list = source;
+        viewport = new ViewportActiveListListener(new ViewportListener() {
+            public void viewportChanged(Object source, int first, int last) {
+                ViewportActiveListListenerTest.this.first = first;
+                viewportChanges++;
+                moved = true;
+            }
+            public void contentsChanged(ActiveListEvent event) {
+
+                // The forwarded changes of a sequence moving the range are
+                // not relative to the new range: reload its rows.
+
+                if (!moved) {
+                    mirror(event);
+                } else if (event.getSequenceNumber()
+                        == event.getLastSequenceNumber()) {
+                    rows = new ArrayList<Integer>(list.subList(
+                        viewport.getFirst(), viewport.getLast() + 1));
+                }
+            }
+        }, 40, 59);
+        rows = new ArrayList<Integer>(list.subList(40, 60));
+        first = 40;
+        viewportChanges = 0;
+        moved = false;
+        list.addActiveListListener(viewport);
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        list.removeActiveListListener(viewport);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test that an invalid range is rejected. */
+    public void testInvalidRange() {
+        try {
+            viewport.setRange(10, 8);
+            fail("The range [10, 8] is not valid!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        viewport.setRange(10, 9);
+        assertEquals(9, viewport.getLast());
+    }
+
+    /** Test how the range follows its rows. */
+    public void testRange() {
+
+        list.add(0, -1);
+        assertEquals(41, viewport.getFirst());
+        assertEquals(60, viewport.getLast());
+        assertEquals(1, viewportChanges);
+
+        list.add(50, -2);
+        assertEquals(61, viewport.getLast());
+        assertEquals(1, viewportChanges);
+
+        list.set(90, -3);
+        list.add(95, -4);
+        assertEquals(2, viewportChanges);
+
+        for (int i = 0; i < 15; i++) {
+            list.remove(30);
+        }
+        assertEquals(30, viewport.getFirst());
+        assertEquals(46, viewport.getLast());
+        check();
+    }
+
+    /**
+     * Test, with random changes, sequences of changes and range moves, that
+     * the mirrored rows always equal the list rows inside the range.
+     */
+    public void testRandomMirror() {
+
+        Random random = new Random(15);
+        for (int i = 0; i < 3000; i++) {
+            int size = list.size();
+            switch (random.nextInt(7)) {
+            case 0:
+            case 1:
+                list.add(random.nextInt(size + 1), 1000 + i);
+                break;
+            case 2:
+                if (size > 0) {
+                    list.remove(random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    list.set(random.nextInt(size), 1000 + i);
+                }
+                break;
+            case 4:
+                list.removeAll(Arrays.asList(1000 + random.nextInt(i + 1),
+                    random.nextInt(100)));
+                break;
+            case 5:
+                if (random.nextInt(10) == 0) {
+                    int newFirst = random.nextInt(size + 1);
+                    int newLast = Math.min(size - 1,
+                        newFirst + random.nextInt(30));
+                    viewport.setRange(newFirst, newLast);
+                    rows = new ArrayList<Integer>(
+                        list.subList(newFirst, newLast + 1));
+                    first = newFirst;
+                }
+                break;
+            default:
+                try {
+                    list.beginTransaction();
+                    list.add(random.nextInt(list.size() + 1), 1000 + i);
+                    if (list.size() > 1) {
+                        list.set(random.nextInt(list.size()), 2000 + i);
+                        list.remove(random.nextInt(list.size()));
+                    }
+                } finally {
+                    list.commitTransaction();
+                }
+                break;
+            }
+            check();
+        }
+    }
+
+    /**
+     * Test that a <tt>STRUCTURE_CHANGED</tt> change is forwarded and limits
+     * the range to the new list size.
+     */
+    public void testStructureChanged() {
+
+        list.setActive(false);
+        list.subList(50, 100).clear();
+        list.set(45, -1);
+        list.setActive(true);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        event.setX(0);
+        event.setY(list.size() - 1);
+        list.fireContentsChanged(event);
+        assertEquals(40, viewport.getFirst());
+        assertEquals(49, viewport.getLast());
+        check();
+
+        list.add(45, -2);
+        assertEquals(50, viewport.getLast());
+        check();
+    }
+
+    /**
+     * Test, with random changes of a sorted list, that the mirrored rows
+     * always equal the list rows inside the range: moves must be forwarded as
+     * removals followed by insertions at their destination.
+     */
+    public void testRandomMoves() {
+
+        DefaultActiveList<Integer> source =
+            (DefaultActiveList<Integer>) list;
+        source.removeActiveListListener(viewport);
+        SortMapping<Integer> mapping = new SortMapping<Integer>(source);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i2.compareTo(i1);
+            }
+        });
+        mapping.rebuild();
+        list = (ActiveList<Integer>) mapping.getTarget();
+        rows = new ArrayList<Integer>(list.subList(40, 60));
+        list.addActiveListListener(viewport);
+
+        Random random = new Random(16);
+        int moves = 0;
+        for (int i = 0; i < 3000; i++) {
+            int index = random.nextInt(source.size());
+            int value = random.nextInt(1000) * 10000 + 1000 + i;
+            if (random.nextInt(5) == 0) {
+                source.add(index, value);
+                source.remove(random.nextInt(source.size()));
+            } else {
+                int position = list.indexOf(source.get(index));
+                source.set(index, value);
+                if (list.indexOf(value) != position) {
+                    moves++;
+                }
+            }
+            check();
+        }
+        assertTrue(moves > 0);
+        list.removeActiveListListener(viewport);
+        list = source;
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Apply the given change to the mirrored rows, reading added and modified
+     * rows from the list.
+     * @param event The notified change.
+     */
+    private void mirror(ActiveListEvent event) {
+        int x = event.getX();
+        int y = event.getY();
+        switch (event.getType()) {
+        case ActiveListEvent.INTERVAL_ADDED:
+            rows.addAll(x - first, list.subList(x, y + 1));
+            break;
+        case ActiveListEvent.INTERVAL_REMOVED:
+            int from = Math.max(x, first);
+            int to = Math.min(y, first + rows.size() - 1);
+            rows.subList(from - first, to - first + 1).clear();
+            first -= Math.max(0, first - x);
+            break;
+        case ActiveListEvent.STRUCTURE_CHANGED:
+            first = viewport.getFirst();
+            rows = new ArrayList<Integer>(list.subList(first,
+                viewport.getLast() + 1));
+            break;
+        default:
+            for (int i = Math.max(x, first);
+                    i <= Math.min(y, first + rows.size() - 1); i++) {
+                rows.set(i - first, list.get(i));
+            }
+        }
+    }
+
+    /**
+     * Check, at the end of a sequence, that the mirrored rows equal the list
+     * rows inside the range.
+     */
+    private void check() {
+        moved = false;
+        assertEquals(viewport.getFirst(), first);
+        assertEquals(list.subList(viewport.getFirst(), viewport.getLast() + 1),
+            rows);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * ColumnarListTest.java
+ *
+ * Created on 18 October 2026, 17.30
+ *
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.columnar;
+
+// Java classes.
+
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListListener;
+import org.kineticsystem.commons.data.model.ActiveListUtility;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+
+/**
+ * Test unit for <tt>ColumnarList</tt> and <tt>ColumnarActiveList</tt> classes:
+ * rows returned by the lists are detached copies not affected by later
+ * changes.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ColumnarListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The column names. */
+    private static final String[] NAMES = {"id", "time", "price", "name"};
+
+    /** The column types. */
+    private static final Class<?>[] TYPES =
+        {int.class, long.class, double.class, String.class};
+
+    /** The list to be tested. */
+    private ColumnarActiveList list;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ColumnarListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ColumnarListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ColumnarListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new ColumnarActiveList(NAMES, TYPES);
+        for (int i = 0; i < 5; i++) {
+            list.add(row(i));
+        }
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that a row read from the list keeps its values when the list is
+     * modified.
+     */
+    public void testDetachedRow() {
+
+        Row row = list.get(2);
+        list.setInt(2, 0, 42);
+        list.remove(0);
+        list.add(0, row(9));
+
+        assertEquals(row(2), row);
+        assertEquals(2, row.getInt(0));
+        assertEquals(2L, row.getLong(1));
+        assertEquals(2.5, row.getDouble(2), 0.0);
+        assertEquals("row2", row.getValue(3));
+        assertEquals(42, list.getInt(2, 0));
+    }
+
+    /**
+     * Test that rows read from the list can be used as hash keys: their hash
+     * code does not change when the list is modified.
+     */
+    public void testRowHashCode() {
+
+        Set<Row> rows = new HashSet<Row>(list);
+        list.clear();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rows.contains(row(i)));
+        }
+    }
+
+    /**
+     * Test that the cell methods read and write the column arrays directly.
+     */
+    public void testCells() {
+
+        assertEquals(3, list.getInt(3, 0));
+        assertEquals(3L, list.getLong(3, 1));
+        assertEquals(3.5, list.getDouble(3, 2), 0.0);
+        assertEquals("row3", list.getValue(3, 3));
+        assertEquals(Integer.valueOf(3), list.setValue(3, 0, 30));
+        assertEquals(3.5, list.setDouble(3, 2, 30.5), 0.0);
+        assertEquals(new DefaultRow(30, 3L, 30.5, "row3"), list.get(3));
+    }
+
+    /**
+     * Test that a list mirrored using the fired events, the way a
+     * <tt>DataList</tt> copies rows into its swing list, is not changed by the
+     * source list until the next event and then equals it.
+     */
+    public void testMirror() {
+
+        final DefaultActiveList<Row> mirror = new DefaultActiveList<Row>();
+        mirror.addAll(list);
+        final List<ActiveListEvent> pending = new ArrayList<ActiveListEvent>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                pending.add((ActiveListEvent) event.clone());
+            }
+        });
+
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+
+            List<Row> before = new ArrayList<Row>();
+            for (Row row : mirror) {
+                before.add(new DefaultRow(row.getValue(0), row.getValue(1),
+                    row.getValue(2), row.getValue(3)));
+            }
+
+            int size = list.size();
+            switch (random.nextInt(4)) {
+            case 0:
+                list.add(random.nextInt(size + 1), row(random.nextInt(100)));
+                break;
+            case 1:
+                if (size > 0) {
+                    list.remove(random.nextInt(size));
+                }
+                break;
+            case 2:
+                if (size > 0) {
+                    list.setInt(random.nextInt(size), 0, random.nextInt(100));
+                }
+                break;
+            default:
+                if (size > 0) {
+                    list.set(random.nextInt(size), row(random.nextInt(100)));
+                }
+                break;
+            }
+
+            // Rows already copied into the mirror are not affected.
+
+            assertEquals(before, mirror);
+
+            for (ActiveListEvent event : pending) {
+                ActiveListUtility.synchronize(list, mirror, event);
+            }
+            pending.clear();
+            assertEquals(list, mirror);
+        }
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Create a row whose values depend on the given key.
+     * @param key The row key.
+     * @return A new detached row.
+     */
+    private static Row row(int key) {
+        return new DefaultRow(key, (long) key, key + 0.5, "row" + key);
+    }
+}
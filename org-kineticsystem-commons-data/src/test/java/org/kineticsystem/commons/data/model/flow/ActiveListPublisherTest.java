@@ -0,0 +1,412 @@
+/*
+ * ActiveListPublisherTest.java
+ *
+ * Created on 18 October 2026, 23.45
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.flow;
+
+// Java classes.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>ActiveListPublisher</tt> class: a copy of the list built
+ * applying the published batches must equal the list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class ActiveListPublisherTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The published list. */
+    private DefaultActiveList<Integer> list;
+
+    /** The executor notifying subscribers. */
+    private ExecutorService executor;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public ActiveListPublisherTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(ActiveListPublisherTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(ActiveListPublisherTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        list = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /** Test that an invalid maximum number of changes is rejected. */
+    public void testMaxPending() {
+        try {
+            new ActiveListPublisher<Integer>(list, executor, true, 0);
+            fail("The maximum number of changes must be positive!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that subscribers starting from a snapshot, fast or slow, keep a
+     * copy equal to the list modified by many writers.
+     */
+    public void testSnapshotSubscribers() throws Exception {
+        check(new ActiveListPublisher<Integer>(list, executor, true, 1024),
+            null);
+    }
+
+    /**
+     * Test that subscribers starting from the list content at subscription
+     * time keep a copy equal to the list, also when their changes are
+     * collapsed.
+     */
+    public void testCollapsedChanges() throws Exception {
+        check(new ActiveListPublisher<Integer>(list, executor, false, 8),
+            new ArrayList<Integer>(list));
+    }
+
+    /**
+     * Test that changes collapsed while a sequence of changes is being
+     * notified describe the list modified by the received changes only.
+     */
+    public void testCollapseInsideSequence() throws Exception {
+
+        while (list.size() > 20) {
+            list.remove(list.size() - 1);
+        }
+        ActiveListPublisher<Integer> publisher =
+            new ActiveListPublisher<Integer>(list, executor, false, 2);
+        CopySubscriber subscriber = new CopySubscriber(
+            new ArrayList<Integer>(list), 0, 0);
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(60, TimeUnit.SECONDS));
+
+        try {
+            list.beginTransaction();
+            list.add(11, -1);
+            list.remove(12);
+            list.add(0, -2);
+            list.add(15, -3);
+            list.add(list.size(), -4);
+            list.set(list.size() - 1, -5);
+        } finally {
+            list.commitTransaction();
+        }
+
+        subscriber.subscription.request(1);
+        publisher.close();
+        assertTrue(subscriber.completed.await(60, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(list, subscriber.copy);
+    }
+
+    /**
+     * Test that subscribers of a sorted list keep a copy equal to the list:
+     * moves must be published with their destination, also when collapsed.
+     */
+    public void testMoves() throws Exception {
+
+        SortMapping<Integer> mapping = new SortMapping<Integer>(list);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i2.compareTo(i1);
+            }
+        });
+        mapping.rebuild();
+        ActiveList<Integer> sorted = (ActiveList<Integer>) mapping.getTarget();
+        ActiveListPublisher<Integer> publisher =
+            new ActiveListPublisher<Integer>(sorted, executor, false, 8);
+        CopySubscriber fast = new CopySubscriber(
+            new ArrayList<Integer>(sorted), Long.MAX_VALUE, 0);
+        CopySubscriber slow = new CopySubscriber(
+            new ArrayList<Integer>(sorted), 1, 1);
+        publisher.subscribe(fast);
+        publisher.subscribe(slow);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(1000) * 10000 + 100 + i;
+            if (random.nextInt(5) == 0) {
+                list.add(random.nextInt(list.size() + 1), value);
+                list.remove(random.nextInt(list.size()));
+            } else {
+                list.set(random.nextInt(list.size()), value);
+            }
+        }
+
+        publisher.close();
+        assertTrue(fast.completed.await(60, TimeUnit.SECONDS));
+        assertTrue(slow.completed.await(60, TimeUnit.SECONDS));
+        assertNull(fast.error);
+        assertNull(slow.error);
+        assertEquals(sorted, fast.copy);
+        assertEquals(sorted, slow.copy);
+    }
+
+    /**
+     * Test that a <tt>STRUCTURE_CHANGED</tt> change is published as a
+     * snapshot of the whole list.
+     */
+    public void testStructureChanged() throws Exception {
+
+        ActiveListPublisher<Integer> publisher =
+            new ActiveListPublisher<Integer>(list, executor, false, 1024);
+        CopySubscriber subscriber = new CopySubscriber(
+            new ArrayList<Integer>(list), 0, 0);
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(60, TimeUnit.SECONDS));
+
+        list.add(5, -1);
+        list.setActive(false);
+        list.subList(10, 60).clear();
+        list.set(0, -2);
+        list.setActive(true);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        event.setX(0);
+        event.setY(list.size() - 1);
+        list.fireContentsChanged(event);
+        list.remove(3);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        publisher.close();
+        assertTrue(subscriber.completed.await(60, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(list, subscriber.copy);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Subscribe a fast and a slow subscriber, modify the list from many
+     * threads, close the publisher and check the subscriber copies.
+     * @param publisher The publisher to be tested.
+     * @param initial The list content at subscription time or null if the
+     *     first batch is a snapshot.
+     * @throws Exception If the test cannot be completed.
+     */
+    private void check(ActiveListPublisher<Integer> publisher,
+            List<Integer> initial) throws Exception {
+
+        CopySubscriber fast = new CopySubscriber(initial, Long.MAX_VALUE, 0);
+        CopySubscriber slow = new CopySubscriber(initial, 1, 1);
+        publisher.subscribe(fast);
+        publisher.subscribe(slow);
+        assertEquals(2, publisher.getNumberOfSubscribers());
+
+        final int writers = 4;
+        ExecutorService producers = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int w = 0; w < writers; w++) {
+            final int seed = w;
+            futures.add(producers.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 1000; i++) {
+                        switch (random.nextInt(5)) {
+                        case 0:
+                        case 1:
+                            list.add(random.nextInt(100));
+                            break;
+                        case 2:
+                            list.removeAll(Arrays.asList(random.nextInt(100)));
+                            break;
+                        case 3:
+                            try {
+                                list.beginTransaction();
+                                list.add(0, i);
+                                list.set(list.size() - 1, -i);
+                            } finally {
+                                list.commitTransaction();
+                            }
+                            break;
+                        default:
+                            list.remove(Integer.valueOf(random.nextInt(100)));
+                            break;
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+
+        publisher.close();
+        assertTrue(fast.completed.await(60, TimeUnit.SECONDS));
+        assertTrue(slow.completed.await(60, TimeUnit.SECONDS));
+        assertNull(fast.error);
+        assertNull(slow.error);
+        assertEquals(list, fast.copy);
+        assertEquals(list, slow.copy);
+        assertTrue(slow.batches > 0);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Embedded classes.
+     */
+
+    /** A subscriber keeping a copy of the published list. */
+    private static class CopySubscriber
+            implements Flow.Subscriber<ActiveListBatch<Integer>> {
+
+        /** The list copy. */
+        private List<Integer> copy;
+
+        /** The number of batches requested at a time. */
+        private long requested;
+
+        /** The time in milliseconds spent processing each batch. */
+        private long delay;
+
+        /** The subscription. */
+        private volatile Flow.Subscription subscription;
+
+        /** Opened when the subscriber receives its subscription. */
+        private CountDownLatch subscribed;
+
+        /** The number of received batches. */
+        private int batches;
+
+        /** The received error or null. */
+        private Throwable error;
+
+        /** Opened when the subscriber is completed. */
+        private CountDownLatch completed;
+
+        /**
+         * Constructor.
+         * @param initial The list content at subscription time or null.
+         * @param requested The number of batches requested at a time (0 to
+         *     let the test request them).
+         * @param delay The time in milliseconds spent processing each batch.
+         */
+        public CopySubscriber(List<Integer> initial, long requested,
+                long delay) {
+            this.copy = (initial == null) ? new ArrayList<Integer>()
+                : new ArrayList<Integer>(initial);
+            this.requested = requested;
+            this.delay = delay;
+            this.subscribed = new CountDownLatch(1);
+            this.completed = new CountDownLatch(1);
+        }
+
+        /** {@inheritDoc} */
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+            if (requested > 0) {
+                subscription.request(requested);
+            }
+        }
+
+        /** {@inheritDoc} */
+        public void onNext(ActiveListBatch<Integer> batch) {
+            batch.apply(copy);
+            batches++;
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if ((requested > 0) && (requested != Long.MAX_VALUE)) {
+                subscription.request(requested);
+            }
+        }
+
+        /** {@inheritDoc} */
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        /** {@inheritDoc} */
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * EventRecorderTest.java
+ *
+ * Created on 18 October 2026, 21.40
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.File;
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+import org.kineticsystem.commons.data.model.DefaultAssembler;
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>EventRecorder</tt> and <tt>EventReplayer</tt> classes.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class EventRecorderTest extends TestCase {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The recording file. */
+    private File file;
+    
+    /** The recorded list. */
+    private ActiveList<Integer> list;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+    
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public EventRecorderTest(String name) {
+        super(name);
+    }
+    
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(EventRecorderTest.class);
+        return ts;
+    }
+    
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(EventRecorderTest.class);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+    
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        file = File.createTempFile("events", ".rec");
+        list = new DefaultActiveList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            list.add(new Integer(i));
+        }
+    }
+    
+    /** Reset. */
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+    
+    /**
+     * Test that a recording with payloads replayed into an empty list rebuilds
+     * the recorded list, sequences of events included.
+     */
+    public void testReplay() throws Exception {
+        
+        EventRecorder<Integer> recorder = EventRecorder.start(list, file,
+            new SerializableCodec<Integer>());
+        modify(list);
+        recorder.close();
+        
+        EventReplayer<Integer> replayer = EventReplayer.open(file,
+            new SerializableCodec<Integer>());
+        assertEquals(recorder.getCount(), replayer.getEventCount());
+        assertEquals(100, replayer.getElements().size());
+        
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        EventReplayer.Report report = replayer.replay(copy, false);
+        assertEquals(list, copy);
+        assertEquals(replayer.getEventCount(), report.getEventCount());
+        
+        // The same recording can be replayed many times.
+        
+        copy.add(new Integer(42));
+        replayer.replay(copy, false);
+        assertEquals(list, copy);
+        
+        report = replayer.replay(new DefaultAssembler());
+        assertEquals(replayer.getEventCount(),
+            report.getLatency().getCount());
+    }
+    
+    /**
+     * Test that a recording without payloads rebuilds the list size.
+     */
+    public void testReplayWithoutPayloads() throws Exception {
+        
+        EventRecorder<Integer> recorder = EventRecorder.start(list, file,
+            null);
+        modify(list);
+        recorder.close();
+        
+        EventReplayer<Integer> replayer = EventReplayer.open(file, null);
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        replayer.replay(copy, false);
+        assertEquals(list.size(), copy.size());
+    }
+    
+    /**
+     * Test that a recording of a sorted list replayed into an empty list
+     * rebuilds the recorded list: moves must be replayed to their
+     * destination.
+     */
+    public void testReplayMoves() throws Exception {
+        
+        SortMapping<Integer> mapping = new SortMapping<Integer>(list);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i2.compareTo(i1);
+            }
+        });
+        mapping.rebuild();
+        ActiveList<Integer> sorted = (ActiveList<Integer>) mapping.getTarget();
+        EventRecorder<Integer> recorder = EventRecorder.start(sorted, file,
+            new SerializableCodec<Integer>());
+        Random random = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(list.size());
+            Integer value = new Integer(random.nextInt(1000) * 1000 + i);
+            if (random.nextInt(5) == 0) {
+                list.add(index, value);
+                list.remove(random.nextInt(list.size()));
+            } else {
+                list.set(index, value);
+            }
+        }
+        recorder.close();
+        
+        EventReplayer<Integer> replayer = EventReplayer.open(file,
+            new SerializableCodec<Integer>());
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        replayer.replay(copy, false);
+        assertEquals(sorted, copy);
+        
+        EventReplayer.Report report = replayer.replay(new DefaultAssembler());
+        assertEquals(replayer.getEventCount(),
+            report.getLatency().getCount());
+    }
+    
+    /**
+     * Test that a <tt>STRUCTURE_CHANGED</tt> event is replayed as a reload of
+     * the whole list, with and without payloads.
+     */
+    public void testReplayStructureChanged() throws Exception {
+        
+        EventRecorder<Integer> recorder = EventRecorder.start(list, file,
+            new SerializableCodec<Integer>());
+        File other = File.createTempFile("events", ".rec");
+        EventRecorder<Integer> sizes = EventRecorder.start(list, other, null);
+        try {
+            list.add(5, new Integer(-1));
+            list.setActive(false);
+            list.subList(10, 60).clear();
+            list.set(0, new Integer(-2));
+            list.setActive(true);
+            ActiveListEvent event = new ActiveListEvent(list);
+            event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+            event.setX(0);
+            event.setY(list.size() - 1);
+            list.fireContentsChanged(event);
+            list.remove(3);
+            recorder.close();
+            sizes.close();
+            
+            ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+            EventReplayer.open(file, new SerializableCodec<Integer>())
+                .replay(copy, false);
+            assertEquals(list, copy);
+            
+            copy.clear();
+            EventReplayer.<Integer>open(other, null).replay(copy, false);
+            assertEquals(list.size(), copy.size());
+        } finally {
+            other.delete();
+        }
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Apply random changes to the given list.
+     * @param list The list to be modified.
+     */
+    private void modify(ActiveList<Integer> list) {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(4);
+            int index = random.nextInt(list.size());
+            if (operation == 0) {
+                list.add(index, new Integer(1000 + i));
+            } else if (operation == 1) {
+                list.remove(index);
+            } else {
+                list.set(index, new Integer(2000 + i));
+            }
+        }
+        
+        // Sequences of events.
+        
+        try {
+            list.beginTransaction();
+            list.add(0, new Integer(5000));
+            list.set(10, new Integer(5001));
+            list.remove(20);
+            list.add(30, new Integer(5002));
+            list.set(40, new Integer(5003));
+        } finally {
+            list.commitTransaction();
+        }
+        list.removeAll(Arrays.asList(3, 5, 7, 11, 13));
+        list.retainAll(new HashSet<Integer>(list.subList(0, 60)));
+    }
+}
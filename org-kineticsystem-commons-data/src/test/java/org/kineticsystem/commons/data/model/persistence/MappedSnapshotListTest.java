@@ -0,0 +1,242 @@
+/*
+ * MappedSnapshotListTest.java
+ *
+ * Created on 18 October 2026, 21.50
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+/**
+ * Test unit for <tt>BinarySnapshot</tt> and <tt>MappedSnapshotList</tt>
+ * classes: elements encoded, mapped and decoded must equal the written ones.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class MappedSnapshotListTest extends TestCase {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The snapshot file. */
+    private File file;
+    
+    /** The written elements. */
+    private List<String> elements;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+    
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public MappedSnapshotListTest(String name) {
+        super(name);
+    }
+    
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(MappedSnapshotListTest.class);
+        return ts;
+    }
+    
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(MappedSnapshotListTest.class);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+    
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        file = File.createTempFile("snapshot", ".bin");
+        elements = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element-" + i);
+        }
+        BinarySnapshot.write(elements, file, new SerializableCodec<String>());
+    }
+    
+    /** Reset. */
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+    
+    /**
+     * Test that the mapped elements equal the written ones and are decoded
+     * only when read.
+     */
+    public void testRoundTrip() throws Exception {
+        
+        MappedSnapshotList<String> list = BinarySnapshot.map(file,
+            new SerializableCodec<String>());
+        assertEquals(elements.size(), list.size());
+        assertFalse(list.isDecoded(10));
+        assertEquals("element-10", list.get(10));
+        assertTrue(list.isDecoded(10));
+        assertFalse(list.isDecoded(11));
+        assertEquals(elements, list);
+        
+        // An empty list.
+        
+        BinarySnapshot.write(new ArrayList<String>(), file,
+            new SerializableCodec<String>());
+        assertTrue(BinarySnapshot.map(file,
+            new SerializableCodec<String>()).isEmpty());
+    }
+    
+    /** Test that invalid or truncated snapshots are rejected. */
+    public void testInvalidSnapshot() throws Exception {
+        
+        FileOutputStream out = new FileOutputStream(file, true);
+        out.write(1);
+        out.close();
+        try {
+            BinarySnapshot.map(file, new SerializableCodec<String>());
+            fail("The snapshot is truncated!");
+        } catch (IOException ex) {
+            // Expected.
+        }
+        
+        out = new FileOutputStream(file);
+        out.write(new byte[16]);
+        out.close();
+        try {
+            BinarySnapshot.map(file, new SerializableCodec<String>());
+            fail("The snapshot is not valid!");
+        } catch (IOException ex) {
+            // Expected.
+        }
+    }
+    
+    /**
+     * Test, with random changes, that a mapped list modified before its
+     * elements are decoded always equals a list receiving the same changes.
+     */
+    public void testRandomChanges() throws Exception {
+        
+        MappedSnapshotList<String> list = BinarySnapshot.map(file,
+            new SerializableCodec<String>());
+        List<String> expected = new ArrayList<String>(elements);
+        Random random = new Random(14);
+        for (int i = 0; i < 3000; i++) {
+            int size = list.size();
+            int index = random.nextInt(size + 1);
+            switch (random.nextInt(5)) {
+            case 0:
+                list.add(index, "added-" + i);
+                expected.add(index, "added-" + i);
+                break;
+            case 1:
+                if (index < size) {
+                    assertEquals(expected.remove(index), list.remove(index));
+                }
+                break;
+            case 2:
+                if (index < size) {
+                    assertEquals(expected.set(index, "set-" + i),
+                        list.set(index, "set-" + i));
+                }
+                break;
+            case 3:
+                int to = Math.min(size, index + random.nextInt(4));
+                list.subList(index, to).clear();
+                expected.subList(index, to).clear();
+                break;
+            default:
+                if (index < size) {
+                    assertEquals(expected.get(index), list.get(index));
+                }
+                break;
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, list);
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+    
+    /**
+     * Test that concurrent readers decoding the same elements always see the
+     * same element instances.
+     */
+    public void testConcurrentReaders() throws Exception {
+        
+        final MappedSnapshotList<String> list = BinarySnapshot.map(file,
+            new SerializableCodec<String>());
+        final int readers = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        List<Future<String[]>> futures = new ArrayList<Future<String[]>>();
+        for (int r = 0; r < readers; r++) {
+            futures.add(executor.submit(new Callable<String[]>() {
+                public String[] call() throws Exception {
+                    start.await();
+                    String[] read = new String[list.size()];
+                    for (int i = 0; i < read.length; i++) {
+                        read[i] = list.get(i);
+                    }
+                    return read;
+                }
+            }));
+        }
+        start.countDown();
+        try {
+            String[] first = futures.get(0).get(60, TimeUnit.SECONDS);
+            for (Future<String[]> future : futures) {
+                String[] read = future.get(60, TimeUnit.SECONDS);
+                for (int i = 0; i < read.length; i++) {
+                    assertEquals(elements.get(i), read[i]);
+                    assertSame(first[i], read[i]);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
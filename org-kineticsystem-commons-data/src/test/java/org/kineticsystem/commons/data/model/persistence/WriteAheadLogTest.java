@@ -0,0 +1,284 @@
+/*
+ * WriteAheadLogTest.java
+ *
+ * Created on 18 October 2026, 21.30
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.persistence;
+
+// Java classes.
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+
+/**
+ * Test unit for <tt>WriteAheadLog</tt> class: a list recovered from the log
+ * must equal the logged list.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class WriteAheadLogTest extends TestCase {
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+    
+    /** The log directory. */
+    private File directory;
+    
+    /** The logged list. */
+    private ActiveList<Integer> list;
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+    
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public WriteAheadLogTest(String name) {
+        super(name);
+    }
+    
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(WriteAheadLogTest.class);
+        return ts;
+    }
+    
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(WriteAheadLogTest.class);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+    
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("wal").toFile();
+        list = new DefaultActiveList<Integer>();
+    }
+    
+    /** Reset. */
+    public void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+    
+    /** Test that invalid log parameters are rejected. */
+    public void testParameters() throws Exception {
+        try {
+            WriteAheadLog.open(list, directory, 4096, 0, 1);
+            fail("The group size must be positive!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+    
+    /**
+     * Test that a list recovered from a closed log equals the logged list,
+     * with segments rolled and checkpoints written during the changes.
+     */
+    public void testRecovery() throws Exception {
+        
+        WriteAheadLog<Integer> log = WriteAheadLog.open(list, directory, 4096,
+            8, 2);
+        modify(list, 7);
+        log.close();
+        
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        WriteAheadLog<Integer> recovered = WriteAheadLog.open(copy, directory,
+            4096, 8, 2);
+        assertEquals(list, copy);
+        
+        // The recovered log keeps recording.
+        
+        modify(copy, 8);
+        recovered.close();
+        ActiveList<Integer> other = new DefaultActiveList<Integer>();
+        WriteAheadLog.open(other, directory, 4096, 8, 2).close();
+        assertEquals(copy, other);
+    }
+    
+    /**
+     * Test that a list recovered from a log never closed, as after a crash of
+     * the process, equals the logged list.
+     */
+    public void testCrashRecovery() throws Exception {
+        
+        WriteAheadLog<Integer> log = WriteAheadLog.open(list, directory,
+            64 * 1024, 1000, 4);
+        modify(list, 9);
+        
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        WriteAheadLog<Integer> recovered = WriteAheadLog.open(copy, directory,
+            64 * 1024, 1000, 4);
+        assertEquals(list, copy);
+        recovered.close();
+        log.close();
+    }
+    
+    /**
+     * Test that a list recovered from the log of a sorted list, never closed
+     * so that no checkpoint covers the changes, equals the logged list: moves
+     * must be recovered to their destination.
+     */
+    public void testMoves() throws Exception {
+        
+        SortMapping<Integer> mapping = new SortMapping<Integer>(list);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i1.compareTo(i2);
+            }
+        });
+        mapping.rebuild();
+        ActiveList<Integer> sorted = (ActiveList<Integer>) mapping.getTarget();
+        WriteAheadLog<Integer> log = WriteAheadLog.open(sorted, directory,
+            64 * 1024, 1000, 4);
+        Random random = new Random(10);
+        for (int i = 0; i < 1000; i++) {
+            int size = list.size();
+            if ((size == 0) || (random.nextInt(3) == 0)) {
+                list.add(random.nextInt(size + 1), random.nextInt(100));
+            } else if (random.nextBoolean()) {
+                list.set(random.nextInt(size), random.nextInt(100));
+            } else {
+                list.remove(random.nextInt(size));
+            }
+        }
+        
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        WriteAheadLog<Integer> recovered = WriteAheadLog.open(copy, directory,
+            64 * 1024, 1000, 4);
+        assertEquals(sorted, copy);
+        recovered.close();
+        log.close();
+    }
+    
+    /**
+     * Test that a <tt>STRUCTURE_CHANGED</tt> change is recovered as a reload
+     * of the whole list.
+     */
+    public void testStructureChanged() throws Exception {
+        
+        WriteAheadLog<Integer> log = WriteAheadLog.open(list, directory,
+            4096, 8, 2);
+        modify(list, 11);
+        list.setActive(false);
+        list.clear();
+        for (int i = 0; i < 10; i++) {
+            list.add(i * 3);
+        }
+        list.setActive(true);
+        ActiveListEvent event = new ActiveListEvent(list);
+        event.setType(ActiveListEvent.STRUCTURE_CHANGED);
+        event.setX(0);
+        event.setY(list.size() - 1);
+        list.fireContentsChanged(event);
+        list.add(5, -1);
+        log.close();
+        
+        ActiveList<Integer> copy = new DefaultActiveList<Integer>();
+        WriteAheadLog.open(copy, directory, 4096, 8, 2).close();
+        assertEquals(list, copy);
+    }
+    
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+    
+    /**
+     * Apply random changes, single and in sequences, to the given list.
+     * @param list The list to be modified.
+     * @param seed The random seed.
+     */
+    private void modify(ActiveList<Integer> list, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 1000; i++) {
+            int size = list.size();
+            switch (random.nextInt(6)) {
+            case 0:
+            case 1:
+                list.add(random.nextInt(size + 1), random.nextInt(100));
+                break;
+            case 2:
+                if (size > 0) {
+                    list.remove(random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    list.set(random.nextInt(size), random.nextInt(100));
+                }
+                break;
+            case 4:
+                try {
+                    list.beginTransaction();
+                    for (int j = random.nextInt(5); j >= 0; j--) {
+                        list.add(random.nextInt(list.size() + 1), j);
+                        list.set(random.nextInt(list.size()),
+                            random.nextInt(100));
+                        if (random.nextBoolean()) {
+                            list.remove(random.nextInt(list.size()));
+                        }
+                    }
+                } finally {
+                    list.commitTransaction();
+                }
+                break;
+            default:
+                list.removeAll(Arrays.asList(random.nextInt(100)));
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * DataListTest.java
+ *
+ * Created on 18 October 2026, 23.20
+ *
+ * Copyright (C) 2004 Remigi Giovanni
+ * g.remigi@kineticsystem.org
+ * www.kineticsystem.org
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.kineticsystem.commons.data.model.swing;
+
+// Java classes.
+
+import java.awt.EventQueue;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+// JUnit classes.
+
+import junit.framework.*;
+import junit.textui.*;
+
+// Application classes.
+
+import org.kineticsystem.commons.data.model.ActiveList;
+import org.kineticsystem.commons.data.model.ActiveListEvent;
+import org.kineticsystem.commons.data.model.ActiveListListener;
+import org.kineticsystem.commons.data.model.ActiveListUtility;
+import org.kineticsystem.commons.data.model.ConcurrentAssembler;
+import org.kineticsystem.commons.data.model.DefaultActiveList;
+import org.kineticsystem.commons.data.model.StampedActiveList;
+import org.kineticsystem.commons.data.model.mapping.Group;
+import org.kineticsystem.commons.data.model.mapping.GroupMapping;
+import org.kineticsystem.commons.data.model.mapping.SortMapping;
+import org.kineticsystem.commons.data.model.swing.adapters.TableModelAdapter;
+
+/**
+ * Test unit for <tt>DataList</tt> class with the <tt>BLOCK</tt> backpressure
+ * policy and the refresh threshold: writers must be blocked only when they
+ * cannot hold the source list lock and a list mirrored inside the AWT
+ * event-dispatching thread must equal the source list, even when changes are
+ * collapsed into <tt>STRUCTURE_CHANGED</tt> events. A move must reach the list
+ * read by the AWT event-dispatching thread and the table as a single change.
+ * @author Giovanni Remigi
+ * @version $Revision:  $
+ */
+public class DataListTest extends TestCase {
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private variables.
+     */
+
+    /** The gate blocking the AWT event-dispatching thread. */
+    private CountDownLatch gate;
+
+    /** The number of <tt>STRUCTURE_CHANGED</tt> events mirrored. */
+    private int refreshes;
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Constructor.
+     */
+
+    /**
+     * Constructor.
+     * @param name The test case name.
+     */
+    public DataListTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Simple Factory method.
+     * Return a runnable JUnit test suite.
+     */
+    public static Test suite() {
+        TestSuite ts = new TestSuite(DataListTest.class);
+        return ts;
+    }
+
+    /**
+     * Main method.
+     * @param args Array of arguments.
+     */
+    public static void main(String args[]) {
+        TestRunner.run(DataListTest.class);
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Overriden methods.
+     */
+
+    /** Prepare test working structure. */
+    public void setUp() throws Exception {
+        gate = new CountDownLatch(1);
+        refreshes = 0;
+    }
+
+    /** Reset. */
+    public void tearDown() throws Exception {
+        gate.countDown();
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Test methods.
+     */
+
+    /**
+     * Test that writers are blocked while the AWT event-dispatching thread is
+     * late and released when it catches up.
+     */
+    public void testBlock() throws Exception {
+
+        final DataList<Integer> list = new DataList<Integer>();
+        list.setBackpressure(BackpressurePolicy.BLOCK, 5, 0,
+            TimeUnit.MILLISECONDS);
+        List<Integer> mirror = mirror(list);
+        for (int i = 0; i < 40; i++) {
+            list.add(i);
+        }
+        assertEquals(list, flush(list, mirror));
+
+        // Changes of non adjacent items are not merged.
+
+        blockEventDispatchThread();
+        Thread producer = new Thread() {
+            public void run() {
+                for (int i = 0; i < 20; i++) {
+                    list.set(i * 2, -i);
+                }
+            }
+        };
+        producer.start();
+        producer.join(500);
+        assertTrue(producer.isAlive());
+
+        gate.countDown();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        assertTrue(list.getBlockCount() > 0);
+        assertEquals(list, flush(list, mirror));
+    }
+
+    /**
+     * Test that a thread holding a source list lock whose ownership cannot be
+     * checked is never blocked, otherwise the AWT event-dispatching thread
+     * could not read the list to catch up.
+     */
+    public void testLockHolderNotBlocked() throws Exception {
+
+        final DataList<Integer> list = new DataList<Integer>(
+            new StampedActiveList<Integer>());
+        list.setBackpressure(BackpressurePolicy.BLOCK, 1, 0,
+            TimeUnit.MILLISECONDS);
+        List<Integer> mirror = mirror(list);
+
+        blockEventDispatchThread();
+        Thread producer = new Thread() {
+            public void run() {
+                list.getReadWriteLock().writeLock().lock();
+                try {
+                    for (int i = 0; i < 20; i++) {
+                        list.add(i);
+                    }
+                } finally {
+                    list.getReadWriteLock().writeLock().unlock();
+                }
+                try {
+                    list.beginTransaction();
+                    for (int i = 0; i < 20; i++) {
+                        list.add(i, 100 + i);
+                    }
+                } finally {
+                    list.commitTransaction();
+                }
+            }
+        };
+        producer.start();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+
+        gate.countDown();
+        assertEquals(40, list.size());
+        assertEquals(list, flush(list, mirror));
+    }
+
+    /**
+     * Test, with many writers making random changes and transactions, that a
+     * list mirrored inside the AWT event-dispatching thread equals the source
+     * list.
+     */
+    public void testRandomMirror() throws Exception {
+
+        final DataList<Integer> list = new DataList<Integer>();
+        list.setBackpressure(BackpressurePolicy.BLOCK, 16, 0,
+            TimeUnit.MILLISECONDS);
+        List<Integer> mirror = mirror(list);
+        write(list);
+        assertEquals(list, flush(list, mirror));
+        assertEquals(0, refreshes);
+    }
+
+    /**
+     * Test that changes touching more than the refresh threshold are collapsed
+     * into a <tt>STRUCTURE_CHANGED</tt> event and that the mirrored list still
+     * equals the source list.
+     */
+    public void testRefreshThreshold() throws Exception {
+
+        DataList<Integer> list = new DataList<Integer>();
+        List<Integer> mirror = mirror(list);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertEquals(list, flush(list, mirror));
+        list.setRefreshThreshold(0.3);
+
+        blockEventDispatchThread();
+        Random random = new Random(1);
+        for (int i = 0; i < 400; i++) {
+            list.set(random.nextInt(list.size()), -i);
+            if (i % 50 == 0) {
+                list.remove(random.nextInt(list.size()));
+                list.add(random.nextInt(list.size()), i);
+            }
+        }
+        gate.countDown();
+        assertEquals(list, flush(list, mirror));
+        assertTrue(refreshes > 0);
+    }
+
+    /**
+     * Test that a mapping of the list, notified inside the AWT
+     * event-dispatching thread, is rebuilt by a <tt>STRUCTURE_CHANGED</tt>
+     * event.
+     */
+    public void testRefreshGroupMapping() throws Exception {
+
+        final DataList<Integer> list = new DataList<Integer>();
+        List<Integer> mirror = mirror(list);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertEquals(list, flush(list, mirror));
+        final List<GroupMapping<Integer>> mappings =
+            new ArrayList<GroupMapping<Integer>>();
+        EventQueue.invokeAndWait(new Runnable() {
+            public void run() {
+                GroupMapping<Integer> mapping =
+                    new GroupMapping<Integer>(list);
+                mapping.rebuild();
+                mappings.add(mapping);
+            }
+        });
+        list.setRefreshThreshold(0.3);
+
+        blockEventDispatchThread();
+        for (int i = 0; i < 400; i++) {
+            list.set(i * 2, -i);
+        }
+        gate.countDown();
+        assertEquals(list, flush(list, mirror));
+        assertTrue(refreshes > 0);
+
+        final List<Integer> items = new ArrayList<Integer>();
+        EventQueue.invokeAndWait(new Runnable() {
+            public void run() {
+                for (Group<Integer> group : mappings.get(0).getTarget()) {
+                    items.addAll(group.getItems());
+                }
+            }
+        });
+        assertEquals(list, items);
+    }
+
+    /**
+     * Test that changes overflowing the queue of the AWT event-dispatching
+     * thread are replaced by a refresh of the whole mirrored list and that
+     * the overflows are counted.
+     */
+    public void testQueueOverflow() throws Exception {
+
+        assertEquals(ConcurrentAssembler.DEFAULT_CAPACITY,
+            new DataList<Integer>().getQueueCapacity());
+        try {
+            new DataList<Integer>(new DefaultActiveList<Integer>(),
+                new DefaultActiveList<Integer>(), 0);
+            fail("The queue capacity must be positive!");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+
+        DataList<Integer> list = new DataList<Integer>(
+            new DefaultActiveList<Integer>(), new DefaultActiveList<Integer>(),
+            100);
+        assertEquals(128, list.getQueueCapacity());
+        List<Integer> mirror = mirror(list);
+
+        blockEventDispatchThread();
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            list.add(random.nextInt(list.size() + 1), i);
+            if (i % 3 == 0) {
+                list.remove(random.nextInt(list.size()));
+            }
+        }
+        gate.countDown();
+        assertEquals(list, flush(list, mirror));
+        assertTrue(list.getOverflowCount() > 0);
+        assertEquals(0, list.getCoalesceCount());
+    }
+
+    /**
+     * Test, with many writers making random changes and transactions and a
+     * low refresh threshold, that a list mirrored inside the AWT
+     * event-dispatching thread equals the source list.
+     */
+    public void testRandomMirrorRefresh() throws Exception {
+
+        final DataList<Integer> list = new DataList<Integer>();
+        list.setBackpressure(BackpressurePolicy.BLOCK, 16, 0,
+            TimeUnit.MILLISECONDS);
+        list.setRefreshThreshold(0.05);
+        List<Integer> mirror = mirror(list);
+        write(list);
+        assertEquals(list, flush(list, mirror));
+    }
+
+    /**
+     * Test that a move of a sorted list is applied to the list read by the AWT
+     * event-dispatching thread as a single <tt>INTERVAL_MOVED</tt> event and
+     * reaches the table as a single update of the rows between the old and
+     * the new position.
+     */
+    public void testMove() throws Exception {
+
+        DefaultActiveList<Integer> source = new DefaultActiveList<Integer>();
+        SortMapping<Integer> mapping = new SortMapping<Integer>(source);
+        mapping.setComparator(new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return i1.compareTo(i2);
+            }
+        });
+        mapping.rebuild();
+        DefaultActiveList<Integer> swingList = new DefaultActiveList<Integer>();
+        DataList<Integer> list = new DataList<Integer>(
+            (ActiveList<Integer>) mapping.getTarget(), swingList);
+        List<Integer> mirror = mirror(list);
+        for (int i = 0; i < 100; i++) {
+            source.add(i * 10);
+        }
+        assertEquals(list, flush(list, mirror));
+
+        final List<ActiveListEvent> swingEvents =
+            new ArrayList<ActiveListEvent>();
+        swingList.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                swingEvents.add(event);
+            }
+        });
+        final List<TableModelEvent> tableEvents =
+            new ArrayList<TableModelEvent>();
+        new TableModelAdapter(list).addTableModelListener(
+            new TableModelListener() {
+                public void tableChanged(TableModelEvent event) {
+                    tableEvents.add(event);
+                }
+            });
+
+        source.set(20, 555);
+        assertEquals(list, flush(list, mirror));
+        assertEquals(1, swingEvents.size());
+        ActiveListEvent event = swingEvents.get(0);
+        assertEquals(ActiveListEvent.INTERVAL_MOVED, event.getType());
+        assertEquals(20, event.getX());
+        assertEquals(20, event.getY());
+        assertEquals(55, event.getToIndex());
+        assertEquals(1, tableEvents.size());
+        TableModelEvent tableEvent = tableEvents.get(0);
+        assertEquals(TableModelEvent.UPDATE, tableEvent.getType());
+        assertEquals(20, tableEvent.getFirstRow());
+        assertEquals(55, tableEvent.getLastRow());
+
+        source.set(90, -5);
+        assertEquals(list, flush(list, mirror));
+        assertEquals(2, swingEvents.size());
+        assertEquals(0, swingEvents.get(1).getToIndex());
+        assertEquals(0, tableEvents.get(1).getFirstRow());
+        assertEquals(90, tableEvents.get(1).getLastRow());
+    }
+
+    /* /////////////////////////////////////////////////////////////////////////
+     * Private methods.
+     */
+
+    /**
+     * Make random changes and transactions to the given list from many
+     * writers.
+     * @param list The list to be changed.
+     * @throws Exception If a writer fails.
+     */
+    private void write(final DataList<Integer> list) throws Exception {
+
+        final int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int w = 0; w < writers; w++) {
+            final int seed = w;
+            futures.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 2000; i++) {
+                        if (random.nextInt(10) == 0) {
+                            try {
+                                list.beginTransaction();
+                                list.add(0, i);
+                                list.add(i);
+                                list.set(random.nextInt(list.size()), -i);
+                            } finally {
+                                list.commitTransaction();
+                            }
+                        } else if (random.nextInt(3) == 0) {
+                            list.removeAll(Arrays.asList(random.nextInt(50)));
+                        } else {
+                            list.add(random.nextInt(50));
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Block the AWT event-dispatching thread until the gate is opened.
+     * @throws Exception If the thread cannot be blocked.
+     */
+    private void blockEventDispatchThread() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        EventQueue.invokeLater(new Runnable() {
+            public void run() {
+                blocked.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        blocked.await();
+    }
+
+    /**
+     * Return a list mirroring the given list inside the AWT event-dispatching
+     * thread.
+     * @param list The list to be mirrored.
+     * @return The mirror list.
+     */
+    private List<Integer> mirror(final DataList<Integer> list) {
+        final ActiveList<Integer> mirror = new DefaultActiveList<Integer>();
+        list.addActiveListListener(new ActiveListListener() {
+            public void contentsChanged(ActiveListEvent event) {
+                if (event.getType() == ActiveListEvent.STRUCTURE_CHANGED) {
+                    refreshes++;
+                }
+                ActiveListUtility.synchronize(list, mirror, event);
+            }
+        });
+        return mirror;
+    }
+
+    /**
+     * Wait until the AWT event-dispatching thread has processed all changes
+     * and return a copy of the mirror list made inside it.
+     * @param list The source list.
+     * @param mirror The mirror list.
+     * @return The mirror list content.
+     * @throws Exception If the event-dispatching thread cannot be waited.
+     */
+    private List<Integer> flush(DataList<Integer> list,
+            final List<Integer> mirror) throws Exception {
+        final List<Integer> copy = new ArrayList<Integer>();
+        for (int i = 0; (i < 100) && (list.getPendingChanges() > 0); i++) {
+            Thread.sleep(10);
+        }
+        EventQueue.invokeAndWait(new Runnable() {
+            public void run() {
+                copy.addAll(mirror);
+            }
+        });
+        return copy;
+    }
+}